@@ -23,7 +23,13 @@
  */
 package enumj;
 
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Abstract implementation of the {@code Enumerator} interface.
@@ -39,6 +45,12 @@ import java.util.NoSuchElementException;
  */
 abstract class AbstractEnumerator<E> implements Enumerator<E> {
 
+    /**
+     * Largest initial capacity that an upper bound, rather than an exact
+     * size, may request from {@link #capacityOf(java.util.Iterator, int)}.
+     */
+    static final int MAX_ESTIMATED_CAPACITY = 1 << 16;
+
     private boolean started;
     private boolean hasNextHasBeenCalled;
     private boolean hasNextHasThrown;
@@ -92,6 +104,486 @@ abstract class AbstractEnumerator<E> implements Enumerator<E> {
         }
     }
 
+    @Override
+    public final boolean tryNext(Consumer<? super E> action) {
+        Checks.ensureNotNull(action, Messages.NULL_ENUMERATOR_CONSUMER);
+        if (done) {
+            return false;
+        }
+
+        started = true;
+        hasNextHasThrown = false;
+        hasNextHasBeenCalled = false;
+        if (internalTryNext(action)) {
+            return true;
+        }
+
+        done = true;
+        safeCleanup();
+        return false;
+    }
+    @Override
+    public final void forEachRemaining(Consumer<? super E> action) {
+        Checks.ensureNotNull(action, Messages.NULL_ENUMERATOR_CONSUMER);
+        pushWhile(e -> {
+            action.accept(e);
+            return true;
+        });
+    }
+
+    /**
+     * Returns a {@code Spliterator} iterating over the current enumerator.
+     * <p>
+     * If the current enumerator knows its exact size, the returned
+     * {@link Spliterator} reports {@link Spliterator#SIZED} and
+     * {@link Spliterator#SUBSIZED}. If the current enumerator can split,
+     * the returned {@link Spliterator} splits evenly by way of
+     * {@link #trySplit()}, otherwise it splits by buffering batches of
+     * elements.
+     * </p>
+     *
+     * @return the new {@link Spliterator}.
+     * @see #exactSize()
+     * @see EnumeratorSpliterator
+     */
+    @Override
+    public Spliterator<E> asSpliterator() {
+        Checks.ensureNonEnumerating(this);
+        return new EnumeratorSpliterator<>(this);
+    }
+    /**
+     * Returns the number of elements in the current enumerator.
+     * <p>
+     * If the current enumerator knows its exact size and enumerating it
+     * runs no user code, such as mappers or peek actions, this method
+     * returns the size without enumerating. Otherwise, it enumerates.
+     * </p>
+     *
+     * @return the number of enumerated elements.
+     * @see #exactSize()
+     */
+    @Override
+    public long count() {
+        final long size = trustedSize();
+        if (size < 0) {
+            return Enumerator.super.count();
+        }
+        finish();
+        return size;
+    }
+    /**
+     * Returns the element at the provided index within the sequence
+     * of enumerated elements.
+     * <p>
+     * If the current enumerator knows its exact size and enumerating it
+     * runs no user code, an {@code index} past the end returns an empty
+     * {@link Optional} without enumerating.
+     * </p>
+     *
+     * @param index {@code 0}-based index for the element to return.
+     * @return {@link Optional} instance containing the element at the
+     * required <code>index</code>.
+     * @exception IllegalArgumentException <code>index</code> is negative.
+     */
+    @Override
+    public Optional<E> elementAt(long index) {
+        Checks.ensureNonNegative(index, Messages.NEGATIVE_ENUMERATOR_INDEX);
+        final long size = trustedSize();
+        if (size >= 0 && index >= size) {
+            finish();
+            return Optional.empty();
+        }
+        return Enumerator.super.elementAt(index);
+    }
+    /**
+     * Returns the last element of the current enumerator, if any.
+     * <p>
+     * If the current enumerator knows its exact size, can skip ahead and
+     * runs no user code, such as mappers or peek actions, while
+     * enumerating, this method skips straight to the last element.
+     * Otherwise, it enumerates every element, running the user code on
+     * each of them.
+     * </p>
+     *
+     * @return {@link Optional} instance containing the last element.
+     */
+    @Override
+    public Optional<E> last() {
+        final long size = trustedSize();
+        if (size > 1) {
+            skipAhead(size-1);
+        }
+        return Enumerator.super.last();
+    }
+
+    /**
+     * Gets the exact size of the current enumerator, if known and if
+     * enumerating it runs no user code.
+     *
+     * @return the number of remaining elements, {@code -1} if unknown or
+     * if the elements must get enumerated to run the user code.
+     */
+    private long trustedSize() {
+        return hasCallbacks() ? -1 : exactSize();
+    }
+
+    /**
+     * Pushes the remaining elements into {@code sink} for as long as
+     * {@code sink} returns {@code true}.
+     * <p>
+     * This is the push-based counterpart of {@link #hasNext()} and
+     * {@link #next()}: the state machine of {@link AbstractEnumerator} gets
+     * updated only once per call rather than once per element, while
+     * {@link #internalPushWhile(java.util.function.Predicate)} drives the
+     * elements to {@code sink} in a tight loop.
+     * </p>
+     * <p>
+     * When {@code sink} returns {@code false}, the element it received is
+     * consumed and the remaining elements stay available for enumeration.
+     * </p>
+     *
+     * @param sink {@link Predicate} receiving the enumerated elements and
+     * telling whether to continue or not.
+     * @return {@code true} if all the elements have been pushed,
+     * {@code false} if {@code sink} stopped the enumeration.
+     */
+    final boolean pushWhile(Predicate<? super E> sink) {
+        if (done) {
+            return true;
+        }
+
+        started = true;
+        hasNextHasThrown = false;
+        hasNextHasBeenCalled = false;
+        if (!internalPushWhile(sink)) {
+            return false;
+        }
+
+        done = true;
+        safeCleanup();
+        return true;
+    }
+
+    /**
+     * Skips over at most {@code n} elements without enumerating them.
+     * <p>
+     * Sources that can move ahead directly, such as arrays, skip in constant
+     * time. The others skip nothing and leave the skipping to the caller.
+     * </p>
+     *
+     * @param n maximum number of elements to skip.
+     * @return number of elements actually skipped.
+     * @see #internalSkipAhead(long)
+     */
+    final long skipAhead(long n) {
+        if (done || n <= 0) {
+            return 0;
+        }
+
+        started = true;
+        hasNextHasThrown = false;
+        hasNextHasBeenCalled = false;
+        return internalSkipAhead(n);
+    }
+
+    /**
+     * Splits off an enumerator over the first part of the remaining
+     * elements, if possible.
+     * <p>
+     * On success, the current enumerator enumerates only the elements that
+     * follow the ones of the returned enumerator. Sources that know their
+     * elements by index split in halves.
+     * </p>
+     *
+     * @return the new {@link AbstractEnumerator} on success, {@code null}
+     * otherwise.
+     * @see #internalTrySplit()
+     */
+    final AbstractEnumerator<E> trySplit() {
+        return done ? null : internalTrySplit();
+    }
+
+    /**
+     * Gets the exact number of elements left to enumerate, if known.
+     *
+     * @return the number of remaining elements, {@code -1} if unknown.
+     * @see #internalExactSize()
+     * @see #estimatedSize()
+     */
+    final long exactSize() {
+        return done ? 0 : internalExactSize();
+    }
+    /**
+     * Gets an upper bound of the number of elements left to enumerate.
+     *
+     * @return upper bound of the number of remaining elements,
+     * {@code Long.MAX_VALUE} if unknown.
+     * @see #internalEstimatedSize()
+     * @see #exactSize()
+     */
+    final long estimatedSize() {
+        return done ? 0 : internalEstimatedSize();
+    }
+    /**
+     * Gets whether enumerating the remaining elements runs user code, such
+     * as mappers or peek actions.
+     *
+     * @return {@code true} if enumerating may run user code, {@code false}
+     * otherwise.
+     * @see #internalHasCallbacks()
+     */
+    final boolean hasCallbacks() {
+        return !done && internalHasCallbacks();
+    }
+    /**
+     * Gets whether the current enumerator holds resources that only ending
+     * it releases, such as work running ahead of the enumeration.
+     *
+     * @return {@code true} if there are such resources, {@code false}
+     * otherwise.
+     * @see #internalHoldsResources()
+     */
+    final boolean holdsResources() {
+        return !done && internalHoldsResources();
+    }
+
+    /**
+     * Gets the exact number of elements left in the given {@code source},
+     * if known.
+     * <p>
+     * Only {@link AbstractEnumerator}, {@link IntRangeEnumerator} and
+     * {@link LongRangeEnumerator} instances may know their size.
+     * </p>
+     *
+     * @param source {@link Iterator} whose size to get.
+     * @return the number of remaining elements, {@code -1} if unknown.
+     */
+    static long exactSizeOf(Iterator<?> source) {
+        if (source instanceof AbstractEnumerator) {
+            return ((AbstractEnumerator<?>)source).exactSize();
+        }
+        if (source instanceof IntRangeEnumerator) {
+            return ((IntRangeEnumerator)source).exactSize();
+        }
+        if (source instanceof LongRangeEnumerator) {
+            return ((LongRangeEnumerator)source).exactSize();
+        }
+        return -1;
+    }
+    /**
+     * Gets an upper bound of the number of elements left in the given
+     * {@code source}.
+     *
+     * @param source {@link Iterator} whose size to estimate.
+     * @return upper bound of the number of remaining elements,
+     * {@code Long.MAX_VALUE} if unknown.
+     */
+    static long estimatedSizeOf(Iterator<?> source) {
+        if (source instanceof AbstractEnumerator) {
+            return ((AbstractEnumerator<?>)source).estimatedSize();
+        }
+        final long size = exactSizeOf(source);
+        return (size < 0) ? Long.MAX_VALUE : size;
+    }
+
+    /**
+     * Gets whether enumerating the remaining elements of the given
+     * {@code source} runs user code.
+     * <p>
+     * Only {@link AbstractEnumerator}, {@link IntRangeEnumerator} and
+     * {@link LongRangeEnumerator} instances may be free of user code.
+     * </p>
+     *
+     * @param source {@link Iterator} to check.
+     * @return {@code true} if enumerating {@code source} may run user code,
+     * {@code false} otherwise.
+     */
+    static boolean hasCallbacksOf(Iterator<?> source) {
+        if (source instanceof AbstractEnumerator) {
+            return ((AbstractEnumerator<?>)source).hasCallbacks();
+        }
+        return !(source instanceof IntRangeEnumerator
+                 || source instanceof LongRangeEnumerator);
+    }
+
+    /**
+     * Splits off an {@code Iterator} over the first part of the remaining
+     * elements of the given {@code source}, if possible.
+     * <p>
+     * Only {@link AbstractEnumerator}, {@link IntRangeEnumerator} and
+     * {@link LongRangeEnumerator} instances may split.
+     * </p>
+     *
+     * @param <T> type of enumerated elements.
+     * @param source {@link Iterator} to split.
+     * @return the new {@link Iterator} on success, {@code null} otherwise.
+     * @see #trySplit()
+     */
+    static <T> Iterator<T> trySplitOf(Iterator<T> source) {
+        if (source instanceof AbstractEnumerator) {
+            return ((AbstractEnumerator<T>)source).trySplit();
+        }
+        if (source instanceof IntRangeEnumerator) {
+            return (Iterator<T>)((IntRangeEnumerator)source).trySplit();
+        }
+        if (source instanceof LongRangeEnumerator) {
+            return (Iterator<T>)((LongRangeEnumerator)source).trySplit();
+        }
+        return null;
+    }
+
+    /**
+     * Releases the resources of the given {@code source}, which the
+     * caller stops enumerating.
+     * <p>
+     * The caller may not be the only one to hold {@code source}, so
+     * {@code source} keeps its remaining elements unless it holds
+     * resources that only ending it releases. An {@link AbstractEnumerator}
+     * that does, as told by {@link #internalHoldsResources()}, ends and
+     * cleans up. Otherwise, this method does nothing.
+     * </p>
+     *
+     * @param source {@link Iterator} to abandon.
+     * @see #release(java.util.Iterator)
+     */
+    static void abandon(Iterator<?> source) {
+        if (source instanceof AbstractEnumerator) {
+            final AbstractEnumerator<?> enumerator =
+                    (AbstractEnumerator<?>)source;
+            if (enumerator.holdsResources()) {
+                enumerator.finish();
+            }
+        }
+    }
+    /**
+     * Ends the enumeration of the given {@code source}, which the caller
+     * owns and nobody is going to enumerate any further.
+     * <p>
+     * If {@code source} is an {@link AbstractEnumerator} that has not
+     * ended, it ends and cleans up, releasing the resources it holds.
+     * Otherwise, this method does nothing.
+     * </p>
+     *
+     * @param source {@link Iterator} to release.
+     * @see #abandon(java.util.Iterator)
+     * @see #cleanup()
+     */
+    static void release(Iterator<?> source) {
+        if (source instanceof AbstractEnumerator) {
+            ((AbstractEnumerator<?>)source).finish();
+        }
+    }
+    /**
+     * Gets whether the given {@code source} holds resources that
+     * {@link #abandon(java.util.Iterator)} must release.
+     *
+     * @param source {@link Iterator} to check.
+     * @return {@code true} if {@code source} holds such resources,
+     * {@code false} otherwise.
+     */
+    static boolean holdsResourcesOf(Iterator<?> source) {
+        return (source instanceof AbstractEnumerator)
+               && ((AbstractEnumerator<?>)source).holdsResources();
+    }
+
+    /**
+     * Gets the error to throw in the enumerating thread for the given
+     * {@code failure} of an asynchronous computation.
+     *
+     * @param failure error raised in another thread or carried by a
+     * future.
+     * @return {@code failure} if unchecked, {@code failure} wrapped into a
+     * {@link CompletionException} otherwise.
+     * @throws Error {@code failure} is an {@link Error}.
+     */
+    static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof Error) {
+            throw (Error)failure;
+        }
+        return (failure instanceof RuntimeException)
+               ? (RuntimeException)failure
+               : new CompletionException(failure);
+    }
+
+    /**
+     * Gets the initial capacity of a collection about to receive the
+     * remaining elements of the given {@code source}.
+     * <p>
+     * An exact size gets used as it is, while an upper bound gets capped
+     * at {@link #MAX_ESTIMATED_CAPACITY} so that a selective filter does
+     * not allocate for elements that never come.
+     * </p>
+     *
+     * @param source {@link Iterator} whose elements are about to be
+     * collected.
+     * @param defaultCapacity capacity to return when the size of
+     * {@code source} is unknown.
+     * @return the initial capacity.
+     */
+    static int capacityOf(Iterator<?> source, int defaultCapacity) {
+        final long size = exactSizeOf(source);
+        if (size >= 0) {
+            return (int)Math.min(size, Integer.MAX_VALUE - 8);
+        }
+        final long bound = estimatedSizeOf(source);
+        return (bound == Long.MAX_VALUE)
+               ? defaultCapacity
+               : (int)Math.min(bound, MAX_ESTIMATED_CAPACITY);
+    }
+
+    /**
+     * Gets the initial capacity of a hash table about to receive the
+     * remaining elements of the given {@code source}, so that it does not
+     * need to grow under the default load factor.
+     *
+     * @param source {@link Iterator} whose elements are about to be
+     * collected.
+     * @return the initial capacity.
+     * @see #capacityOf(java.util.Iterator, int)
+     */
+    static int hashCapacityOf(Iterator<?> source) {
+        final int size = capacityOf(source, 12);
+        return (size < (1 << 30)) ? (int)(size / 0.75f) + 1 : 1 << 30;
+    }
+
+    /**
+     * Pushes the remaining elements of the given {@code source} into
+     * {@code sink} for as long as {@code sink} returns {@code true}.
+     * <p>
+     * If {@code source} is an {@link AbstractEnumerator} then this method
+     * uses {@link #pushWhile(java.util.function.Predicate)}, otherwise it
+     * falls back to {@link Iterator#hasNext()} and {@link Iterator#next()}.
+     * </p>
+     *
+     * @param <T> type of enumerated elements.
+     * @param source {@link Iterator} to push elements from.
+     * @param sink {@link Predicate} receiving the enumerated elements and
+     * telling whether to continue or not.
+     * @return {@code true} if all the elements have been pushed,
+     * {@code false} if {@code sink} stopped the enumeration.
+     */
+    static <T> boolean forEachWhile(Iterator<T>          source,
+                                    Predicate<? super T> sink) {
+        if (source instanceof AbstractEnumerator) {
+            return ((AbstractEnumerator<T>)source).pushWhile(sink);
+        }
+        while(source.hasNext()) {
+            if (!sink.test(source.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void finish() {
+        if (!done) {
+            started = true;
+            hasNextHasThrown = false;
+            hasNextHasBeenCalled = false;
+            done = true;
+            safeCleanup();
+        }
+    }
     private boolean safeHasNext() {
         try {
             return internalHasNext();
@@ -130,6 +622,143 @@ abstract class AbstractEnumerator<E> implements Enumerator<E> {
      * @return next enumerated element.
      */
     protected abstract E internalNext();
+    /**
+     * Passes the next enumerated element, if any, to {@code action}.
+     * <p>
+     * This method is the internal counterpart of
+     * {@link #tryNext(java.util.function.Consumer)}. By default it calls
+     * {@link #internalHasNext()} and {@link #internalNext()}.
+     * Implementations that can deliver their next element in a single step
+     * should override it.
+     * </p>
+     *
+     * @param action {@link Consumer} receiving the next element.
+     * @return {@code true} if {@code action} received an element,
+     * {@code false} if there are no more elements.
+     * @see #tryNext(java.util.function.Consumer)
+     */
+    protected boolean internalTryNext(Consumer<? super E> action) {
+        if (!internalHasNext()) {
+            return false;
+        }
+        action.accept(internalNext());
+        return true;
+    }
+    /**
+     * Pushes the remaining elements into {@code sink} for as long as
+     * {@code sink} returns {@code true}.
+     * <p>
+     * This method is the internal counterpart of
+     * {@link #forEachRemaining(java.util.function.Consumer)}. By default it
+     * loops over {@link #internalHasNext()} and {@link #internalNext()}.
+     * Implementations that can deliver their elements faster should
+     * override it.
+     * </p>
+     *
+     * @param sink {@link Predicate} receiving the enumerated elements and
+     * telling whether to continue or not.
+     * @return {@code true} if all the elements have been pushed,
+     * {@code false} if {@code sink} stopped the enumeration.
+     * @see #pushWhile(java.util.function.Predicate)
+     */
+    protected boolean internalPushWhile(Predicate<? super E> sink) {
+        while(internalHasNext()) {
+            if (!sink.test(internalNext())) {
+                return false;
+            }
+        }
+        return true;
+    }
+    /**
+     * Skips over at most {@code n} elements without enumerating them.
+     * <p>
+     * The default implementation skips nothing.
+     * </p>
+     *
+     * @param n positive maximum number of elements to skip.
+     * @return number of elements actually skipped.
+     * @see #skipAhead(long)
+     */
+    protected long internalSkipAhead(long n) {
+        return 0;
+    }
+    /**
+     * Splits off an enumerator over the first part of the remaining
+     * elements.
+     * <p>
+     * This method is the internal counterpart of {@link #trySplit()}. The
+     * default implementation does not split.
+     * </p>
+     *
+     * @return the new {@link AbstractEnumerator} or {@code null}.
+     * @see #trySplit()
+     */
+    protected AbstractEnumerator<E> internalTrySplit() {
+        return null;
+    }
+    /**
+     * Gets the exact number of elements left to enumerate, if known.
+     * <p>
+     * The default implementation does not know the size. Implementations
+     * that know it must keep it exact at all times, because
+     * {@link #count()} trusts it.
+     * </p>
+     *
+     * @return the number of remaining elements, {@code -1} if unknown.
+     * @see #exactSize()
+     */
+    protected long internalExactSize() {
+        return -1;
+    }
+    /**
+     * Gets whether enumerating the remaining elements runs user code, such
+     * as mappers or peek actions.
+     * <p>
+     * The default implementation assumes it does. {@link #count()},
+     * {@link #elementAt(long)} and {@link #last()} trust the exact size
+     * only when this method returns {@code false}.
+     * </p>
+     *
+     * @return {@code true} if enumerating may run user code, {@code false}
+     * otherwise.
+     * @see #hasCallbacks()
+     */
+    protected boolean internalHasCallbacks() {
+        return true;
+    }
+    /**
+     * Gets whether the current enumerator holds resources that only ending
+     * it releases, such as computations still in flight or open spill
+     * files.
+     * <p>
+     * The default implementation holds none. Pipelines that stop
+     * enumerating a source abandon it, ending it only if this method
+     * returns {@code true}, so that a source the user still holds keeps
+     * its remaining elements otherwise.
+     * </p>
+     *
+     * @return {@code true} if there are such resources, {@code false}
+     * otherwise.
+     * @see #abandon(java.util.Iterator)
+     */
+    protected boolean internalHoldsResources() {
+        return false;
+    }
+    /**
+     * Gets an upper bound of the number of elements left to enumerate.
+     * <p>
+     * The default implementation returns {@link #internalExactSize()}, if
+     * known.
+     * </p>
+     *
+     * @return upper bound of the number of remaining elements,
+     * {@code Long.MAX_VALUE} if unknown.
+     * @see #estimatedSize()
+     */
+    protected long internalEstimatedSize() {
+        final long size = internalExactSize();
+        return (size < 0) ? Long.MAX_VALUE : size;
+    }
     /**
      * Cleans up the internals of the current enumerator when enumeration
      * ends.
@@ -63,4 +63,20 @@ abstract class AbstractPipeMultiProcessor<T,R>
      * @see AbstractPipeProcessor
      */
     public abstract boolean needsValue();
+
+    /**
+     * Signals that no more input values are coming.
+     * <p>
+     * Processors that hold back input values until they have enough of
+     * them may produce their last output values here. By default this
+     * method produces none.
+     * </p>
+     *
+     * @return true if the processor has produced output values, false
+     * otherwise.
+     * @see PipeEnumerator
+     */
+    public boolean processInputEnd() {
+        return false;
+    }
 }
@@ -82,6 +82,13 @@ abstract class AbstractPipeProcessor<T,R> {
      * @see PipeSource
      */
     private PipeSource source;
+    /**
+     * The position of this processor within the array snapshot of the
+     * pipeline that {@code PipeEnumerator} iterates upon.
+     *
+     * @see PipeEnumerator
+     */
+    private int chainIndex = -1;
 
     /**
      * Returns the value of {@code AbstractPipeProcessor.next}.
@@ -110,6 +117,21 @@ abstract class AbstractPipeProcessor<T,R> {
         }
     }
 
+    /**
+     * Changes the value of {@code AbstractPipeProcessor.next}.
+     * <p>
+     * Unlike {@link #setNext(enumj.AbstractPipeProcessor)}, this method
+     * allows {@link #next} to change. It exists for {@link PipeOptimizer},
+     * which rewrites the pipeline.
+     * </p>
+     *
+     * @param next new value for {@link #next}.
+     * @see #setNext(enumj.AbstractPipeProcessor)
+     */
+    public void relinkNext(AbstractPipeProcessor<? extends R,?> next) {
+        this.next = next;
+    }
+
     /**
      * Gets the value of {@code AbstractPipeProcessor.source}.
      *
@@ -136,6 +158,99 @@ abstract class AbstractPipeProcessor<T,R> {
         }
     }
 
+    /**
+     * Gets the value of {@code AbstractPipeProcessor.chainIndex}.
+     *
+     * @return Value of {@link #chainIndex}.
+     * @see #setChainIndex(int)
+     */
+    public int getChainIndex() {
+        return chainIndex;
+    }
+    /**
+     * Sets the value of {@code AbstractPipeProcessor.chainIndex}.
+     * <p>
+     * {@link PipeEnumerator} sets {@link #chainIndex} whenever it rebuilds
+     * the array snapshot of its pipeline.
+     * </p>
+     *
+     * @param index Value for {@link #chainIndex}.
+     * @see #getChainIndex()
+     */
+    public void setChainIndex(int index) {
+        this.chainIndex = index;
+    }
+
+    /**
+     * Creates a new {@code AbstractPipeProcessor} that processes elements
+     * just like this one did before processing any.
+     * <p>
+     * The copy has no {@link #next} and no {@link #source}. This method
+     * returns {@code null} by default, meaning that the processor cannot
+     * be copied.
+     * </p>
+     *
+     * @return new {@link AbstractPipeProcessor} or {@code null}.
+     * @see PipeTemplate
+     */
+    public AbstractPipeProcessor<T,R> copy() {
+        return null;
+    }
+
+    /**
+     * Gets whether the output of this processor for an element does not
+     * depend on the elements processed before.
+     * <p>
+     * The pipelines made only of stateless processors that can be copied
+     * may split along with their source, each part running its own copies.
+     * This method returns {@code false} by default.
+     * </p>
+     *
+     * @return {@code true} if the processor is stateless, {@code false}
+     * otherwise.
+     * @see #copy()
+     * @see PipeEnumerator
+     */
+    public boolean isStateless() {
+        return false;
+    }
+
+    /**
+     * Gets an upper bound of the number of elements that this processor
+     * yields when at most {@code inputSize} elements enter it.
+     * <p>
+     * {@link PipeEnumerator} calls this method only before processing
+     * starts. By default, the bound is unknown.
+     * </p>
+     *
+     * @param inputSize upper bound of the number of elements entering
+     * this processor, {@code Long.MAX_VALUE} if unknown.
+     * @return upper bound of the number of yielded elements,
+     * {@code Long.MAX_VALUE} if unknown.
+     * @see #exactOutputSize(long)
+     */
+    public long outputSize(long inputSize) {
+        return Long.MAX_VALUE;
+    }
+    /**
+     * Gets the exact number of elements that this processor yields when
+     * exactly {@code inputSize} elements enter it, if known.
+     * <p>
+     * {@link PipeEnumerator} calls this method only before processing
+     * starts. By default, the size is unknown. Processors whose output size
+     * depends only on the number of input elements, such as
+     * {@link MapPipeProcessor} and {@link LimitPipeProcessor}, override it.
+     * </p>
+     *
+     * @param inputSize exact number of elements entering this processor,
+     * {@code -1} if unknown.
+     * @return exact number of yielded elements, {@code -1} if unknown.
+     * @see #outputSize(long)
+     */
+    public long exactOutputSize(long inputSize) {
+        return -1;
+    }
+
     // ---------------------------------------------------------------------- //
 
     /**
@@ -23,6 +23,9 @@
  */
 package enumj;
 
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
 /**
  * {@code Enumerator} implementation for arrays.
  *
@@ -33,6 +36,7 @@ final class ArrayEnumerator<E> extends AbstractEnumerator<E> {
 
     private E[] source;
     private int index;
+    private int fence;
 
     /**
      * Constructs an {@code ArrayEnumerator} that enumerates over the given
@@ -47,17 +51,111 @@ final class ArrayEnumerator<E> extends AbstractEnumerator<E> {
     public ArrayEnumerator(E[] source) {
         Checks.ensureNotNull(source, Messages.NULL_ENUMERATOR_SOURCE);
         this.source = source;
+        this.fence = source.length;
+    }
+
+    /**
+     * Constructs an {@code ArrayEnumerator} that enumerates over the given
+     * range of the array.
+     *
+     * @param source Array to enumerate.
+     * @param index index of the first element to enumerate.
+     * @param fence index past the last element to enumerate.
+     * @see #internalTrySplit()
+     */
+    ArrayEnumerator(E[] source, int index, int fence) {
+        this.source = source;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    /**
+     * Gets the array that this enumerator enumerates over.
+     *
+     * @return array of enumerated elements.
+     * @see #getFence()
+     * @see #detach()
+     */
+    E[] getElements() {
+        return source;
+    }
+    /**
+     * Gets the index past the last element that this enumerator enumerates
+     * over.
+     *
+     * @return index within {@link #getElements()}.
+     */
+    int getFence() {
+        return fence;
+    }
+    /**
+     * Hands the remaining elements over to a caller that reads them
+     * directly from {@link #getElements()}.
+     * <p>
+     * The current enumerator has no elements left after this call.
+     * </p>
+     *
+     * @return index of the first remaining element.
+     */
+    int detach() {
+        final int result = index;
+        index = fence;
+        return result;
     }
 
     @Override
     protected boolean internalHasNext() {
-        return index < source.length;
+        return index < fence;
     }
     @Override
     protected E internalNext() {
         return source[index++];
     }
     @Override
+    protected boolean internalTryNext(Consumer<? super E> action) {
+        if (index >= fence) {
+            return false;
+        }
+        action.accept(source[index++]);
+        return true;
+    }
+    @Override
+    protected boolean internalPushWhile(Predicate<? super E> sink) {
+        final E[] elements = source;
+        while(index < fence) {
+            if (!sink.test(elements[index++])) {
+                return false;
+            }
+        }
+        return true;
+    }
+    @Override
+    protected long internalSkipAhead(long n) {
+        final int skipped = (int)Math.min(n, fence - index);
+        index += skipped;
+        return skipped;
+    }
+    @Override
+    protected long internalExactSize() {
+        return fence - index;
+    }
+    @Override
+    protected boolean internalHasCallbacks() {
+        return false;
+    }
+    @Override
+    protected AbstractEnumerator<E> internalTrySplit() {
+        final int mid = (index + fence) >>> 1;
+        if (mid <= index) {
+            return null;
+        }
+        final ArrayEnumerator<E> prefix = new ArrayEnumerator<>(source,
+                                                                index,
+                                                                mid);
+        index = mid;
+        return prefix;
+    }
+    @Override
     protected void cleanup() {
         source = null;
     }
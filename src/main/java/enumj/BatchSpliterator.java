@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * {@code Spliterator} iterating over an {@code Iterator} of unknown size
+ * that splits off batches of pulled elements.
+ * <p>
+ * Every split pulls the next batch of elements into an array and hands
+ * out a {@link Spliterator} over it, which the workers of a parallel
+ * stream split further on their own. Only the thread that owns this
+ * {@link Spliterator} pulls from the source, so pulling needs no locks.
+ * </p>
+ * <p>
+ * The batches grow geometrically, so that cheap sources soon hand out
+ * large batches, but the time to pull a batch stays around
+ * {@link #TARGET_BATCH_NANOS}, so that expensive sources keep the workers
+ * busy instead of making them wait for a batch to fill.
+ * </p>
+ *
+ * @param <E> type of iterated elements.
+ * @see Enumerator#asParallelStream()
+ * @see EnumeratorSpliterator
+ */
+final class BatchSpliterator<E> implements Spliterator<E> {
+
+    /**
+     * Number of elements in the first batch.
+     */
+    static final int  INITIAL_BATCH = 1 << 4;
+    /**
+     * Largest number of elements in a batch.
+     */
+    static final int  MAX_BATCH = 1 << 20;
+    /**
+     * Time, in nanoseconds, that pulling a batch should take at most,
+     * unless the batch has a single element.
+     */
+    static final long TARGET_BATCH_NANOS = 1_000_000;
+
+    private final Iterator<E> source;
+    private       int         batch;
+
+    /**
+     * Constructs a {@code BatchSpliterator} instance.
+     *
+     * @param source {@link Iterator} to iterate over.
+     */
+    BatchSpliterator(Iterator<E> source) {
+        this.source = source;
+        this.batch = INITIAL_BATCH;
+    }
+
+    /**
+     * Gets the number of elements of the batch to pull after a batch of
+     * {@code size} elements took {@code nanos} nanoseconds to pull.
+     *
+     * @param size number of elements in the last batch.
+     * @param nanos time, in nanoseconds, that pulling the last batch took.
+     * @return number of elements in the next batch.
+     */
+    static int nextBatch(int size, long nanos) {
+        final long perElement = Math.max(nanos / size, 1);
+        final long bound = Math.max(TARGET_BATCH_NANOS / perElement, 1);
+        return (int)Math.min(Math.min(2L*size, bound), MAX_BATCH);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+        if (!source.hasNext()) {
+            return false;
+        }
+        action.accept(source.next());
+        return true;
+    }
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+        source.forEachRemaining(action);
+    }
+    @Override
+    public Spliterator<E> trySplit() {
+        if (!source.hasNext()) {
+            return null;
+        }
+        final long remaining = AbstractEnumerator.estimatedSizeOf(source);
+        final Object[] elements =
+                new Object[(int)Math.max(Math.min(batch, remaining), 1)];
+        int size = 0;
+        final long start = System.nanoTime();
+        do {
+            elements[size++] = source.next();
+        } while(size < elements.length && source.hasNext());
+        batch = nextBatch(size, System.nanoTime() - start);
+        return Spliterators.spliterator(elements, 0, size, ORDERED);
+    }
+    @Override
+    public long estimateSize() {
+        return AbstractEnumerator.estimatedSizeOf(source);
+    }
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Budget of the memory that a {@code CachedEnumerable} may keep cached.
+ * <p>
+ * A budget consists of a maximum total cost of the cached elements, an
+ * estimator giving the cost of each element and an eviction policy. The
+ * cached elements get kept in chunks. When the total cost of the kept
+ * chunks exceeds the budget, the chunks chosen by the eviction policy get
+ * dropped, with the exception of the chunk being filled. Enumerators that
+ * reach a dropped chunk re-derive its elements from the source by skipping
+ * to them, so that exceeding the budget costs some re-computation rather
+ * than all caching. This requires the source to enumerate the same
+ * elements every time.
+ * </p>
+ * <p>
+ * Nothing gets dropped when the source can be enumerated only once.
+ * </p>
+ * <p>
+ * This is a <em>value-based</em> class.
+ * </p>
+ *
+ * @param <E> type of cached elements.
+ * @see Enumerable#cached(enumj.CacheBudget)
+ */
+public final class CacheBudget<E> {
+
+    /**
+     * Policy choosing the chunks to drop when the cache exceeds its budget.
+     */
+    public enum Eviction {
+        /**
+         * Keeps the first chunks and drops the latest ones.
+         */
+        KEEP_HEAD,
+        /**
+         * Keeps a window of the latest chunks and drops the first ones.
+         */
+        KEEP_TAIL,
+        /**
+         * Drops the chunks that have been least recently read.
+         */
+        LRU
+    }
+
+    private final long                      maxCost;
+    private final ToLongFunction<? super E> estimator;
+    private final Eviction                  eviction;
+
+    private CacheBudget(long                      maxCost,
+                        ToLongFunction<? super E> estimator,
+                        Eviction                  eviction) {
+        this.maxCost = maxCost;
+        this.estimator = estimator;
+        this.eviction = eviction;
+    }
+
+    /**
+     * Creates a {@code CacheBudget} of a maximum number of elements, with
+     * {@link Eviction#LRU} eviction.
+     *
+     * @param <E> type of cached elements.
+     * @param maxElements maximum number of cached elements.
+     * @return new {@link CacheBudget}.
+     * @exception IllegalArgumentException <code>maxElements</code> is not
+     * positive.
+     */
+    public static <E> CacheBudget<E> elements(long maxElements) {
+        Checks.ensurePositive(maxElements, Messages.NON_POSITIVE_CACHE_BUDGET);
+        return new CacheBudget<>(maxElements, e -> 1, Eviction.LRU);
+    }
+
+    /**
+     * Creates a {@code CacheBudget} of a maximum number of bytes, with
+     * {@link Eviction#LRU} eviction.
+     *
+     * @param <E> type of cached elements.
+     * @param maxBytes maximum number of bytes of the cached elements.
+     * @param estimator {@link ToLongFunction} estimating the number of bytes
+     * of an element.
+     * @return new {@link CacheBudget}.
+     * @exception IllegalArgumentException <code>maxBytes</code> is not
+     * positive or <code>estimator</code> is null.
+     */
+    public static <E> CacheBudget<E> bytes(
+            long                      maxBytes,
+            ToLongFunction<? super E> estimator) {
+        Checks.ensurePositive(maxBytes, Messages.NON_POSITIVE_CACHE_BUDGET);
+        Checks.ensureNotNull(estimator, Messages.NULL_CACHE_ESTIMATOR);
+        return new CacheBudget<>(maxBytes, estimator, Eviction.LRU);
+    }
+
+    /**
+     * Creates a {@code CacheBudget} like the current one but with the given
+     * eviction policy.
+     *
+     * @param eviction {@link Eviction} policy.
+     * @return new {@link CacheBudget}.
+     * @exception IllegalArgumentException <code>eviction</code> is null.
+     */
+    public CacheBudget<E> evicting(Eviction eviction) {
+        Checks.ensureNotNull(eviction, Messages.NULL_CACHE_EVICTION);
+        return new CacheBudget<>(maxCost, estimator, eviction);
+    }
+
+    /**
+     * Gets the maximum total cost of the cached elements.
+     *
+     * @return the budget.
+     */
+    long getMaxCost() {
+        return maxCost;
+    }
+    /**
+     * Gets the eviction policy.
+     *
+     * @return the {@link Eviction} policy.
+     */
+    Eviction getEviction() {
+        return eviction;
+    }
+    /**
+     * Gets the cost of a cached element.
+     *
+     * @param element the cached element.
+     * @return estimated cost of {@code element}.
+     */
+    long costOf(E element) {
+        return estimator.applyAsLong(element);
+    }
+}
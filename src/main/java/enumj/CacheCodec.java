@@ -0,0 +1,61 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Codec serializing the elements that a {@code CachedEnumerable} spills to
+ * disk.
+ * <p>
+ * The elements of a chunk get encoded one after another into the same
+ * stream and get decoded back in the same order, so the codec must read
+ * exactly the bytes that it has written for each element.
+ * </p>
+ *
+ * @param <E> type of cached elements.
+ * @see CacheSpill
+ */
+public interface CacheCodec<E> {
+
+    /**
+     * Writes an element to the given output.
+     *
+     * @param element element to encode.
+     * @param out {@link DataOutput} to write to.
+     * @throws IOException writing fails.
+     */
+    void encode(E element, DataOutput out) throws IOException;
+
+    /**
+     * Reads an element from the given input.
+     *
+     * @param in {@link DataInput} to read from.
+     * @return the decoded element.
+     * @throws IOException reading fails.
+     */
+    E decode(DataInput in) throws IOException;
+}
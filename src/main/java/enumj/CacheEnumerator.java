@@ -23,46 +23,146 @@
  */
 package enumj;
 
-import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * {@code Enumerator} over cached enumerated elements.
  * <p>
  * The enumerated elements get cached by {@link CachedEnumerable} into
- * a linked list of {@link CachedElementWrapper} instances. The
- * {@link CacheEnumerator} instances enumerated over these linked lists.
+ * the chunks of a {@link ChunkedCache}. The {@link CacheEnumerator}
+ * instances read the chunks directly and go back to the
+ * {@link ChunkedCache} only when reaching the end of the part of the
+ * chunk that is known to be filled.
+ * </p>
+ * <p>
+ * The elements of the chunks that the {@link ChunkedCache} has dropped
+ * to stay within its {@link CacheBudget} get re-derived from the source
+ * into a private chunk. Consecutive dropped chunks get re-derived by the
+ * same enumerator of the source, skipped once to the first of them.
+ * The elements of the chunks that the {@link ChunkedCache} has spilled
+ * to disk get read back into the same private chunk.
+ * </p>
+ * <p>
+ * An enumerator of a spilled cache keeps the spilled chunks on disk, so
+ * it ends when a pipeline abandons it.
  * </p>
  *
  * @param <E> Type of enumerated elements.
  */
 final class CacheEnumerator<E> extends AbstractEnumerator<E> {
 
-    private Optional<CachedElementWrapper<E>> cached;
-    
+    private ChunkedCache<E> cache;
+    private Object[]        chunk;
+    private long            chunkStart;
+    private int             offset;
+    private int             fence;
+    private Enumerator<E>   replay;
+    private long            replayIndex;
+    private Object[]        replayChunk;
+
+    private SpillSegments<E>.Reader spilled;
+
     /**
-     * Constructs a {@code CacheEnumerator} encapsulating an optional
-     * {@code CachedElementWrapper}.
-     * 
-     * @param cached Optional {@link CachedElementWrapper} representing
-     * the head of the list to enumerate.
+     * Constructs a {@code CacheEnumerator} enumerating over the elements
+     * of the given {@code ChunkedCache}.
+     *
+     * @param cache {@link ChunkedCache} holding the elements to enumerate.
      * @see CachedEnumerable
      */
-    public CacheEnumerator(Optional<CachedElementWrapper<E>> cached) {
-        this.cached = cached;
+    public CacheEnumerator(ChunkedCache<E> cache) {
+        this.cache = cache;
+        this.spilled = cache.spillReader();
     }
 
     @Override
     protected boolean internalHasNext() {
-        return cached.isPresent();
+        return offset < fence || advance();
     }
     @Override
     protected E internalNext() {
-        final E result = cached.get().getElement();
-        cached = cached.get().getNextWrapper();
-        return result;
+        return (E)chunk[offset++];
+    }
+    @Override
+    protected boolean internalTryNext(Consumer<? super E> action) {
+        if (offset >= fence && !advance()) {
+            return false;
+        }
+        action.accept((E)chunk[offset++]);
+        return true;
+    }
+    @Override
+    protected boolean internalHoldsResources() {
+        return spilled != null;
     }
     @Override
     protected void cleanup() {
-        cached = null;
+        AbstractEnumerator.release(replay);
+        cache = null;
+        chunk = null;
+        replay = null;
+        replayChunk = null;
+        if (spilled != null) {
+            spilled.close();
+        }
+        spilled = null;
+    }
+
+    /**
+     * Makes the next element available in {@link #chunk}, caching it if
+     * needed.
+     *
+     * @return {@code true} if there is a next element, {@code false}
+     * otherwise.
+     */
+    private boolean advance() {
+        final long index = chunkStart + offset;
+        if (!cache.fill(index)) {
+            return false;
+        }
+        chunkStart = index & ~(long)ChunkedCache.CHUNK_MASK;
+        offset = (int)(index - chunkStart);
+        chunk = cache.chunk(index);
+        if (chunk == null) {
+            final int chunkIndex =
+                    (int)(chunkStart >>> ChunkedCache.CHUNK_SHIFT);
+            chunk = (spilled == null)
+                    ? rederive(chunkStart)
+                    : spilled.read(chunkIndex, privateChunk());
+            fence = ChunkedCache.CHUNK_SIZE;
+        } else {
+            fence = (int)Math.min(ChunkedCache.CHUNK_SIZE,
+                                  cache.size() - chunkStart);
+        }
+        return true;
+    }
+
+    /**
+     * Re-derives the elements of a dropped chunk from the source.
+     * <p>
+     * Dropped chunks are always full.
+     * </p>
+     *
+     * @param start index of the first element of the dropped chunk.
+     * @return private chunk holding the re-derived elements.
+     */
+    private Object[] rederive(long start) {
+        if (replay == null || replayIndex != start) {
+            AbstractEnumerator.release(replay);
+            replay = cache.replay(start);
+            replayIndex = start;
+        }
+        final Object[] result = privateChunk();
+        for(int i=0; i<result.length; ++i) {
+            result[i] = replay.next();
+        }
+        replayIndex += result.length;
+        return result;
+    }
+
+    private Object[] privateChunk() {
+        if (replayChunk == null) {
+            replayChunk = new Object[ChunkedCache.CHUNK_SIZE];
+        }
+        return replayChunk;
     }
 }
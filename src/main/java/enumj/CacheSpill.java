@@ -0,0 +1,204 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.nio.file.Path;
+
+/**
+ * Spilling of the elements that a {@code CachedEnumerable} caches past an
+ * in-heap threshold.
+ * <p>
+ * The elements up to the threshold stay in memory. Each full chunk of
+ * elements past the threshold gets serialized by a {@link CacheCodec} and
+ * appended to segment files under a temporary directory created in the
+ * configured directory. Enumerators that reach a spilled chunk read it
+ * back through a memory-mapped window of its segment, which also loads
+ * the following chunks ahead of time. The segment files get deleted when
+ * the cache gets replaced, as by {@link CachedEnumerable#reset()}, and
+ * the enumerators still reading it are done, or when the cache gets
+ * garbage collected.
+ * </p>
+ * <p>
+ * This is a <em>value-based</em> class.
+ * </p>
+ *
+ * @param <E> type of cached elements.
+ * @see Enumerable#cached(enumj.CacheSpill)
+ */
+public final class CacheSpill<E> {
+
+    /**
+     * Default number of elements kept in memory.
+     */
+    public static final long DEFAULT_IN_HEAP_ELEMENTS = 1L << 16;
+    /**
+     * Default maximum size of a segment file, in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+    /**
+     * Default number of chunks loaded ahead of a spilled chunk being read.
+     */
+    public static final int DEFAULT_READ_AHEAD = 4;
+
+    private final Path          directory;
+    private final CacheCodec<E> codec;
+    private final long          inHeapElements;
+    private final int           segmentBytes;
+    private final int           readAhead;
+
+    private CacheSpill(Path          directory,
+                       CacheCodec<E> codec,
+                       long          inHeapElements,
+                       int           segmentBytes,
+                       int           readAhead) {
+        this.directory = directory;
+        this.codec = codec;
+        this.inHeapElements = inHeapElements;
+        this.segmentBytes = segmentBytes;
+        this.readAhead = readAhead;
+    }
+
+    /**
+     * Creates a {@code CacheSpill} writing its segment files under the
+     * given directory, with default settings.
+     *
+     * @param <E> type of cached elements.
+     * @param directory directory under which to create the segment files.
+     * @param codec {@link CacheCodec} serializing the spilled elements.
+     * @return new {@link CacheSpill}.
+     * @exception IllegalArgumentException <code>directory</code> or
+     * <code>codec</code> is null.
+     */
+    public static <E> CacheSpill<E> to(Path directory, CacheCodec<E> codec) {
+        Checks.ensureNotNull(directory, Messages.NULL_SPILL_DIRECTORY);
+        Checks.ensureNotNull(codec, Messages.NULL_CACHE_CODEC);
+        return new CacheSpill<>(directory,
+                                codec,
+                                DEFAULT_IN_HEAP_ELEMENTS,
+                                DEFAULT_SEGMENT_BYTES,
+                                DEFAULT_READ_AHEAD);
+    }
+
+    /**
+     * Creates a {@code CacheSpill} like the current one but keeping the
+     * given number of elements in memory.
+     * <p>
+     * The threshold gets rounded up to a whole number of chunks.
+     * </p>
+     *
+     * @param inHeapElements number of elements to keep in memory.
+     * @return new {@link CacheSpill}.
+     * @exception IllegalArgumentException <code>inHeapElements</code> is
+     * negative.
+     */
+    public CacheSpill<E> afterElements(long inHeapElements) {
+        Checks.ensureNonNegative(inHeapElements,
+                                 Messages.NEGATIVE_SPILL_THRESHOLD);
+        return new CacheSpill<>(directory,
+                                codec,
+                                inHeapElements,
+                                segmentBytes,
+                                readAhead);
+    }
+
+    /**
+     * Creates a {@code CacheSpill} like the current one but with the given
+     * maximum size of the segment files.
+     * <p>
+     * A segment holds at least one chunk, even if the chunk is larger.
+     * </p>
+     *
+     * @param segmentBytes maximum size of a segment file, in bytes.
+     * @return new {@link CacheSpill}.
+     * @exception IllegalArgumentException <code>segmentBytes</code> is not
+     * positive.
+     */
+    public CacheSpill<E> segmentBytes(int segmentBytes) {
+        Checks.ensurePositive(segmentBytes, Messages.NON_POSITIVE_SEGMENT_SIZE);
+        return new CacheSpill<>(directory,
+                                codec,
+                                inHeapElements,
+                                segmentBytes,
+                                readAhead);
+    }
+
+    /**
+     * Creates a {@code CacheSpill} like the current one but loading the
+     * given number of chunks ahead of a spilled chunk being read.
+     *
+     * @param readAhead number of chunks to load ahead.
+     * @return new {@link CacheSpill}.
+     * @exception IllegalArgumentException <code>readAhead</code> is
+     * negative.
+     */
+    public CacheSpill<E> readAhead(int readAhead) {
+        Checks.ensureNonNegative(readAhead, Messages.NEGATIVE_READ_AHEAD);
+        return new CacheSpill<>(directory,
+                                codec,
+                                inHeapElements,
+                                segmentBytes,
+                                readAhead);
+    }
+
+    /**
+     * Gets the directory under which to create the segment files.
+     *
+     * @return the directory.
+     */
+    Path getDirectory() {
+        return directory;
+    }
+    /**
+     * Gets the codec serializing the spilled elements.
+     *
+     * @return the {@link CacheCodec}.
+     */
+    CacheCodec<E> getCodec() {
+        return codec;
+    }
+    /**
+     * Gets the number of elements kept in memory.
+     *
+     * @return the in-heap threshold.
+     */
+    long getInHeapElements() {
+        return inHeapElements;
+    }
+    /**
+     * Gets the maximum size of a segment file.
+     *
+     * @return the segment size, in bytes.
+     */
+    int getSegmentBytes() {
+        return segmentBytes;
+    }
+    /**
+     * Gets the number of chunks loaded ahead of a spilled chunk being read.
+     *
+     * @return the read-ahead, in chunks.
+     */
+    int getReadAhead() {
+        return readAhead;
+    }
+}
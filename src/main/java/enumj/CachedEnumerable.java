@@ -23,6 +23,7 @@
  */
 package enumj;
 
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -30,12 +31,14 @@ import java.util.function.Consumer;
  *
  * @param <E> Type of enumerated elements.
  * @see CacheEnumerator
- * @see CachedElementWrapper
+ * @see ChunkedCache
  */
 public final class CachedEnumerable<E> extends AbstractEnumerable<E> {
 
     static  final    Consumer<?>              noAction = self -> {};
     private volatile CachedEnumerableState<E> state;
+    private volatile long                     prefetchAhead;
+    private volatile Executor                 prefetcher;
 
     /**
      * Constructs a {@code CachedEnumerable} instance that caches the elements
@@ -71,6 +74,45 @@ public final class CachedEnumerable<E> extends AbstractEnumerable<E> {
                                                onLimitCallback);
     }
 
+    /**
+     * Constructs a {@code CachedEnumerable} instance that caches the elements
+     * of the given source {@link Enumerable} within the given budget.
+     * <p>
+     * The resulted {@link CachedEnumerable} has no size limit. Rather than
+     * growing past <code>budget</code>, its internal cache drops chunks of
+     * elements, which get re-derived from <code>source</code> when needed.
+     * </p>
+     *
+     * @param source {@link Enumerable} to cache.
+     * @param budget {@link CacheBudget} of the internal cache.
+     */
+    CachedEnumerable(Enumerable<E> source, CacheBudget<? super E> budget) {
+        Checks.ensureNotNull(source, Messages.NULL_ENUMERATOR_SOURCE);
+        Checks.ensureNotNull(budget, Messages.NULL_CACHE_BUDGET);
+
+        this.state = new CachedEnumerableState(source, this, budget);
+    }
+
+    /**
+     * Constructs a {@code CachedEnumerable} instance that caches the elements
+     * of the given source {@link Enumerable} and spills them to disk past
+     * the in-heap threshold of the given spill.
+     * <p>
+     * The resulted {@link CachedEnumerable} has no size limit. The spilled
+     * elements get deleted when the internal cache gets replaced or
+     * garbage collected.
+     * </p>
+     *
+     * @param source {@link Enumerable} to cache.
+     * @param spill {@link CacheSpill} of the internal cache.
+     */
+    CachedEnumerable(Enumerable<E> source, CacheSpill<E> spill) {
+        Checks.ensureNotNull(source, Messages.NULL_ENUMERATOR_SOURCE);
+        Checks.ensureNotNull(spill, Messages.NULL_CACHE_SPILL);
+
+        this.state = new CachedEnumerableState(source, this, spill);
+    }
+
     /**
      * Gets a {@code CachedEnumerableState} instance representing the state
      * of the current {@code CachedEnumerable}.
@@ -96,9 +138,7 @@ public final class CachedEnumerable<E> extends AbstractEnumerable<E> {
      * @see #resize(long)
      */
     public CachedEnumerableState<E> disable() {
-        final CachedEnumerableState<E> disabled = state().disable();
-        this.state = disabled;
-        return disabled;
+        return replace(state().disable());
     }
     /**
      * Enables caching and returns the enabled state.
@@ -110,14 +150,16 @@ public final class CachedEnumerable<E> extends AbstractEnumerable<E> {
      * @see #resize(long)
      */
     public CachedEnumerableState<E> enable() {
-        final CachedEnumerableState<E> enabled = state().enable();
-        this.state = enabled;
-        return enabled;
+        return replace(state().enable());
     }
 
     /**
      * Resets the cache and returns the new state of the current
      * {@code CachedEnumerable}.
+     * <p>
+     * The elements that the replaced cache has spilled to disk get deleted
+     * once the enumerators still reading them are done.
+     * </p>
      *
      * @return {@link CachedEnumerableState} representing the reset state.
      * @see #state()
@@ -126,9 +168,7 @@ public final class CachedEnumerable<E> extends AbstractEnumerable<E> {
      * @see #resize(long)
      */
     public CachedEnumerableState<E> reset() {
-        final CachedEnumerableState<E> res = state().reset();
-        this.state = res;
-        return res;
+        return replace(state().reset());
     }
     /**
      * Resizes the cache to a larger limit.
@@ -141,9 +181,52 @@ public final class CachedEnumerable<E> extends AbstractEnumerable<E> {
      * @see #reset()
      */
     public CachedEnumerableState<E> resize(long newLimit) {
-        final CachedEnumerableState<E> res = state().resize(newLimit);
-        this.state = res;
-        return res;
+        return replace(state().resize(newLimit));
+    }
+
+    /**
+     * Keeps the cache filled in the background up to the given number of
+     * elements ahead of the fastest enumerator.
+     * <p>
+     * The background filling runs on <code>executor</code>, one task at a
+     * time, and overlaps the latency of the source with the processing of
+     * the cached elements. Any {@link Executor} will do, including one
+     * starting a virtual thread per task where the platform has them.
+     * Prefetching carries over when the cache gets reset or resized.
+     * </p>
+     *
+     * @param ahead number of elements to fill ahead, <code>0</code> to stop
+     * prefetching.
+     * @param executor {@link Executor} running the background filling.
+     * @return the current {@link CachedEnumerable}.
+     * @exception IllegalArgumentException <code>ahead</code> is negative or
+     * <code>executor</code> is null.
+     */
+    public CachedEnumerable<E> prefetch(long ahead, Executor executor) {
+        Checks.ensureNonNegative(ahead, Messages.NEGATIVE_PREFETCH);
+        Checks.ensureNotNull(executor, Messages.NULL_PREFETCH_EXECUTOR);
+        this.prefetcher = executor;
+        this.prefetchAhead = ahead;
+        state().prefetch(ahead, executor);
+        return this;
+    }
+
+    /**
+     * Replaces the state of the current {@code CachedEnumerable}, carrying
+     * over prefetching and releasing the replaced state.
+     *
+     * @param newState new {@link CachedEnumerableState}.
+     * @return <code>newState</code>.
+     */
+    private CachedEnumerableState<E> replace(
+            CachedEnumerableState<E> newState) {
+        final CachedEnumerableState<E> old = state();
+        if (prefetcher != null) {
+            newState.prefetch(prefetchAhead, prefetcher);
+        }
+        this.state = newState;
+        old.release();
+        return newState;
     }
 
     @Override
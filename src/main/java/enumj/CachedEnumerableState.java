@@ -23,7 +23,7 @@
  */
 package enumj;
 
-import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
@@ -60,10 +60,22 @@ public final class CachedEnumerableState<E> {
      * @see #limit
      */
     public final Consumer<CachedEnumerable<E>> callback;
+    /**
+     * Budget of the cache, {@code null} if the cache is unbounded.
+     *
+     * @see CacheBudget
+     */
+    public final CacheBudget<? super E> budget;
+    /**
+     * Spilling of the cache to disk, {@code null} if the cache stays in
+     * memory.
+     *
+     * @see CacheSpill
+     */
+    public final CacheSpill<E> spill;
 
-    private final AtomicBoolean disabled;
-    private final Lazy<Enumerator<E>> enumerator;
-    private final Lazy<Optional<CachedElementWrapper<E>>> cache;
+    private final AtomicBoolean   disabled;
+    private final ChunkedCache<E> cache;
 
     /**
      * Constructs a {@code CachedEnumerableState} containing the given
@@ -84,12 +96,64 @@ public final class CachedEnumerableState<E> {
                                  CachedEnumerable<E>           cachedSource,
                                  long                          limit,
                                  Consumer<CachedEnumerable<E>> callback) {
-        this(source, cachedSource, limit, callback, false);
+        this(source, cachedSource, limit, callback, null, null, false);
+    }
+    /**
+     * Constructs a {@code CachedEnumerableState} containing the given
+     * source and cache budget.
+     * <p>
+     * This constructor builds a {@link CachedEnumerableState} that is
+     * enabled by default and has no cache limit.
+     * </p>
+     *
+     * @param source {@link Enumerable} instance providing the elements to
+     * cache.
+     * @param cachedSource {@link CachedEnumerable} caching the elements of
+     * {@code source}.
+     * @param budget {@link CacheBudget} of the cached elements.
+     */
+    public CachedEnumerableState(Enumerable<E>          source,
+                                 CachedEnumerable<E>    cachedSource,
+                                 CacheBudget<? super E> budget) {
+        this(source,
+             cachedSource,
+             Long.MAX_VALUE,
+             (Consumer<CachedEnumerable<E>>)CachedEnumerable.noAction,
+             budget,
+             null,
+             false);
+    }
+    /**
+     * Constructs a {@code CachedEnumerableState} containing the given
+     * source and cache spill.
+     * <p>
+     * This constructor builds a {@link CachedEnumerableState} that is
+     * enabled by default and has no cache limit.
+     * </p>
+     *
+     * @param source {@link Enumerable} instance providing the elements to
+     * cache.
+     * @param cachedSource {@link CachedEnumerable} caching the elements of
+     * {@code source}.
+     * @param spill {@link CacheSpill} of the cached elements.
+     */
+    public CachedEnumerableState(Enumerable<E>       source,
+                                 CachedEnumerable<E> cachedSource,
+                                 CacheSpill<E>       spill) {
+        this(source,
+             cachedSource,
+             Long.MAX_VALUE,
+             (Consumer<CachedEnumerable<E>>)CachedEnumerable.noAction,
+             null,
+             spill,
+             false);
     }
     private CachedEnumerableState(Enumerable<E>                 source,
                                   CachedEnumerable<E>           cachedSource,
                                   long                          limit,
                                   Consumer<CachedEnumerable<E>> callback,
+                                  CacheBudget<? super E>        budget,
+                                  CacheSpill<E>                 spill,
                                   boolean                       disabled) {
         this.source = source;
         this.cachedSource = (limit < Long.MAX_VALUE
@@ -98,35 +162,19 @@ public final class CachedEnumerableState<E> {
                             : null;
         this.limit = limit;
         this.callback = callback;
+        this.budget = budget;
+        this.spill = spill;
 
         this.disabled = new AtomicBoolean(disabled);
-        this.enumerator = new Lazy(() -> this.source.enumerator());
-        this.cache = new Lazy(() -> {
-            final Enumerator<E> en = this.enumerator.get();
-            final long lim = this.limit;
-            final AtomicBoolean dis = this.disabled;
-            final Consumer<CachedEnumerable<E>> clbk = this.callback;
-
-            if (!en.hasNext()) {
-                return Optional.empty();
+        final AtomicBoolean dis = this.disabled;
+        this.cache = new ChunkedCache(source, limit, () -> {
+            dis.set(true);
+            try {
+                callback.accept(cachedSource);
+            } catch(Throwable ex) {
+                // do nothing
             }
-            final E e = en.next();
-            return Optional.of(new CachedElementWrapper(
-                    e,
-                    () -> en.hasNext()
-                            ? Nullable.of(en.next())
-                            : Nullable.empty(),
-                    lim,
-                    1,
-                    () -> {
-                        dis.set(true);
-                        try {
-                            clbk.accept(cachedSource);
-                        } catch(Throwable ex) {
-                            // do nothing
-                        }
-                    }));
-        });
+        }, budget, spill);
     }
 
     /**
@@ -153,6 +201,8 @@ public final class CachedEnumerableState<E> {
                         cachedSource,
                         limit,
                         callback,
+                        budget,
+                        spill,
                         false);
     }
     /**
@@ -169,6 +219,8 @@ public final class CachedEnumerableState<E> {
                         cachedSource,
                         limit,
                         callback,
+                        budget,
+                        spill,
                         true);
     }
 
@@ -180,7 +232,13 @@ public final class CachedEnumerableState<E> {
      * @see #resize(long)
      */
     public CachedEnumerableState<E> reset() {
-        return new CachedEnumerableState(source, cachedSource, limit, callback);
+        return new CachedEnumerableState(source,
+                                         cachedSource,
+                                         limit,
+                                         callback,
+                                         budget,
+                                         spill,
+                                         false);
     }
     /**
      * Gets a new {@code CachedEnumerableState} instance identical to the
@@ -199,7 +257,35 @@ public final class CachedEnumerableState<E> {
         return new CachedEnumerableState(source,
                                          cachedSource,
                                          newLimit,
-                                         callback);
+                                         callback,
+                                         budget,
+                                         spill,
+                                         false);
+    }
+
+    /**
+     * Makes the cache keep filling in the background up to the given
+     * number of elements ahead of the fastest enumerator.
+     *
+     * @param ahead number of elements to fill ahead, {@code 0} to stop
+     * prefetching.
+     * @param executor {@link Executor} running the background filling.
+     * @see CachedEnumerable#prefetch(long, java.util.concurrent.Executor)
+     */
+    void prefetch(long ahead, Executor executor) {
+        cache.prefetch(ahead, executor);
+    }
+
+    /**
+     * Releases the resources of the cache, deleting its spilled elements
+     * once the enumerators still reading them are done.
+     * <p>
+     * {@link CachedEnumerable} calls this method on the state that it
+     * replaces.
+     * </p>
+     */
+    void release() {
+        cache.release();
     }
 
     /**
@@ -226,6 +312,6 @@ public final class CachedEnumerableState<E> {
     public Enumerator<E> enumerator() {
         return disabled.get()
                 ? source.enumerator()
-                : new CacheEnumerator(cache.get());
+                : new CacheEnumerator(cache);
     }
 }
@@ -23,6 +23,8 @@
  */
 package enumj;
 
+import java.time.Duration;
+
 /**
  * Utility class containing check methods.
  */
@@ -53,6 +55,30 @@ final class Checks {
             throw new IllegalArgumentException(message);
         }
     }
+    /**
+     * Checks whether the {@code something} duration is not negative.
+     *
+     * @param something {@link Duration} value to check.
+     * @param message error message.
+     * @throws IllegalArgumentException {@code something} is negative.
+     */
+    public static void ensureNonNegative(Duration something, String message) {
+        if (something.isNegative()) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+    /**
+     * Checks whether {@code something} is positive.
+     *
+     * @param something {@code long} value to check.
+     * @param message error message.
+     * @throws IllegalArgumentException {@code something} is not positive.
+     */
+    public static void ensurePositive(long something, String message) {
+        if (something <= 0) {
+            throw new IllegalArgumentException(message);
+        }
+    }
     /**
      * Checks whether {@code something} is less than a {@code limit}.
      *
@@ -96,4 +122,43 @@ final class Checks {
                     Messages.ILLEGAL_MULTIPLE_ENUMERATIONS);
         }
     }
+    /**
+     * Checks that an int {@code enumerator} is not enumerating.
+     *
+     * @param enumerator {@link IntEnumerator} to check.
+     * @throws IllegalStateException {@code enumerator} is enumerating.
+     * @see IntEnumerator#enumerating()
+     */
+    public static void ensureNonEnumerating(IntEnumerator enumerator) {
+        if (enumerator.enumerating()) {
+            throw new IllegalStateException(
+                    Messages.ILLEGAL_MULTIPLE_ENUMERATIONS);
+        }
+    }
+    /**
+     * Checks that a long {@code enumerator} is not enumerating.
+     *
+     * @param enumerator {@link LongEnumerator} to check.
+     * @throws IllegalStateException {@code enumerator} is enumerating.
+     * @see LongEnumerator#enumerating()
+     */
+    public static void ensureNonEnumerating(LongEnumerator enumerator) {
+        if (enumerator.enumerating()) {
+            throw new IllegalStateException(
+                    Messages.ILLEGAL_MULTIPLE_ENUMERATIONS);
+        }
+    }
+    /**
+     * Checks that a double {@code enumerator} is not enumerating.
+     *
+     * @param enumerator {@link DoubleEnumerator} to check.
+     * @throws IllegalStateException {@code enumerator} is enumerating.
+     * @see DoubleEnumerator#enumerating()
+     */
+    public static void ensureNonEnumerating(DoubleEnumerator enumerator) {
+        if (enumerator.enumerating()) {
+            throw new IllegalStateException(
+                    Messages.ILLEGAL_MULTIPLE_ENUMERATIONS);
+        }
+    }
 }
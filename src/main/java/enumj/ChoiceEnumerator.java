@@ -26,6 +26,7 @@ package enumj;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.IntSupplier;
 import java.util.function.IntUnaryOperator;
 
@@ -87,14 +88,41 @@ final class ChoiceEnumerator<E> extends AbstractEnumerator<E> {
         if (value.isPresent()) {
             return true;
         }
+        final Iterator<E> source = chooseSource();
+        if (source != null) {
+            value.set(source.next());
+            return true;
+        }
+        return false;
+    }
+    @Override
+    protected boolean internalTryNext(Consumer<? super E> action) {
+        if (value.isPresent()) {
+            action.accept(internalNext());
+            return true;
+        }
+        final Iterator<E> source = chooseSource();
+        if (source != null) {
+            action.accept(source.next());
+            return true;
+        }
+        return false;
+    }
+    @Override
+    protected E internalNext() {
+        final E result = value.get();
+        value.clear();
+        return result;
+    }
+    private Iterator<E> chooseSource() {
         if (sources.size() > 0) {
             int index = indexSupplier.getAsInt();
             int count = sources.size()-1;
             while (count >= 0) {
-                if (sources.get(index) != null) {
-                    if (sources.get(index).hasNext()) {
-                        value.set(sources.get(index).next());
-                        return true;
+                final Iterator<E> source = sources.get(index);
+                if (source != null) {
+                    if (source.hasNext()) {
+                        return source;
                     }
                     sources.set(index, null);
                 }
@@ -102,13 +130,7 @@ final class ChoiceEnumerator<E> extends AbstractEnumerator<E> {
                 --count;
             }
         }
-        return false;
-    }
-    @Override
-    protected E internalNext() {
-        final E result = value.get();
-        value.clear();
-        return result;
+        return null;
     }
     @Override
     protected void cleanup() {
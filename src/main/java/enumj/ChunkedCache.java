@@ -0,0 +1,607 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Storage of the elements cached by {@code CachedEnumerable}.
+ * <p>
+ * The elements get stored in fixed-size chunks, filled in order from the
+ * source enumerator as {@link CacheEnumerator} instances ask for them.
+ * Reading the filled elements takes no lock: the volatile {@link #size}
+ * gets written after the elements it covers.
+ * </p>
+ * <p>
+ * Filling has a single writer at a time. The threads that need elements
+ * past {@link #size} raise the demand and race to become the writer; the
+ * winner keeps filling until the highest demand is met, so that concurrent
+ * readers of the same cache do not hand the source over for each element.
+ * The other threads spin briefly, yielding, and then wait to be signalled
+ * by the writer as it publishes new elements or gives up writing.
+ * </p>
+ * <p>
+ * A {@code ChunkedCache} that prefetches keeps filling, on a background
+ * task, up to a number of elements past the highest index that a
+ * {@link CacheEnumerator} has asked for. The background task takes part
+ * in filling as one more writer, with its own target rather than through
+ * the demand. While prefetching, a {@link CacheEnumerator} that becomes
+ * the writer stops once its own element gets published and leaves the
+ * rest to the background task.
+ * </p>
+ * <p>
+ * Once the number of elements exceeds the limit, the limit handler runs.
+ * The elements keep getting cached for the {@link CacheEnumerator}
+ * instances that are still enumerating.
+ * </p>
+ * <p>
+ * A {@code ChunkedCache} with a {@link CacheBudget} drops whole chunks,
+ * other than the one being filled, as long as the cost of the kept chunks
+ * exceeds the budget. {@link #chunk(long)} returns {@code null} for the
+ * dropped chunks and {@link CacheEnumerator} re-derives their elements by
+ * way of {@link #replay(long)}.
+ * </p>
+ * <p>
+ * A {@code ChunkedCache} with a {@link CacheSpill} writes each full chunk
+ * past the in-heap threshold to {@link SpillSegments} and drops it from
+ * memory. {@link #chunk(long)} returns {@code null} for the spilled chunks
+ * as well and {@link CacheEnumerator} reads them back by way of
+ * {@link #spillReader()}. A {@code ChunkedCache} has either a budget or a
+ * spill, never both.
+ * </p>
+ *
+ * @param <E> Type of cached elements.
+ * @see CachedEnumerableState
+ */
+final class ChunkedCache<E> {
+
+    /**
+     * Binary logarithm of the number of elements per chunk.
+     */
+    static final int CHUNK_SHIFT = 10;
+    /**
+     * Number of elements per chunk.
+     */
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    /**
+     * Mask extracting the position within its chunk from the index of an
+     * element.
+     */
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    /**
+     * Number of times a thread waiting for elements yields before
+     * blocking.
+     */
+    static final int SPINS = 64;
+
+    private          Enumerable<E>          source;
+    private          Enumerator<E>          enumerator;
+    private final    long                   limit;
+    private          Runnable               onLimit;
+    private volatile Object[][]             chunks;
+    private volatile long                   size;
+    private volatile boolean                ended;
+    private final    AtomicBoolean          filling;
+    private final    AtomicLong             demand;
+    private final    AtomicInteger          waiting;
+    private volatile long                   prefetchAhead;
+    private volatile Executor               prefetcher;
+    private final    AtomicLong             prefetchTarget;
+    private final    AtomicBoolean          prefetching;
+
+    private final    CacheBudget<? super E> budget;
+    private          long[]                 costs;
+    private          long                   cost;
+    private          BitSet                 kept;
+    private volatile long[]                 reads;
+    private          long                   clock;
+
+    private final    SpillSegments<E>       spill;
+    private final    int                    spillFrom;
+
+    /**
+     * Constructs a {@code ChunkedCache} instance.
+     *
+     * @param source {@link Enumerable} whose elements to cache.
+     * @param limit number of elements beyond which {@code onLimit} runs.
+     * @param onLimit procedure to run when the number of elements exceeds
+     * {@code limit}.
+     */
+    ChunkedCache(Enumerable<E> source, long limit, Runnable onLimit) {
+        this(source, limit, onLimit, null, null);
+    }
+    /**
+     * Constructs a {@code ChunkedCache} instance that keeps the cached
+     * elements within the given budget.
+     *
+     * @param source {@link Enumerable} whose elements to cache.
+     * @param limit number of elements beyond which {@code onLimit} runs.
+     * @param onLimit procedure to run when the number of elements exceeds
+     * {@code limit}.
+     * @param budget {@link CacheBudget} of the cached elements,
+     * {@code null} if unbounded.
+     * @param spill {@link CacheSpill} of the cached elements,
+     * {@code null} if not spilling.
+     */
+    ChunkedCache(Enumerable<E>          source,
+                 long                   limit,
+                 Runnable               onLimit,
+                 CacheBudget<? super E> budget,
+                 CacheSpill<E>          spill) {
+        this.source = source;
+        this.limit = limit;
+        this.onLimit = onLimit;
+        this.chunks = new Object[1][];
+        this.filling = new AtomicBoolean();
+        this.demand = new AtomicLong(-1);
+        this.waiting = new AtomicInteger();
+        this.prefetchTarget = new AtomicLong(-1);
+        this.prefetching = new AtomicBoolean();
+        this.budget = (budget == null || source.onceOnly()) ? null : budget;
+        if (this.budget != null) {
+            this.costs = new long[1];
+            this.kept = new BitSet();
+            if (this.budget.getEviction() == CacheBudget.Eviction.LRU) {
+                this.reads = new long[1];
+            }
+        }
+        this.spill = (spill == null || this.budget != null)
+                     ? null
+                     : new SpillSegments<>(this, spill);
+        this.spillFrom = (this.spill == null)
+                         ? Integer.MAX_VALUE
+                         : (int)Math.min(Integer.MAX_VALUE,
+                                         (spill.getInHeapElements()
+                                          + CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+
+    /**
+     * Gets the number of cached elements.
+     *
+     * @return the number of cached elements.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Gets whether the source has no more elements to cache.
+     *
+     * @return {@code true} if all the elements have been cached,
+     * {@code false} otherwise.
+     */
+    boolean isEnded() {
+        return ended;
+    }
+
+    /**
+     * Caches the elements of the source up to the given index, if the
+     * source has them.
+     * <p>
+     * When prefetching, this method also moves the background filling
+     * ahead of {@code index}.
+     * </p>
+     *
+     * @param index index of the element to cache.
+     * @return {@code true} if the element at {@code index} is cached,
+     * {@code false} if the source has fewer elements.
+     */
+    boolean fill(long index) {
+        if (prefetchAhead > 0) {
+            prefetchFrom(index);
+        }
+        return fillTo(index, false);
+    }
+
+    /**
+     * Makes this {@code ChunkedCache} keep filling in the background up to
+     * the given number of elements ahead of the highest index asked for.
+     *
+     * @param ahead number of elements to fill ahead, {@code 0} to stop
+     * prefetching.
+     * @param executor {@link Executor} running the background filling.
+     */
+    void prefetch(long ahead, Executor executor) {
+        this.prefetcher = executor;
+        this.prefetchAhead = ahead;
+    }
+
+    /**
+     * Gets the chunk holding the element at the given index.
+     * <p>
+     * The element must have been cached by {@link #fill(long)}.
+     * </p>
+     * <p>
+     * Under {@link CacheBudget.Eviction#LRU} eviction, this method stamps
+     * the chunk with the clock that the writer advances for every cached
+     * element. Both the read of the clock and the stamp are racy, so the
+     * stamps are only coarse and reading takes no coordination.
+     * </p>
+     *
+     * @param index index of a cached element.
+     * @return the chunk holding the element, {@code null} if the chunk
+     * has been dropped or spilled.
+     */
+    Object[] chunk(long index) {
+        final int chunkIndex = (int)(index >>> CHUNK_SHIFT);
+        final long[] stamps = reads;
+        if (stamps != null && chunkIndex < stamps.length) {
+            stamps[chunkIndex] = clock;
+        }
+        return chunks[chunkIndex];
+    }
+
+    /**
+     * Gets the cached element at the given index.
+     * <p>
+     * The element must have been cached by {@link #fill(long)} and its
+     * chunk must not have been dropped.
+     * </p>
+     *
+     * @param index index of a cached element.
+     * @return the cached element.
+     */
+    E get(long index) {
+        return (E)chunk(index)[(int)index & CHUNK_MASK];
+    }
+
+    /**
+     * Gets an {@code Enumerator} over the elements of the source starting
+     * at the given index.
+     * <p>
+     * {@link CacheEnumerator} calls this method to re-derive the elements
+     * of the dropped chunks.
+     * </p>
+     *
+     * @param index index of the first element to enumerate.
+     * @return {@link Enumerator} over the elements of the source.
+     */
+    Enumerator<E> replay(long index) {
+        return source.enumerator().skip(index);
+    }
+
+    /**
+     * Gets a reader of the spilled chunks.
+     * <p>
+     * {@link CacheEnumerator} calls this method to read back the elements
+     * of the spilled chunks.
+     * </p>
+     *
+     * @return new {@link SpillSegments.Reader}, {@code null} if this
+     * {@code ChunkedCache} does not spill.
+     */
+    SpillSegments<E>.Reader spillReader() {
+        return (spill == null) ? null : spill.reader();
+    }
+
+    /**
+     * Deletes the spilled chunks, if any, once the {@link CacheEnumerator}
+     * instances reading them are done.
+     * <p>
+     * {@link CachedEnumerableState} calls this method when the cache gets
+     * replaced.
+     * </p>
+     */
+    void release() {
+        if (spill != null) {
+            spill.release();
+        }
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    /**
+     * Caches the elements of the source up to the given index, if the
+     * source has them, as one of the writers.
+     * <p>
+     * Only the {@link CacheEnumerator} instances raise {@link #demand}.
+     * The background task fills up to {@code index}, or further if the
+     * demand is higher. A {@link CacheEnumerator} fills up to the demand,
+     * or only up to {@code index} while prefetching.
+     * </p>
+     *
+     * @param index index of the element to cache.
+     * @param background {@code true} if called by the background task,
+     * {@code false} if called by a {@link CacheEnumerator}.
+     * @return {@code true} if the element at {@code index} is cached,
+     * {@code false} if the source has fewer elements.
+     */
+    private boolean fillTo(long index, boolean background) {
+        if (index < size) {
+            return true;
+        }
+        if (!background) {
+            long current = demand.get();
+            while(current < index && !demand.compareAndSet(current, index)) {
+                current = demand.get();
+            }
+        }
+        boolean interrupted = false;
+        try {
+            for(int spins = 0; ; ++spins) {
+                if (index < size) {
+                    return true;
+                }
+                if (ended) {
+                    return index < size;
+                }
+                if (!filling.get() && filling.compareAndSet(false, true)) {
+                    try {
+                        while(!ended && size <= writeTo(index, background)) {
+                            append();
+                            signal();
+                        }
+                    } finally {
+                        filling.set(false);
+                        signal();
+                    }
+                } else if (spins < SPINS) {
+                    Thread.yield();
+                } else {
+                    interrupted |= await(index);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Gets the index up to which the current writer fills.
+     *
+     * @param index index of the element that the writer has asked for.
+     * @param background {@code true} if the writer is the background task,
+     * {@code false} if it is a {@link CacheEnumerator}.
+     * @return the index of the last element to fill.
+     * @see #fillTo(long, boolean)
+     */
+    private long writeTo(long index, boolean background) {
+        if (background) {
+            return Math.max(index, demand.get());
+        }
+        return (prefetchAhead > 0) ? index : demand.get();
+    }
+
+    /**
+     * Raises the target of the background filling to the prefetch distance
+     * past the given index and starts the background task, if not running.
+     * <p>
+     * An {@link Executor} rejecting the task leaves the filling to the
+     * {@link CacheEnumerator} instances.
+     * </p>
+     *
+     * @param index index of the element asked for.
+     */
+    private void prefetchFrom(long index) {
+        final long ahead = index + prefetchAhead;
+        final long target = (ahead < index) ? Long.MAX_VALUE : ahead;
+        long current = prefetchTarget.get();
+        while(current < target
+              && !prefetchTarget.compareAndSet(current, target)) {
+            current = prefetchTarget.get();
+        }
+        if (!ended
+            && size <= target
+            && !prefetching.get()
+            && prefetching.compareAndSet(false, true)) {
+            try {
+                prefetcher.execute(this::prefetch);
+            } catch(RejectedExecutionException ex) {
+                prefetching.set(false);
+            }
+        }
+    }
+
+    /**
+     * Fills up to the target of the background filling, as long as the
+     * target keeps moving.
+     * <p>
+     * An error of the source stops the background filling. The
+     * {@link CacheEnumerator} instances go on filling by themselves.
+     * </p>
+     */
+    private void prefetch() {
+        try {
+            do {
+                final long target = prefetchTarget.get();
+                while(!ended && size <= target) {
+                    fillTo(target, true);
+                }
+                prefetching.set(false);
+            } while(!ended
+                    && size <= prefetchTarget.get()
+                    && prefetching.compareAndSet(false, true));
+        } catch(Throwable ex) {
+            prefetching.set(false);
+        }
+    }
+
+    /**
+     * Wakes up the threads waiting for elements, if any.
+     */
+    private void signal() {
+        if (waiting.get() > 0) {
+            synchronized(this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until the element at the given index gets cached, the source
+     * ends or the writer gives up writing.
+     *
+     * @param index index of the element to wait for.
+     * @return {@code true} if the thread has been interrupted while
+     * waiting, {@code false} otherwise.
+     */
+    private boolean await(long index) {
+        boolean interrupted = false;
+        synchronized(this) {
+            waiting.incrementAndGet();
+            try {
+                while(size <= index && !ended && filling.get()) {
+                    try {
+                        wait();
+                    } catch(InterruptedException ex) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        return interrupted;
+    }
+
+    /**
+     * Caches the next element of the source, if any.
+     * <p>
+     * The caller must be the single writer of this {@code ChunkedCache}.
+     * </p>
+     */
+    private void append() {
+        if (enumerator == null) {
+            enumerator = source.enumerator();
+            if (budget == null) {
+                source = null;
+            }
+        }
+        if (!enumerator.hasNext()) {
+            ended = true;
+            enumerator = null;
+            onLimit = null;
+            return;
+        }
+        final E element = enumerator.next();
+        final long index = size;
+        final int chunkIndex = (int)(index >>> CHUNK_SHIFT);
+        Object[][] directory = chunks;
+        if (chunkIndex == directory.length) {
+            directory = Arrays.copyOf(directory, 2*directory.length);
+            grow(directory.length);
+            chunks = directory;
+        }
+        if (directory[chunkIndex] == null) {
+            directory[chunkIndex] = new Object[CHUNK_SIZE];
+        }
+        directory[chunkIndex][(int)index & CHUNK_MASK] = element;
+        size = index + 1;
+        if (budget != null) {
+            account(chunkIndex, budget.costOf(element));
+        }
+        if (((int)index & CHUNK_MASK) == CHUNK_MASK
+            && chunkIndex >= spillFrom
+            && spill.write(chunkIndex, directory[chunkIndex])) {
+            directory[chunkIndex] = null;
+        }
+        if (index == limit && onLimit != null) {
+            final Runnable handler = onLimit;
+            onLimit = null;
+            handler.run();
+        }
+    }
+
+    /**
+     * Grows the bookkeeping of the budget along with the chunk directory.
+     *
+     * @param length new length of the chunk directory.
+     */
+    private void grow(int length) {
+        if (budget == null) {
+            return;
+        }
+        costs = Arrays.copyOf(costs, length);
+        if (reads != null) {
+            reads = Arrays.copyOf(reads, length);
+        }
+    }
+
+    /**
+     * Adds the cost of an element to its chunk and drops chunks while the
+     * cost of the kept chunks exceeds the budget.
+     *
+     * @param chunkIndex index of the chunk being filled.
+     * @param elementCost cost of the element just cached.
+     */
+    private void account(int chunkIndex, long elementCost) {
+        if (reads != null) {
+            ++clock;
+        }
+        if (!kept.get(chunkIndex)) {
+            kept.set(chunkIndex);
+            if (reads != null) {
+                reads[chunkIndex] = clock;
+            }
+        }
+        costs[chunkIndex] += elementCost;
+        cost += elementCost;
+        while(cost > budget.getMaxCost()) {
+            final int victim = victim(chunkIndex);
+            if (victim < 0) {
+                return;
+            }
+            chunks[victim] = null;
+            kept.clear(victim);
+            cost -= costs[victim];
+            costs[victim] = 0;
+        }
+    }
+
+    /**
+     * Chooses the chunk to drop according to the eviction policy.
+     *
+     * @param filling index of the chunk being filled, which may not be
+     * dropped.
+     * @return index of the chunk to drop, {@code -1} if none.
+     */
+    private int victim(int filling) {
+        switch(budget.getEviction()) {
+            case KEEP_HEAD:
+                return kept.previousSetBit(filling-1);
+            case KEEP_TAIL:
+                final int first = kept.nextSetBit(0);
+                return (first == filling) ? -1 : first;
+            default:
+                final long[] stamps = reads;
+                int result = -1;
+                for(int i = kept.nextSetBit(0);
+                    i >= 0 && i < filling;
+                    i = kept.nextSetBit(i+1)) {
+                    if (result < 0 || stamps[i] < stamps[result]) {
+                        result = i;
+                    }
+                }
+                return result;
+        }
+    }
+}
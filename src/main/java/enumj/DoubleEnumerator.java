@@ -0,0 +1,443 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.OptionalDouble;
+import java.util.PrimitiveIterator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * {@code PrimitiveIterator.OfDouble} with high composability.
+ * <p>
+ * Double enumerators are the {@code double} counterparts of {@link Enumerator}.
+ * Their operations work upon unboxed values: a pipeline made of
+ * {@link #filter(java.util.function.DoublePredicate)},
+ * {@link #map(java.util.function.DoubleUnaryOperator)},
+ * {@link #limit(long)}, {@link #skip(long)} and the like, ending in
+ * {@link #sum()} or {@link #summaryStatistics()}, allocates no objects
+ * per enumerated element.
+ * </p>
+ * <p>
+ * The composable operations of all the primitive enumerators share the same
+ * pipeline engine, so the conversions between {@link IntEnumerator},
+ * {@link LongEnumerator} and {@code DoubleEnumerator} add stages to the
+ * same pipeline rather than stacking enumerators upon each other.
+ * </p>
+ *
+ * @see IntEnumerator
+ * @see LongEnumerator
+ */
+public interface DoubleEnumerator extends PrimitiveIterator.OfDouble {
+
+    /**
+     * Returns whether the enumerator has started enumerating.
+     * <p>
+     * This method returns false before the first call
+     * to {@link hasNext} and true afterwards.
+     * </p>
+     *
+     * @return true if the enumerator has started enumerating, false otherwise.
+     * @see #hasNext()
+     * @see #nextDouble()
+     */
+    public boolean enumerating();
+
+    /**
+     * Returns an double enumerator returning the given values.
+     *
+     * @param values the values returned by the enumerator.
+     * @return the new {@link DoubleEnumerator}.
+     */
+    public static DoubleEnumerator on(double... values) {
+        return of(Arrays.stream(values).iterator());
+    }
+
+    /**
+     * Returns an double enumerator enumerating over the values of an existing
+     * {@code PrimitiveIterator.OfDouble}.
+     *
+     * @param source the {@link PrimitiveIterator.OfDouble} being enumerated
+     * upon.
+     * @return the new {@link DoubleEnumerator}.
+     * @exception IllegalArgumentException {@code source} is null.
+     */
+    public static DoubleEnumerator of(PrimitiveIterator.OfDouble source) {
+        return (source instanceof DoubleEnumerator)
+               ? (DoubleEnumerator)source
+               : new DoublePipeEnumerator(PrimitivePipe.ofDouble(source));
+    }
+
+    /**
+     * Returns the arithmetic mean of the values of the current enumerator.
+     *
+     * @return {@link OptionalDouble} containing the mean, empty if there
+     * are no values.
+     */
+    public default OptionalDouble average() {
+        final DoubleSummaryStatistics statistics = summaryStatistics();
+        return (statistics.getCount() == 0)
+               ? OptionalDouble.empty()
+               : OptionalDouble.of(statistics.getAverage());
+    }
+
+    /**
+     * Returns an enumerator enumerating over the boxed values of the
+     * current double enumerator.
+     *
+     * @return the boxed {@link Enumerator}.
+     */
+    public default Enumerator<Double> boxed() {
+        return mapToObj(Double::valueOf);
+    }
+
+    /**
+     * Returns the number of values in the current enumerator.
+     *
+     * @return the number of enumerated values.
+     */
+    public default long count() {
+        long count = 0;
+        while(hasNext()) {
+            nextDouble();
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * Returns an double enumerator with no values.
+     *
+     * @return the empty {@link DoubleEnumerator}.
+     */
+    public static DoubleEnumerator empty() {
+        return on();
+    }
+
+    /**
+     * Returns an double enumerator consisting of the values of the current
+     * enumerator that match the provided predicate.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param predicate state-less predicate to apply on each value.
+     * @return the filtered enumerator.
+     * @exception IllegalArgumentException <code>predicate</code> is null.
+     */
+    public default DoubleEnumerator filter(DoublePredicate predicate) {
+        return new DoublePipeEnumerator(this).filter(predicate);
+    }
+
+    /**
+     * Returns an infinite double enumerator obtained by applying repeatedly
+     * the provided unary operator.
+     * <p>
+     * The resulted enumerator returns <code>seed</code>,
+     * <code>f(seed)</code>, <code>f(f(seed))</code> ...
+     * </p>
+     *
+     * @param seed the initial value
+     * @param f state-less {@link DoubleUnaryOperator} instance to apply on the
+     * previous value to obtain the next value
+     * @return the iterated enumerator
+     * @exception IllegalArgumentException <code>f</code> is null.
+     */
+    public static DoubleEnumerator iterate(double seed, DoubleUnaryOperator f) {
+        Checks.ensureNotNull(f, Messages.NULL_ENUMERATOR_GENERATOR);
+        return of(new PrimitiveIterator.OfDouble() {
+            private double  value = seed;
+            private boolean first = true;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+            @Override
+            public double nextDouble() {
+                if (first) {
+                    first = false;
+                } else {
+                    value = f.applyAsDouble(value);
+                }
+                return value;
+            }
+        });
+    }
+
+    /**
+     * Returns the current double enumerator truncated to the given size.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param maxSize the maximum number of values in the resulted
+     * enumerator.
+     * @return the truncated enumerator.
+     * @exception IllegalArgumentException <code>maxSize</code> is negative.
+     */
+    public default DoubleEnumerator limit(long maxSize) {
+        return new DoublePipeEnumerator(this).limit(maxSize);
+    }
+
+    /**
+     * Returns an double enumerator consisting of the results of applying the
+     * given mapper to the values of the current enumerator.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param mapper state-less {@link DoubleUnaryOperator} instance to apply
+     * on each value.
+     * @return the mapped enumerator.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default DoubleEnumerator map(DoubleUnaryOperator mapper) {
+        return new DoublePipeEnumerator(this).map(mapper);
+    }
+
+    /**
+     * Returns an int enumerator consisting of the results of applying
+     * the given mapper to the values of the current enumerator.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param mapper state-less {@link DoubleToIntFunction} instance to apply
+     * on each value.
+     * @return the mapped {@link IntEnumerator}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default IntEnumerator mapToInt(DoubleToIntFunction mapper) {
+        return new DoublePipeEnumerator(this).mapToInt(mapper);
+    }
+
+    /**
+     * Returns a long enumerator consisting of the results of applying
+     * the given mapper to the values of the current enumerator.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param mapper state-less {@link DoubleToLongFunction} instance to
+     * apply on each value.
+     * @return the mapped {@link LongEnumerator}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default LongEnumerator mapToLong(DoubleToLongFunction mapper) {
+        return new DoublePipeEnumerator(this).mapToLong(mapper);
+    }
+
+    /**
+     * Returns an enumerator consisting of the results of applying the given
+     * mapper to the values of the current double enumerator.
+     *
+     * @param <R> type of the mapped elements.
+     * @param mapper state-less {@link DoubleFunction} instance to apply on
+     * each value.
+     * @return the mapped {@link Enumerator}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default <R> Enumerator<R> mapToObj(DoubleFunction<? extends R> mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        final DoubleEnumerator source = this;
+        return new AbstractEnumerator<R>() {
+            @Override
+            protected boolean internalHasNext() {
+                return source.hasNext();
+            }
+            @Override
+            protected R internalNext() {
+                return mapper.apply(source.nextDouble());
+            }
+        };
+    }
+
+    /**
+     * Returns the largest value of the current enumerator, if any.
+     *
+     * @return {@link OptionalDouble} containing the largest value.
+     */
+    public default OptionalDouble max() {
+        if (!hasNext()) {
+            return OptionalDouble.empty();
+        }
+        double result = nextDouble();
+        while(hasNext()) {
+            result = Math.max(result, nextDouble());
+        }
+        return OptionalDouble.of(result);
+    }
+
+    /**
+     * Returns the smallest value of the current enumerator, if any.
+     *
+     * @return {@link OptionalDouble} containing the smallest value.
+     */
+    public default OptionalDouble min() {
+        if (!hasNext()) {
+            return OptionalDouble.empty();
+        }
+        double result = nextDouble();
+        while(hasNext()) {
+            result = Math.min(result, nextDouble());
+        }
+        return OptionalDouble.of(result);
+    }
+
+    /**
+     * Returns an double enumerator consisting of the values of the current
+     * enumerator while applying the given action on each value.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param action {@link DoubleConsumer} instance to apply on each value.
+     * @return the peeked enumerator.
+     * @exception IllegalArgumentException <code>action</code> is null.
+     */
+    public default DoubleEnumerator peek(DoubleConsumer action) {
+        return new DoublePipeEnumerator(this).peek(action);
+    }
+
+    /**
+     * Returns the result of the accumulation of the values of the current
+     * enumerator, if any.
+     *
+     * @param accumulator state-less {@link DoubleBinaryOperator} instance
+     * that accumulates the values.
+     * @return {@link OptionalDouble} containing the accumulated result.
+     * @exception IllegalArgumentException <code>accumulator</code> is null.
+     */
+    public default OptionalDouble reduce(DoubleBinaryOperator accumulator) {
+        Checks.ensureNotNull(accumulator,
+                             Messages.NULL_ENUMERATOR_ACCUMULATOR);
+        if (!hasNext()) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(reduce(nextDouble(), accumulator));
+    }
+
+    /**
+     * Returns the result of the accumulation of the values of the current
+     * enumerator, starting from the given identity.
+     *
+     * @param identity the start value of the accumulation.
+     * @param accumulator state-less {@link DoubleBinaryOperator} instance
+     * that accumulates the values.
+     * @return the accumulated result.
+     * @exception IllegalArgumentException <code>accumulator</code> is null.
+     */
+    public default double reduce(double identity,
+                                  DoubleBinaryOperator accumulator) {
+        Checks.ensureNotNull(accumulator,
+                             Messages.NULL_ENUMERATOR_ACCUMULATOR);
+        double result = identity;
+        while(hasNext()) {
+            result = accumulator.applyAsDouble(result, nextDouble());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the current double enumerator without its first {@code n}
+     * values.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param n the number of values to skip.
+     * @return the new enumerator.
+     * @exception IllegalArgumentException <code>n</code> is negative.
+     */
+    public default DoubleEnumerator skip(long n) {
+        return new DoublePipeEnumerator(this).skip(n);
+    }
+
+    /**
+     * Returns the sum of the values of the current enumerator.
+     * <p>
+     * Like {@link java.util.stream.DoubleStream#sum()}, this method uses
+     * compensated summation to reduce the error bound.
+     * </p>
+     *
+     * @return the sum of the enumerated values, {@code 0} if none.
+     */
+    public default double sum() {
+        return summaryStatistics().getSum();
+    }
+
+    /**
+     * Returns the count, sum, minimum, maximum and average of the values of
+     * the current enumerator.
+     *
+     * @return the {@link DoubleSummaryStatistics} of the enumerated values.
+     */
+    public default DoubleSummaryStatistics summaryStatistics() {
+        final DoubleSummaryStatistics result = new DoubleSummaryStatistics();
+        forEachRemaining(result);
+        return result;
+    }
+
+    /**
+     * Returns an double enumerator enumerating over the values of the current
+     * enumerator while stopping at the first value that does not match
+     * the provided predicate.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param predicate state-less {@link DoublePredicate} instance to apply on
+     * enumerated values.
+     * @return the truncated enumerator.
+     * @exception IllegalArgumentException <code>predicate</code> is null.
+     */
+    public default DoubleEnumerator takeWhile(DoublePredicate predicate) {
+        return new DoublePipeEnumerator(this).takeWhile(predicate);
+    }
+
+    /**
+     * Returns the values of the current enumerator as an array.
+     *
+     * @return array of the enumerated values.
+     */
+    public default double[] toArray() {
+        double[] result = new double[16];
+        int size = 0;
+        while(hasNext()) {
+            if (size == result.length) {
+                result = Arrays.copyOf(result, 2*size);
+            }
+            result[size++] = nextDouble();
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
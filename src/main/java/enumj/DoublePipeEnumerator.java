@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.PrimitiveIterator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * {@code DoubleEnumerator} view upon a {@code PrimitivePipe} whose output is
+ * held in the {@link PrimitivePipe#doubleValue} register.
+ * <p>
+ * The composable operations add stages to the underlying pipe and return
+ * the current view or, if the type of the values changes, a new view upon
+ * the same pipe.
+ * </p>
+ *
+ * @see PrimitivePipe
+ * @see IntPipeEnumerator
+ * @see LongPipeEnumerator
+ */
+final class DoublePipeEnumerator implements DoubleEnumerator {
+
+    private final PrimitivePipe pipe;
+
+    /**
+     * Constructs a {@code DoublePipeEnumerator} instance.
+     *
+     * @param pipe {@link PrimitivePipe} to view.
+     */
+    DoublePipeEnumerator(PrimitivePipe pipe) {
+        this.pipe = pipe;
+    }
+    /**
+     * Constructs a {@code DoublePipeEnumerator} instance enumerating over the
+     * values of {@code source}.
+     *
+     * @param source {@link PrimitiveIterator.OfDouble} providing the values.
+     */
+    DoublePipeEnumerator(PrimitiveIterator.OfDouble source) {
+        this(PrimitivePipe.ofDouble(source));
+    }
+
+    @Override
+    public boolean enumerating() {
+        return pipe.enumerating();
+    }
+    @Override
+    public boolean hasNext() {
+        return pipe.hasNext();
+    }
+    @Override
+    public double nextDouble() {
+        return pipe.nextDouble();
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    @Override
+    public DoubleEnumerator filter(DoublePredicate predicate) {
+        Checks.ensureNotNull(predicate, Messages.NULL_ENUMERATOR_PREDICATE);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> predicate.test(in.doubleValue));
+        return this;
+    }
+    @Override
+    public DoubleEnumerator limit(long maxSize) {
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueueLimit(maxSize);
+        return this;
+    }
+    @Override
+    public DoubleEnumerator map(DoubleUnaryOperator mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            in.doubleValue = mapper.applyAsDouble(in.doubleValue);
+            return true;
+        });
+        return this;
+    }
+    @Override
+    public IntEnumerator mapToInt(DoubleToIntFunction mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            in.longValue = mapper.applyAsInt(in.doubleValue);
+            return true;
+        });
+        return new IntPipeEnumerator(pipe);
+    }
+    @Override
+    public LongEnumerator mapToLong(DoubleToLongFunction mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            in.longValue = mapper.applyAsLong(in.doubleValue);
+            return true;
+        });
+        return new LongPipeEnumerator(pipe);
+    }
+    @Override
+    public DoubleEnumerator peek(DoubleConsumer action) {
+        Checks.ensureNotNull(action, Messages.NULL_ENUMERATOR_CONSUMER);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            action.accept(in.doubleValue);
+            return true;
+        });
+        return this;
+    }
+    @Override
+    public DoubleEnumerator skip(long n) {
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueueSkip(n);
+        return this;
+    }
+    @Override
+    public DoubleEnumerator takeWhile(DoublePredicate predicate) {
+        Checks.ensureNotNull(predicate, Messages.NULL_ENUMERATOR_PREDICATE);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            if (predicate.test(in.doubleValue)) {
+                return true;
+            }
+            in.exhaust();
+            return false;
+        });
+        return this;
+    }
+}
@@ -23,13 +23,20 @@
  */
 package enumj;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Spliterator;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -38,6 +45,7 @@ import java.util.function.IntUnaryOperator;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collector;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -321,6 +329,17 @@ public interface Enumerable<E> extends Iterable<E> {
         return enumerator().asEnumeration();
     }
 
+    /**
+     * Returns a parallel {@code Stream} streaming the elements of the
+     * current {@code Enumerable}.
+     *
+     * @return parallel {@link Stream} instance.
+     * @see Enumerator#asParallelStream()
+     */
+    public default Stream<E> asParallelStream() {
+        return enumerator().asParallelStream();
+    }
+
     /**
      * Returns a {@code Spliterator} iterating the elements of the current
      * {@code Enumerable}.
@@ -370,6 +389,22 @@ public interface Enumerable<E> extends Iterable<E> {
 
     // ---------------------------------------------------------------------- //
 
+    /**
+     * Returns an {@code Enumerable} whose enumerators reorder their chained
+     * filters at runtime.
+     * <p>
+     * The predicates must be total and independent of each other: they must
+     * have no side effects and no predicate may rely on another one to reject
+     * the elements it cannot handle.
+     * </p>
+     *
+     * @return {@link Enumerable} with adaptive filters.
+     * @see Enumerator#adaptiveFilters()
+     */
+    public default Enumerable<E> adaptiveFilters() {
+        return PipeEnumerable.adaptiveFilters(this);
+    }
+
     /**
      * Appends the given elements to the end of the current {@code Enumerable}.
      *
@@ -390,6 +425,44 @@ public interface Enumerable<E> extends Iterable<E> {
         return new CachedEnumerable(this);
     }
 
+    /**
+     * Returns a {@code CachedEnumerable} that caches the enumerated elements
+     * within a given {@code budget}.
+     * <p>
+     * Caching never stops. When the cached elements exceed the given
+     * {@code budget}, chunks of them get dropped according to the eviction
+     * policy of {@code budget} and the enumerators that reach them
+     * re-derive them by skipping to them in the current enumerable.
+     * </p>
+     *
+     * @param budget {@link CacheBudget} of the cached elements.
+     * @return {@link CachedEnumerable} instance.
+     * @exception IllegalArgumentException <code>budget</code> is null.
+     * @see #cached()
+     */
+    public default CachedEnumerable<E> cached(CacheBudget<? super E> budget) {
+        return new CachedEnumerable(this, budget);
+    }
+
+    /**
+     * Returns a {@code CachedEnumerable} that caches the enumerated elements
+     * and spills them to disk past the in-heap threshold of {@code spill}.
+     * <p>
+     * Caching never stops. The elements past the threshold get serialized
+     * by the codec of {@code spill} into segment files, which get read back
+     * by the enumerators that reach them and get deleted when the cache
+     * gets reset or garbage collected.
+     * </p>
+     *
+     * @param spill {@link CacheSpill} of the cached elements.
+     * @return {@link CachedEnumerable} instance.
+     * @exception IllegalArgumentException <code>spill</code> is null.
+     * @see #cached()
+     */
+    public default CachedEnumerable<E> cached(CacheSpill<E> spill) {
+        return new CachedEnumerable(this, spill);
+    }
+
     /**
      * Returns a {@code CachedEnumerable} that caches the enumerated elements
      * up to a given {@code limit}.
@@ -468,6 +541,33 @@ public interface Enumerable<E> extends Iterable<E> {
                                     Arrays.asList(rest));
     }
 
+    /**
+     * Returns an {@code Enumerable} whose enumerators run their pipelines
+     * as compiled code.
+     *
+     * @return compiled {@link Enumerable}.
+     * @see Enumerator#compiled()
+     */
+    public default Enumerable<E> compiled() {
+        return PipeEnumerable.compiled(this);
+    }
+
+    /**
+     * Collects the elements of the current enumerable according to the
+     * provided {@code Collector}.
+     *
+     * @param <R> the collected type.
+     * @param <A> the type of the intermediate accumulator during collection.
+     * @param collector {@link Collector} instance collecting the enumerated
+     * elements.
+     * @return the result of the collection.
+     * @see Enumerator#collect(java.util.stream.Collector)
+     * @exception IllegalArgumentException {@code collector} is null.
+     */
+    public default <R, A> R collect(Collector<? super E, A, R> collector) {
+        return enumerator().collect(collector);
+    }
+
     /**
      * Concatenates the given {@code Iterable} to the current
      * {@code Enumerable}.
@@ -610,6 +710,156 @@ public interface Enumerable<E> extends Iterable<E> {
         return PipeEnumerable.map(this, mapper);
     }
 
+    /**
+     * Returns an {@code Enumerable} enumerating over the results of the
+     * asynchronous computations that the given mapper starts for the
+     * current elements.
+     *
+     * @param <R> type of resulted elements.
+     * @param mapper {@link Function} instance starting a computation for
+     * each current element.
+     * @param maxInFlight maximum number of computations outstanding at any
+     * time.
+     * @param ordered true to yield the results in the order of the current
+     * elements, false to yield them as they complete.
+     * @return mapped {@link Enumerable}.
+     * @see Enumerator#mapAsync(java.util.function.Function, int, boolean)
+     */
+    public default <R> Enumerable<R> mapAsync(
+            Function<? super E, ? extends CompletionStage<? extends R>> mapper,
+            int maxInFlight,
+            boolean ordered) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensurePositive(maxInFlight, Messages.NON_POSITIVE_PARALLELISM);
+        return new SuppliedEnumerable(
+                () -> enumerator().mapAsync(mapper, maxInFlight, ordered));
+    }
+
+    /**
+     * Returns an {@code Enumerable} enumerating over the results of the
+     * asynchronous computations that the given mapper starts for the
+     * current elements, hedging the slow computations.
+     *
+     * @param <R> type of resulted elements.
+     * @param mapper {@link Function} instance starting a computation for
+     * each current element.
+     * @param maxInFlight maximum number of elements with computations
+     * outstanding at any time.
+     * @param ordered true to yield the results in the order of the current
+     * elements, false to yield them as they complete.
+     * @param hedge {@link HedgePolicy} telling when to hedge.
+     * @return mapped {@link Enumerable}.
+     * @see Enumerator#mapAsync(java.util.function.Function, int, boolean,
+     * enumj.HedgePolicy)
+     */
+    public default <R> Enumerable<R> mapAsync(
+            Function<? super E, ? extends CompletionStage<? extends R>> mapper,
+            int maxInFlight,
+            boolean ordered,
+            HedgePolicy hedge) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensurePositive(maxInFlight, Messages.NON_POSITIVE_PARALLELISM);
+        Checks.ensureNotNull(hedge, Messages.NULL_HEDGE_POLICY);
+        return new SuppliedEnumerable(
+                () -> enumerator().mapAsync(mapper,
+                                            maxInFlight,
+                                            ordered,
+                                            hedge));
+    }
+
+    /**
+     * Returns an {@code Enumerable} enumerating over the results of looking
+     * up the current elements in batches.
+     *
+     * @param <R> type of resulted elements.
+     * @param loader {@link Function} instance mapping a list of distinct
+     * current elements to the list of their results.
+     * @param batchSize maximum number of elements per call of
+     * <code>loader</code>.
+     * @return mapped {@link Enumerable}.
+     * @see Enumerator#mapBatched(java.util.function.Function, int)
+     */
+    public default <R> Enumerable<R> mapBatched(
+            Function<? super List<E>, ? extends List<? extends R>> loader,
+            int batchSize) {
+        Checks.ensureNotNull(loader, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensurePositive(batchSize, Messages.NON_POSITIVE_BATCH_SIZE);
+        return new SuppliedEnumerable(
+                () -> enumerator().mapBatched(loader, batchSize));
+    }
+
+    /**
+     * Returns an {@code Enumerable} enumerating over the results of looking
+     * up the current elements in batches that wait for a bounded time.
+     * <p>
+     * The age of a batch gets checked only when an element arrives.
+     * </p>
+     *
+     * @param <R> type of resulted elements.
+     * @param loader {@link Function} instance mapping a list of distinct
+     * current elements to the list of their results.
+     * @param batchSize maximum number of elements per call of
+     * <code>loader</code>.
+     * @param maxWait maximum time between the first element of a batch and
+     * the call of <code>loader</code>.
+     * @return mapped {@link Enumerable}.
+     * @see Enumerator#mapBatched(java.util.function.Function, int,
+     * java.time.Duration)
+     */
+    public default <R> Enumerable<R> mapBatched(
+            Function<? super List<E>, ? extends List<? extends R>> loader,
+            int batchSize,
+            Duration maxWait) {
+        Checks.ensureNotNull(loader, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensurePositive(batchSize, Messages.NON_POSITIVE_BATCH_SIZE);
+        Checks.ensureNotNull(maxWait, Messages.NULL_BATCH_WAIT);
+        Checks.ensureNonNegative(maxWait, Messages.NEGATIVE_BATCH_WAIT);
+        return new SuppliedEnumerable(
+                () -> enumerator().mapBatched(loader, batchSize, maxWait));
+    }
+
+    /**
+     * Returns an {@code Enumerable} enumerating over the current elements
+     * mapped concurrently by the given mapper, on the common
+     * {@code ForkJoinPool}.
+     *
+     * @param <R> type of resulted elements.
+     * @param mapper {@link Function} instance mapping the current elements.
+     * @param parallelism maximum number of batches of elements being mapped
+     * at the same time.
+     * @return mapped {@link Enumerable}.
+     * @see Enumerator#parallelMap(java.util.function.Function, int)
+     */
+    public default <R> Enumerable<R> parallelMap(
+            Function<? super E, ? extends R> mapper,
+            int parallelism) {
+        return parallelMap(mapper, parallelism, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns an {@code Enumerable} enumerating over the current elements
+     * mapped concurrently by the given mapper, on the given executor.
+     *
+     * @param <R> type of resulted elements.
+     * @param mapper {@link Function} instance mapping the current elements.
+     * @param parallelism maximum number of batches of elements being mapped
+     * at the same time.
+     * @param executor {@link Executor} mapping the batches of elements.
+     * @return mapped {@link Enumerable}.
+     * @see Enumerator#parallelMap(java.util.function.Function, int,
+     * java.util.concurrent.Executor)
+     */
+    public default <R> Enumerable<R> parallelMap(
+            Function<? super E, ? extends R> mapper,
+            int parallelism,
+            Executor executor) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensurePositive(parallelism, Messages.NON_POSITIVE_PARALLELISM);
+        Checks.ensureNotNull(executor, Messages.NULL_ENUMERATOR_EXECUTOR);
+        return new SuppliedEnumerable(
+                () -> enumerator().parallelMap(mapper, parallelism, executor));
+    }
+
     /**
      * Returns an {@code Enumerable} enumerating the current elements while
      * feeding them to the given {@code Consumer}.
@@ -853,6 +1103,59 @@ public interface Enumerable<E> extends Iterable<E> {
         return PipeEnumerable.takeWhile(this, predicate);
     }
 
+    /**
+     * Collects the current enumerable into an array of elements of given
+     * class.
+     *
+     * @param clazz {@link Class} of array elements.
+     * @return the array of elements.
+     * @see Enumerator#toArray(java.lang.Class)
+     * @exception IllegalArgumentException <code>clazz</code> is null.
+     */
+    public default E[] toArray(Class<E> clazz) {
+        return enumerator().toArray(clazz);
+    }
+
+    /**
+     * Collects the current enumerable into a list of elements.
+     *
+     * @return the list of elements.
+     * @see Enumerator#toList()
+     */
+    public default List<E> toList() {
+        return enumerator().toList();
+    }
+
+    /**
+     * Collects the current enumerable into a {@code Map} according to
+     * a key mapping function and a value mapping function.
+     *
+     * @param <K> the map key type.
+     * @param <V> the map value type.
+     * @param keyMapper {@link Function} instance extracting the map key
+     * from enumerated elements.
+     * @param valueMapper {@code Function} instance extracting the map value
+     * from enumerated elements.
+     * @return {@link Map} instance containing the results of key and value
+     * mappings.
+     * @see Enumerator#toMap(java.util.function.Function,
+     * java.util.function.Function)
+     */
+    public default <K, V> Map<K, V> toMap(Function<? super E, K> keyMapper,
+                                          Function<? super E, V> valueMapper) {
+        return enumerator().toMap(keyMapper, valueMapper);
+    }
+
+    /**
+     * Collects the current enumerable into a set.
+     *
+     * @return the set of elements.
+     * @see Enumerator#toSet()
+     */
+    public default Set<E> toSet() {
+        return enumerator().toSet();
+    }
+
     /**
      * Returns an {@code Enumerable} enumerating over the current elements and
      * over the given {@code Iterable} while avoiding duplicates.
@@ -24,10 +24,14 @@
 package enumj;
 
 import java.lang.reflect.Array;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.InputMismatchException;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -35,9 +39,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.PrimitiveIterator;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
@@ -46,13 +55,16 @@ import java.util.function.IntSupplier;
 import java.util.function.IntUnaryOperator;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collector;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import org.apache.commons.lang3.mutable.Mutable;
 import org.apache.commons.lang3.mutable.MutableBoolean;
+import org.apache.commons.lang3.mutable.MutableLong;
 import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -249,7 +261,7 @@ public interface Enumerator<E> extends Iterator<E> {
      * @exception IllegalArgumentException {@code source} is null.
      */
     public static <E> Enumerator<E> of(Iterable<E> source) {
-        return of(source.iterator());
+        return ListEnumerator.of(source);
     }
 
     /**
@@ -514,16 +526,40 @@ public interface Enumerator<E> extends Iterator<E> {
                    .concat(Enumerator.of(() -> Optional.of(Optional.empty())));
     }
 
+    /**
+     * Returns a parallel {@code Stream} streaming over the current
+     * enumerator.
+     * <p>
+     * Array, list and range sources, as well as the maps and filters over
+     * them, split evenly. The other enumerators hand out batches of
+     * elements that grow geometrically for as long as pulling them stays
+     * cheap, so that sources of unknown size parallelize too.
+     * </p>
+     *
+     * @return the new parallel {@link Stream}.
+     * @see #asSpliterator()
+     * @see #asStream()
+     */
+    public default Stream<E> asParallelStream() {
+        Checks.ensureNonEnumerating(this);
+        return StreamSupport.stream(asSpliterator(), true);
+    }
+
     /**
      * Returns a sequential {@code Spliterator} iterating over the current
      * enumerator.
+     * <p>
+     * When split, the returned {@link Spliterator} hands out batches of
+     * elements of adaptive size.
+     * </p>
      *
      * @return the new {@link Spliterator}.
+     * @see #asParallelStream()
      * @see #asStream()
      */
     public default Spliterator<E> asSpliterator() {
         Checks.ensureNonEnumerating(this);
-        return Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED);
+        return new BatchSpliterator<>(this);
     }
 
     /**
@@ -531,6 +567,7 @@ public interface Enumerator<E> extends Iterator<E> {
      * enumerator.
      *
      * @return the new {@link Stream}.
+     * @see #asParallelStream()
      * @see #asSpliterator()
      * @see #asSupplier()
      */
@@ -632,6 +669,35 @@ public interface Enumerator<E> extends Iterator<E> {
 
     // ---------------------------------------------------------------------- //
 
+    /**
+     * Returns an enumerator that reorders its chained filters at runtime.
+     * <p>
+     * Chained <code>filter()</code> operations get fused together. In
+     * adaptive mode, the enumerator samples the pass rate and the cost of
+     * every fused predicate and periodically reorders them so that the
+     * cheap predicates that reject many elements get tested first.
+     * </p>
+     * <p>
+     * The predicates must be total and independent of each other, as the
+     * order in which they get tested is no longer the order of declaration:
+     * they must have no side effects and no predicate may rely on another
+     * one to reject the elements it cannot handle, as in
+     * <code>filter(s -&gt; s != null).filter(s -&gt; s.length() &gt; 3)</code>.
+     * Should a predicate throw after reordering, the enumerator goes back
+     * to the declared order for good. Fused predicates are not compiled in
+     * adaptive mode.
+     * </p>
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @return the enumerator with adaptive filters.
+     * @see #compiled()
+     */
+    public default Enumerator<E> adaptiveFilters() {
+        return new PipeEnumerator(this).adaptiveFilters();
+    }
+
     /**
      * Returns whether all the elements of the current enumerator match the
      * provided predicate.
@@ -646,12 +712,7 @@ public interface Enumerator<E> extends Iterator<E> {
      */
     public default boolean allMatch(Predicate<? super E> predicate) {
         Checks.ensureNotNull(predicate, Messages.NULL_ENUMERATOR_PREDICATE);
-        while(hasNext()) {
-            if (!predicate.test(next())) {
-                return false;
-            }
-        }
-        return true;
+        return AbstractEnumerator.forEachWhile(this, predicate);
     }
 
     /**
@@ -668,12 +729,7 @@ public interface Enumerator<E> extends Iterator<E> {
      */
     public default boolean anyMatch(Predicate<? super E> predicate) {
         Checks.ensureNotNull(predicate, Messages.NULL_ENUMERATOR_PREDICATE);
-        while(hasNext()) {
-            if (predicate.test(next())) {
-                return true;
-            }
-        }
-        return false;
+        return !AbstractEnumerator.forEachWhile(this, e -> !predicate.test(e));
     }
 
     /**
@@ -806,8 +862,9 @@ public interface Enumerator<E> extends Iterator<E> {
      * Collects the elements of the current enumerator according to the
      * provided {@code Collector}.
      * <p>
-     * This methods works exactly like
-     * <code>this.asStream().collect(collector)</code>.
+     * This methods works like <code>this.asStream().collect(collector)</code>
+     * but it calls the supplier, the accumulator and the finisher of
+     * {@code collector} directly, without building a stream.
      * </p>
      * @param <R> the collected type.
      * @param <A> the type of the intermediate accumulator during collection.
@@ -818,10 +875,44 @@ public interface Enumerator<E> extends Iterator<E> {
      * @see Stream
      * @see Collector
      * @exception IllegalArgumentException {@code collector} is null.
+     * @exception IllegalStateException the current enumerator is enumerating.
      */
     public default <R, A> R collect(Collector<? super E, A, R> collector) {
         Checks.ensureNotNull(collector, Messages.NULL_ENUMERATOR_HANDLER);
-        return asStream().collect(collector);
+        Checks.ensureNonEnumerating(this);
+        final A container = collector.supplier().get();
+        final BiConsumer<A, ? super E> accumulator = collector.accumulator();
+        forEachRemaining(e -> accumulator.accept(container, e));
+        return collector.characteristics()
+                        .contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R)container
+               : collector.finisher().apply(container);
+    }
+
+    /**
+     * Returns an enumerator that runs its pipeline as compiled code.
+     * <p>
+     * When enumeration starts, every sequence of <code>map()</code>,
+     * <code>filter()</code>, <code>limit()</code> and <code>skip()</code>
+     * operations gets compiled into a single combined
+     * {@link java.lang.invoke.MethodHandle}. Compiled forms are cached by the
+     * shape of the sequence, so pipelines of the same shape share them.
+     * </p>
+     * <p>
+     * Compiling saves the dispatch between the processors of the pipeline,
+     * not the calls to the functions themselves. It makes no difference for
+     * a few operations and may pay off for deep pipelines, which is worth
+     * measuring case by case. The operations applied before and after this
+     * one are equally affected.
+     * </p>
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @return the compiled enumerator.
+     */
+    public default Enumerator<E> compiled() {
+        return new PipeEnumerator(this).compiled();
     }
 
     /**
@@ -943,12 +1034,9 @@ public interface Enumerator<E> extends Iterator<E> {
      * @exception IllegalArgumentException <code>elements</code> is null.
      */
     public default boolean contains(E element) {
-        while (hasNext()) {
-            if (Objects.equals(element, next())) {
-                return true;
-            }
-        }
-        return false;
+        return !AbstractEnumerator.forEachWhile(
+                this,
+                e -> !Objects.equals(element, e));
     }
 
     /**
@@ -957,12 +1045,9 @@ public interface Enumerator<E> extends Iterator<E> {
      * @return the number of enumerated elements.
      */
     public default long count() {
-        long cnt = 0;
-        while (hasNext()) {
-            ++cnt;
-            next();
-        }
-        return cnt;
+        final MutableLong cnt = new MutableLong(0);
+        forEachRemaining(e -> cnt.increment());
+        return cnt.longValue();
     }
 
     /**
@@ -1111,9 +1196,7 @@ public interface Enumerator<E> extends Iterator<E> {
      */
     public default void forEach(Consumer<? super E> consumer) {
         Checks.ensureNotNull(consumer, Messages.NULL_ENUMERATOR_CONSUMER);
-        while (hasNext()) {
-            consumer.accept(next());
-        }
+        forEachRemaining(consumer);
     }
 
     /**
@@ -1151,11 +1234,9 @@ public interface Enumerator<E> extends Iterator<E> {
      * @return {@link Optional} instance containing the last element.
      */
     public default Optional<E> last() {
-        E result = null;
-        while (hasNext()) {
-            result = next();
-        }
-        return Optional.ofNullable(result);
+        final Mutable<E> result = new MutableObject(null);
+        forEachRemaining(e -> result.setValue(e));
+        return Optional.ofNullable(result.getValue());
     }
 
     /**
@@ -1234,6 +1315,250 @@ public interface Enumerator<E> extends Iterator<E> {
         return Reversible.map(this, mapper, false);
     }
 
+    /**
+     * Returns an enumerator consisting of the results of the asynchronous
+     * computations that the given function starts for the enumerated
+     * elements, in the order of the enumerated elements.
+     *
+     * @param <R> the element type of the new enumerator.
+     * @param mapper {@link Function} starting a computation for each
+     * enumerated element.
+     * @param maxInFlight maximum number of computations outstanding at any
+     * time.
+     * @return the mapped enumerator.
+     * @exception IllegalArgumentException <code>mapper</code> is null or
+     * <code>maxInFlight</code> is not positive.
+     * @see #mapAsync(java.util.function.Function, int, boolean)
+     */
+    public default <R> Enumerator<R> mapAsync(
+            Function<? super E, ? extends CompletionStage<? extends R>> mapper,
+            int maxInFlight) {
+        return mapAsync(mapper, maxInFlight, true);
+    }
+
+    /**
+     * Returns an enumerator consisting of the results of the asynchronous
+     * computations that the given function starts for the enumerated
+     * elements.
+     * <p>
+     * The resulted enumerator keeps up to <code>maxInFlight</code>
+     * computations outstanding and yields their results either in the
+     * order of the enumerated elements or as they complete. A failed
+     * computation makes the resulted enumerator throw its error when the
+     * result would get enumerated. The outstanding computations get
+     * cancelled when the resulted enumerator ends, fails or gets abandoned
+     * by the operations composed upon it, such as
+     * {@link #limit(long)}.
+     * </p>
+     *
+     * @param <R> the element type of the new enumerator.
+     * @param mapper {@link Function} starting a computation for each
+     * enumerated element.
+     * @param maxInFlight maximum number of computations outstanding at any
+     * time.
+     * @param ordered true to yield the results in the order of the
+     * enumerated elements, false to yield them as they complete.
+     * @return the mapped enumerator.
+     * @exception IllegalArgumentException <code>mapper</code> is null or
+     * <code>maxInFlight</code> is not positive.
+     * @see #parallelMap(java.util.function.Function, int)
+     */
+    public default <R> Enumerator<R> mapAsync(
+            Function<? super E, ? extends CompletionStage<? extends R>> mapper,
+            int maxInFlight,
+            boolean ordered) {
+        return new MapAsyncEnumerator<>(this, mapper, maxInFlight, ordered);
+    }
+
+    /**
+     * Returns an enumerator consisting of the results of the asynchronous
+     * computations that the given function starts for the enumerated
+     * elements, hedging the slow computations.
+     * <p>
+     * This method works like
+     * {@link #mapAsync(java.util.function.Function, int, boolean)} with the
+     * distinction that, when the computation of an element takes longer
+     * than the delay of <code>hedge</code>, the given function gets called
+     * again for the same element. The element gets the result of the
+     * computation that succeeds first and the other computation gets
+     * cancelled. The second calls happen on a timer thread, for no more
+     * than the maximum ratio of elements that <code>hedge</code> allows.
+     * </p>
+     *
+     * @param <R> the element type of the new enumerator.
+     * @param mapper {@link Function} starting a computation for each
+     * enumerated element, safe to call for the same element twice.
+     * @param maxInFlight maximum number of elements with computations
+     * outstanding at any time.
+     * @param ordered true to yield the results in the order of the
+     * enumerated elements, false to yield them as they complete.
+     * @param hedge {@link HedgePolicy} telling when to hedge.
+     * @return the mapped enumerator.
+     * @exception IllegalArgumentException <code>mapper</code> or
+     * <code>hedge</code> is null or <code>maxInFlight</code> is not
+     * positive.
+     */
+    public default <R> Enumerator<R> mapAsync(
+            Function<? super E, ? extends CompletionStage<? extends R>> mapper,
+            int maxInFlight,
+            boolean ordered,
+            HedgePolicy hedge) {
+        Checks.ensureNotNull(hedge, Messages.NULL_HEDGE_POLICY);
+        return new MapAsyncEnumerator<>(this,
+                                        mapper,
+                                        maxInFlight,
+                                        ordered,
+                                        hedge);
+    }
+
+    /**
+     * Returns an enumerator consisting of the results of looking up the
+     * enumerated elements in batches.
+     * <p>
+     * The resulted enumerator collects up to <code>batchSize</code>
+     * enumerated elements and calls <code>loader</code> once for all of
+     * them. Equal elements within a batch get passed to
+     * <code>loader</code> only once. The results get enumerated in the
+     * order of the enumerated elements.
+     * </p>
+     *
+     * @param <R> the element type of the new enumerator.
+     * @param loader {@link Function} mapping a list of distinct elements
+     * to the list of their results, in the same order.
+     * @param batchSize maximum number of elements per call of
+     * <code>loader</code>.
+     * @return the mapped enumerator.
+     * @exception IllegalArgumentException <code>loader</code> is null or
+     * <code>batchSize</code> is not positive.
+     * @exception IllegalStateException <code>loader</code> returns a
+     * number of results different from the number of elements it receives.
+     * @see #mapBatched(java.util.function.Function, int, java.time.Duration)
+     */
+    public default <R> Enumerator<R> mapBatched(
+            Function<? super List<E>, ? extends List<? extends R>> loader,
+            int batchSize) {
+        return new PipeEnumerator(this).mapBatched(loader, batchSize);
+    }
+
+    /**
+     * Returns an enumerator consisting of the results of looking up the
+     * enumerated elements in batches that wait for a bounded time.
+     * <p>
+     * This method works like
+     * {@link #mapBatched(java.util.function.Function, int)} with the
+     * distinction that an incomplete batch older than <code>maxWait</code>
+     * gets loaded as soon as the next element gets enumerated, without
+     * waiting for the batch to fill up.
+     * </p>
+     * <p>
+     * The age of a batch gets checked only when an element arrives. While
+     * the current enumerator waits for its next element, an incomplete
+     * batch does not get loaded, however old it is.
+     * </p>
+     *
+     * @param <R> the element type of the new enumerator.
+     * @param loader {@link Function} mapping a list of distinct elements
+     * to the list of their results, in the same order.
+     * @param batchSize maximum number of elements per call of
+     * <code>loader</code>.
+     * @param maxWait maximum time between the first element of a batch and
+     * the call of <code>loader</code>.
+     * @return the mapped enumerator.
+     * @exception IllegalArgumentException <code>loader</code> or
+     * <code>maxWait</code> is null, <code>batchSize</code> is not positive
+     * or <code>maxWait</code> is negative.
+     * @exception IllegalStateException <code>loader</code> returns a
+     * number of results different from the number of elements it receives.
+     */
+    public default <R> Enumerator<R> mapBatched(
+            Function<? super List<E>, ? extends List<? extends R>> loader,
+            int batchSize,
+            Duration maxWait) {
+        return new PipeEnumerator(this).mapBatched(loader, batchSize, maxWait);
+    }
+
+    /**
+     * Returns a double enumerator consisting of the results of applying the
+     * given mapper to the elements of the current enumerator.
+     * <p>
+     * The operations of the returned enumerator work upon unboxed values.
+     * </p>
+     *
+     * @param mapper state-less {@link ToDoubleFunction} instance to apply
+     * on each element.
+     * @return the mapped {@link DoubleEnumerator}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default DoubleEnumerator mapToDouble(
+            ToDoubleFunction<? super E> mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        final Enumerator<E> source = this;
+        return DoubleEnumerator.of(new PrimitiveIterator.OfDouble() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+            @Override
+            public double nextDouble() {
+                return mapper.applyAsDouble(source.next());
+            }
+        });
+    }
+
+    /**
+     * Returns an int enumerator consisting of the results of applying the
+     * given mapper to the elements of the current enumerator.
+     * <p>
+     * The operations of the returned enumerator work upon unboxed values.
+     * </p>
+     *
+     * @param mapper state-less {@link ToIntFunction} instance to apply on
+     * each element.
+     * @return the mapped {@link IntEnumerator}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default IntEnumerator mapToInt(ToIntFunction<? super E> mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        final Enumerator<E> source = this;
+        return IntEnumerator.of(new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+            @Override
+            public int nextInt() {
+                return mapper.applyAsInt(source.next());
+            }
+        });
+    }
+
+    /**
+     * Returns a long enumerator consisting of the results of applying the
+     * given mapper to the elements of the current enumerator.
+     * <p>
+     * The operations of the returned enumerator work upon unboxed values.
+     * </p>
+     *
+     * @param mapper state-less {@link ToLongFunction} instance to apply on
+     * each element.
+     * @return the mapped {@link LongEnumerator}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default LongEnumerator mapToLong(ToLongFunction<? super E> mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        final Enumerator<E> source = this;
+        return LongEnumerator.of(new PrimitiveIterator.OfLong() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+            @Override
+            public long nextLong() {
+                return mapper.applyAsLong(source.next());
+            }
+        });
+    }
+
     /**
      * Returns the maximum of the enumerated elements according to the provided
      * comparator.
@@ -1248,12 +1573,12 @@ public interface Enumerator<E> extends Iterator<E> {
      */
     public default Optional<E> max(Comparator<? super E> comparator) {
         Checks.ensureNotNull(comparator, Messages.NULL_ENUMERATOR_COMPARATOR);
-        E m = null;
-        while (hasNext()) {
-            E e = next();
-            m = (m == null || comparator.compare(e, m) > 0) ? e : m;
-        }
-        return Optional.ofNullable(m);
+        final Mutable<E> m = new MutableObject(null);
+        forEachRemaining(e -> {
+            final E v = m.getValue();
+            m.setValue((v == null || comparator.compare(e, v) > 0) ? e : v);
+        });
+        return Optional.ofNullable(m.getValue());
     }
 
     /**
@@ -1269,12 +1594,12 @@ public interface Enumerator<E> extends Iterator<E> {
      * @see #max(java.util.Comparator)
      */
     public default Optional<E> min(Comparator<? super E> comparator) {
-        E m = null;
-        while (hasNext()) {
-            E e = next();
-            m = (m == null || comparator.compare(e, m) < 0) ? e : m;
-        }
-        return Optional.ofNullable(m);
+        final Mutable<E> m = new MutableObject(null);
+        forEachRemaining(e -> {
+            final E v = m.getValue();
+            m.setValue((v == null || comparator.compare(e, v) < 0) ? e : v);
+        });
+        return Optional.ofNullable(m.getValue());
     }
 
     /**
@@ -1290,12 +1615,61 @@ public interface Enumerator<E> extends Iterator<E> {
      */
     public default boolean noneMatch(Predicate<? super E> predicate) {
         Checks.ensureNotNull(predicate, Messages.NULL_ENUMERATOR_PREDICATE);
-        while (hasNext()) {
-            if (predicate.test(next())) {
-                return false;
-            }
-        }
-        return true;
+        return AbstractEnumerator.forEachWhile(this, e -> !predicate.test(e));
+    }
+
+    /**
+     * Returns an enumerator consisting of the results of applying the given
+     * function on the enumerated elements concurrently, on the common
+     * {@code ForkJoinPool}.
+     *
+     * @param <R> the element type of the new enumerator.
+     * @param mapper state-less {@link Function} to apply on each enumerated
+     * element.
+     * @param parallelism maximum number of batches of elements being mapped
+     * at the same time.
+     * @return the mapped enumerator.
+     * @exception IllegalArgumentException <code>mapper</code> is null or
+     * <code>parallelism</code> is not positive.
+     * @see #parallelMap(java.util.function.Function, int,
+     * java.util.concurrent.Executor)
+     */
+    public default <R> Enumerator<R> parallelMap(
+            Function<? super E, ? extends R> mapper,
+            int parallelism) {
+        return parallelMap(mapper, parallelism, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns an enumerator consisting of the results of applying the given
+     * function on the enumerated elements concurrently, on the given
+     * executor.
+     * <p>
+     * The elements get mapped in batches, at most <code>parallelism</code>
+     * batches at a time, while the resulted enumerator yields them in
+     * their original order. If <code>mapper</code> throws, the resulted
+     * enumerator yields the elements preceding the failing one and then
+     * throws the same error, just like
+     * {@link #map(java.util.function.Function)} would.
+     * </p>
+     *
+     * @param <R> the element type of the new enumerator.
+     * @param mapper state-less, thread-safe {@link Function} to apply on
+     * each enumerated element.
+     * @param parallelism maximum number of batches of elements being mapped
+     * at the same time.
+     * @param executor {@link Executor} mapping the batches of elements.
+     * @return the mapped enumerator.
+     * @exception IllegalArgumentException <code>mapper</code> or
+     * <code>executor</code> is null or <code>parallelism</code> is not
+     * positive.
+     * @see #map(java.util.function.Function)
+     */
+    public default <R> Enumerator<R> parallelMap(
+            Function<? super E, ? extends R> mapper,
+            int parallelism,
+            Executor executor) {
+        return new ParallelMapEnumerator<>(this, mapper, parallelism, executor);
     }
 
     /**
@@ -1327,7 +1701,7 @@ public interface Enumerator<E> extends Iterator<E> {
      * @exception IllegalArgumentException <code>elements</code> is null.
      */
     public default Enumerator<E> prepend(Iterator<? extends E> elements) {
-        return new PipeEnumerator(this).reversedConcat(elements);
+        return new PipeEnumerator(this).prepend(elements);
     }
 
     /**
@@ -1565,11 +1939,10 @@ public interface Enumerator<E> extends Iterator<E> {
      */
     public default E reduce(E identity, BinaryOperator<E> accumulator) {
         Checks.ensureNotNull(accumulator, Messages.NULL_ENUMERATOR_ACCUMULATOR);
-        E result = identity;
-        while (hasNext()) {
-            result = accumulator.apply(result, next());
-        }
-        return result;
+        final Mutable<E> result = new MutableObject(identity);
+        forEachRemaining(e -> result.setValue(
+                accumulator.apply(result.getValue(), e)));
+        return result.getValue();
     }
 
     /**
@@ -1726,7 +2099,12 @@ public interface Enumerator<E> extends Iterator<E> {
      * @return the sorted enumerator.
      */
     public default Enumerator<E> sorted() {
-        return of(asStream().sorted());
+        Checks.ensureNonEnumerating(this);
+        return ofLazyIterator(() -> {
+            final Object[] elements = toList().toArray();
+            Arrays.sort(elements);
+            return new ArrayEnumerator(elements);
+        });
     }
 
     /**
@@ -1740,7 +2118,12 @@ public interface Enumerator<E> extends Iterator<E> {
      */
     public default Enumerator<E> sorted(Comparator<? super E> comparator) {
         Checks.ensureNotNull(comparator, Messages.NULL_ENUMERATOR_COMPARATOR);
-        return of(asStream().sorted(comparator));
+        Checks.ensureNonEnumerating(this);
+        return ofLazyIterator(() -> {
+            final E[] elements = (E[])toList().toArray();
+            Arrays.sort(elements, comparator);
+            return new ArrayEnumerator(elements);
+        });
     }
 
     /**
@@ -1787,16 +2170,27 @@ public interface Enumerator<E> extends Iterator<E> {
      */
     public default E[] toArray(Class<E> clazz) {
         Checks.ensureNotNull(clazz, Messages.NULL_ENUMERATOR_CLASS);
-        return toList().toArray((E[])Array.newInstance(clazz, 0));
+        final List<E> elements = toList();
+        return elements.toArray((E[])Array.newInstance(clazz,
+                                                       elements.size()));
     }
 
     /**
      * Collects the current enumerator into a list of elements.
+     * <p>
+     * The returned {@link ArrayList} gets presized when the size of the
+     * current enumerator is known.
+     * </p>
      *
      * @return the list of elements.
+     * @exception IllegalStateException the current enumerator is enumerating.
      */
     public default List<E> toList() {
-        return collect(Collectors.toList());
+        Checks.ensureNonEnumerating(this);
+        final List<E> result =
+                new ArrayList<>(AbstractEnumerator.capacityOf(this, 10));
+        forEachRemaining(result::add);
+        return result;
     }
 
     /**
@@ -1811,19 +2205,68 @@ public interface Enumerator<E> extends Iterator<E> {
      * from enumerated elements.
      * @return {@link Map} instance containing the results of key and value
      * mappings.
+     * @exception IllegalStateException two elements map to the same key.
+     * @exception NullPointerException <code>valueMapper</code> returns
+     * {@code null}.
+     * @exception IllegalStateException the current enumerator is enumerating.
      */
     public default <K, V> Map<K, V> toMap(Function<? super E, K> keyMapper,
                                           Function<? super E, V> valueMapper) {
-        return collect(Collectors.toMap(keyMapper, valueMapper));
+        Checks.ensureNotNull(keyMapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensureNotNull(valueMapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensureNonEnumerating(this);
+        final Map<K, V> result = new HashMap<>(
+                AbstractEnumerator.hashCapacityOf(this));
+        forEachRemaining(e -> {
+            final K key = keyMapper.apply(e);
+            final V value = Objects.requireNonNull(valueMapper.apply(e));
+            if (result.putIfAbsent(key, value) != null) {
+                throw new IllegalStateException(Messages.DUPLICATE_MAP_KEY);
+            }
+        });
+        return result;
     }
 
     /**
      * Collects the current enumerator into a set.
+     * <p>
+     * The returned {@link HashSet} gets presized when the size of the
+     * current enumerator is known.
+     * </p>
      *
      * @return the set of elements.
+     * @exception IllegalStateException the current enumerator is enumerating.
      */
     public default Set<E> toSet() {
-        return collect(Collectors.toSet());
+        Checks.ensureNonEnumerating(this);
+        final Set<E> result = new HashSet<>(
+                AbstractEnumerator.hashCapacityOf(this));
+        forEachRemaining(result::add);
+        return result;
+    }
+
+    /**
+     * Passes the next enumerated element, if any, to the provided action.
+     * <p>
+     * This method works like <code>hasNext()</code> followed by
+     * <code>next()</code> but in a single call. The built-in enumerators
+     * implement it natively, which makes it the cheapest way to move one
+     * element from an enumerator to its consumer.
+     * </p>
+     *
+     * @param action {@link Consumer} instance receiving the next element.
+     * @return true if <code>action</code> received an element, false
+     * if there are no more elements.
+     * @exception IllegalArgumentException <code>action</code> is null.
+     * @see #forEachRemaining(java.util.function.Consumer)
+     */
+    public default boolean tryNext(Consumer<? super E> action) {
+        Checks.ensureNotNull(action, Messages.NULL_ENUMERATOR_CONSUMER);
+        if (!hasNext()) {
+            return false;
+        }
+        action.accept(next());
+        return true;
     }
 
     /**
@@ -1982,8 +2425,9 @@ public interface Enumerator<E> extends Iterator<E> {
     public default <T>
                    Enumerator<Pair<E, T>>
                    zipBoth(Iterator<T> elements) {
-        return zipAll((Iterator<E>)elements)
-               .takeWhile(arr -> arr[0].isPresent() && arr[1].isPresent())
+        Checks.ensureNotNull(elements, Messages.NULL_ITERATOR);
+        return new PipeEnumerator<E>(this)
+               .zip((Iterator<E>)elements, Collections.emptyList(), true, true)
                .map(arr -> Pair.of(arr[0].get(), ((Optional<T>)arr[1]).get()));
     }
 
@@ -2009,8 +2453,9 @@ public interface Enumerator<E> extends Iterator<E> {
     public default <T>
                    Enumerator<Pair<E, Optional<T>>>
                    zipLeft(Iterator<T> elements) {
-        return zipAll((Iterator<E>)elements)
-               .takeWhile(arr -> arr[0].isPresent())
+        Checks.ensureNotNull(elements, Messages.NULL_ITERATOR);
+        return new PipeEnumerator<E>(this)
+               .zip((Iterator<E>)elements, Collections.emptyList(), true, false)
                .map(arr -> Pair.of(arr[0].get(), (Optional<T>)arr[1]));
     }
 
@@ -2037,8 +2482,9 @@ public interface Enumerator<E> extends Iterator<E> {
     public default <T>
                    Enumerator<Pair<Optional<E>, T>>
                    zipRight(Iterator<T> elements) {
-        return zipAll((Iterator<E>)elements)
-               .takeWhile(arr -> arr[1].isPresent())
+        Checks.ensureNotNull(elements, Messages.NULL_ITERATOR);
+        return new PipeEnumerator<E>(this)
+               .zip((Iterator<E>)elements, Collections.emptyList(), false, true)
                .map(arr -> Pair.of(arr[0], ((Optional<T>)arr[1]).get()));
     }
 
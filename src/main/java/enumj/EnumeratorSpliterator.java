@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * {@code Spliterator} iterating over an {@code AbstractEnumerator}.
+ * <p>
+ * Splitting goes by way of {@link AbstractEnumerator#trySplit()}, so that
+ * array, list and range sources, as well as the pipelines of stateless
+ * processors over them, split evenly. When the enumerator cannot split,
+ * this {@link Spliterator} splits off batches of buffered elements by way
+ * of a {@link BatchSpliterator}.
+ * </p>
+ *
+ * @param <E> type of iterated elements.
+ * @see AbstractEnumerator#asSpliterator()
+ */
+final class EnumeratorSpliterator<E> implements Spliterator<E> {
+
+    private final AbstractEnumerator<E> source;
+    private       int                   characteristics;
+    private       long                  size;
+    private       Spliterator<E>        batches;
+
+    /**
+     * Constructs an {@code EnumeratorSpliterator} instance.
+     *
+     * @param source {@link AbstractEnumerator} to iterate over.
+     */
+    EnumeratorSpliterator(AbstractEnumerator<E> source) {
+        this.source = source;
+        this.size = source.exactSize();
+        this.characteristics = (size < 0)
+                               ? ORDERED
+                               : ORDERED | SIZED | SUBSIZED;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+        if (source.tryNext(action)) {
+            if (size > 0) {
+                --size;
+            }
+            return true;
+        }
+        if (size > 0) {
+            size = 0;
+        }
+        return false;
+    }
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+        source.forEachRemaining(action);
+        if (size > 0) {
+            size = 0;
+        }
+    }
+    @Override
+    public Spliterator<E> trySplit() {
+        final AbstractEnumerator<E> prefix = source.trySplit();
+        final Spliterator<E> result;
+        if (prefix != null) {
+            result = new EnumeratorSpliterator<>(prefix);
+        } else {
+            if (batches == null) {
+                batches = new BatchSpliterator<>(source);
+            }
+            result = batches.trySplit();
+        }
+        if (result != null && size >= 0) {
+            final long split = result.getExactSizeIfKnown();
+            if (split < 0) {
+                size = -1;
+                characteristics &= ~(SIZED | SUBSIZED);
+            } else {
+                size -= split;
+            }
+        }
+        return result;
+    }
+    @Override
+    public long estimateSize() {
+        return (size < 0) ? source.estimatedSize() : size;
+    }
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+}
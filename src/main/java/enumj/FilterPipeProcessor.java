@@ -23,21 +23,50 @@
  */
 package enumj;
 
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.function.Predicate;
 
 /**
  * Pipe processor that knows how to filter elements in
  * the pipeline.
+ * <p>
+ * In adaptive mode, the processor samples the pass rate and the cost of
+ * each fused predicate and periodically reorders the predicates so that
+ * the ones that are cheap and reject many elements get tested first.
+ * Adaptive mode assumes that the predicates are total, have no side
+ * effects and do not rely on each other. Should a predicate throw while
+ * the predicates are out of their declared order, the processor restores
+ * the declared order, stops reordering and tests the element again.
+ * </p>
  *
  * @param <E> type of enumerated elements.
  */
 final class FilterPipeProcessor<E> extends AbstractPipeProcessor<E,E> {
 
+    /**
+     * Number of tested elements between two reorderings.
+     */
+    static final int REORDER_PERIOD = 1024;
+    /**
+     * Number of tested elements between two cost samples.
+     */
+    static final int SAMPLE_PERIOD = 16;
+
     private Predicate<E>             filter;
     private LinkedList<Predicate<E>> filters;
+    private Predicate[]              filtersArray;
     private E                        value;
 
+    private boolean                  adaptive;
+    private long[]                   evaluations;
+    private long[]                   rejections;
+    private long[]                   samples;
+    private long[]                   nanos;
+    private int                      tested;
+    private Predicate[]              declared;
+
     /**
      * Constructs a {@code FilterPipeProcessor} instance.
      * <p>
@@ -50,6 +79,25 @@ final class FilterPipeProcessor<E> extends AbstractPipeProcessor<E,E> {
         super(true, true);
         this.filter = filter;
     }
+    private FilterPipeProcessor(Predicate[] filters) {
+        super(true, true);
+        this.filtersArray = filters;
+    }
+
+    @Override
+    public AbstractPipeProcessor<E,E> copy() {
+        return (filter != null)
+               ? new FilterPipeProcessor(filter)
+               : new FilterPipeProcessor(ensureFiltersArray().clone());
+    }
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
+    @Override
+    public long outputSize(long inputSize) {
+        return inputSize;
+    }
 
     // ---------------------------------------------------------------------- //
 
@@ -57,21 +105,62 @@ final class FilterPipeProcessor<E> extends AbstractPipeProcessor<E,E> {
     public boolean pushFrontFilter(Predicate<E> predicate) {
         ensureFilters();
         this.filters.addFirst((Predicate<E>)predicate);
+        this.filtersArray = null;
         return true;
     }
     @Override
     public boolean enqueueFilter(Predicate<E> predicate) {
         ensureFilters();
         this.filters.addLast((Predicate<E>)predicate);
+        this.filtersArray = null;
         return true;
     }
     private void ensureFilters() {
         if (filters == null) {
             filters = new LinkedList<>();
-            filters.add(filter);
+            if (filter != null) {
+                filters.add(filter);
+            } else {
+                filters.addAll((List)Arrays.asList(filtersArray));
+            }
             filter = null;
         }
     }
+    /**
+     * Gets the fused predicates of this processor, in order of application.
+     *
+     * @return array of filtering {@link Predicate} instances.
+     */
+    Predicate[] getFilters() {
+        return (filter != null)
+               ? new Predicate[] { filter }
+               : ensureFiltersArray().clone();
+    }
+    private Predicate[] ensureFiltersArray() {
+        if (filtersArray == null) {
+            filtersArray = filters.toArray(new Predicate[filters.size()]);
+            evaluations = null;
+        }
+        return filtersArray;
+    }
+
+    /**
+     * Gets whether the processor reorders its predicates at runtime.
+     *
+     * @return {@code true} if the processor is adaptive, {@code false}
+     * otherwise.
+     */
+    boolean isAdaptive() {
+        return adaptive;
+    }
+    /**
+     * Makes the processor reorder its predicates at runtime.
+     *
+     * @see #isAdaptive()
+     */
+    void setAdaptive() {
+        this.adaptive = true;
+    }
 
     // ---------------------------------------------------------------------- //
 
@@ -104,11 +193,133 @@ final class FilterPipeProcessor<E> extends AbstractPipeProcessor<E,E> {
         if (filter != null) {
             return filter.test(value);
         }
-        for(Predicate<E> pred : filters) {
-            if (!pred.test(value)) {
+        final Predicate[] preds = ensureFiltersArray();
+        if (adaptive) {
+            return testAdaptively(preds);
+        }
+        for(int i=0; i<preds.length; ++i) {
+            if (!preds[i].test(value)) {
                 return false;
             }
         }
         return true;
     }
+
+    /**
+     * Tests {@link #value} against the given predicates while gathering
+     * the statistics for reordering them.
+     * <p>
+     * A predicate throwing out of the declared order makes the processor
+     * go back to the declared order for good, as a later predicate may
+     * rely on an earlier one to guard it.
+     * </p>
+     *
+     * @param preds predicates to test, in their current order.
+     * @return {@code true} if {@link #value} passes all the predicates,
+     * {@code false} otherwise.
+     */
+    private boolean testAdaptively(Predicate[] preds) {
+        if (evaluations == null) {
+            evaluations = new long[preds.length];
+            rejections = new long[preds.length];
+            samples = new long[preds.length];
+            nanos = new long[preds.length];
+            tested = 0;
+            declared = preds.clone();
+        }
+        ++tested;
+        final boolean sample = tested % SAMPLE_PERIOD == 0;
+        boolean result = true;
+        try {
+            for(int i=0; i<preds.length; ++i) {
+                final boolean passed;
+                ++evaluations[i];
+                if (sample) {
+                    final long start = System.nanoTime();
+                    passed = preds[i].test(value);
+                    nanos[i] += System.nanoTime() - start;
+                    ++samples[i];
+                } else {
+                    passed = preds[i].test(value);
+                }
+                if (!passed) {
+                    ++rejections[i];
+                    result = false;
+                    break;
+                }
+            }
+        } catch(RuntimeException ex) {
+            if (Arrays.equals(preds, declared)) {
+                throw ex;
+            }
+            System.arraycopy(declared, 0, preds, 0, preds.length);
+            adaptive = false;
+            evaluations = null;
+            declared = null;
+            return testOutputValue();
+        }
+        if (tested >= REORDER_PERIOD) {
+            reorder(preds);
+        }
+        return result;
+    }
+
+    /**
+     * Sorts the given predicates by their expected cost per rejection,
+     * in ascending order, and then halves the gathered statistics so that
+     * recent behaviour weighs more.
+     * <p>
+     * The expected cost per rejection of a predicate is its average cost
+     * divided by its rejection rate. Testing the predicates in ascending
+     * order of this rank minimises the expected cost of testing an element.
+     * </p>
+     *
+     * @param preds predicates to sort in place.
+     */
+    private void reorder(Predicate[] preds) {
+        final int n = preds.length;
+        final double[] ranks = new double[n];
+        for(int i=0; i<n; ++i) {
+            final double cost = (samples[i] == 0)
+                                ? 1.0
+                                : Math.max(1.0, (double)nanos[i] / samples[i]);
+            final double rejectionRate = (evaluations[i] == 0)
+                                         ? 0.0
+                                         : (double)rejections[i]
+                                           / evaluations[i];
+            ranks[i] = cost / Math.max(rejectionRate, 1e-6);
+        }
+        for(int i=1; i<n; ++i) {
+            for(int j=i; j>0 && ranks[j] < ranks[j-1]; --j) {
+                swap(ranks, j);
+                swap(preds, j);
+                swap(evaluations, j);
+                swap(rejections, j);
+                swap(samples, j);
+                swap(nanos, j);
+            }
+        }
+        for(int i=0; i<n; ++i) {
+            evaluations[i] /= 2;
+            rejections[i] /= 2;
+            samples[i] /= 2;
+            nanos[i] /= 2;
+        }
+        tested = 0;
+    }
+    private static void swap(double[] array, int j) {
+        final double tmp = array[j];
+        array[j] = array[j-1];
+        array[j-1] = tmp;
+    }
+    private static void swap(long[] array, int j) {
+        final long tmp = array[j];
+        array[j] = array[j-1];
+        array[j-1] = tmp;
+    }
+    private static void swap(Object[] array, int j) {
+        final Object tmp = array[j];
+        array[j] = array[j-1];
+        array[j-1] = tmp;
+    }
 }
@@ -23,12 +23,28 @@
  */
 package enumj;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
  * Pipe processor that flattens sub-iterators
  * generated by mapping enumerated elements.
+ * <p>
+ * Sub-iterators get consumed along the fastest available path:
+ * </p>
+ * <ul>
+ * <li>the pipeline of a not-yet-started {@link PipeEnumerator} with a
+ * single source gets grafted: its processors run right here upon the
+ * elements of its source, without a second pipeline engine</li>
+ * <li>arrays behind {@link ArrayEnumerator} get read by index</li>
+ * <li>other {@link AbstractEnumerator} instances get consumed through
+ * {@link AbstractEnumerator#tryNext(java.util.function.Consumer)}</li>
+ * <li>any other {@link Iterator} gets consumed through
+ * {@link Iterator#hasNext()} and {@link Iterator#next()}</li>
+ * </ul>
  *
  * @param <In> input value mapped to an {@link Iterator}.
  * @param <Out> output value from the generated sub-iterator.
@@ -39,8 +55,15 @@ final class FlatMapPipeProcessor<In,Out>
             extends AbstractPipeMultiProcessor<In,Out> {
 
     private final Function<In,Iterator<Out>> mapper;
-    private final Nullable<Out>              value;    
+    private final Nullable<Out>              value;
     private       Iterator<Out>              iterator;
+    private       AbstractEnumerator<Out>    enumerator;
+    private       Object[]                   elements;
+    private       int                        elementIndex;
+    private       int                        elementFence;
+    private       AbstractPipeProcessor[]    grafted;
+    private       Object                     element;
+    private final Consumer<Object>           elementConsumer;
 
     /**
      * Constructs a {@code FlatMapPipeProcessor} instances.
@@ -56,6 +79,12 @@ final class FlatMapPipeProcessor<In,Out>
         this.mapper = mapper;
         this.iterator = null;
         this.value = Nullable.empty();
+        this.elementConsumer = e -> this.element = e;
+    }
+
+    @Override
+    public AbstractPipeProcessor<In,Out> copy() {
+        return new FlatMapPipeProcessor(mapper);
     }
 
     @Override
@@ -64,16 +93,8 @@ final class FlatMapPipeProcessor<In,Out>
     }
     @Override
     public void processInputValue(In value) {
-        this.iterator = this.mapper.apply(value);
-        if (this.iterator != null) {
-            if (this.iterator.hasNext()) {
-                this.value.set(this.iterator.next());
-            } else {
-                this.value.clear();
-            }
-        } else {
-            this.value.clear();
-        }
+        open(this.mapper.apply(value));
+        advance();
     }
     @Override
     public boolean hasOutputValue() {
@@ -86,15 +107,123 @@ final class FlatMapPipeProcessor<In,Out>
     @Override
     protected void clearOutputValue() {
         value.clear();
-        if (iterator.hasNext()) {
-            value.set(this.iterator.next());
-        } else {
-            iterator = null;
-            value.clear();
-        }
+        advance();
     }
     @Override
     public boolean isInactive() {
         return false;
     }
+
+    // ---------------------------------------------------------------------- //
+
+    /**
+     * Picks the fastest path to consume the given sub-iterator along.
+     *
+     * @param sub sub-iterator to consume, may be {@code null}.
+     */
+    private void open(Iterator<?> sub) {
+        close();
+        if (sub instanceof PipeEnumerator) {
+            final List<AbstractPipeProcessor> processors = new ArrayList<>();
+            final Iterator<?> source =
+                    ((PipeEnumerator<?>)sub).graft(processors);
+            if (source != null) {
+                sub = source;
+                if (!processors.isEmpty()) {
+                    grafted = processors.toArray(
+                            new AbstractPipeProcessor[processors.size()]);
+                }
+            }
+        }
+        if (sub instanceof ArrayEnumerator
+            && !((ArrayEnumerator<?>)sub).enumerating()) {
+            final ArrayEnumerator<?> array = (ArrayEnumerator<?>)sub;
+            elements = array.getElements();
+            elementFence = array.getFence();
+            elementIndex = array.detach();
+        } else if (sub instanceof AbstractEnumerator) {
+            enumerator = (AbstractEnumerator<Out>)sub;
+        } else {
+            iterator = (Iterator<Out>)sub;
+        }
+    }
+
+    /**
+     * Drops the current sub-iterator.
+     */
+    private void close() {
+        iterator = null;
+        enumerator = null;
+        elements = null;
+        grafted = null;
+        element = null;
+    }
+
+    /**
+     * Stores the next element of the current sub-iterator, if any, into
+     * {@link #value}.
+     * <p>
+     * Grafted processors, if any, get applied to the elements of the
+     * sub-iterator the same way {@link PipeEnumerator} applies them to the
+     * elements of a single source.
+     * </p>
+     */
+    private void advance() {
+        while(nextElement()) {
+            Object val = element;
+            element = null;
+            if (grafted == null) {
+                value.set((Out)val);
+                return;
+            }
+            boolean produced = true;
+            for(int i=0; i<grafted.length; ++i) {
+                final AbstractPipeProcessor processor = grafted[i];
+                if (processor.isInactive()) {
+                    close();
+                    return;
+                }
+                processor.processInputValue(val);
+                if (!processor.hasOutputValue()) {
+                    if (!processor.nextOnSameSourceOnNoValue) {
+                        close();
+                        return;
+                    }
+                    produced = false;
+                    break;
+                }
+                val = processor.getOutputValue();
+            }
+            if (produced) {
+                value.set((Out)val);
+                return;
+            }
+        }
+        close();
+    }
+
+    /**
+     * Stores the next raw element of the current sub-iterator, if any,
+     * into {@link #element}.
+     *
+     * @return {@code true} if there is a raw element, {@code false}
+     * otherwise.
+     */
+    private boolean nextElement() {
+        if (elements != null) {
+            if (elementIndex < elementFence) {
+                element = elements[elementIndex++];
+                return true;
+            }
+            return false;
+        }
+        if (enumerator != null) {
+            return enumerator.tryNext(elementConsumer);
+        }
+        if (iterator != null && iterator.hasNext()) {
+            element = iterator.next();
+            return true;
+        }
+        return false;
+    }
 }
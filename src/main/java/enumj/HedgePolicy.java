@@ -0,0 +1,201 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Policy telling when asynchronous mapping issues a second, hedged,
+ * computation for an element whose first computation is slow.
+ * <p>
+ * A hedged computation starts once the first computation of the same
+ * element has been outstanding for longer than the hedge delay. The hedge
+ * delay is either fixed or the given percentile of the latencies observed
+ * so far, but no shorter than a minimum delay. The element gets the result
+ * of whichever computation succeeds first and the other one gets
+ * cancelled. At most a given ratio of the elements get hedged, so that
+ * a slow service does not get twice the load.
+ * </p>
+ * <p>
+ * This is a <em>value-based</em> class.
+ * </p>
+ *
+ * @see Enumerator#mapAsync(java.util.function.Function, int, boolean,
+ * enumj.HedgePolicy)
+ */
+public final class HedgePolicy {
+
+    /**
+     * Default maximum ratio of hedged elements.
+     */
+    public static final double DEFAULT_MAX_RATIO = 0.05;
+    /**
+     * Number of latest latencies that percentile hedge delays get
+     * computed from.
+     */
+    static final int LATENCY_WINDOW = 256;
+    /**
+     * Number of latencies to observe before percentile hedge delays
+     * replace the minimum delay.
+     */
+    static final int MIN_LATENCY_SAMPLES = 16;
+
+    private final long   delayNanos;
+    private final double percentile;
+    private final double maxRatio;
+
+    private HedgePolicy(long delayNanos, double percentile, double maxRatio) {
+        this.delayNanos = delayNanos;
+        this.percentile = percentile;
+        this.maxRatio = maxRatio;
+    }
+
+    /**
+     * Creates a {@code HedgePolicy} that hedges after a fixed delay.
+     *
+     * @param delay time to wait for the first computation before hedging.
+     * @return new {@link HedgePolicy}.
+     * @exception IllegalArgumentException <code>delay</code> is null or
+     * negative.
+     */
+    public static HedgePolicy after(Duration delay) {
+        return new HedgePolicy(nanosOf(delay), 0, DEFAULT_MAX_RATIO);
+    }
+
+    /**
+     * Creates a {@code HedgePolicy} that hedges after the given percentile
+     * of the observed latencies.
+     *
+     * @param percentile percentile of the observed latencies to wait for
+     * the first computation before hedging, greater than {@code 0} and
+     * less than {@code 100}.
+     * @param minDelay minimum time to wait for the first computation before
+     * hedging.
+     * @return new {@link HedgePolicy}.
+     * @exception IllegalArgumentException <code>percentile</code> is out of
+     * range or <code>minDelay</code> is null or negative.
+     */
+    public static HedgePolicy atPercentile(double percentile,
+                                           Duration minDelay) {
+        if (!(percentile > 0 && percentile < 100)) {
+            throw new IllegalArgumentException(
+                    Messages.ILLEGAL_HEDGE_PERCENTILE);
+        }
+        return new HedgePolicy(nanosOf(minDelay),
+                               percentile,
+                               DEFAULT_MAX_RATIO);
+    }
+
+    /**
+     * Creates a {@code HedgePolicy} like the current one but with the given
+     * maximum ratio of hedged elements.
+     *
+     * @param ratio maximum ratio of hedged elements, between {@code 0} and
+     * {@code 1}.
+     * @return new {@link HedgePolicy}.
+     * @exception IllegalArgumentException <code>ratio</code> is out of
+     * range.
+     */
+    public HedgePolicy withMaxRatio(double ratio) {
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException(Messages.ILLEGAL_HEDGE_RATIO);
+        }
+        return new HedgePolicy(delayNanos, percentile, ratio);
+    }
+
+    /**
+     * Gets the fixed or minimum hedge delay.
+     *
+     * @return delay in nanoseconds.
+     */
+    long getDelayNanos() {
+        return delayNanos;
+    }
+    /**
+     * Gets the percentile of the observed latencies to hedge after.
+     *
+     * @return the percentile, {@code 0} if the hedge delay is fixed.
+     */
+    double getPercentile() {
+        return percentile;
+    }
+    /**
+     * Gets the maximum ratio of hedged elements.
+     *
+     * @return the ratio.
+     */
+    double getMaxRatio() {
+        return maxRatio;
+    }
+
+    /**
+     * Gets the hedge delay, given the latencies observed so far.
+     *
+     * @param latencies window of observed latencies.
+     * @return delay in nanoseconds.
+     */
+    long delayNanos(LatencyWindow latencies) {
+        if (percentile == 0 || latencies.size() < MIN_LATENCY_SAMPLES) {
+            return delayNanos;
+        }
+        return Math.max(delayNanos, latencies.percentile(percentile));
+    }
+
+    /**
+     * Gets the scheduler that starts the hedged computations.
+     * <p>
+     * The scheduler has a single daemon thread, shared by all the
+     * enumerators that hedge.
+     * </p>
+     *
+     * @return {@link ScheduledExecutorService} instance.
+     */
+    static ScheduledExecutorService scheduler() {
+        return Scheduler.INSTANCE;
+    }
+
+    private static long nanosOf(Duration delay) {
+        Checks.ensureNotNull(delay, Messages.NULL_HEDGE_DELAY);
+        Checks.ensureNonNegative(delay, Messages.NEGATIVE_HEDGE_DELAY);
+        return delay.toNanos();
+    }
+
+    private static final class Scheduler {
+
+        static final ScheduledExecutorService INSTANCE;
+
+        static {
+            final ScheduledThreadPoolExecutor scheduler =
+                    new ScheduledThreadPoolExecutor(1, task -> {
+                        final Thread thread = new Thread(task, "enumj-hedge");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            scheduler.setRemoveOnCancelPolicy(true);
+            INSTANCE = scheduler;
+        }
+    }
+}
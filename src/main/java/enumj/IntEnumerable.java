@@ -0,0 +1,469 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.IntSummaryStatistics;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@code Iterable} of unboxed {@code int} values that can be enumerated
+ * any number of times.
+ * <p>
+ * Int enumerables are the {@code int} counterparts of {@link Enumerable}.
+ * Each call to {@link #enumerator()} returns a fresh {@link IntEnumerator}
+ * and the composable operations return new int enumerables that apply the
+ * operation upon every new enumerator.
+ * </p>
+ * <p>
+ * The ranges returned by {@link #range(int, int)},
+ * {@link #range(int, int, int)}, {@link #rangeClosed(int, int)} and
+ * {@link #rangeClosed(int, int, int)} answer {@link #count()},
+ * {@link #skip(long)}, {@link #limit(long)}, {@link #elementAt(long)},
+ * {@link #contains(int)}, {@link #last()}, {@link #min()}, {@link #max()}
+ * and {@link #reverse()} arithmetically, in constant time. Their
+ * {@link #spliterator()} splits evenly, for parallel consumers.
+ * </p>
+ *
+ * @see IntEnumerator
+ * @see LongEnumerable
+ */
+@FunctionalInterface
+public interface IntEnumerable extends Iterable<Integer> {
+
+    /**
+     * Returns a new int enumerator over the values of the current int
+     * enumerable.
+     *
+     * @return new {@link IntEnumerator} instance.
+     */
+    public IntEnumerator enumerator();
+
+    /**
+     * Returns an int enumerable enumerating over the given values.
+     *
+     * @param values the values enumerated upon.
+     * @return the new {@link IntEnumerable}.
+     */
+    public static IntEnumerable on(int... values) {
+        return () -> IntEnumerator.on(values);
+    }
+
+    /**
+     * Returns a new int enumerator over the values of the current int
+     * enumerable.
+     * <p>
+     * This method works exactly like {@link #enumerator()}.
+     * </p>
+     *
+     * @return new {@link IntEnumerator} instance.
+     */
+    @Override
+    public default IntEnumerator iterator() {
+        return enumerator();
+    }
+
+    /**
+     * Returns a spliterator over the values of the current int enumerable.
+     *
+     * @return new {@link Spliterator.OfInt} instance.
+     */
+    @Override
+    public default Spliterator.OfInt spliterator() {
+        return Spliterators.spliteratorUnknownSize(enumerator(),
+                                                   Spliterator.ORDERED);
+    }
+
+    /**
+     * Returns a long enumerable enumerating over the values of the current
+     * int enumerable, converted to {@code long}.
+     *
+     * @return the converted {@link LongEnumerable}.
+     */
+    public default LongEnumerable asLongEnumerable() {
+        return () -> enumerator().asLongEnumerator();
+    }
+
+    /**
+     * Returns a sequential {@code IntStream} over the values of the current
+     * int enumerable.
+     *
+     * @return the new {@link IntStream}.
+     * @see #spliterator()
+     */
+    public default IntStream asStream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    /**
+     * Returns the arithmetic mean of the values of the current enumerable.
+     *
+     * @return {@link OptionalDouble} containing the mean, empty if there
+     * are no values.
+     */
+    public default OptionalDouble average() {
+        return enumerator().average();
+    }
+
+    /**
+     * Returns an enumerable enumerating over the boxed values of the
+     * current int enumerable.
+     *
+     * @return the boxed {@link Enumerable}.
+     */
+    public default Enumerable<Integer> boxed() {
+        return mapToObj(Integer::valueOf);
+    }
+
+    /**
+     * Returns whether the current int enumerable contains the given value.
+     *
+     * @param value the value to look for.
+     * @return true if {@code value} gets enumerated, false otherwise.
+     */
+    public default boolean contains(int value) {
+        return enumerator().filter(x -> x == value).hasNext();
+    }
+
+    /**
+     * Returns the number of values in the current int enumerable.
+     *
+     * @return the number of enumerated values.
+     */
+    public default long count() {
+        return enumerator().count();
+    }
+
+    /**
+     * Returns the value at the given index, if any.
+     *
+     * @param index zero-based index of the value to return.
+     * @return {@link OptionalInt} containing the value at {@code index},
+     * empty if there are not enough values.
+     * @exception IllegalArgumentException <code>index</code> is negative.
+     */
+    public default OptionalInt elementAt(long index) {
+        Checks.ensureNonNegative(index, Messages.NEGATIVE_ENUMERATOR_INDEX);
+        final IntEnumerator en = enumerator().skip(index);
+        return en.hasNext() ? OptionalInt.of(en.nextInt())
+                            : OptionalInt.empty();
+    }
+
+    /**
+     * Returns an int enumerable with no values.
+     *
+     * @return the empty {@link IntEnumerable}.
+     */
+    public static IntEnumerable empty() {
+        return on();
+    }
+
+    /**
+     * Returns an int enumerable consisting of the values of the current
+     * enumerable that match the provided predicate.
+     *
+     * @param predicate state-less predicate to apply on each value.
+     * @return the filtered enumerable.
+     * @exception IllegalArgumentException <code>predicate</code> is null.
+     */
+    public default IntEnumerable filter(IntPredicate predicate) {
+        Checks.ensureNotNull(predicate, Messages.NULL_ENUMERATOR_PREDICATE);
+        return () -> enumerator().filter(predicate);
+    }
+
+    /**
+     * Returns the last value of the current int enumerable, if any.
+     *
+     * @return {@link OptionalInt} containing the last value.
+     */
+    public default OptionalInt last() {
+        return enumerator().reduce((x,y) -> y);
+    }
+
+    /**
+     * Returns the current int enumerable truncated to the given size.
+     *
+     * @param maxSize the maximum number of values in the resulted
+     * enumerable.
+     * @return the truncated enumerable.
+     * @exception IllegalArgumentException <code>maxSize</code> is negative.
+     */
+    public default IntEnumerable limit(long maxSize) {
+        Checks.ensureNonNegative(maxSize, Messages.NEGATIVE_ENUMERATOR_SIZE);
+        return () -> enumerator().limit(maxSize);
+    }
+
+    /**
+     * Returns an int enumerable consisting of the results of applying the
+     * given mapper to the values of the current enumerable.
+     *
+     * @param mapper state-less {@link IntUnaryOperator} instance to apply
+     * on each value.
+     * @return the mapped enumerable.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default IntEnumerable map(IntUnaryOperator mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        return () -> enumerator().map(mapper);
+    }
+
+    /**
+     * Returns a long enumerable consisting of the results of applying the
+     * given mapper to the values of the current enumerable.
+     *
+     * @param mapper state-less {@link IntToLongFunction} instance to apply
+     * on each value.
+     * @return the mapped {@link LongEnumerable}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default LongEnumerable mapToLong(IntToLongFunction mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        return () -> enumerator().mapToLong(mapper);
+    }
+
+    /**
+     * Returns an enumerable consisting of the results of applying the
+     * given mapper to the values of the current int enumerable.
+     *
+     * @param <R> type of the mapped elements.
+     * @param mapper state-less {@link IntFunction} instance to apply on
+     * each value.
+     * @return the mapped {@link Enumerable}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default <R> Enumerable<R> mapToObj(IntFunction<? extends R> mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        return new SuppliedEnumerable(() -> enumerator().mapToObj(mapper));
+    }
+
+    /**
+     * Returns the largest value of the current int enumerable, if any.
+     *
+     * @return {@link OptionalInt} containing the largest value.
+     */
+    public default OptionalInt max() {
+        return enumerator().max();
+    }
+
+    /**
+     * Returns the smallest value of the current int enumerable, if any.
+     *
+     * @return {@link OptionalInt} containing the smallest value.
+     */
+    public default OptionalInt min() {
+        return enumerator().min();
+    }
+
+    /**
+     * Returns an int enumerable consisting of the values of the current
+     * enumerable while applying the given action on each value.
+     *
+     * @param action {@link IntConsumer} instance to apply on each value.
+     * @return the peeked enumerable.
+     * @exception IllegalArgumentException <code>action</code> is null.
+     */
+    public default IntEnumerable peek(IntConsumer action) {
+        Checks.ensureNotNull(action, Messages.NULL_ENUMERATOR_CONSUMER);
+        return () -> enumerator().peek(action);
+    }
+
+    /**
+     * Returns an int enumerable enumerating over an integral range, upper
+     * limit excluded.
+     *
+     * @param startInclusive the lower bound of the range.
+     * @param endExclusive the exclusive upper bound of the range.
+     * @return the int enumerable covering the range.
+     */
+    public static IntEnumerable range(int startInclusive, int endExclusive) {
+        return range(startInclusive, endExclusive, 1);
+    }
+
+    /**
+     * Returns an int enumerable enumerating over an integral range by the
+     * given step, bound excluded.
+     * <p>
+     * Positive steps make ascending ranges, negative steps make descending
+     * ranges.
+     * </p>
+     *
+     * @param start the first value of the range.
+     * @param endExclusive the exclusive bound of the range.
+     * @param step the difference between consecutive values.
+     * @return the int enumerable covering the range.
+     * @exception IllegalArgumentException <code>step</code> is zero.
+     */
+    public static IntEnumerable range(int start, int endExclusive, int step) {
+        return new IntRange(LongRange.open(start, endExclusive, step));
+    }
+
+    /**
+     * Returns an int enumerable enumerating over an integral range, upper
+     * limit included.
+     *
+     * @param startInclusive the lower bound of the range.
+     * @param endInclusive the inclusive upper bound of the range.
+     * @return the int enumerable covering the range.
+     */
+    public static IntEnumerable rangeClosed(int startInclusive,
+                                            int endInclusive) {
+        return rangeClosed(startInclusive, endInclusive, 1);
+    }
+
+    /**
+     * Returns an int enumerable enumerating over an integral range by the
+     * given step, bound included.
+     * <p>
+     * Positive steps make ascending ranges, negative steps make descending
+     * ranges.
+     * </p>
+     *
+     * @param start the first value of the range.
+     * @param endInclusive the inclusive bound of the range.
+     * @param step the difference between consecutive values.
+     * @return the int enumerable covering the range.
+     * @exception IllegalArgumentException <code>step</code> is zero.
+     */
+    public static IntEnumerable rangeClosed(int start,
+                                            int endInclusive,
+                                            int step) {
+        return new IntRange(LongRange.closed(start, endInclusive, step));
+    }
+
+    /**
+     * Returns the result of the accumulation of the values of the current
+     * int enumerable, if any.
+     *
+     * @param accumulator state-less {@link IntBinaryOperator} instance
+     * that accumulates the values.
+     * @return {@link OptionalInt} containing the accumulated result.
+     * @exception IllegalArgumentException <code>accumulator</code> is null.
+     */
+    public default OptionalInt reduce(IntBinaryOperator accumulator) {
+        return enumerator().reduce(accumulator);
+    }
+
+    /**
+     * Returns the result of the accumulation of the values of the current
+     * int enumerable, starting from the given identity.
+     *
+     * @param identity the start value of the accumulation.
+     * @param accumulator state-less {@link IntBinaryOperator} instance
+     * that accumulates the values.
+     * @return the accumulated result.
+     * @exception IllegalArgumentException <code>accumulator</code> is null.
+     */
+    public default int reduce(int identity, IntBinaryOperator accumulator) {
+        return enumerator().reduce(identity, accumulator);
+    }
+
+    /**
+     * Returns an int enumerable enumerating over the values of the current
+     * enumerable in reverse order.
+     * <p>
+     * Except for ranges, every enumeration of the returned enumerable
+     * stores all the values of the current enumerable.
+     * </p>
+     *
+     * @return the reversed enumerable.
+     */
+    public default IntEnumerable reverse() {
+        return () -> {
+            final int[] values = enumerator().toArray();
+            for(int i=0, j=values.length-1; i<j; ++i, --j) {
+                final int value = values[i];
+                values[i] = values[j];
+                values[j] = value;
+            }
+            return IntEnumerator.on(values);
+        };
+    }
+
+    /**
+     * Returns the current int enumerable without its first {@code n}
+     * values.
+     *
+     * @param n the number of values to skip.
+     * @return the new enumerable.
+     * @exception IllegalArgumentException <code>n</code> is negative.
+     */
+    public default IntEnumerable skip(long n) {
+        Checks.ensureNonNegative(n, Messages.NEGATIVE_ENUMERATOR_SIZE);
+        return () -> enumerator().skip(n);
+    }
+
+    /**
+     * Returns the sum of the values of the current int enumerable.
+     *
+     * @return the sum of the enumerated values, {@code 0} if none.
+     * @see IntEnumerator#sum()
+     */
+    public default int sum() {
+        return enumerator().sum();
+    }
+
+    /**
+     * Returns the count, sum, minimum, maximum and average of the values of
+     * the current int enumerable.
+     *
+     * @return the {@link IntSummaryStatistics} of the enumerated values.
+     */
+    public default IntSummaryStatistics summaryStatistics() {
+        return enumerator().summaryStatistics();
+    }
+
+    /**
+     * Returns an int enumerable enumerating over the values of the current
+     * enumerable while stopping at the first value that does not match
+     * the provided predicate.
+     *
+     * @param predicate state-less {@link IntPredicate} instance to apply on
+     * enumerated values.
+     * @return the truncated enumerable.
+     * @exception IllegalArgumentException <code>predicate</code> is null.
+     */
+    public default IntEnumerable takeWhile(IntPredicate predicate) {
+        Checks.ensureNotNull(predicate, Messages.NULL_ENUMERATOR_PREDICATE);
+        return () -> enumerator().takeWhile(predicate);
+    }
+
+    /**
+     * Returns the values of the current int enumerable as an array.
+     *
+     * @return array of the enumerated values.
+     */
+    public default int[] toArray() {
+        return enumerator().toArray();
+    }
+}
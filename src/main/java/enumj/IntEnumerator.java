@@ -0,0 +1,503 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * {@code PrimitiveIterator.OfInt} with high composability.
+ * <p>
+ * Int enumerators are the {@code int} counterparts of {@link Enumerator}.
+ * Their operations work upon unboxed values: a pipeline made of
+ * {@link #filter(java.util.function.IntPredicate)},
+ * {@link #map(java.util.function.IntUnaryOperator)},
+ * {@link #limit(long)}, {@link #skip(long)} and the like, ending in
+ * {@link #sum()} or {@link #summaryStatistics()}, allocates no objects
+ * per enumerated element.
+ * </p>
+ * <p>
+ * The composable operations of all the primitive enumerators share the same
+ * pipeline engine, so the conversions between {@code IntEnumerator},
+ * {@link LongEnumerator} and {@link DoubleEnumerator} add stages to the
+ * same pipeline rather than stacking enumerators upon each other.
+ * </p>
+ *
+ * @see LongEnumerator
+ * @see DoubleEnumerator
+ */
+public interface IntEnumerator extends PrimitiveIterator.OfInt {
+
+    /**
+     * Returns whether the enumerator has started enumerating.
+     * <p>
+     * This method returns false before the first call
+     * to {@link hasNext} and true afterwards.
+     * </p>
+     *
+     * @return true if the enumerator has started enumerating, false otherwise.
+     * @see #hasNext()
+     * @see #nextInt()
+     */
+    public boolean enumerating();
+
+    /**
+     * Returns an int enumerator returning the given values.
+     *
+     * @param values the values returned by the enumerator.
+     * @return the new {@link IntEnumerator}.
+     */
+    public static IntEnumerator on(int... values) {
+        return of(Arrays.stream(values).iterator());
+    }
+
+    /**
+     * Returns an int enumerator enumerating over the values of an existing
+     * {@code PrimitiveIterator.OfInt}.
+     *
+     * @param source the {@link PrimitiveIterator.OfInt} being enumerated
+     * upon.
+     * @return the new {@link IntEnumerator}.
+     * @exception IllegalArgumentException {@code source} is null.
+     */
+    public static IntEnumerator of(PrimitiveIterator.OfInt source) {
+        return (source instanceof IntEnumerator)
+               ? (IntEnumerator)source
+               : new IntPipeEnumerator(PrimitivePipe.ofInt(source));
+    }
+
+    /**
+     * Returns a double enumerator enumerating over the values of the
+     * current int enumerator, converted to {@code double}.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @return the converted {@link DoubleEnumerator}.
+     */
+    public default DoubleEnumerator asDoubleEnumerator() {
+        return new IntPipeEnumerator(this).asDoubleEnumerator();
+    }
+
+    /**
+     * Returns a long enumerator enumerating over the values of the
+     * current int enumerator, converted to {@code long}.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @return the converted {@link LongEnumerator}.
+     */
+    public default LongEnumerator asLongEnumerator() {
+        return new IntPipeEnumerator(this).asLongEnumerator();
+    }
+
+    /**
+     * Returns the arithmetic mean of the values of the current enumerator.
+     *
+     * @return {@link OptionalDouble} containing the mean, empty if there
+     * are no values.
+     */
+    public default OptionalDouble average() {
+        long sum = 0;
+        long count = 0;
+        while(hasNext()) {
+            sum += nextInt();
+            ++count;
+        }
+        return (count == 0)
+               ? OptionalDouble.empty()
+               : OptionalDouble.of((double)sum / count);
+    }
+
+    /**
+     * Returns an enumerator enumerating over the boxed values of the
+     * current int enumerator.
+     *
+     * @return the boxed {@link Enumerator}.
+     */
+    public default Enumerator<Integer> boxed() {
+        return mapToObj(Integer::valueOf);
+    }
+
+    /**
+     * Returns the number of values in the current enumerator.
+     *
+     * @return the number of enumerated values.
+     */
+    public default long count() {
+        long count = 0;
+        while(hasNext()) {
+            nextInt();
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * Returns an int enumerator with no values.
+     *
+     * @return the empty {@link IntEnumerator}.
+     */
+    public static IntEnumerator empty() {
+        return on();
+    }
+
+    /**
+     * Returns an int enumerator consisting of the values of the current
+     * enumerator that match the provided predicate.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param predicate state-less predicate to apply on each value.
+     * @return the filtered enumerator.
+     * @exception IllegalArgumentException <code>predicate</code> is null.
+     */
+    public default IntEnumerator filter(IntPredicate predicate) {
+        return new IntPipeEnumerator(this).filter(predicate);
+    }
+
+    /**
+     * Returns an infinite int enumerator obtained by applying repeatedly
+     * the provided unary operator.
+     * <p>
+     * The resulted enumerator returns <code>seed</code>,
+     * <code>f(seed)</code>, <code>f(f(seed))</code> ...
+     * </p>
+     *
+     * @param seed the initial value
+     * @param f state-less {@link IntUnaryOperator} instance to apply on the
+     * previous value to obtain the next value
+     * @return the iterated enumerator
+     * @exception IllegalArgumentException <code>f</code> is null.
+     */
+    public static IntEnumerator iterate(int seed, IntUnaryOperator f) {
+        Checks.ensureNotNull(f, Messages.NULL_ENUMERATOR_GENERATOR);
+        return of(new PrimitiveIterator.OfInt() {
+            private int     value = seed;
+            private boolean first = true;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+            @Override
+            public int nextInt() {
+                if (first) {
+                    first = false;
+                } else {
+                    value = f.applyAsInt(value);
+                }
+                return value;
+            }
+        });
+    }
+
+    /**
+     * Returns the current int enumerator truncated to the given size.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param maxSize the maximum number of values in the resulted
+     * enumerator.
+     * @return the truncated enumerator.
+     * @exception IllegalArgumentException <code>maxSize</code> is negative.
+     */
+    public default IntEnumerator limit(long maxSize) {
+        return new IntPipeEnumerator(this).limit(maxSize);
+    }
+
+    /**
+     * Returns an int enumerator consisting of the results of applying the
+     * given mapper to the values of the current enumerator.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param mapper state-less {@link IntUnaryOperator} instance to apply
+     * on each value.
+     * @return the mapped enumerator.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default IntEnumerator map(IntUnaryOperator mapper) {
+        return new IntPipeEnumerator(this).map(mapper);
+    }
+
+    /**
+     * Returns a double enumerator consisting of the results of applying
+     * the given mapper to the values of the current enumerator.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param mapper state-less {@link IntToDoubleFunction} instance to
+     * apply on each value.
+     * @return the mapped {@link DoubleEnumerator}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default DoubleEnumerator mapToDouble(IntToDoubleFunction mapper) {
+        return new IntPipeEnumerator(this).mapToDouble(mapper);
+    }
+
+    /**
+     * Returns a long enumerator consisting of the results of applying
+     * the given mapper to the values of the current enumerator.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param mapper state-less {@link IntToLongFunction} instance to apply
+     * on each value.
+     * @return the mapped {@link LongEnumerator}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default LongEnumerator mapToLong(IntToLongFunction mapper) {
+        return new IntPipeEnumerator(this).mapToLong(mapper);
+    }
+
+    /**
+     * Returns an enumerator consisting of the results of applying the given
+     * mapper to the values of the current int enumerator.
+     *
+     * @param <R> type of the mapped elements.
+     * @param mapper state-less {@link IntFunction} instance to apply on
+     * each value.
+     * @return the mapped {@link Enumerator}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default <R> Enumerator<R> mapToObj(IntFunction<? extends R> mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        final IntEnumerator source = this;
+        return new AbstractEnumerator<R>() {
+            @Override
+            protected boolean internalHasNext() {
+                return source.hasNext();
+            }
+            @Override
+            protected R internalNext() {
+                return mapper.apply(source.nextInt());
+            }
+        };
+    }
+
+    /**
+     * Returns the largest value of the current enumerator, if any.
+     *
+     * @return {@link OptionalInt} containing the largest value.
+     */
+    public default OptionalInt max() {
+        if (!hasNext()) {
+            return OptionalInt.empty();
+        }
+        int result = nextInt();
+        while(hasNext()) {
+            result = Math.max(result, nextInt());
+        }
+        return OptionalInt.of(result);
+    }
+
+    /**
+     * Returns the smallest value of the current enumerator, if any.
+     *
+     * @return {@link OptionalInt} containing the smallest value.
+     */
+    public default OptionalInt min() {
+        if (!hasNext()) {
+            return OptionalInt.empty();
+        }
+        int result = nextInt();
+        while(hasNext()) {
+            result = Math.min(result, nextInt());
+        }
+        return OptionalInt.of(result);
+    }
+
+    /**
+     * Returns an int enumerator consisting of the values of the current
+     * enumerator while applying the given action on each value.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param action {@link IntConsumer} instance to apply on each value.
+     * @return the peeked enumerator.
+     * @exception IllegalArgumentException <code>action</code> is null.
+     */
+    public default IntEnumerator peek(IntConsumer action) {
+        return new IntPipeEnumerator(this).peek(action);
+    }
+
+    /**
+     * Returns an int enumerator enumerating over an integral range, upper
+     * limit excluded.
+     *
+     * @param startInclusive the lower bound of the range.
+     * @param endExclusive the exclusive upper bound of the range.
+     * @return the int enumerator covering the range.
+     */
+    public static IntEnumerator range(int startInclusive, int endExclusive) {
+        return of(Enumerator.rangeInt(startInclusive, endExclusive));
+    }
+
+    /**
+     * Returns an int enumerator enumerating over an integral range, upper
+     * limit included.
+     *
+     * @param startInclusive the lower bound of the range.
+     * @param endInclusive the inclusive upper bound of the range.
+     * @return the int enumerator covering the range.
+     */
+    public static IntEnumerator rangeClosed(int startInclusive,
+                                            int endInclusive) {
+        return of(Enumerator.rangeIntClosed(startInclusive, endInclusive));
+    }
+
+    /**
+     * Returns the result of the accumulation of the values of the current
+     * enumerator, if any.
+     *
+     * @param accumulator state-less {@link IntBinaryOperator} instance
+     * that accumulates the values.
+     * @return {@link OptionalInt} containing the accumulated result.
+     * @exception IllegalArgumentException <code>accumulator</code> is null.
+     */
+    public default OptionalInt reduce(IntBinaryOperator accumulator) {
+        Checks.ensureNotNull(accumulator,
+                             Messages.NULL_ENUMERATOR_ACCUMULATOR);
+        if (!hasNext()) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(reduce(nextInt(), accumulator));
+    }
+
+    /**
+     * Returns the result of the accumulation of the values of the current
+     * enumerator, starting from the given identity.
+     *
+     * @param identity the start value of the accumulation.
+     * @param accumulator state-less {@link IntBinaryOperator} instance
+     * that accumulates the values.
+     * @return the accumulated result.
+     * @exception IllegalArgumentException <code>accumulator</code> is null.
+     */
+    public default int reduce(int identity, IntBinaryOperator accumulator) {
+        Checks.ensureNotNull(accumulator,
+                             Messages.NULL_ENUMERATOR_ACCUMULATOR);
+        int result = identity;
+        while(hasNext()) {
+            result = accumulator.applyAsInt(result, nextInt());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the current int enumerator without its first {@code n}
+     * values.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param n the number of values to skip.
+     * @return the new enumerator.
+     * @exception IllegalArgumentException <code>n</code> is negative.
+     */
+    public default IntEnumerator skip(long n) {
+        return new IntPipeEnumerator(this).skip(n);
+    }
+
+    /**
+     * Returns the sum of the values of the current enumerator.
+     * <p>
+     * Like {@link java.util.stream.IntStream#sum()}, the sum overflows
+     * silently.
+     * </p>
+     *
+     * @return the sum of the enumerated values, {@code 0} if none.
+     */
+    public default int sum() {
+        int result = 0;
+        while(hasNext()) {
+            result += nextInt();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the count, sum, minimum, maximum and average of the values of
+     * the current enumerator.
+     *
+     * @return the {@link IntSummaryStatistics} of the enumerated values.
+     */
+    public default IntSummaryStatistics summaryStatistics() {
+        final IntSummaryStatistics result = new IntSummaryStatistics();
+        forEachRemaining(result);
+        return result;
+    }
+
+    /**
+     * Returns an int enumerator enumerating over the values of the current
+     * enumerator while stopping at the first value that does not match
+     * the provided predicate.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param predicate state-less {@link IntPredicate} instance to apply on
+     * enumerated values.
+     * @return the truncated enumerator.
+     * @exception IllegalArgumentException <code>predicate</code> is null.
+     */
+    public default IntEnumerator takeWhile(IntPredicate predicate) {
+        return new IntPipeEnumerator(this).takeWhile(predicate);
+    }
+
+    /**
+     * Returns the values of the current enumerator as an array.
+     *
+     * @return array of the enumerated values.
+     */
+    public default int[] toArray() {
+        int[] result = new int[16];
+        int size = 0;
+        while(hasNext()) {
+            if (size == result.length) {
+                result = Arrays.copyOf(result, 2*size);
+            }
+            result[size++] = nextInt();
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * {@code IntEnumerator} view upon a {@code PrimitivePipe} whose output is
+ * held in the {@link PrimitivePipe#longValue} register.
+ * <p>
+ * The composable operations add stages to the underlying pipe and return
+ * the current view or, if the type of the values changes, a new view upon
+ * the same pipe.
+ * </p>
+ *
+ * @see PrimitivePipe
+ * @see LongPipeEnumerator
+ * @see DoublePipeEnumerator
+ */
+final class IntPipeEnumerator implements IntEnumerator {
+
+    private final PrimitivePipe pipe;
+
+    /**
+     * Constructs an {@code IntPipeEnumerator} instance.
+     *
+     * @param pipe {@link PrimitivePipe} to view.
+     */
+    IntPipeEnumerator(PrimitivePipe pipe) {
+        this.pipe = pipe;
+    }
+    /**
+     * Constructs an {@code IntPipeEnumerator} instance enumerating over the
+     * values of {@code source}.
+     *
+     * @param source {@link PrimitiveIterator.OfInt} providing the values.
+     */
+    IntPipeEnumerator(PrimitiveIterator.OfInt source) {
+        this(PrimitivePipe.ofInt(source));
+    }
+
+    @Override
+    public boolean enumerating() {
+        return pipe.enumerating();
+    }
+    @Override
+    public boolean hasNext() {
+        return pipe.hasNext();
+    }
+    @Override
+    public int nextInt() {
+        return (int)pipe.nextLong();
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    @Override
+    public DoubleEnumerator asDoubleEnumerator() {
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            in.doubleValue = (int)in.longValue;
+            return true;
+        });
+        return new DoublePipeEnumerator(pipe);
+    }
+    @Override
+    public LongEnumerator asLongEnumerator() {
+        Checks.ensureNonEnumerating(this);
+        return new LongPipeEnumerator(pipe);
+    }
+    @Override
+    public IntEnumerator filter(IntPredicate predicate) {
+        Checks.ensureNotNull(predicate, Messages.NULL_ENUMERATOR_PREDICATE);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> predicate.test((int)in.longValue));
+        return this;
+    }
+    @Override
+    public IntEnumerator limit(long maxSize) {
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueueLimit(maxSize);
+        return this;
+    }
+    @Override
+    public IntEnumerator map(IntUnaryOperator mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            in.longValue = mapper.applyAsInt((int)in.longValue);
+            return true;
+        });
+        return this;
+    }
+    @Override
+    public DoubleEnumerator mapToDouble(IntToDoubleFunction mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            in.doubleValue = mapper.applyAsDouble((int)in.longValue);
+            return true;
+        });
+        return new DoublePipeEnumerator(pipe);
+    }
+    @Override
+    public LongEnumerator mapToLong(IntToLongFunction mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            in.longValue = mapper.applyAsLong((int)in.longValue);
+            return true;
+        });
+        return new LongPipeEnumerator(pipe);
+    }
+    @Override
+    public IntEnumerator peek(IntConsumer action) {
+        Checks.ensureNotNull(action, Messages.NULL_ENUMERATOR_CONSUMER);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            action.accept((int)in.longValue);
+            return true;
+        });
+        return this;
+    }
+    @Override
+    public IntEnumerator skip(long n) {
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueueSkip(n);
+        return this;
+    }
+    @Override
+    public IntEnumerator takeWhile(IntPredicate predicate) {
+        Checks.ensureNotNull(predicate, Messages.NULL_ENUMERATOR_PREDICATE);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            if (predicate.test((int)in.longValue)) {
+                return true;
+            }
+            in.exhaust();
+            return false;
+        });
+        return this;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+/**
+ * {@code IntEnumerable} over an arithmetic progression of integers.
+ * <p>
+ * An {@code IntRange} wraps a {@link LongRange} whose values all fit in
+ * {@code int} and answers the same queries arithmetically, without
+ * enumerating.
+ * </p>
+ *
+ * @see IntEnumerable#range(int, int, int)
+ * @see LongRange
+ */
+final class IntRange implements IntEnumerable {
+
+    private final LongRange range;
+
+    IntRange(LongRange range) {
+        this.range = range;
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    @Override
+    public IntEnumerator enumerator() {
+        final long count = range.count();
+        return IntEnumerator.of(new PrimitiveIterator.OfInt() {
+            private long index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (int)range.valueAt(index++);
+            }
+        });
+    }
+
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return new RangeSpliterator(0, range.count());
+    }
+
+    @Override
+    public LongEnumerable asLongEnumerable() {
+        return range;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        return range.contains(value);
+    }
+
+    @Override
+    public long count() {
+        return range.count();
+    }
+
+    @Override
+    public OptionalInt elementAt(long index) {
+        Checks.ensureNonNegative(index, Messages.NEGATIVE_ENUMERATOR_INDEX);
+        return (index < range.count())
+               ? OptionalInt.of((int)range.valueAt(index))
+               : OptionalInt.empty();
+    }
+
+    @Override
+    public OptionalInt last() {
+        return toInt(range.last());
+    }
+
+    @Override
+    public IntRange limit(long maxSize) {
+        return new IntRange(range.limit(maxSize));
+    }
+
+    @Override
+    public OptionalInt max() {
+        return toInt(range.max());
+    }
+
+    @Override
+    public OptionalInt min() {
+        return toInt(range.min());
+    }
+
+    @Override
+    public IntRange reverse() {
+        return new IntRange(range.reverse());
+    }
+
+    @Override
+    public IntRange skip(long n) {
+        return new IntRange(range.skip(n));
+    }
+
+    private static OptionalInt toInt(OptionalLong value) {
+        return value.isPresent()
+               ? OptionalInt.of((int)value.getAsLong())
+               : OptionalInt.empty();
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    private final class RangeSpliterator implements Spliterator.OfInt {
+
+        private long index;
+        private final long fence;
+
+        RangeSpliterator(long index, long fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            final long size = fence - index;
+            if (size < 2) {
+                return null;
+            }
+            final long mid = index + size/2;
+            final Spliterator.OfInt prefix = new RangeSpliterator(index, mid);
+            index = mid;
+            return prefix;
+        }
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index < fence) {
+                action.accept((int)range.valueAt(index++));
+                return true;
+            }
+            return false;
+        }
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT;
+        }
+    }
+}
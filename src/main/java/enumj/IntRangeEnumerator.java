@@ -25,6 +25,9 @@ package enumj;
 
 import java.util.NoSuchElementException;
 import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
 
 /**
  * {@code Enumerator} and {@code PrimitiveIterator.OfInt} enumerating
@@ -63,6 +66,78 @@ public final class IntRangeEnumerator implements PrimitiveIterator.OfInt,
         this.enumerating = false;
     }
 
+    /**
+     * Gets the exact number of elements left to enumerate, if known.
+     *
+     * @return the number of remaining elements, {@code -1} if it exceeds
+     * {@code Long.MAX_VALUE}.
+     */
+    long exactSize() {
+        if (overflow) {
+            return 0;
+        }
+        final long size = (long)end - iter + (isInclusive ? 1 : 0);
+        return Math.max(size, 0);
+    }
+
+    /**
+     * Splits off an enumerator over the first half of the remaining
+     * elements, if there are at least two.
+     * <p>
+     * The current enumerator enumerates the second half afterwards.
+     * </p>
+     *
+     * @return the new {@link IntRangeEnumerator} on success,
+     * {@code null} otherwise.
+     */
+    IntRangeEnumerator trySplit() {
+        final long size = exactSize();
+        if (size >= 0 && size < 2) {
+            return null;
+        }
+        final int mid = (int)(iter + (((long)end - iter) >>> 1)
+                                   + (isInclusive ? 1 : 0));
+        final IntRangeEnumerator prefix =
+                new IntRangeEnumerator(iter, mid, false);
+        iter = mid;
+        return prefix;
+    }
+
+    /**
+     * Returns a {@code Spliterator} iterating over the current enumerator.
+     * <p>
+     * The returned {@link Spliterator} is the one of the equivalent
+     * {@link IntStream}, which splits evenly. The current enumerator hands
+     * its elements over to it and has none left.
+     * </p>
+     *
+     * @return the new {@link Spliterator}.
+     */
+    @Override
+    public Spliterator<Integer> asSpliterator() {
+        Checks.ensureNonEnumerating(this);
+        final Spliterator.OfInt result;
+        if (overflow) {
+            result = Spliterators.emptyIntSpliterator();
+        } else if (isInclusive) {
+            result = IntStream.rangeClosed(iter, end).spliterator();
+        } else {
+            result = IntStream.range(iter, end).spliterator();
+        }
+        enumerating = true;
+        overflow = true;
+        return result;
+    }
+    @Override
+    public long count() {
+        final long size = exactSize();
+        if (size < 0) {
+            return Enumerator.super.count();
+        }
+        enumerating = true;
+        overflow = true;
+        return size;
+    }
     @Override
     public boolean enumerating() {
         return enumerating;
@@ -45,7 +45,7 @@ final class IterableEnumerable<E> extends AbstractEnumerable<E> {
     }
     @Override
     protected Enumerator<E> internalEnumerator() {
-        return Enumerator.of(source.iterator());
+        return ListEnumerator.of(source);
     }
 
     // ---------------------------------------------------------------------- //
@@ -23,7 +23,10 @@
  */
 package enumj;
 
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * {@code Enumerator} encapsulating an {@code Iterator}.
@@ -40,7 +43,8 @@ import java.util.Iterator;
  */
 class IteratorEnumerator<E> extends AbstractEnumerator<E> {
 
-    private Iterator<E> source;
+    private Iterator<E>   source;
+    private Enumerator<E> enumeratorSource;
 
     /**
      * Creates an {@code IteratorEnumerator} instance.
@@ -54,10 +58,27 @@ class IteratorEnumerator<E> extends AbstractEnumerator<E> {
         Checks.ensureNotNull(source, Messages.NULL_ENUMERATOR_SOURCE);
         if (source instanceof Enumerator) {
             Checks.ensureNonEnumerating((Enumerator<E>)source);
+            this.enumeratorSource = (Enumerator<E>)source;
         }
         this.source = source;
     }
 
+    /**
+     * Hands the underlying {@code Iterator} over to the caller.
+     * <p>
+     * The current enumerator has no elements left after this call.
+     * </p>
+     *
+     * @return the underlying {@link Iterator}, or {@code null} if the
+     * enumeration has ended.
+     */
+    Iterator<E> detachSource() {
+        final Iterator<E> result = source;
+        source = Collections.emptyIterator();
+        enumeratorSource = null;
+        return result;
+    }
+
     @Override
     protected boolean internalHasNext() {
         return source.hasNext();
@@ -67,8 +88,52 @@ class IteratorEnumerator<E> extends AbstractEnumerator<E> {
         return source.next();
     }
     @Override
+    protected boolean internalTryNext(Consumer<? super E> action) {
+        if (enumeratorSource != null) {
+            return enumeratorSource.tryNext(action);
+        }
+        if (!source.hasNext()) {
+            return false;
+        }
+        action.accept(source.next());
+        return true;
+    }
+    @Override
+    protected boolean internalPushWhile(Predicate<? super E> sink) {
+        return AbstractEnumerator.forEachWhile(source, sink);
+    }
+    @Override
+    protected long internalSkipAhead(long n) {
+        return (enumeratorSource instanceof AbstractEnumerator)
+               ? ((AbstractEnumerator<E>)enumeratorSource).skipAhead(n)
+               : 0;
+    }
+    @Override
+    protected AbstractEnumerator<E> internalTrySplit() {
+        final Iterator<E> prefix = AbstractEnumerator.trySplitOf(source);
+        return (prefix == null) ? null : new IteratorEnumerator<>(prefix);
+    }
+    @Override
+    protected long internalExactSize() {
+        return AbstractEnumerator.exactSizeOf(source);
+    }
+    @Override
+    protected boolean internalHasCallbacks() {
+        return AbstractEnumerator.hasCallbacksOf(source);
+    }
+    @Override
+    protected boolean internalHoldsResources() {
+        return AbstractEnumerator.holdsResourcesOf(source);
+    }
+    @Override
+    protected long internalEstimatedSize() {
+        return AbstractEnumerator.estimatedSizeOf(source);
+    }
+    @Override
     protected void cleanup() {
+        AbstractEnumerator.abandon(source);
         source = null;
+        enumeratorSource = null;
     }
 
     // ---------------------------------------------------------------------- //
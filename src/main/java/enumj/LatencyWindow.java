@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.Arrays;
+
+/**
+ * Thread-safe window of the latest observed latencies.
+ *
+ * @see HedgePolicy
+ */
+final class LatencyWindow {
+
+    private final long[] samples;
+    private       int    size;
+    private       int    next;
+
+    /**
+     * Constructs a {@code LatencyWindow} instance.
+     *
+     * @param capacity number of latest latencies to keep.
+     */
+    LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * Records an observed latency, replacing the oldest one if the window
+     * is full.
+     *
+     * @param nanos latency in nanoseconds.
+     */
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            ++size;
+        }
+    }
+
+    /**
+     * Gets the number of latencies in the window.
+     *
+     * @return the number of latencies.
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the given percentile of the latencies in the window.
+     *
+     * @param percentile percentile between {@code 0} and {@code 100}.
+     * @return latency in nanoseconds, {@code 0} if the window is empty.
+     */
+    synchronized long percentile(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        final long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        final int rank = (int)Math.ceil(percentile / 100 * size);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+}
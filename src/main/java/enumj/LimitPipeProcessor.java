@@ -49,6 +49,30 @@ final class LimitPipeProcessor<E> extends AbstractPipeProcessor<E,E> {
         this.size = maxSize;
     }
 
+    @Override
+    public AbstractPipeProcessor<E,E> copy() {
+        return new LimitPipeProcessor(size);
+    }
+    @Override
+    public long outputSize(long inputSize) {
+        return Math.min(inputSize, size);
+    }
+    @Override
+    public long exactOutputSize(long inputSize) {
+        return (inputSize < 0) ? -1 : outputSize(inputSize);
+    }
+
+    /**
+     * Gets the number of elements that may still pass.
+     *
+     * @return remaining limit.
+     */
+    long getMaxSize() {
+        return size;
+    }
+
+    // ---------------------------------------------------------------------- //
+
     @Override
     public void processInputValue(E value) {
         if (size > 0) {
@@ -0,0 +1,170 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * {@code Enumerator} implementation for random access lists.
+ * <p>
+ * Unlike the {@code Iterator} of the list, a {@code ListEnumerator} knows
+ * its size and skips ahead in constant time.
+ * </p>
+ *
+ * @param <E> Type of enumerated elements.
+ * @see Enumerator
+ * @see ArrayEnumerator
+ */
+final class ListEnumerator<E> extends AbstractEnumerator<E> {
+
+    private List<E> source;
+    private int     index;
+    private int     fence;
+
+    /**
+     * Constructs a {@code ListEnumerator} that enumerates over the given
+     * list.
+     * <p>
+     * The new {@link ListEnumerator} stores the {@code source} list
+     * internally.
+     * </p>
+     *
+     * @param source {@link List} to enumerate, which must implement
+     * {@link RandomAccess}.
+     */
+    public ListEnumerator(List<E> source) {
+        Checks.ensureNotNull(source, Messages.NULL_ENUMERATOR_SOURCE);
+        this.source = source;
+        this.fence = -1;
+    }
+
+    /**
+     * Constructs a {@code ListEnumerator} that enumerates over the given
+     * range of the list.
+     *
+     * @param source {@link List} to enumerate.
+     * @param index index of the first element to enumerate.
+     * @param fence index past the last element to enumerate.
+     * @see #internalTrySplit()
+     */
+    private ListEnumerator(List<E> source, int index, int fence) {
+        this.source = source;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    /**
+     * Gets the index past the last element to enumerate.
+     * <p>
+     * The fence follows the size of the list until the first split, which
+     * binds it.
+     * </p>
+     *
+     * @return index within the list.
+     */
+    private int fence() {
+        return (fence < 0) ? source.size() : fence;
+    }
+
+    @Override
+    protected boolean internalHasNext() {
+        return index < fence();
+    }
+    @Override
+    protected E internalNext() {
+        return source.get(index++);
+    }
+    @Override
+    protected boolean internalTryNext(Consumer<? super E> action) {
+        if (index >= fence()) {
+            return false;
+        }
+        action.accept(source.get(index++));
+        return true;
+    }
+    @Override
+    protected boolean internalPushWhile(Predicate<? super E> sink) {
+        final List<E> elements = source;
+        final int end = fence();
+        while(index < end) {
+            if (!sink.test(elements.get(index++))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    @Override
+    protected long internalSkipAhead(long n) {
+        final int skipped = (int)Math.min(n, fence() - index);
+        index += skipped;
+        return skipped;
+    }
+    @Override
+    protected long internalExactSize() {
+        return fence() - index;
+    }
+    @Override
+    protected boolean internalHasCallbacks() {
+        return false;
+    }
+    @Override
+    protected AbstractEnumerator<E> internalTrySplit() {
+        fence = fence();
+        final int mid = (index + fence) >>> 1;
+        if (mid <= index) {
+            return null;
+        }
+        final ListEnumerator<E> prefix = new ListEnumerator<>(source,
+                                                              index,
+                                                              mid);
+        index = mid;
+        return prefix;
+    }
+    @Override
+    protected void cleanup() {
+        source = null;
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    /**
+     * Constructs an {@code Enumerator} from an {@code Iterable}. If the
+     * iterable is a random access {@code List}, it returns a
+     * {@code ListEnumerator} over it, otherwise it returns an enumerator
+     * over its {@code Iterator}.
+     *
+     * @param <T> type of enumerated elements.
+     * @param source {@link Iterable} to get elements from.
+     * @return {@link Enumerator} instance.
+     */
+    static <T> Enumerator<T> of(Iterable<T> source) {
+        Checks.ensureNotNull(source, Messages.NULL_ENUMERATOR_SOURCE);
+        return (source instanceof RandomAccess && source instanceof List)
+               ? new ListEnumerator((List<T>)source)
+               : Enumerator.of(source.iterator());
+    }
+}
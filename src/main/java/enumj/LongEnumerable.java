@@ -0,0 +1,459 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.LongSummaryStatistics;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@code Iterable} of unboxed {@code long} values that can be enumerated
+ * any number of times.
+ * <p>
+ * Long enumerables are the {@code long} counterparts of {@link Enumerable}.
+ * Each call to {@link #enumerator()} returns a fresh {@link LongEnumerator}
+ * and the composable operations return new long enumerables that apply the
+ * operation upon every new enumerator.
+ * </p>
+ * <p>
+ * The ranges returned by {@link #range(long, long)},
+ * {@link #range(long, long, long)}, {@link #rangeClosed(long, long)} and
+ * {@link #rangeClosed(long, long, long)} answer {@link #count()},
+ * {@link #skip(long)}, {@link #limit(long)}, {@link #elementAt(long)},
+ * {@link #contains(long)}, {@link #last()}, {@link #min()}, {@link #max()}
+ * and {@link #reverse()} arithmetically, in constant time. Their
+ * {@link #spliterator()} splits evenly, for parallel consumers.
+ * </p>
+ *
+ * @see LongEnumerator
+ * @see IntEnumerable
+ */
+@FunctionalInterface
+public interface LongEnumerable extends Iterable<Long> {
+
+    /**
+     * Returns a new long enumerator over the values of the current long
+     * enumerable.
+     *
+     * @return new {@link LongEnumerator} instance.
+     */
+    public LongEnumerator enumerator();
+
+    /**
+     * Returns a long enumerable enumerating over the given values.
+     *
+     * @param values the values enumerated upon.
+     * @return the new {@link LongEnumerable}.
+     */
+    public static LongEnumerable on(long... values) {
+        return () -> LongEnumerator.on(values);
+    }
+
+    /**
+     * Returns a new long enumerator over the values of the current long
+     * enumerable.
+     * <p>
+     * This method works exactly like {@link #enumerator()}.
+     * </p>
+     *
+     * @return new {@link LongEnumerator} instance.
+     */
+    @Override
+    public default LongEnumerator iterator() {
+        return enumerator();
+    }
+
+    /**
+     * Returns a spliterator over the values of the current long enumerable.
+     *
+     * @return new {@link Spliterator.OfLong} instance.
+     */
+    @Override
+    public default Spliterator.OfLong spliterator() {
+        return Spliterators.spliteratorUnknownSize(enumerator(),
+                                                   Spliterator.ORDERED);
+    }
+
+    /**
+     * Returns a sequential {@code LongStream} over the values of the current
+     * long enumerable.
+     *
+     * @return the new {@link LongStream}.
+     * @see #spliterator()
+     */
+    public default LongStream asStream() {
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+    /**
+     * Returns the arithmetic mean of the values of the current enumerable.
+     *
+     * @return {@link OptionalDouble} containing the mean, empty if there
+     * are no values.
+     */
+    public default OptionalDouble average() {
+        return enumerator().average();
+    }
+
+    /**
+     * Returns an enumerable enumerating over the boxed values of the
+     * current long enumerable.
+     *
+     * @return the boxed {@link Enumerable}.
+     */
+    public default Enumerable<Long> boxed() {
+        return mapToObj(Long::valueOf);
+    }
+
+    /**
+     * Returns whether the current long enumerable contains the given value.
+     *
+     * @param value the value to look for.
+     * @return true if {@code value} gets enumerated, false otherwise.
+     */
+    public default boolean contains(long value) {
+        return enumerator().filter(x -> x == value).hasNext();
+    }
+
+    /**
+     * Returns the number of values in the current long enumerable.
+     *
+     * @return the number of enumerated values.
+     */
+    public default long count() {
+        return enumerator().count();
+    }
+
+    /**
+     * Returns the value at the given index, if any.
+     *
+     * @param index zero-based index of the value to return.
+     * @return {@link OptionalLong} containing the value at {@code index},
+     * empty if there are not enough values.
+     * @exception IllegalArgumentException <code>index</code> is negative.
+     */
+    public default OptionalLong elementAt(long index) {
+        Checks.ensureNonNegative(index, Messages.NEGATIVE_ENUMERATOR_INDEX);
+        final LongEnumerator en = enumerator().skip(index);
+        return en.hasNext() ? OptionalLong.of(en.nextLong())
+                            : OptionalLong.empty();
+    }
+
+    /**
+     * Returns a long enumerable with no values.
+     *
+     * @return the empty {@link LongEnumerable}.
+     */
+    public static LongEnumerable empty() {
+        return on();
+    }
+
+    /**
+     * Returns a long enumerable consisting of the values of the current
+     * enumerable that match the provided predicate.
+     *
+     * @param predicate state-less predicate to apply on each value.
+     * @return the filtered enumerable.
+     * @exception IllegalArgumentException <code>predicate</code> is null.
+     */
+    public default LongEnumerable filter(LongPredicate predicate) {
+        Checks.ensureNotNull(predicate, Messages.NULL_ENUMERATOR_PREDICATE);
+        return () -> enumerator().filter(predicate);
+    }
+
+    /**
+     * Returns the last value of the current long enumerable, if any.
+     *
+     * @return {@link OptionalLong} containing the last value.
+     */
+    public default OptionalLong last() {
+        return enumerator().reduce((x,y) -> y);
+    }
+
+    /**
+     * Returns the current long enumerable truncated to the given size.
+     *
+     * @param maxSize the maximum number of values in the resulted
+     * enumerable.
+     * @return the truncated enumerable.
+     * @exception IllegalArgumentException <code>maxSize</code> is negative.
+     */
+    public default LongEnumerable limit(long maxSize) {
+        Checks.ensureNonNegative(maxSize, Messages.NEGATIVE_ENUMERATOR_SIZE);
+        return () -> enumerator().limit(maxSize);
+    }
+
+    /**
+     * Returns a long enumerable consisting of the results of applying the
+     * given mapper to the values of the current enumerable.
+     *
+     * @param mapper state-less {@link LongUnaryOperator} instance to apply
+     * on each value.
+     * @return the mapped enumerable.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default LongEnumerable map(LongUnaryOperator mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        return () -> enumerator().map(mapper);
+    }
+
+    /**
+     * Returns a long enumerable consisting of the results of applying the
+     * given mapper to the values of the current enumerable.
+     *
+     * @param mapper state-less {@link LongToIntFunction} instance to apply
+     * on each value.
+     * @return the mapped {@link IntEnumerable}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default IntEnumerable mapToInt(LongToIntFunction mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        return () -> enumerator().mapToInt(mapper);
+    }
+
+    /**
+     * Returns an enumerable consisting of the results of applying the
+     * given mapper to the values of the current long enumerable.
+     *
+     * @param <R> type of the mapped elements.
+     * @param mapper state-less {@link LongFunction} instance to apply on
+     * each value.
+     * @return the mapped {@link Enumerable}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default <R> Enumerable<R> mapToObj(LongFunction<? extends R> mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        return new SuppliedEnumerable(() -> enumerator().mapToObj(mapper));
+    }
+
+    /**
+     * Returns the largest value of the current long enumerable, if any.
+     *
+     * @return {@link OptionalLong} containing the largest value.
+     */
+    public default OptionalLong max() {
+        return enumerator().max();
+    }
+
+    /**
+     * Returns the smallest value of the current long enumerable, if any.
+     *
+     * @return {@link OptionalLong} containing the smallest value.
+     */
+    public default OptionalLong min() {
+        return enumerator().min();
+    }
+
+    /**
+     * Returns a long enumerable consisting of the values of the current
+     * enumerable while applying the given action on each value.
+     *
+     * @param action {@link LongConsumer} instance to apply on each value.
+     * @return the peeked enumerable.
+     * @exception IllegalArgumentException <code>action</code> is null.
+     */
+    public default LongEnumerable peek(LongConsumer action) {
+        Checks.ensureNotNull(action, Messages.NULL_ENUMERATOR_CONSUMER);
+        return () -> enumerator().peek(action);
+    }
+
+    /**
+     * Returns a long enumerable enumerating over an integral range, upper
+     * limit excluded.
+     *
+     * @param startInclusive the lower bound of the range.
+     * @param endExclusive the exclusive upper bound of the range.
+     * @return the long enumerable covering the range.
+     */
+    public static LongEnumerable range(long startInclusive, long endExclusive) {
+        return range(startInclusive, endExclusive, 1);
+    }
+
+    /**
+     * Returns a long enumerable enumerating over an integral range by the
+     * given step, bound excluded.
+     * <p>
+     * Positive steps make ascending ranges, negative steps make descending
+     * ranges.
+     * </p>
+     *
+     * @param start the first value of the range.
+     * @param endExclusive the exclusive bound of the range.
+     * @param step the difference between consecutive values.
+     * @return the long enumerable covering the range.
+     * @exception IllegalArgumentException <code>step</code> is zero.
+     */
+    public static LongEnumerable range(long start, long endExclusive, long step) {
+        return LongRange.open(start, endExclusive, step);
+    }
+
+    /**
+     * Returns a long enumerable enumerating over an integral range, upper
+     * limit included.
+     *
+     * @param startInclusive the lower bound of the range.
+     * @param endInclusive the inclusive upper bound of the range.
+     * @return the long enumerable covering the range.
+     */
+    public static LongEnumerable rangeClosed(long startInclusive,
+                                            long endInclusive) {
+        return rangeClosed(startInclusive, endInclusive, 1);
+    }
+
+    /**
+     * Returns a long enumerable enumerating over an integral range by the
+     * given step, bound included.
+     * <p>
+     * Positive steps make ascending ranges, negative steps make descending
+     * ranges.
+     * </p>
+     *
+     * @param start the first value of the range.
+     * @param endInclusive the inclusive bound of the range.
+     * @param step the difference between consecutive values.
+     * @return the long enumerable covering the range.
+     * @exception IllegalArgumentException <code>step</code> is zero.
+     */
+    public static LongEnumerable rangeClosed(long start,
+                                            long endInclusive,
+                                            long step) {
+        return LongRange.closed(start, endInclusive, step);
+    }
+
+    /**
+     * Returns the result of the accumulation of the values of the current
+     * long enumerable, if any.
+     *
+     * @param accumulator state-less {@link LongBinaryOperator} instance
+     * that accumulates the values.
+     * @return {@link OptionalLong} containing the accumulated result.
+     * @exception IllegalArgumentException <code>accumulator</code> is null.
+     */
+    public default OptionalLong reduce(LongBinaryOperator accumulator) {
+        return enumerator().reduce(accumulator);
+    }
+
+    /**
+     * Returns the result of the accumulation of the values of the current
+     * long enumerable, starting from the given identity.
+     *
+     * @param identity the start value of the accumulation.
+     * @param accumulator state-less {@link LongBinaryOperator} instance
+     * that accumulates the values.
+     * @return the accumulated result.
+     * @exception IllegalArgumentException <code>accumulator</code> is null.
+     */
+    public default long reduce(long identity, LongBinaryOperator accumulator) {
+        return enumerator().reduce(identity, accumulator);
+    }
+
+    /**
+     * Returns a long enumerable enumerating over the values of the current
+     * enumerable in reverse order.
+     * <p>
+     * Except for ranges, every enumeration of the returned enumerable
+     * stores all the values of the current enumerable.
+     * </p>
+     *
+     * @return the reversed enumerable.
+     */
+    public default LongEnumerable reverse() {
+        return () -> {
+            final long[] values = enumerator().toArray();
+            for(int i=0, j=values.length-1; i<j; ++i, --j) {
+                final long value = values[i];
+                values[i] = values[j];
+                values[j] = value;
+            }
+            return LongEnumerator.on(values);
+        };
+    }
+
+    /**
+     * Returns the current long enumerable without its first {@code n}
+     * values.
+     *
+     * @param n the number of values to skip.
+     * @return the new enumerable.
+     * @exception IllegalArgumentException <code>n</code> is negative.
+     */
+    public default LongEnumerable skip(long n) {
+        Checks.ensureNonNegative(n, Messages.NEGATIVE_ENUMERATOR_SIZE);
+        return () -> enumerator().skip(n);
+    }
+
+    /**
+     * Returns the sum of the values of the current long enumerable.
+     *
+     * @return the sum of the enumerated values, {@code 0} if none.
+     * @see LongEnumerator#sum()
+     */
+    public default long sum() {
+        return enumerator().sum();
+    }
+
+    /**
+     * Returns the count, sum, minimum, maximum and average of the values of
+     * the current long enumerable.
+     *
+     * @return the {@link LongSummaryStatistics} of the enumerated values.
+     */
+    public default LongSummaryStatistics summaryStatistics() {
+        return enumerator().summaryStatistics();
+    }
+
+    /**
+     * Returns a long enumerable enumerating over the values of the current
+     * enumerable while stopping at the first value that does not match
+     * the provided predicate.
+     *
+     * @param predicate state-less {@link LongPredicate} instance to apply on
+     * enumerated values.
+     * @return the truncated enumerable.
+     * @exception IllegalArgumentException <code>predicate</code> is null.
+     */
+    public default LongEnumerable takeWhile(LongPredicate predicate) {
+        Checks.ensureNotNull(predicate, Messages.NULL_ENUMERATOR_PREDICATE);
+        return () -> enumerator().takeWhile(predicate);
+    }
+
+    /**
+     * Returns the values of the current long enumerable as an array.
+     *
+     * @return array of the enumerated values.
+     */
+    public default long[] toArray() {
+        return enumerator().toArray();
+    }
+}
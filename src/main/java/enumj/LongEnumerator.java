@@ -0,0 +1,490 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.Arrays;
+import java.util.LongSummaryStatistics;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.PrimitiveIterator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * {@code PrimitiveIterator.OfLong} with high composability.
+ * <p>
+ * Long enumerators are the {@code long} counterparts of {@link Enumerator}.
+ * Their operations work upon unboxed values: a pipeline made of
+ * {@link #filter(java.util.function.LongPredicate)},
+ * {@link #map(java.util.function.LongUnaryOperator)},
+ * {@link #limit(long)}, {@link #skip(long)} and the like, ending in
+ * {@link #sum()} or {@link #summaryStatistics()}, allocates no objects
+ * per enumerated element.
+ * </p>
+ * <p>
+ * The composable operations of all the primitive enumerators share the same
+ * pipeline engine, so the conversions between {@link IntEnumerator},
+ * {@code LongEnumerator} and {@link DoubleEnumerator} add stages to the
+ * same pipeline rather than stacking enumerators upon each other.
+ * </p>
+ *
+ * @see IntEnumerator
+ * @see DoubleEnumerator
+ */
+public interface LongEnumerator extends PrimitiveIterator.OfLong {
+
+    /**
+     * Returns whether the enumerator has started enumerating.
+     * <p>
+     * This method returns false before the first call
+     * to {@link hasNext} and true afterwards.
+     * </p>
+     *
+     * @return true if the enumerator has started enumerating, false otherwise.
+     * @see #hasNext()
+     * @see #nextLong()
+     */
+    public boolean enumerating();
+
+    /**
+     * Returns an long enumerator returning the given values.
+     *
+     * @param values the values returned by the enumerator.
+     * @return the new {@link LongEnumerator}.
+     */
+    public static LongEnumerator on(long... values) {
+        return of(Arrays.stream(values).iterator());
+    }
+
+    /**
+     * Returns an long enumerator enumerating over the values of an existing
+     * {@code PrimitiveIterator.OfLong}.
+     *
+     * @param source the {@link PrimitiveIterator.OfLong} being enumerated
+     * upon.
+     * @return the new {@link LongEnumerator}.
+     * @exception IllegalArgumentException {@code source} is null.
+     */
+    public static LongEnumerator of(PrimitiveIterator.OfLong source) {
+        return (source instanceof LongEnumerator)
+               ? (LongEnumerator)source
+               : new LongPipeEnumerator(PrimitivePipe.ofLong(source));
+    }
+
+    /**
+     * Returns a double enumerator enumerating over the values of the
+     * current long enumerator, converted to {@code double}.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @return the converted {@link DoubleEnumerator}.
+     */
+    public default DoubleEnumerator asDoubleEnumerator() {
+        return new LongPipeEnumerator(this).asDoubleEnumerator();
+    }
+
+    /**
+     * Returns the arithmetic mean of the values of the current enumerator.
+     *
+     * @return {@link OptionalDouble} containing the mean, empty if there
+     * are no values.
+     */
+    public default OptionalDouble average() {
+        long sum = 0;
+        long count = 0;
+        while(hasNext()) {
+            sum += nextLong();
+            ++count;
+        }
+        return (count == 0)
+               ? OptionalDouble.empty()
+               : OptionalDouble.of((double)sum / count);
+    }
+
+    /**
+     * Returns an enumerator enumerating over the boxed values of the
+     * current long enumerator.
+     *
+     * @return the boxed {@link Enumerator}.
+     */
+    public default Enumerator<Long> boxed() {
+        return mapToObj(Long::valueOf);
+    }
+
+    /**
+     * Returns the number of values in the current enumerator.
+     *
+     * @return the number of enumerated values.
+     */
+    public default long count() {
+        long count = 0;
+        while(hasNext()) {
+            nextLong();
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * Returns an long enumerator with no values.
+     *
+     * @return the empty {@link LongEnumerator}.
+     */
+    public static LongEnumerator empty() {
+        return on();
+    }
+
+    /**
+     * Returns an long enumerator consisting of the values of the current
+     * enumerator that match the provided predicate.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param predicate state-less predicate to apply on each value.
+     * @return the filtered enumerator.
+     * @exception IllegalArgumentException <code>predicate</code> is null.
+     */
+    public default LongEnumerator filter(LongPredicate predicate) {
+        return new LongPipeEnumerator(this).filter(predicate);
+    }
+
+    /**
+     * Returns an infinite long enumerator obtained by applying repeatedly
+     * the provided unary operator.
+     * <p>
+     * The resulted enumerator returns <code>seed</code>,
+     * <code>f(seed)</code>, <code>f(f(seed))</code> ...
+     * </p>
+     *
+     * @param seed the initial value
+     * @param f state-less {@link LongUnaryOperator} instance to apply on the
+     * previous value to obtain the next value
+     * @return the iterated enumerator
+     * @exception IllegalArgumentException <code>f</code> is null.
+     */
+    public static LongEnumerator iterate(long seed, LongUnaryOperator f) {
+        Checks.ensureNotNull(f, Messages.NULL_ENUMERATOR_GENERATOR);
+        return of(new PrimitiveIterator.OfLong() {
+            private long     value = seed;
+            private boolean first = true;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+            @Override
+            public long nextLong() {
+                if (first) {
+                    first = false;
+                } else {
+                    value = f.applyAsLong(value);
+                }
+                return value;
+            }
+        });
+    }
+
+    /**
+     * Returns the current long enumerator truncated to the given size.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param maxSize the maximum number of values in the resulted
+     * enumerator.
+     * @return the truncated enumerator.
+     * @exception IllegalArgumentException <code>maxSize</code> is negative.
+     */
+    public default LongEnumerator limit(long maxSize) {
+        return new LongPipeEnumerator(this).limit(maxSize);
+    }
+
+    /**
+     * Returns an long enumerator consisting of the results of applying the
+     * given mapper to the values of the current enumerator.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param mapper state-less {@link LongUnaryOperator} instance to apply
+     * on each value.
+     * @return the mapped enumerator.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default LongEnumerator map(LongUnaryOperator mapper) {
+        return new LongPipeEnumerator(this).map(mapper);
+    }
+
+    /**
+     * Returns a double enumerator consisting of the results of applying
+     * the given mapper to the values of the current enumerator.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param mapper state-less {@link LongToDoubleFunction} instance to
+     * apply on each value.
+     * @return the mapped {@link DoubleEnumerator}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default DoubleEnumerator mapToDouble(LongToDoubleFunction mapper) {
+        return new LongPipeEnumerator(this).mapToDouble(mapper);
+    }
+
+    /**
+     * Returns an int enumerator consisting of the results of applying
+     * the given mapper to the values of the current enumerator.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param mapper state-less {@link LongToIntFunction} instance to apply
+     * on each value.
+     * @return the mapped {@link IntEnumerator}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default IntEnumerator mapToInt(LongToIntFunction mapper) {
+        return new LongPipeEnumerator(this).mapToInt(mapper);
+    }
+
+    /**
+     * Returns an enumerator consisting of the results of applying the given
+     * mapper to the values of the current long enumerator.
+     *
+     * @param <R> type of the mapped elements.
+     * @param mapper state-less {@link LongFunction} instance to apply on
+     * each value.
+     * @return the mapped {@link Enumerator}.
+     * @exception IllegalArgumentException <code>mapper</code> is null.
+     */
+    public default <R> Enumerator<R> mapToObj(LongFunction<? extends R> mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        final LongEnumerator source = this;
+        return new AbstractEnumerator<R>() {
+            @Override
+            protected boolean internalHasNext() {
+                return source.hasNext();
+            }
+            @Override
+            protected R internalNext() {
+                return mapper.apply(source.nextLong());
+            }
+        };
+    }
+
+    /**
+     * Returns the largest value of the current enumerator, if any.
+     *
+     * @return {@link OptionalLong} containing the largest value.
+     */
+    public default OptionalLong max() {
+        if (!hasNext()) {
+            return OptionalLong.empty();
+        }
+        long result = nextLong();
+        while(hasNext()) {
+            result = Math.max(result, nextLong());
+        }
+        return OptionalLong.of(result);
+    }
+
+    /**
+     * Returns the smallest value of the current enumerator, if any.
+     *
+     * @return {@link OptionalLong} containing the smallest value.
+     */
+    public default OptionalLong min() {
+        if (!hasNext()) {
+            return OptionalLong.empty();
+        }
+        long result = nextLong();
+        while(hasNext()) {
+            result = Math.min(result, nextLong());
+        }
+        return OptionalLong.of(result);
+    }
+
+    /**
+     * Returns an long enumerator consisting of the values of the current
+     * enumerator while applying the given action on each value.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param action {@link LongConsumer} instance to apply on each value.
+     * @return the peeked enumerator.
+     * @exception IllegalArgumentException <code>action</code> is null.
+     */
+    public default LongEnumerator peek(LongConsumer action) {
+        return new LongPipeEnumerator(this).peek(action);
+    }
+
+    /**
+     * Returns an long enumerator enumerating over an integral range, upper
+     * limit excluded.
+     *
+     * @param startInclusive the lower bound of the range.
+     * @param endExclusive the exclusive upper bound of the range.
+     * @return the long enumerator covering the range.
+     */
+    public static LongEnumerator range(long startInclusive, long endExclusive) {
+        return of(Enumerator.rangeLong(startInclusive, endExclusive));
+    }
+
+    /**
+     * Returns an long enumerator enumerating over an integral range, upper
+     * limit included.
+     *
+     * @param startInclusive the lower bound of the range.
+     * @param endInclusive the inclusive upper bound of the range.
+     * @return the long enumerator covering the range.
+     */
+    public static LongEnumerator rangeClosed(long startInclusive,
+                                            long endInclusive) {
+        return of(Enumerator.rangeLongClosed(startInclusive, endInclusive));
+    }
+
+    /**
+     * Returns the result of the accumulation of the values of the current
+     * enumerator, if any.
+     *
+     * @param accumulator state-less {@link LongBinaryOperator} instance
+     * that accumulates the values.
+     * @return {@link OptionalLong} containing the accumulated result.
+     * @exception IllegalArgumentException <code>accumulator</code> is null.
+     */
+    public default OptionalLong reduce(LongBinaryOperator accumulator) {
+        Checks.ensureNotNull(accumulator,
+                             Messages.NULL_ENUMERATOR_ACCUMULATOR);
+        if (!hasNext()) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(reduce(nextLong(), accumulator));
+    }
+
+    /**
+     * Returns the result of the accumulation of the values of the current
+     * enumerator, starting from the given identity.
+     *
+     * @param identity the start value of the accumulation.
+     * @param accumulator state-less {@link LongBinaryOperator} instance
+     * that accumulates the values.
+     * @return the accumulated result.
+     * @exception IllegalArgumentException <code>accumulator</code> is null.
+     */
+    public default long reduce(long identity, LongBinaryOperator accumulator) {
+        Checks.ensureNotNull(accumulator,
+                             Messages.NULL_ENUMERATOR_ACCUMULATOR);
+        long result = identity;
+        while(hasNext()) {
+            result = accumulator.applyAsLong(result, nextLong());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the current long enumerator without its first {@code n}
+     * values.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param n the number of values to skip.
+     * @return the new enumerator.
+     * @exception IllegalArgumentException <code>n</code> is negative.
+     */
+    public default LongEnumerator skip(long n) {
+        return new LongPipeEnumerator(this).skip(n);
+    }
+
+    /**
+     * Returns the sum of the values of the current enumerator.
+     * <p>
+     * Like {@link java.util.stream.LongStream#sum()}, the sum overflows
+     * silently.
+     * </p>
+     *
+     * @return the sum of the enumerated values, {@code 0} if none.
+     */
+    public default long sum() {
+        long result = 0;
+        while(hasNext()) {
+            result += nextLong();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the count, sum, minimum, maximum and average of the values of
+     * the current enumerator.
+     *
+     * @return the {@link LongSummaryStatistics} of the enumerated values.
+     */
+    public default LongSummaryStatistics summaryStatistics() {
+        final LongSummaryStatistics result = new LongSummaryStatistics();
+        forEachRemaining(result);
+        return result;
+    }
+
+    /**
+     * Returns an long enumerator enumerating over the values of the current
+     * enumerator while stopping at the first value that does not match
+     * the provided predicate.
+     * <p>
+     * <em>This operation is highly composable.</em>
+     * </p>
+     *
+     * @param predicate state-less {@link LongPredicate} instance to apply on
+     * enumerated values.
+     * @return the truncated enumerator.
+     * @exception IllegalArgumentException <code>predicate</code> is null.
+     */
+    public default LongEnumerator takeWhile(LongPredicate predicate) {
+        return new LongPipeEnumerator(this).takeWhile(predicate);
+    }
+
+    /**
+     * Returns the values of the current enumerator as an array.
+     *
+     * @return array of the enumerated values.
+     */
+    public default long[] toArray() {
+        long[] result = new long[16];
+        int size = 0;
+        while(hasNext()) {
+            if (size == result.length) {
+                result = Arrays.copyOf(result, 2*size);
+            }
+            result[size++] = nextLong();
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * {@code LongEnumerator} view upon a {@code PrimitivePipe} whose output is
+ * held in the {@link PrimitivePipe#longValue} register.
+ * <p>
+ * The composable operations add stages to the underlying pipe and return
+ * the current view or, if the type of the values changes, a new view upon
+ * the same pipe.
+ * </p>
+ *
+ * @see PrimitivePipe
+ * @see IntPipeEnumerator
+ * @see DoublePipeEnumerator
+ */
+final class LongPipeEnumerator implements LongEnumerator {
+
+    private final PrimitivePipe pipe;
+
+    /**
+     * Constructs a {@code LongPipeEnumerator} instance.
+     *
+     * @param pipe {@link PrimitivePipe} to view.
+     */
+    LongPipeEnumerator(PrimitivePipe pipe) {
+        this.pipe = pipe;
+    }
+    /**
+     * Constructs a {@code LongPipeEnumerator} instance enumerating over the
+     * values of {@code source}.
+     *
+     * @param source {@link PrimitiveIterator.OfLong} providing the values.
+     */
+    LongPipeEnumerator(PrimitiveIterator.OfLong source) {
+        this(PrimitivePipe.ofLong(source));
+    }
+
+    @Override
+    public boolean enumerating() {
+        return pipe.enumerating();
+    }
+    @Override
+    public boolean hasNext() {
+        return pipe.hasNext();
+    }
+    @Override
+    public long nextLong() {
+        return pipe.nextLong();
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    @Override
+    public DoubleEnumerator asDoubleEnumerator() {
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            in.doubleValue = in.longValue;
+            return true;
+        });
+        return new DoublePipeEnumerator(pipe);
+    }
+    @Override
+    public LongEnumerator filter(LongPredicate predicate) {
+        Checks.ensureNotNull(predicate, Messages.NULL_ENUMERATOR_PREDICATE);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> predicate.test(in.longValue));
+        return this;
+    }
+    @Override
+    public LongEnumerator limit(long maxSize) {
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueueLimit(maxSize);
+        return this;
+    }
+    @Override
+    public LongEnumerator map(LongUnaryOperator mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            in.longValue = mapper.applyAsLong(in.longValue);
+            return true;
+        });
+        return this;
+    }
+    @Override
+    public DoubleEnumerator mapToDouble(LongToDoubleFunction mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            in.doubleValue = mapper.applyAsDouble(in.longValue);
+            return true;
+        });
+        return new DoublePipeEnumerator(pipe);
+    }
+    @Override
+    public IntEnumerator mapToInt(LongToIntFunction mapper) {
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            in.longValue = mapper.applyAsInt(in.longValue);
+            return true;
+        });
+        return new IntPipeEnumerator(pipe);
+    }
+    @Override
+    public LongEnumerator peek(LongConsumer action) {
+        Checks.ensureNotNull(action, Messages.NULL_ENUMERATOR_CONSUMER);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            action.accept(in.longValue);
+            return true;
+        });
+        return this;
+    }
+    @Override
+    public LongEnumerator skip(long n) {
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueueSkip(n);
+        return this;
+    }
+    @Override
+    public LongEnumerator takeWhile(LongPredicate predicate) {
+        Checks.ensureNotNull(predicate, Messages.NULL_ENUMERATOR_PREDICATE);
+        Checks.ensureNonEnumerating(this);
+        pipe.enqueue(in -> {
+            if (predicate.test(in.longValue)) {
+                return true;
+            }
+            in.exhaust();
+            return false;
+        });
+        return this;
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * {@code LongEnumerable} over an arithmetic progression of long integers.
+ * <p>
+ * A {@code LongRange} holds its first value, its step and its size. It
+ * answers {@link #count()}, {@link #skip(long)}, {@link #limit(long)},
+ * {@link #elementAt(long)}, {@link #contains(long)}, {@link #last()},
+ * {@link #min()}, {@link #max()} and {@link #reverse()} arithmetically,
+ * without enumerating. Its {@link #spliterator()} splits evenly, in halves
+ * of the remaining values.
+ * </p>
+ *
+ * @see LongEnumerable#range(long, long, long)
+ * @see IntRange
+ */
+final class LongRange implements LongEnumerable {
+
+    private final long first;
+    private final long step;
+    private final long count;
+
+    private LongRange(long first, long step, long count) {
+        this.first = first;
+        this.step = step;
+        this.count = count;
+    }
+
+    /**
+     * Creates a {@code LongRange} from {@code start} to {@code end}, both
+     * inclusive, by the given {@code step}.
+     *
+     * @param start the first value of the range.
+     * @param end the inclusive bound of the range.
+     * @param step the difference between consecutive values, positive for
+     * ascending ranges and negative for descending ranges.
+     * @return the new {@link LongRange}.
+     * @exception IllegalArgumentException {@code step} is zero or
+     * {@code Long.MIN_VALUE}, or the range has more than
+     * {@code Long.MAX_VALUE} values.
+     */
+    static LongRange closed(long start, long end, long step) {
+        if (step == 0 || step == Long.MIN_VALUE) {
+            throw new IllegalArgumentException(Messages.ILLEGAL_RANGE_STEP);
+        }
+        if (step > 0 ? end < start : end > start) {
+            return new LongRange(start, step, 0);
+        }
+        final long n = Long.divideUnsigned(step > 0 ? end - start
+                                                    : start - end,
+                                           Math.abs(step));
+        if (n < 0 || n == Long.MAX_VALUE) {
+            throw new IllegalArgumentException(Messages.ILLEGAL_RANGE_SIZE);
+        }
+        return new LongRange(start, step, n+1);
+    }
+
+    /**
+     * Creates a {@code LongRange} from {@code start}, inclusive, to
+     * {@code end}, exclusive, by the given {@code step}.
+     *
+     * @param start the first value of the range.
+     * @param end the exclusive bound of the range.
+     * @param step the difference between consecutive values, positive for
+     * ascending ranges and negative for descending ranges.
+     * @return the new {@link LongRange}.
+     * @exception IllegalArgumentException {@code step} is zero or
+     * {@code Long.MIN_VALUE}, or the range has more than
+     * {@code Long.MAX_VALUE} values.
+     */
+    static LongRange open(long start, long end, long step) {
+        if (step == 0 || step == Long.MIN_VALUE) {
+            throw new IllegalArgumentException(Messages.ILLEGAL_RANGE_STEP);
+        }
+        if (step > 0 ? end <= start : end >= start) {
+            return new LongRange(start, step, 0);
+        }
+        return closed(start, step > 0 ? end-1 : end+1, step);
+    }
+
+    /**
+     * Gets the value at the given {@code index}, which must be less than
+     * the size of the range.
+     *
+     * @param index zero-based index of the value.
+     * @return the value at {@code index}.
+     */
+    long valueAt(long index) {
+        return first + index*step;
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    @Override
+    public LongEnumerator enumerator() {
+        return LongEnumerator.of(new PrimitiveIterator.OfLong() {
+            private long index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return valueAt(index++);
+            }
+        });
+    }
+
+    @Override
+    public Spliterator.OfLong spliterator() {
+        return new RangeSpliterator(0, count);
+    }
+
+    @Override
+    public boolean contains(long value) {
+        if (count == 0 || (step > 0 ? value < first : value > first)) {
+            return false;
+        }
+        final long offset = (step > 0) ? value - first : first - value;
+        final long stride = Math.abs(step);
+        return Long.remainderUnsigned(offset, stride) == 0
+               && Long.compareUnsigned(Long.divideUnsigned(offset, stride),
+                                       count) < 0;
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public OptionalLong elementAt(long index) {
+        Checks.ensureNonNegative(index, Messages.NEGATIVE_ENUMERATOR_INDEX);
+        return (index < count)
+               ? OptionalLong.of(valueAt(index))
+               : OptionalLong.empty();
+    }
+
+    @Override
+    public OptionalLong last() {
+        return (count == 0)
+               ? OptionalLong.empty()
+               : OptionalLong.of(valueAt(count-1));
+    }
+
+    @Override
+    public LongRange limit(long maxSize) {
+        Checks.ensureNonNegative(maxSize, Messages.NEGATIVE_ENUMERATOR_SIZE);
+        return (maxSize < count) ? new LongRange(first, step, maxSize) : this;
+    }
+
+    @Override
+    public OptionalLong max() {
+        return (step > 0) ? last() : elementAt(0);
+    }
+
+    @Override
+    public OptionalLong min() {
+        return (step > 0) ? elementAt(0) : last();
+    }
+
+    @Override
+    public LongRange reverse() {
+        return (count == 0)
+               ? this
+               : new LongRange(valueAt(count-1), -step, count);
+    }
+
+    @Override
+    public LongRange skip(long n) {
+        Checks.ensureNonNegative(n, Messages.NEGATIVE_ENUMERATOR_SIZE);
+        return (n < count)
+               ? new LongRange(valueAt(n), step, count-n)
+               : new LongRange(first, step, 0);
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    private final class RangeSpliterator implements Spliterator.OfLong {
+
+        private long index;
+        private final long fence;
+
+        RangeSpliterator(long index, long fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            final long size = fence - index;
+            if (size < 2) {
+                return null;
+            }
+            final long mid = index + size/2;
+            final Spliterator.OfLong prefix = new RangeSpliterator(index, mid);
+            index = mid;
+            return prefix;
+        }
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (index < fence) {
+                action.accept(valueAt(index++));
+                return true;
+            }
+            return false;
+        }
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT;
+        }
+    }
+}
@@ -25,6 +25,9 @@ package enumj;
 
 import java.util.NoSuchElementException;
 import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
 
 /**
  * {@code Enumerator} and {@code PrimitiveIterator.OfLong} enumerating
@@ -62,6 +65,78 @@ public final class LongRangeEnumerator implements PrimitiveIterator.OfLong,
         this.enumerating = false;
     }
 
+    /**
+     * Gets the exact number of elements left to enumerate, if known.
+     *
+     * @return the number of remaining elements, {@code -1} if it exceeds
+     * {@code Long.MAX_VALUE}.
+     */
+    long exactSize() {
+        if (overflow || (isInclusive ? iter > end : iter >= end)) {
+            return 0;
+        }
+        final long size = end - iter + (isInclusive ? 1 : 0);
+        return (size > 0) ? size : -1;
+    }
+
+    /**
+     * Splits off an enumerator over the first half of the remaining
+     * elements, if there are at least two.
+     * <p>
+     * The current enumerator enumerates the second half afterwards.
+     * </p>
+     *
+     * @return the new {@link LongRangeEnumerator} on success,
+     * {@code null} otherwise.
+     */
+    LongRangeEnumerator trySplit() {
+        final long size = exactSize();
+        if (size >= 0 && size < 2) {
+            return null;
+        }
+        final long mid = iter + ((end - iter) >>> 1)
+                              + (isInclusive ? 1 : 0);
+        final LongRangeEnumerator prefix =
+                new LongRangeEnumerator(iter, mid, false);
+        iter = mid;
+        return prefix;
+    }
+
+    /**
+     * Returns a {@code Spliterator} iterating over the current enumerator.
+     * <p>
+     * The returned {@link Spliterator} is the one of the equivalent
+     * {@link LongStream}, which splits evenly. The current enumerator hands
+     * its elements over to it and has none left.
+     * </p>
+     *
+     * @return the new {@link Spliterator}.
+     */
+    @Override
+    public Spliterator<Long> asSpliterator() {
+        Checks.ensureNonEnumerating(this);
+        final Spliterator.OfLong result;
+        if (overflow) {
+            result = Spliterators.emptyLongSpliterator();
+        } else if (isInclusive) {
+            result = LongStream.rangeClosed(iter, end).spliterator();
+        } else {
+            result = LongStream.range(iter, end).spliterator();
+        }
+        enumerating = true;
+        overflow = true;
+        return result;
+    }
+    @Override
+    public long count() {
+        final long size = exactSize();
+        if (size < 0) {
+            return Enumerator.super.count();
+        }
+        enumerating = true;
+        overflow = true;
+        return size;
+    }
     @Override
     public boolean enumerating() {
         return enumerating;
@@ -0,0 +1,405 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * {@code Enumerator} that maps the elements of its source to asynchronous
+ * results and yields the results, keeping a bounded number of them
+ * outstanding.
+ * <p>
+ * The enumerating thread calls the mapper for as many elements as it
+ * takes to have {@code maxInFlight} results outstanding, then waits for
+ * the next result. Ordered enumerators yield the results in the order of
+ * the source, unordered ones yield them as they complete.
+ * </p>
+ * <p>
+ * Errors of the source or of the mapper, whether thrown or carried by the
+ * results, surface when their result would get enumerated. The results
+ * still outstanding when the enumerator ends, fails or gets abandoned
+ * get cancelled. A failed enumerator has no more elements.
+ * </p>
+ * <p>
+ * Enumerators with a {@link HedgePolicy} call the mapper a second time
+ * for the elements whose first computation is slow, and keep the result
+ * that succeeds first.
+ * </p>
+ *
+ * @param <T> type of source elements.
+ * @param <R> type of enumerated elements.
+ * @see Enumerator#mapAsync(java.util.function.Function, int, boolean)
+ * @see Enumerator#mapAsync(java.util.function.Function, int, boolean,
+ * enumj.HedgePolicy)
+ */
+final class MapAsyncEnumerator<T,R> extends AbstractEnumerator<R> {
+
+    private Iterator<T> source;
+    private Function<? super T, ? extends CompletionStage<? extends R>> mapper;
+    private R           value;
+    private boolean     hasValue;
+    private boolean     sourceEnded;
+
+    private final int     maxInFlight;
+    private final boolean ordered;
+    private final ArrayDeque<CompletableFuture<? extends R>>    pending;
+    private final BlockingQueue<CompletableFuture<? extends R>> completed;
+
+    private final HedgePolicy   hedge;
+    private final LatencyWindow latencies;
+    private final AtomicLong    issued;
+    private final AtomicLong    hedged;
+
+    /**
+     * Constructs a {@code MapAsyncEnumerator} instance.
+     *
+     * @param source {@link Enumerator} whose elements to map.
+     * @param mapper {@link Function} mapping the elements to
+     * {@link CompletionStage} instances.
+     * @param maxInFlight maximum number of outstanding results.
+     * @param ordered {@code true} to yield the results in the order of
+     * the source, {@code false} to yield them as they complete.
+     */
+    MapAsyncEnumerator(
+            Enumerator<T> source,
+            Function<? super T, ? extends CompletionStage<? extends R>> mapper,
+            int maxInFlight,
+            boolean ordered) {
+        this(source, mapper, maxInFlight, ordered, null);
+    }
+
+    /**
+     * Constructs a {@code MapAsyncEnumerator} instance that hedges slow
+     * computations.
+     *
+     * @param source {@link Enumerator} whose elements to map.
+     * @param mapper {@link Function} mapping the elements to
+     * {@link CompletionStage} instances.
+     * @param maxInFlight maximum number of outstanding results.
+     * @param ordered {@code true} to yield the results in the order of
+     * the source, {@code false} to yield them as they complete.
+     * @param hedge {@link HedgePolicy} telling when to hedge, {@code null}
+     * not to hedge.
+     */
+    MapAsyncEnumerator(
+            Enumerator<T> source,
+            Function<? super T, ? extends CompletionStage<? extends R>> mapper,
+            int maxInFlight,
+            boolean ordered,
+            HedgePolicy hedge) {
+        Checks.ensureNotNull(source, Messages.NULL_ENUMERATOR_SOURCE);
+        Checks.ensureNonEnumerating(source);
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensurePositive(maxInFlight, Messages.NON_POSITIVE_PARALLELISM);
+
+        this.source = source;
+        this.mapper = mapper;
+        this.maxInFlight = maxInFlight;
+        this.ordered = ordered;
+        this.pending = new ArrayDeque<>(maxInFlight);
+        this.completed = ordered ? null : new LinkedBlockingQueue<>();
+        this.hedge = hedge;
+        this.latencies = hedge == null
+                         ? null
+                         : new LatencyWindow(HedgePolicy.LATENCY_WINDOW);
+        this.issued = new AtomicLong();
+        this.hedged = new AtomicLong();
+    }
+
+    @Override
+    protected boolean internalHasNext() {
+        if (hasValue) {
+            return true;
+        }
+        issue();
+        if (pending.isEmpty()) {
+            return false;
+        }
+        final CompletableFuture<? extends R> result = ordered
+                                                      ? pending.poll()
+                                                      : takeCompleted();
+        try {
+            value = result.join();
+        } catch(RuntimeException ex) {
+            sourceEnded = true;
+            cancelPending();
+            if (completed != null) {
+                completed.clear();
+            }
+            throw (ex instanceof CompletionException && ex.getCause() != null)
+                  ? AbstractEnumerator.rethrow(ex.getCause())
+                  : ex;
+        }
+        hasValue = true;
+        return true;
+    }
+    @Override
+    protected R internalNext() {
+        final R result = value;
+        value = null;
+        hasValue = false;
+        return result;
+    }
+    @Override
+    protected boolean internalHoldsResources() {
+        return true;
+    }
+    @Override
+    protected void cleanup() {
+        cancelPending();
+        source = null;
+        mapper = null;
+        value = null;
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    /**
+     * Maps elements of {@link #source} until {@link #maxInFlight} results
+     * are outstanding or the source ends.
+     * <p>
+     * An error of the source or of the mapper ends the source and becomes
+     * the last, failed, result.
+     * </p>
+     */
+    private void issue() {
+        while(pending.size() < maxInFlight && !sourceEnded) {
+            CompletableFuture<? extends R> result;
+            try {
+                if (!source.hasNext()) {
+                    sourceEnded = true;
+                    return;
+                }
+                final T element = source.next();
+                issued.incrementAndGet();
+                result = hedge == null
+                         ? mapper.apply(element).toCompletableFuture()
+                         : hedged(element);
+            } catch(Throwable err) {
+                final CompletableFuture<R> failed = new CompletableFuture<>();
+                failed.completeExceptionally(err);
+                result = failed;
+                sourceEnded = true;
+            }
+            pending.add(result);
+            if (!ordered) {
+                final CompletableFuture<? extends R> done = result;
+                done.whenComplete((x, err) -> completed.add(done));
+            }
+        }
+    }
+
+    /**
+     * Starts the computation of an element and schedules its hedged
+     * computation.
+     *
+     * @param element element to map.
+     * @return the result of the element.
+     * @see Hedged
+     */
+    private CompletableFuture<R> hedged(T element) {
+        final Hedged hedged = new Hedged(element, mapper);
+        hedged.start(hedge.delayNanos(latencies));
+        return hedged.result;
+    }
+
+    /**
+     * Counts a hedged element if the maximum ratio of hedged elements of
+     * {@link #hedge} allows it.
+     *
+     * @return {@code true} if the element may get hedged,
+     * {@code false} otherwise.
+     */
+    private boolean reserveHedge() {
+        final double ratio = hedge.getMaxRatio();
+        while(true) {
+            final long count = hedged.get();
+            if (count + 1 > ratio * issued.get()) {
+                return false;
+            }
+            if (hedged.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Computations of an element that may get hedged.
+     * <p>
+     * The hedged computation starts if the first one is still outstanding
+     * after the hedge delay and the maximum ratio of hedged elements allows
+     * it. {@link #result} completes with the first successful computation,
+     * or with the error of the last one to fail. The computations still
+     * outstanding get cancelled before {@link #result} completes, or
+     * when {@link #result} gets cancelled.
+     * </p>
+     */
+    private final class Hedged {
+
+        final CompletableFuture<R> result;
+
+        private final T                       element;
+        private final Function<? super T,
+                               ? extends CompletionStage<? extends R>> fn;
+        private final AtomicInteger           attempts;
+        private final long                    start;
+        private volatile CompletableFuture<?> primary;
+        private volatile CompletableFuture<?> backup;
+        private volatile ScheduledFuture<?>   timer;
+
+        Hedged(T element,
+               Function<? super T, ? extends CompletionStage<? extends R>>
+                       fn) {
+            this.result = new CompletableFuture<>();
+            this.element = element;
+            this.fn = fn;
+            this.attempts = new AtomicInteger(1);
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Starts the first computation and schedules the hedged one.
+         *
+         * @param delayNanos hedge delay in nanoseconds.
+         */
+        void start(long delayNanos) {
+            final CompletableFuture<? extends R> first =
+                    fn.apply(element).toCompletableFuture();
+            primary = first;
+            first.whenComplete((x, err) -> {
+                if (err == null) {
+                    latencies.record(System.nanoTime() - start);
+                }
+                settle(x, err);
+            });
+            timer = HedgePolicy.scheduler().schedule(
+                    this::startBackup,
+                    delayNanos,
+                    TimeUnit.NANOSECONDS);
+            result.whenComplete((x, err) -> cancelAttempts());
+        }
+
+        /**
+         * Starts the hedged computation, unless {@link #result} has
+         * completed or the maximum ratio of hedged elements does not
+         * allow it.
+         */
+        private void startBackup() {
+            if (result.isDone() || !reserveHedge()) {
+                return;
+            }
+            attempts.incrementAndGet();
+            CompletableFuture<? extends R> second;
+            try {
+                second = fn.apply(element).toCompletableFuture();
+            } catch(Throwable err) {
+                final CompletableFuture<R> failed = new CompletableFuture<>();
+                failed.completeExceptionally(err);
+                second = failed;
+            }
+            backup = second;
+            second.whenComplete(this::settle);
+            if (result.isDone()) {
+                second.cancel(true);
+            }
+        }
+
+        /**
+         * Completes {@link #result} with the outcome of one of the
+         * computations.
+         *
+         * @param value value of the computation.
+         * @param err error of the computation, {@code null} on success.
+         */
+        private void settle(R value, Throwable err) {
+            if (err == null) {
+                if (!result.isDone()) {
+                    cancelAttempts();
+                    result.complete(value);
+                }
+            } else if (attempts.decrementAndGet() == 0) {
+                result.completeExceptionally(err);
+            }
+        }
+
+        /**
+         * Cancels the outstanding computations and the hedge timer.
+         */
+        private void cancelAttempts() {
+            final ScheduledFuture<?> scheduled = timer;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            final CompletableFuture<?> first = primary;
+            if (first != null) {
+                first.cancel(true);
+            }
+            final CompletableFuture<?> second = backup;
+            if (second != null) {
+                second.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Waits for the next result to complete and removes it from
+     * {@link #pending}.
+     *
+     * @return the completed result.
+     * @throws CompletionException the enumerating thread has been
+     * interrupted while waiting.
+     */
+    private CompletableFuture<? extends R> takeCompleted() {
+        final CompletableFuture<? extends R> result;
+        try {
+            result = completed.take();
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(ex);
+        }
+        pending.remove(result);
+        return result;
+    }
+
+    /**
+     * Cancels the outstanding results.
+     */
+    private void cancelPending() {
+        for(CompletableFuture<? extends R> result : pending) {
+            result.cancel(true);
+        }
+        pending.clear();
+    }
+}
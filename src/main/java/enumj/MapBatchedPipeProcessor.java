@@ -0,0 +1,188 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Pipe processor that maps input elements in batches, with one call of
+ * a bulk loader per batch.
+ * <p>
+ * The processor collects up to {@code batchSize} input elements, hands
+ * their distinct values to the loader and yields the loaded results in
+ * the order of the input elements. Equal input elements within a batch
+ * get loaded once and share the same result.
+ * </p>
+ * <p>
+ * The last, incomplete, batch gets loaded when {@link PipeEnumerator}
+ * signals the end of the input elements through
+ * {@link #processInputEnd()}. As the elements get pulled synchronously,
+ * the age of an incomplete batch gets checked only when an input element
+ * arrives, so an incomplete batch older than {@code maxWait} gets loaded
+ * with the next input element rather than while waiting for it.
+ * </p>
+ *
+ * @param <In> input value to map.
+ * @param <Out> mapped output value.
+ * @see MapPipeProcessor
+ * @see FlatMapPipeProcessor
+ */
+final class MapBatchedPipeProcessor<In,Out>
+            extends AbstractPipeMultiProcessor<In,Out> {
+
+    private final Function<List<In>,List<Out>> loader;
+    private final int                          batchSize;
+    private final long                         maxWaitNanos;
+    private final List<In>                     batch;
+    private       long                         batchStart;
+    private       Object[]                     values;
+    private       int                          valueIndex;
+    private       int                          valueFence;
+
+    /**
+     * Constructs a {@code MapBatchedPipeProcessor} instance.
+     *
+     * @param loader {@link Function} mapping a list of distinct input
+     * elements to the list of their results, in the same order.
+     * @param batchSize maximum number of input elements per batch.
+     * @param maxWaitNanos maximum age of an incomplete batch, in
+     * nanoseconds, {@code -1} if unbounded.
+     */
+    public MapBatchedPipeProcessor(Function<List<In>,List<Out>> loader,
+                                   int batchSize,
+                                   long maxWaitNanos) {
+        super(true, true);
+        this.loader = loader;
+        this.batchSize = batchSize;
+        this.maxWaitNanos = maxWaitNanos;
+        this.batch = new ArrayList<>(Math.min(batchSize, 1 << 10));
+    }
+
+    /**
+     * Gets the maximum number of input elements per batch.
+     *
+     * @return the batch size.
+     */
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public AbstractPipeProcessor<In,Out> copy() {
+        return new MapBatchedPipeProcessor(loader, batchSize, maxWaitNanos);
+    }
+    @Override
+    public long outputSize(long inputSize) {
+        return inputSize;
+    }
+    @Override
+    public long exactOutputSize(long inputSize) {
+        return inputSize;
+    }
+
+    @Override
+    public boolean needsValue() {
+        return valueIndex >= valueFence;
+    }
+    @Override
+    public void processInputValue(In value) {
+        if (batch.isEmpty() && maxWaitNanos >= 0) {
+            batchStart = System.nanoTime();
+        }
+        batch.add(value);
+        if (batch.size() >= batchSize
+            || maxWaitNanos >= 0
+               && System.nanoTime() - batchStart >= maxWaitNanos) {
+            load();
+        }
+    }
+    @Override
+    public boolean processInputEnd() {
+        if (batch.isEmpty()) {
+            return false;
+        }
+        load();
+        return true;
+    }
+    @Override
+    public boolean hasOutputValue() {
+        return valueIndex < valueFence;
+    }
+    @Override
+    protected Out retrieveOutputValue() {
+        return (Out)values[valueIndex];
+    }
+    @Override
+    protected void clearOutputValue() {
+        values[valueIndex++] = null;
+    }
+    @Override
+    public boolean isInactive() {
+        return false;
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    /**
+     * Loads the current batch and stores the results in {@link #values},
+     * in the order of the batch.
+     *
+     * @throws IllegalStateException the loader returned a number of
+     * results different from the number of distinct elements.
+     */
+    private void load() {
+        final int size = batch.size();
+        final Map<In,Integer> slots = new HashMap<>();
+        final List<In> keys = new ArrayList<>(size);
+        final int[] indices = new int[size];
+        for(int i=0; i<size; ++i) {
+            final In key = batch.get(i);
+            Integer slot = slots.get(key);
+            if (slot == null) {
+                slot = keys.size();
+                slots.put(key, slot);
+                keys.add(key);
+            }
+            indices[i] = slot;
+        }
+        batch.clear();
+
+        final List<Out> results = loader.apply(keys);
+        if (results == null || results.size() != keys.size()) {
+            throw new IllegalStateException(Messages.ILLEGAL_BATCH_RESULTS);
+        }
+        if (values == null || values.length < size) {
+            values = new Object[size];
+        }
+        for(int i=0; i<size; ++i) {
+            values[i] = results.get(indices[i]);
+        }
+        valueIndex = 0;
+        valueFence = size;
+    }
+}
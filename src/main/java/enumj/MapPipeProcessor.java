@@ -23,7 +23,9 @@
  */
 package enumj;
 
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.function.Function;
 
 /**
@@ -39,6 +41,7 @@ final class MapPipeProcessor<In,Out> extends AbstractPipeProcessor<In,Out> {
 
     private Function<In,Out>             mapper;
     private LinkedList<Function<In,Out>> mappers;
+    private Function[]                   mappersArray;
     private Out                          value;
 
     /**
@@ -55,6 +58,29 @@ final class MapPipeProcessor<In,Out> extends AbstractPipeProcessor<In,Out> {
         super(false, false);
         mapper = functor;
     }
+    private MapPipeProcessor(Function[] functors) {
+        super(false, false);
+        mappersArray = functors;
+    }
+
+    @Override
+    public AbstractPipeProcessor<In,Out> copy() {
+        return (mapper != null)
+               ? new MapPipeProcessor(mapper)
+               : new MapPipeProcessor(ensureMappersArray());
+    }
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
+    @Override
+    public long outputSize(long inputSize) {
+        return inputSize;
+    }
+    @Override
+    public long exactOutputSize(long inputSize) {
+        return inputSize;
+    }
 
     // ---------------------------------------------------------------------- //
 
@@ -62,21 +88,43 @@ final class MapPipeProcessor<In,Out> extends AbstractPipeProcessor<In,Out> {
     public <R> boolean pushFrontMap(Function<Out,R> mapper) {
         ensureMappers();
         this.mappers.addFirst((Function<In,Out>)mapper);
+        this.mappersArray = null;
         return true;
     }
     @Override
     public <R> boolean enqueueMap(Function<Out,R> mapper) {
         ensureMappers();
         this.mappers.addLast((Function<In,Out>)mapper);
+        this.mappersArray = null;
         return true;
     }
     private void ensureMappers() {
         if (mappers == null) {
             mappers = new LinkedList<>();
-            mappers.add(mapper);
+            if (mapper != null) {
+                mappers.add(mapper);
+            } else {
+                mappers.addAll((List)Arrays.asList(mappersArray));
+            }
             mapper = null;
         }
     }
+    /**
+     * Gets the fused mappers of this processor, in order of application.
+     *
+     * @return array of mapping {@link Function} instances.
+     */
+    Function[] getMappers() {
+        return (mapper != null)
+               ? new Function[] { mapper }
+               : ensureMappersArray().clone();
+    }
+    private Function[] ensureMappersArray() {
+        if (mappersArray == null) {
+            mappersArray = mappers.toArray(new Function[mappers.size()]);
+        }
+        return mappersArray;
+    }
 
     // ---------------------------------------------------------------------- //
 
@@ -86,8 +134,9 @@ final class MapPipeProcessor<In,Out> extends AbstractPipeProcessor<In,Out> {
             value = (In)mapper.apply(value);
         }
         else {
-            for(Function fun : mappers) {
-                value = (In)fun.apply(value);
+            final Function[] funs = ensureMappersArray();
+            for(int i=0; i<funs.length; ++i) {
+                value = (In)funs[i].apply(value);
             }
         }
         this.value = (Out)value;
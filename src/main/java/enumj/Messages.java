@@ -73,6 +73,61 @@ public final class Messages {
      */
     public static final String NULL_ENUMERATOR_ACCUMULATOR =
             "Null enumerator accumulator";
+    /**
+     * Executor running enumerator tasks is {@code null}.
+     */
+    public static final String NULL_ENUMERATOR_EXECUTOR =
+            "Null enumerator executor";
+    /**
+     * Policy hedging enumerator computations is {@code null}.
+     */
+    public static final String NULL_HEDGE_POLICY =
+            "Null hedge policy";
+    /**
+     * Delay of hedged computations is {@code null}.
+     */
+    public static final String NULL_HEDGE_DELAY =
+            "Null hedge delay";
+    /**
+     * Maximum wait of batched enumerator elements is {@code null}.
+     */
+    public static final String NULL_BATCH_WAIT =
+            "Null batch wait";
+    /**
+     * Budget of enumerable cache is {@code null}.
+     */
+    public static final String NULL_CACHE_BUDGET =
+            "Null cache budget";
+    /**
+     * Function estimating the cost of cached elements is {@code null}.
+     */
+    public static final String NULL_CACHE_ESTIMATOR =
+            "Null cache estimator";
+    /**
+     * Eviction policy of enumerable cache is {@code null}.
+     */
+    public static final String NULL_CACHE_EVICTION =
+            "Null cache eviction";
+    /**
+     * Spilling of enumerable cache is {@code null}.
+     */
+    public static final String NULL_CACHE_SPILL =
+            "Null cache spill";
+    /**
+     * Codec of spilled cache elements is {@code null}.
+     */
+    public static final String NULL_CACHE_CODEC =
+            "Null cache codec";
+    /**
+     * Directory of spilled cache elements is {@code null}.
+     */
+    public static final String NULL_SPILL_DIRECTORY =
+            "Null spill directory";
+    /**
+     * Executor of cache prefetching is {@code null}.
+     */
+    public static final String NULL_PREFETCH_EXECUTOR =
+            "Null prefetch executor";
     /**
      * Iterator is {@code null}.
      */
@@ -104,17 +159,97 @@ public final class Messages {
      */
     public static final String NEGATIVE_RETRIES =
             "Negative enumerator retries";
+    /**
+     * Parallelism of enumerator is zero or negative.
+     */
+    public static final String NON_POSITIVE_PARALLELISM =
+            "Non-positive enumerator parallelism";
+    /**
+     * Delay of hedged computations is negative.
+     */
+    public static final String NEGATIVE_HEDGE_DELAY =
+            "Negative hedge delay";
+    /**
+     * Size of enumerator batches is zero or negative.
+     */
+    public static final String NON_POSITIVE_BATCH_SIZE =
+            "Non-positive enumerator batch size";
+    /**
+     * Maximum wait of batched enumerator elements is negative.
+     */
+    public static final String NEGATIVE_BATCH_WAIT =
+            "Negative batch wait";
+    /**
+     * Budget of enumerable cache is zero or negative.
+     */
+    public static final String NON_POSITIVE_CACHE_BUDGET =
+            "Non-positive cache budget";
+    /**
+     * Number of cache elements kept in memory before spilling is negative.
+     */
+    public static final String NEGATIVE_SPILL_THRESHOLD =
+            "Negative spill threshold";
+    /**
+     * Size of cache spill segments is zero or negative.
+     */
+    public static final String NON_POSITIVE_SEGMENT_SIZE =
+            "Non-positive spill segment size";
+    /**
+     * Number of spilled cache chunks to read ahead is negative.
+     */
+    public static final String NEGATIVE_READ_AHEAD =
+            "Negative spill read-ahead";
+    /**
+     * Number of cache elements to prefetch is negative.
+     */
+    public static final String NEGATIVE_PREFETCH =
+            "Negative cache prefetch";
 
     /**
      * State of enumerator is invalid.
      */
     public static final String ILLEGAL_ENUMERATOR_STATE =
             "Illegal enumerator state";
+    /**
+     * Spilled cache elements have been deleted.
+     */
+    public static final String ILLEGAL_SPILL_STATE =
+            "Spilled cache elements have been deleted";
     /**
      * Multiple enumerations have been attempted.
      */
     public static final String ILLEGAL_MULTIPLE_ENUMERATIONS =
             "Illegal multiple enumerations";
+    /**
+     * Percentile of hedge delay is not between 0 and 100.
+     */
+    public static final String ILLEGAL_HEDGE_PERCENTILE =
+            "Illegal hedge percentile";
+    /**
+     * Maximum ratio of hedged computations is not between 0 and 1.
+     */
+    public static final String ILLEGAL_HEDGE_RATIO =
+            "Illegal hedge ratio";
+    /**
+     * Number of results of a batch differs from the number of elements.
+     */
+    public static final String ILLEGAL_BATCH_RESULTS =
+            "Illegal number of batch results";
+    /**
+     * Step of range is zero or cannot be negated.
+     */
+    public static final String ILLEGAL_RANGE_STEP =
+            "Illegal range step";
+    /**
+     * Size of range does not fit in a {@code long}.
+     */
+    public static final String ILLEGAL_RANGE_SIZE =
+            "Illegal range size";
+    /**
+     * Two enumerated elements map to the same key.
+     */
+    public static final String DUPLICATE_MAP_KEY =
+            "Duplicate map key";
     /**
      * Enumerator should have exactly one element.
      */
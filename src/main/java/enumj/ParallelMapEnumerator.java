@@ -0,0 +1,215 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * {@code Enumerator} that maps the elements of its source concurrently, in
+ * batches, and yields the results in the order of the source.
+ * <p>
+ * The enumerating thread pulls the elements of the source into batches
+ * and submits them to an {@link Executor}. At most {@code parallelism}
+ * batches are in flight at any time, so memory stays bounded. The first
+ * batch has one element and every following batch doubles in size, up to
+ * {@link #MAX_BATCH} elements, so that short sources get spread over the
+ * workers too.
+ * </p>
+ * <p>
+ * Errors surface where they would surface if the mapping were sequential:
+ * the results that precede the failing element get enumerated first, then
+ * the error of the mapper, or of the source, gets thrown.
+ * </p>
+ *
+ * @param <T> type of source elements.
+ * @param <R> type of enumerated elements.
+ * @see Enumerator#parallelMap(java.util.function.Function, int,
+ * java.util.concurrent.Executor)
+ */
+final class ParallelMapEnumerator<T,R> extends AbstractEnumerator<R> {
+
+    /**
+     * Largest number of elements in a batch.
+     */
+    static final int MAX_BATCH = 1 << 10;
+
+    private       Iterator<T>                     source;
+    private       Function<? super T,? extends R> mapper;
+    private       Executor                        executor;
+    private final int                             parallelism;
+    private final ArrayDeque<Batch>               inFlight;
+    private       int                             batchSize;
+    private       boolean                         sourceFailed;
+    private       Batch                           current;
+    private       int                             index;
+
+    /**
+     * Constructs a {@code ParallelMapEnumerator} instance.
+     *
+     * @param source {@link Enumerator} whose elements to map.
+     * @param mapper {@link Function} mapping the elements.
+     * @param parallelism maximum number of batches in flight.
+     * @param executor {@link Executor} running the batches.
+     */
+    ParallelMapEnumerator(Enumerator<T>                   source,
+                          Function<? super T,? extends R> mapper,
+                          int                             parallelism,
+                          Executor                        executor) {
+        Checks.ensureNotNull(source, Messages.NULL_ENUMERATOR_SOURCE);
+        Checks.ensureNonEnumerating(source);
+        Checks.ensureNotNull(mapper, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensurePositive(parallelism, Messages.NON_POSITIVE_PARALLELISM);
+        Checks.ensureNotNull(executor, Messages.NULL_ENUMERATOR_EXECUTOR);
+
+        this.source = source;
+        this.mapper = mapper;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.inFlight = new ArrayDeque<>(parallelism);
+        this.batchSize = 1;
+    }
+
+    @Override
+    protected boolean internalHasNext() {
+        while(true) {
+            if (current != null) {
+                if (index < current.mapped) {
+                    return true;
+                }
+                if (current.failure != null) {
+                    cancel();
+                    throw AbstractEnumerator.rethrow(current.failure);
+                }
+                current = null;
+            }
+            submit();
+            if (inFlight.isEmpty()) {
+                return false;
+            }
+            current = inFlight.poll();
+            current.future.join();
+            index = 0;
+        }
+    }
+    @Override
+    protected R internalNext() {
+        final R result = (R)current.elements[index];
+        current.elements[index++] = null;
+        return result;
+    }
+    @Override
+    protected boolean internalHoldsResources() {
+        return true;
+    }
+    @Override
+    protected void cleanup() {
+        cancel();
+        source = null;
+        mapper = null;
+        executor = null;
+        current = null;
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    /**
+     * Pulls batches out of {@link #source} and submits them until
+     * {@link #parallelism} batches are in flight or the source ends.
+     * <p>
+     * An error of the source ends the source: the elements pulled before
+     * it make up the last batch, which fails with the error after mapping
+     * them.
+     * </p>
+     */
+    private void submit() {
+        while(inFlight.size() < parallelism && !sourceFailed) {
+            final Object[] elements = new Object[batchSize];
+            int size = 0;
+            Throwable failure = null;
+            try {
+                while(size < elements.length && source.hasNext()) {
+                    elements[size++] = source.next();
+                }
+            } catch(Throwable err) {
+                failure = err;
+                sourceFailed = true;
+            }
+            if (size == 0 && failure == null) {
+                return;
+            }
+            final Batch batch = new Batch(elements, size, mapper, failure);
+            batch.future = CompletableFuture.runAsync(batch, executor);
+            inFlight.add(batch);
+            batchSize = Math.min(2*batchSize, MAX_BATCH);
+        }
+    }
+
+    /**
+     * Cancels the batches in flight that have not started running.
+     */
+    private void cancel() {
+        for(Batch batch : inFlight) {
+            batch.future.cancel(false);
+        }
+        inFlight.clear();
+    }
+
+    /**
+     * Batch of elements that gets mapped in place by a worker.
+     */
+    private final class Batch implements Runnable {
+
+        final Object[]                        elements;
+        final int                             size;
+        final Function<? super T,? extends R> mapper;
+        int                                   mapped;
+        Throwable                             failure;
+        CompletableFuture<Void>               future;
+
+        Batch(Object[]                        elements,
+              int                             size,
+              Function<? super T,? extends R> mapper,
+              Throwable                       failure) {
+            this.elements = elements;
+            this.size = size;
+            this.mapper = mapper;
+            this.failure = failure;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for(; mapped < size; ++mapped) {
+                    elements[mapped] = mapper.apply((T)elements[mapped]);
+                }
+            } catch(Throwable err) {
+                failure = err;
+            }
+        }
+    }
+}
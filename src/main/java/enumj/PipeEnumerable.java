@@ -47,6 +47,9 @@ final class PipeEnumerable<T,E> extends AbstractEnumerable<E> {
     private final Optional<PipeEnumerable<?,? extends T>> pipeSource;
     private final PipeOperator<E,T> reversedOperator;
     private final Lazy<Boolean> onceOnly;
+    private final PipeEnumerable<?,?> root;
+    private final PipeEnumerable<?,?> rest;
+    private final Lazy<PipeTemplate> template;
 
     /**
      * Constructs a {@code PipeEnumerable} using a regular {@code Iterable}
@@ -57,17 +60,23 @@ final class PipeEnumerable<T,E> extends AbstractEnumerable<E> {
      * pipe.
      * @param onceOnly true if {@code operator} is a once-only
      * operation, false otherwise.
+     * @param reusable true if {@code operator} creates no per-enumeration
+     * state other than pipe processors, false otherwise.
      * @see PipeEnumerable
      */
     protected PipeEnumerable(Iterable<T> source,
                              Function<Enumerator<E>, Enumerator<T>> operator,
-                             Supplier<Boolean> onceOnly) {
+                             Supplier<Boolean> onceOnly,
+                             boolean reusable) {
         Checks.ensureNotNull(source, Messages.NULL_ENUMERATOR_SOURCE);
         Checks.ensureNotNull(operator, Messages.NULL_PIPE_PROCESSOR_OPERATOR);
         this.source = source;
         this.pipeSource = Optional.empty();
-        this.reversedOperator = new PipeOperator(operator, onceOnly);
+        this.reversedOperator = new PipeOperator(operator, onceOnly, reusable);
         this.onceOnly = new Lazy(this::getOnceOnly);
+        this.root = this;
+        this.rest = reusable ? null : this;
+        this.template = new Lazy(this::getTemplate);
     }
     /**
      * Constructs a {@code PipeEnumerable} using a {@code Enumerable} as a link.
@@ -77,18 +86,24 @@ final class PipeEnumerable<T,E> extends AbstractEnumerable<E> {
      * pipe.
      * @param onceOnly true if {@code operator} is a once-only
      * operation, false otherwise.
+     * @param reusable true if {@code operator} creates no per-enumeration
+     * state other than pipe processors, false otherwise.
      * @see PipeEnumerable
      */
     protected PipeEnumerable(PipeEnumerable<?,T> source,
                              Function<Enumerator<E>, Enumerator<T>> operator,
-                             Supplier<Boolean> onceOnly) {
+                             Supplier<Boolean> onceOnly,
+                             boolean reusable) {
         Checks.ensureNotNull(source, Messages.NULL_ENUMERATOR_SOURCE);
         Checks.ensureNonEnumerating(source);
         Checks.ensureNotNull(operator, Messages.NULL_PIPE_PROCESSOR_OPERATOR);
         this.source = source;
         this.pipeSource = Optional.of(source);
-        this.reversedOperator = new PipeOperator(operator, onceOnly);
+        this.reversedOperator = new PipeOperator(operator, onceOnly, reusable);
         this.onceOnly = new Lazy(this::getOnceOnly);
+        this.root = source.root;
+        this.rest = reusable ? source.rest : this;
+        this.template = new Lazy(this::getTemplate);
     }
 
     private Boolean getOnceOnly() {
@@ -113,11 +128,57 @@ final class PipeEnumerable<T,E> extends AbstractEnumerable<E> {
     protected boolean internalOnceOnly() {
         return onceOnly.get();
     }
+    /**
+     * Builds the template of the enumerators of this {@code PipeEnumerable}.
+     * <p>
+     * The template covers the operators from this {@code PipeEnumerable}
+     * up to {@link #rest}, excluding. These operators create no
+     * per-enumeration state other than pipe processors.
+     * </p>
+     *
+     * @return the {@link PipeTemplate}, empty if not possible.
+     */
+    private PipeTemplate getTemplate() {
+        if (rest == this) {
+            return PipeTemplate.empty();
+        }
+        PipeEnumerator en = new PipeEnumerator();
+        for(PipeEnumerable<?,?> ptr = this;
+            ptr != rest;
+            ptr = ptr.pipeSource.orElse(null)) {
+            en = (PipeEnumerator)ptr.reversedOperator.apply(en);
+        }
+        final PipeTemplate result = en.template();
+        return (result == null) ? PipeTemplate.empty() : result;
+    }
+
     @Override
     protected Enumerator<E> internalEnumerator() {
-        PipeEnumerator en = new PipeEnumerator();
-        PipeEnumerable<?,?> ptr = this;
+        final PipeTemplate pipeTemplate = template.get();
+        if (pipeTemplate.isEmpty()) {
+            return rebuiltEnumerator();
+        }
+        final PipeEnumerator en = new PipeEnumerator(pipeTemplate);
+        return (rest == null)
+               ? en.setSource(root.source.iterator())
+               : build(en, rest);
+    }
 
+    /**
+     * Constructs an enumerator of this {@code PipeEnumerable} by applying
+     * all the operators, without using the template.
+     * <p>
+     * This method exists for benchmarking purposes.
+     * </p>
+     *
+     * @return new {@link Enumerator} instance.
+     */
+    Enumerator<E> rebuiltEnumerator() {
+        return build(new PipeEnumerator(), this);
+    }
+
+    private static <X> Enumerator<X> build(PipeEnumerator en,
+                                           PipeEnumerable<?,?> ptr) {
         while(true) {
             en = (PipeEnumerator)ptr.reversedOperator.apply(en);
             if (ptr.pipeSource.isPresent()) {
@@ -147,15 +208,75 @@ final class PipeEnumerable<T,E> extends AbstractEnumerable<E> {
             Iterable<? extends T>                  source,
             Function<Enumerator<E>, Enumerator<T>> operator,
             Supplier<Boolean>                      onceOnly) {
+        return of(source, operator, onceOnly, false);
+    }
+
+    /**
+     * Creates a {@code PipeEnumerable} instance with the given {@code source},
+     * {@code operator}, <em>once only</em> flag and <em>reusable</em> flag.
+     * <p>
+     * The operators marked as reusable become part of the
+     * {@link PipeTemplate} that the new instance builds upon the first
+     * enumeration and stamps its enumerators out of afterwards.
+     * </p>
+     *
+     * @param <T> type of source enumerated elements.
+     * @param <E> type of enumerated elements.
+     * @param source source of elements to transform.
+     * @param operator transformation to apply on elements.
+     * @param onceOnly true of the operation can be applied only
+     * once, false otherwise.
+     * @param reusable true if {@code operator} creates no per-enumeration
+     * state other than pipe processors, false otherwise.
+     * @return new {@link PipeEnumerable} instance.
+     */
+    public static <T,E> PipeEnumerable<T,E> of(
+            Iterable<? extends T>                  source,
+            Function<Enumerator<E>, Enumerator<T>> operator,
+            Supplier<Boolean>                      onceOnly,
+            boolean                                reusable) {
         return (source instanceof PipeEnumerable<?,?>)
                 ? new PipeEnumerable((PipeEnumerable<T,E>)source,
                                      operator,
-                                     onceOnly)
-                : new PipeEnumerable(source, operator, onceOnly);
+                                     onceOnly,
+                                     reusable)
+                : new PipeEnumerable(source, operator, onceOnly, reusable);
     }
 
     // ---------------------------------------------------------------------- //
 
+    /**
+     * Returns an {@code Enumerable} whose enumerators reorder their chained
+     * filters at runtime.
+     *
+     * @param <E> type of enumerated elements.
+     * @param enumerable {@link Enumerable} to make adaptive.
+     * @return adaptive {@code Enumerable}.
+     * @see PipeEnumerator#adaptiveFilters()
+     */
+    public static <E> Enumerable<E> adaptiveFilters(Enumerable<E> enumerable) {
+        return of(enumerable,
+                  in -> ((PipeEnumerator)in).adaptiveFilters(),
+                  () -> false,
+                  true);
+    }
+
+    /**
+     * Returns an {@code Enumerable} whose enumerators run their pipelines
+     * as compiled code.
+     *
+     * @param <E> type of enumerated elements.
+     * @param enumerable {@link Enumerable} to compile.
+     * @return compiled {@code Enumerable}.
+     * @see PipeEnumerator#compiled()
+     */
+    public static <E> Enumerable<E> compiled(Enumerable<E> enumerable) {
+        return of(enumerable,
+                  in -> ((PipeEnumerator)in).compiled(),
+                  () -> false,
+                  true);
+    }
+
     /**
      * Concatenates the given {@code elements} to the given {@code enumerable}.
      *
@@ -201,7 +322,8 @@ final class PipeEnumerable<T,E> extends AbstractEnumerable<E> {
             Predicate<? super E> predicate) {
         return of(enumerable,
                   in -> ((PipeEnumerator)in).reversedFilter(predicate),
-                  () -> false);
+                  () -> false,
+                  true);
     }
 
     /**
@@ -222,7 +344,8 @@ final class PipeEnumerable<T,E> extends AbstractEnumerable<E> {
         return of(enumerable,
                   in -> ((PipeEnumerator)in).reversedFlatMap(
                           e -> mapper.apply((E)e).iterator()),
-                  () -> false);
+                  () -> false,
+                  true);
     }
 
     /**
@@ -239,7 +362,8 @@ final class PipeEnumerable<T,E> extends AbstractEnumerable<E> {
             long maxSize) {
         return of(enumerable,
                   in -> ((PipeEnumerator)in).reversedLimit(maxSize),
-                  () -> false);
+                  () -> false,
+                  true);
     }
 
     /**
@@ -277,7 +401,8 @@ final class PipeEnumerable<T,E> extends AbstractEnumerable<E> {
             Function<? super E, ? extends R> mapper) {
         return of(enumerable,
                   in -> ((PipeEnumerator)in).reversedMap(mapper),
-                  () -> false);
+                  () -> false,
+                  true);
     }
 
     /**
@@ -317,7 +442,8 @@ final class PipeEnumerable<T,E> extends AbstractEnumerable<E> {
             Consumer<? super E> action) {
         return of(enumerable,
                   in -> Reversible.peek(in, action, true),
-                  () -> false);
+                  () -> false,
+                  true);
     }
 
     /**
@@ -332,7 +458,8 @@ final class PipeEnumerable<T,E> extends AbstractEnumerable<E> {
     public static <E> Enumerable<E> skip(Enumerable<E> enumerable, long n) {
         return of(enumerable,
                   in -> ((PipeEnumerator)in).reversedSkip(n),
-                  () -> false);
+                  () -> false,
+                  true);
     }
 
     /**
@@ -349,7 +476,8 @@ final class PipeEnumerable<T,E> extends AbstractEnumerable<E> {
             Predicate<? super E> predicate) {
         return of(enumerable,
                   in -> ((PipeEnumerator)in).reversedSkipWhile(predicate),
-                  () -> false);
+                  () -> false,
+                  true);
     }
 
     /**
@@ -367,7 +495,8 @@ final class PipeEnumerable<T,E> extends AbstractEnumerable<E> {
             Predicate<? super E> predicate) {
         return of(enumerable,
                   in -> ((PipeEnumerator)in).reversedTakeWhile(predicate),
-                  () -> false);
+                  () -> false,
+                  true);
     }
 
     /**
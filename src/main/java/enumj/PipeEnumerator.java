@@ -23,11 +23,17 @@
  */
 package enumj;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -47,8 +53,34 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
     private LinkedList<AbstractPipeProcessor>      pipeline;
     private LinkedList<AbstractPipeMultiProcessor> multiPipeline;
     private LinkedList<PipeSource>                 sources;
+    private LinkedList<PipeSource>                 pendingSources;
+    private LinkedList<PipeSource>                 headSources;
+    private LinkedList<AbstractPipeProcessor>      openTails;
+    private AbstractPipeProcessor                  frontEntry;
+    private boolean                                frontJoined;
     private Nullable<E>                            value;
     private long                                   needValueForHasNext;
+    private Object                                 inValue;
+    private Consumer<Object>                       inConsumer;
+    private int                                    inIndex;
+    private boolean                                nextOnSameSourceOnNoValue;
+
+    private AbstractPipeProcessor[]                chain;
+    private int[]                                  chainNext;
+    private int                                    chainHead;
+    private AbstractPipeMultiProcessor[]           multiChain;
+    private int                                    multiChainHead;
+    private boolean                                shapeChanged;
+    private boolean                                optimized;
+    private boolean                                compiled;
+    private boolean                                adaptiveFilters;
+
+    private Predicate<Object>                      pushElement;
+    private Predicate<? super E>                   pushSink;
+    private int                                    pushIndex;
+    private boolean                                pushStopped;
+    private boolean                                pushNextSource;
+    private AbstractPipeProcessor                  pushInactive;
 
     /**
      * Creates a new {@code PipeEnumerator} instance based on the given
@@ -63,6 +95,8 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
         Checks.ensureNonEnumerating(source);
         PipeSource<?> src = PipeSource.of(source);
         this.sources.add(src);
+        this.pendingSources.add(src);
+        this.headSources.add(src);
     }
     /**
      * Creates a new {@code PipeEnumerator} instance with an empty internal
@@ -72,7 +106,41 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
         this.pipeline = new LinkedList<>();
         this.multiPipeline = new LinkedList<>();
         this.sources = new LinkedList<>();
+        this.pendingSources = new LinkedList<>();
+        this.headSources = new LinkedList<>();
+        this.openTails = new LinkedList<>();
         this.value = Nullable.empty();
+        this.inConsumer = in -> this.inValue = in;
+        this.shapeChanged = true;
+    }
+
+    /**
+     * Creates a new {@code PipeEnumerator} instance with no sources whose
+     * internal pipeline gets stamped out of the given {@code template}.
+     *
+     * @param template {@link PipeTemplate} to stamp the pipeline out of.
+     * @see #template()
+     */
+    PipeEnumerator(PipeTemplate template) {
+        this();
+        final AbstractPipeProcessor[] processors = template.newProcessors();
+        for(AbstractPipeProcessor processor : processors) {
+            pipeline.add(processor);
+            if (processor instanceof AbstractPipeMultiProcessor) {
+                multiPipeline.add((AbstractPipeMultiProcessor)processor);
+            }
+            if (processor.hasNextNeedsValue) {
+                ++needValueForHasNext;
+            }
+            if (processor.getNext() == null) {
+                openTails.add(processor);
+            }
+        }
+        final int front = template.getFrontIndex();
+        this.frontEntry = (front < 0) ? null : processors[front];
+        this.compiled = template.isCompiled();
+        this.adaptiveFilters = template.isAdaptiveFilters();
+        this.optimized = true;
     }
 
     /**
@@ -101,9 +169,9 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      * <p>
      * This method also maintains the consistency of
      * {@link #needValueForHasNext}, {@link AbstractPipeProcessor#next} of
-     * the last element in {@link #pipeline} as well as
-     * {@link PipeSource#firstProcessor} of the last element in
-     * {@link #sources}.
+     * the elements in {@link #openTails} as well as
+     * {@link PipeSource#firstProcessor} of the elements in
+     * {@link #pendingSources}.
      * </p>
      * @param <X> type of processed enumerated elements.
      * @param processor {@link AbstractPipeProcessor} to add.
@@ -111,19 +179,10 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      */
     protected <X> Enumerator<X> enqueueProcessor(
             AbstractPipeProcessor<? super E, ? extends X> processor) {
-        final AbstractPipeProcessor<?,? extends E> last = pipeline.peekLast();
+        shapeChanged = true;
+        optimized = false;
         safePipelineAddLast(processor);
-        if (processor.hasNextNeedsValue) {
-            ++needValueForHasNext;
-        }
-        if (last != null) {
-            last.setNext((AbstractPipeProcessor)processor);
-        }
-        if (!sources.isEmpty()) {
-            final PipeSource source = sources.getLast();
-            source.setFirstProcessorIfNone(processor);
-            processor.setSource(source);
-        }
+        attachLast(processor);
         return (Enumerator<X>)this;
     }
 
@@ -131,8 +190,8 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      * Adds the given {@code processor} to the front of the pipeline.
      * <p>
      * This method also maintains the consistency of
-     * {@link #needValueForHasNext} as well as
-     * {@link AbstractPipeProcessor#next} of {@code processor}.
+     * {@link #needValueForHasNext}, {@link AbstractPipeProcessor#next} of
+     * {@code processor} as well as {@link #frontEntry}.
      * </p>
      *
      * @param <X> type of elements produced by {@code processor}.
@@ -141,14 +200,10 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      */
     protected <X> PipeEnumerator<E> pushFrontProcessor(
             AbstractPipeProcessor<? super X, ?> processor) {
-        final AbstractPipeProcessor<?,?> first = pipeline.peekFirst();
+        shapeChanged = true;
+        optimized = false;
         safePipelineAddFirst(processor);
-        if (processor.hasNextNeedsValue) {
-            ++needValueForHasNext;
-        }
-        if (first != null) {
-            processor.setNext((AbstractPipeProcessor)first);
-        }
+        attachFirst(processor);
         return this;
     }
 
@@ -157,9 +212,9 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      * <p>
      * This method also maintains the consistency of
      * {@link #needValueForHasNext}, {@link AbstractPipeProcessor#next} of
-     * the last element in {@link pipeline} as well as
-     * {@link PipeSource#firstProcessor} of the last element in
-     * {@link #sources}.
+     * the elements in {@link #openTails} as well as
+     * {@link PipeSource#firstProcessor} of the elements in
+     * {@link #pendingSources}.
      * </p>
      *
      * @param <X> type of processed enumerated elements.
@@ -168,19 +223,10 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      */
     protected <X> Enumerator<X> enqueueProcessor(
             AbstractPipeMultiProcessor<? super E, ? extends X> processor) {
-        final AbstractPipeProcessor<?,? extends E> last = pipeline.peekLast();
+        shapeChanged = true;
+        optimized = false;
         safeMultiPipelineAddLast(processor);
-        if (processor.hasNextNeedsValue) {
-            ++needValueForHasNext;
-        }
-        if (last != null) {
-            last.setNext((AbstractPipeProcessor)processor);
-        }
-        if (!sources.isEmpty()) {
-            final PipeSource source = sources.getLast();
-            source.setFirstProcessorIfNone(processor);
-            processor.setSource(source);
-        }
+        attachLast(processor);
         return (Enumerator<X>)this;
     }
 
@@ -188,8 +234,8 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      * Adds the given {@code processor} to the front of the multi-pipeline.
      * <p>
      * This method also maintains the consistency of
-     * {@link #needValueForHasNext} as well as
-     * {@link AbstractPipeProcessor#next} of {@code processor}.
+     * {@link #needValueForHasNext}, {@link AbstractPipeProcessor#next} of
+     * {@code processor} as well as {@link #frontEntry}.
      * </p>
      *
      * @param <X> type of elements produced by {@code processor}.
@@ -198,15 +244,79 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      */
     protected <X> PipeEnumerator<E> pushFrontProcessor(
             AbstractPipeMultiProcessor<? super X, ?> processor) {
-        final AbstractPipeProcessor<?,?> first = pipeline.peekFirst();
+        shapeChanged = true;
+        optimized = false;
         safeMultiPipelineAddFirst(processor);
+        attachFirst(processor);
+        return this;
+    }
+
+    /**
+     * Links the given {@code processor}, just added to the back of
+     * {@code pipeline}, to the rest of the pipeline.
+     * <p>
+     * The elements of {@link #openTails} and of {@link #pendingSources}
+     * continue into {@code processor}, which becomes the only open tail.
+     * </p>
+     *
+     * @param processor {@link AbstractPipeProcessor} just added.
+     */
+    private void attachLast(AbstractPipeProcessor processor) {
         if (processor.hasNextNeedsValue) {
             ++needValueForHasNext;
         }
-        if (first != null) {
-            processor.setNext((AbstractPipeProcessor)first);
+        for(AbstractPipeProcessor tail : openTails) {
+            tail.setNext(processor);
         }
-        return this;
+        openTails.clear();
+        openTails.add(processor);
+        for(PipeSource source : pendingSources) {
+            source.setFirstProcessorIfNone(processor);
+        }
+        if (pipeline.getFirst() == processor) {
+            frontEntry = processor;
+            frontJoined = false;
+            headSources = pendingSources;
+            pendingSources = new LinkedList<>();
+        } else {
+            pendingSources.clear();
+        }
+        if (!sources.isEmpty()) {
+            processor.setSource(sources.getLast());
+        }
+    }
+
+    /**
+     * Links the given {@code processor}, just added to the front of
+     * {@code pipeline}, to the rest of the pipeline.
+     * <p>
+     * The {@code processor} continues into {@link #frontEntry} and becomes
+     * the new {@link #frontEntry}. The elements of {@link #headSources}
+     * move along and enter {@code processor} from now on.
+     * </p>
+     *
+     * @param processor {@link AbstractPipeProcessor} just added.
+     */
+    private void attachFirst(AbstractPipeProcessor processor) {
+        if (processor.hasNextNeedsValue) {
+            ++needValueForHasNext;
+        }
+        if (frontEntry != null) {
+            processor.setNext(frontEntry);
+        } else {
+            openTails.add(processor);
+        }
+        if (!headSources.isEmpty()) {
+            for(PipeSource source : headSources) {
+                source.replaceFirstProcessor(frontEntry, processor);
+            }
+            if (frontEntry == null) {
+                pendingSources.removeIf(s -> s.getFirstProcessor() != null);
+            }
+            processor.setSource(headSources.getLast());
+        }
+        frontEntry = processor;
+        frontJoined = false;
     }
 
     /**
@@ -219,12 +329,38 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      */
     protected <X> Enumerator<X> enqueueMapProcessor(
             Function<? super E, ? extends X> mapper) {
-        if (pipeline.isEmpty() || !pipeline.getLast().enqueueMap(mapper)) {
+        shapeChanged = true;
+        optimized = false;
+        if (!isLastFusible() || !pipeline.getLast().enqueueMap(mapper)) {
             return enqueueProcessor(new MapPipeProcessor(mapper));
         }
         return (Enumerator<X>)this;
     }
 
+    /**
+     * Enqueues a processor mapping the elements in batches.
+     * <p>
+     * The last batch gets loaded when the elements end, through
+     * {@link AbstractPipeMultiProcessor#processInputEnd()}.
+     * </p>
+     *
+     * @param <X> type of mapped enumerated elements.
+     * @param loader {@link Function} mapping a list of distinct elements
+     * to the list of their results.
+     * @param batchSize maximum number of elements per batch.
+     * @param maxWaitNanos maximum age of an incomplete batch, in
+     * nanoseconds, {@code -1} if unbounded.
+     * @return mapped {@link Enumerator}.
+     * @see MapBatchedPipeProcessor
+     */
+    protected <X> Enumerator<X> enqueueBatchedMapProcessor(
+            Function<? super List<E>, ? extends List<? extends X>> loader,
+            int batchSize,
+            long maxWaitNanos) {
+        return enqueueProcessor(
+                new MapBatchedPipeProcessor(loader, batchSize, maxWaitNanos));
+    }
+
     /**
      * Prepends the given mapper to the existing pipeline by aggregating it with
      * the first mappers, if possible.
@@ -235,8 +371,9 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      */
     protected <X> PipeEnumerator<E> pushFrontMapProcessor(
             Function<? super X, ?> mapper) {
-        if (pipeline.isEmpty()
-            || !pipeline.getFirst().pushFrontMap(mapper)) {
+        shapeChanged = true;
+        optimized = false;
+        if (!isFrontFusible() || !frontEntry.pushFrontMap(mapper)) {
             return pushFrontProcessor(new MapPipeProcessor(mapper));
         }
         return this;
@@ -251,8 +388,9 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      */
     protected Enumerator<E> enqueueFilterProcessor(
             Predicate<? super E> filter) {
-        if (pipeline.isEmpty()
-            || !pipeline.getLast().enqueueFilter(filter)) {
+        shapeChanged = true;
+        optimized = false;
+        if (!isLastFusible() || !pipeline.getLast().enqueueFilter(filter)) {
             return enqueueProcessor(new FilterPipeProcessor(filter));
         }
         return this;
@@ -266,13 +404,46 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      * @return filtered {@link Enumerator}.
      */
     protected PipeEnumerator<E> pushFrontFilterProcessor(Predicate<?> filter) {
-        if (pipeline.isEmpty()
-            || !pipeline.getFirst().pushFrontFilter(filter)) {
+        shapeChanged = true;
+        optimized = false;
+        if (!isFrontFusible() || !frontEntry.pushFrontFilter(filter)) {
             return pushFrontProcessor(new FilterPipeProcessor(filter));
         }
         return this;
     }
 
+    /**
+     * Gets whether the last processor in {@code pipeline} may absorb
+     * mappers and filters enqueued after it.
+     * <p>
+     * This is the case when every element that reaches the end of the
+     * pipeline passes through the last processor.
+     * </p>
+     *
+     * @return {@code true} if the last processor is fusible,
+     * {@code false} otherwise.
+     */
+    private boolean isLastFusible() {
+        return pendingSources.isEmpty()
+               && openTails.size() == 1
+               && openTails.getFirst() == pipeline.peekLast();
+    }
+
+    /**
+     * Gets whether {@code frontEntry} may absorb mappers and filters
+     * pushed in front of it.
+     * <p>
+     * This is the case when no source and no spliced pipeline enters
+     * the pipeline at {@link #frontEntry}.
+     * </p>
+     *
+     * @return {@code true} if {@link #frontEntry} is fusible,
+     * {@code false} otherwise.
+     */
+    private boolean isFrontFusible() {
+        return frontEntry != null && !frontJoined;
+    }
+
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -  //
 
     /**
@@ -383,11 +554,26 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      * {@link AbstractPipeProcessor} instances that were processing specifically
      * the elements of that source.
      * <p>
+     * If the source still has elements, because the processors after it
+     * stopped processing, it gets abandoned: it keeps its remaining
+     * elements unless it holds resources that only ending it releases,
+     * such as computations in flight.
+     * </p>
+     * <p>
      * This method clears {@link #value}.
      * </p>
      */
     protected void dequeueSourceWithProcessors() {
-        dequeueSourceProcessors(sources.remove());
+        final PipeSource removed = sources.remove();
+        removed.setDequeued();
+        AbstractEnumerator.abandon(removed);
+        if (removed == pendingSources.peekFirst()) {
+            pendingSources.removeFirst();
+        }
+        if (removed == headSources.peekFirst()) {
+            headSources.removeFirst();
+        }
+        dequeueSourceProcessors(removed);
         value.clear();
     }
 
@@ -413,6 +599,12 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
     /**
      * Removes the processors of the given {@code PipeSource} from
      * the {@code pipeline}.
+     * <p>
+     * A processor has no more work to do once its
+     * {@link AbstractPipeProcessor#getSource()}, the last source whose
+     * elements it processes, has been dequeued. Such processors always
+     * make up the front of {@link #pipeline}.
+     * </p>
      *
      * @param removed {@link PipeSource} that has just been removed and need
      * its processors to be removed as well.
@@ -421,23 +613,18 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
         if (sources.isEmpty()) {
             pipeline.clear();
             multiPipeline.clear();
+            pendingSources.clear();
+            headSources.clear();
+            openTails.clear();
+            frontEntry = null;
+            shapeChanged = true;
             return;
         }
 
         AbstractPipeProcessor firstInPipeline = pipeline.peekFirst();
-        final PipeSource firstSource = sources.getFirst();
-
-        if (firstSource.getFirstProcessor() == null) {
-            if (removed.getFirstProcessor() != null) {
-                while(firstInPipeline != null) {
-                    firstInPipeline = dequeueProcessor();
-                }
-            }
-            return;
-        }
-
         while(firstInPipeline != null
-              && firstInPipeline != firstSource.getFirstProcessor()) {
+              && (firstInPipeline.getSource() == null
+                  || firstInPipeline.getSource().isDequeued())) {
             firstInPipeline = dequeueProcessor();
         }
     }
@@ -451,88 +638,429 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      * {@link #multiPipeline}.
      * <p>
      * The method also maintains the consistency of
-     * {@link #needValueForHasNext}.
+     * {@link #needValueForHasNext}. The array snapshots of the pipeline
+     * need no rebuilding as only their heads advance. If the pipeline is
+     * compiled, the head of {@link #chain} advances past a
+     * {@link CompiledPipeProcessor} once its last processor gets removed.
      * </p>
      *
      * @return the new head of {@link #pipeline}, if any.
      */
     protected AbstractPipeProcessor dequeueProcessor() {
         final AbstractPipeProcessor head = pipeline.remove();
+        if (!compiled) {
+            ++chainHead;
+        } else if (!shapeChanged && chainHead < chain.length) {
+            final AbstractPipeProcessor node = chain[chainHead];
+            if (!(node instanceof CompiledPipeProcessor)
+                || ((CompiledPipeProcessor)node).getLastProcessor() == head) {
+                ++chainHead;
+            }
+        }
         if (!multiPipeline.isEmpty()
             && head == multiPipeline.getFirst()) {
             multiPipeline.remove();
+            ++multiChainHead;
         }
         if (head.hasNextNeedsValue) {
             --needValueForHasNext;
         }
+        if (head.getNext() == null) {
+            openTails.remove(head);
+        }
+        if (head == frontEntry) {
+            frontEntry = null;
+        }
         return pipeline.peekFirst();
     }
 
+    /**
+     * Rebuilds the array snapshots of {@code pipeline} and
+     * {@code multiPipeline} if the shape of the pipeline has changed.
+     * <p>
+     * The per-element loops in {@link #tryPipelineIn()} and
+     * {@link #tryPipelineOut(java.lang.Object, int)} iterate over
+     * {@link #chain} and {@link #multiChain} rather than over the linked
+     * lists. Adding processors invalidates the snapshots while removing
+     * processors from the front of the pipeline only advances
+     * {@link #chainHead} and {@link #multiChainHead}.
+     * </p>
+     * <p>
+     * Before rebuilding the snapshots, this method runs
+     * {@link PipeOptimizer} upon the pipeline.
+     * </p>
+     * <p>
+     * If the pipeline is compiled, {@link #chain} holds a
+     * {@link CompiledPipeProcessor} in place of every sequence of linked
+     * compilable processors that process the same sources.
+     * </p>
+     */
+    protected void ensureChain() {
+        if (!shapeChanged) {
+            return;
+        }
+        optimizePipeline();
+        final List<AbstractPipeProcessor> nodes = compiled
+                                                  ? compiledPipeline()
+                                                  : pipeline;
+        chain = nodes.toArray(new AbstractPipeProcessor[nodes.size()]);
+        chainNext = new int[chain.length];
+        chainHead = 0;
+        multiChain = multiPipeline.toArray(
+                new AbstractPipeMultiProcessor[multiPipeline.size()]);
+        multiChainHead = 0;
+        for(int i=0; i<chain.length; ++i) {
+            chain[i].setChainIndex(i);
+            if (chain[i] instanceof CompiledPipeProcessor) {
+                for(AbstractPipeProcessor processor
+                    : ((CompiledPipeProcessor)chain[i]).getProcessors()) {
+                    processor.setChainIndex(i);
+                }
+            }
+        }
+        for(int i=0; i<chain.length; ++i) {
+            final AbstractPipeProcessor next = chain[i].getNext();
+            chainNext[i] = (next == null) ? -1 : next.getChainIndex();
+        }
+        shapeChanged = false;
+    }
+
+    /**
+     * Rewrites {@code pipeline} by way of {@code PipeOptimizer}.
+     * <p>
+     * This method also maintains the consistency of
+     * {@link #needValueForHasNext}, {@link #openTails} and
+     * {@link #frontEntry} and makes the filters adaptive, if required.
+     * </p>
+     * <p>
+     * The pipelines stamped out of a {@link PipeTemplate} start out
+     * optimized, so this method does not run {@code PipeOptimizer} upon them
+     * unless processors have been added since.
+     * </p>
+     */
+    private void optimizePipeline() {
+        if (optimized) {
+            optimized = false;
+        } else if (PipeOptimizer.optimize(pipeline, sources)) {
+            needValueForHasNext = 0;
+            openTails.clear();
+            boolean frontEntryFound = false;
+            for(AbstractPipeProcessor processor : pipeline) {
+                if (processor.hasNextNeedsValue) {
+                    ++needValueForHasNext;
+                }
+                if (processor.getNext() == null) {
+                    openTails.add(processor);
+                }
+                frontEntryFound |= processor == frontEntry;
+            }
+            if (!frontEntryFound) {
+                frontEntry = pipeline.peekFirst();
+            }
+        }
+        PipeOptimizer.skipAhead(pipeline, sources);
+        if (adaptiveFilters) {
+            for(AbstractPipeProcessor processor : pipeline) {
+                if (processor instanceof FilterPipeProcessor) {
+                    ((FilterPipeProcessor)processor).setAdaptive();
+                }
+            }
+        }
+    }
+
+    /**
+     * Grafts the pipeline of this not-yet-started {@code PipeEnumerator}
+     * elsewhere.
+     * <p>
+     * Grafting succeeds only if the pipeline has one source and no
+     * multi-processors. On success, this method adds the processors of
+     * the optimized pipeline to {@code processors}, in order, and returns
+     * the underlying {@link Iterator} of the source. The caller then runs
+     * the processors itself upon the elements of the returned iterator,
+     * while this {@code PipeEnumerator} remains with no elements.
+     * </p>
+     *
+     * @param processors list receiving the grafted processors.
+     * @return the source {@link Iterator} on success, {@code null}
+     * otherwise.
+     * @see FlatMapPipeProcessor
+     */
+    Iterator<?> graft(List<AbstractPipeProcessor> processors) {
+        if (enumerating()
+            || sources.size() != 1
+            || !multiPipeline.isEmpty()) {
+            return null;
+        }
+        ensureChain();
+        for(int i = entryIndex(sources.getFirst()); i >= 0; i = chainNext[i]) {
+            processors.add(chain[i]);
+        }
+        final Iterator<?> source = sources.getFirst().detachSource();
+        resetPipeline();
+        return source;
+    }
+
+    /**
+     * Empties this {@code PipeEnumerator} after its sources and
+     * processors have moved elsewhere.
+     */
+    private void resetPipeline() {
+        pipeline = new LinkedList<>();
+        multiPipeline = new LinkedList<>();
+        sources = new LinkedList<>();
+        pendingSources = new LinkedList<>();
+        headSources = new LinkedList<>();
+        openTails = new LinkedList<>();
+        frontEntry = null;
+        frontJoined = false;
+        needValueForHasNext = 0;
+        shapeChanged = true;
+    }
+
+    /**
+     * Creates a template of the pipeline of this {@code PipeEnumerator}.
+     * <p>
+     * A template is possible only if this {@code PipeEnumerator} has not
+     * started enumerating, has no sources, has its front entry at the head
+     * of the pipeline and all its processors can be copied.
+     * </p>
+     * <p>
+     * The template holds copies of the optimized processors, so that the
+     * stamped pipelines start out optimized. As the optimizer may reorder
+     * the processors, the front entry of the stamped pipelines is the
+     * head of the optimized pipeline.
+     * </p>
+     *
+     * @return the {@link PipeTemplate} on success, {@code null} otherwise.
+     * @see AbstractPipeProcessor#copy()
+     */
+    PipeTemplate template() {
+        if (enumerating()
+            || !sources.isEmpty()
+            || frontEntry != pipeline.peekFirst()) {
+            return null;
+        }
+        optimizePipeline();
+        return copyPipeline();
+    }
+
+    /**
+     * Creates a template out of copies of the processors of the optimized
+     * pipeline.
+     *
+     * @return the {@link PipeTemplate} on success, {@code null} if some
+     * processor cannot be copied.
+     * @see #template()
+     * @see #internalTrySplit()
+     */
+    private PipeTemplate copyPipeline() {
+        final AbstractPipeProcessor[] processors =
+                pipeline.toArray(new AbstractPipeProcessor[pipeline.size()]);
+        final Map<AbstractPipeProcessor,Integer> indices =
+                new IdentityHashMap<>();
+        for(int i=0; i<processors.length; ++i) {
+            indices.put(processors[i], i);
+        }
+        final AbstractPipeProcessor[] copies =
+                new AbstractPipeProcessor[processors.length];
+        final int[] nextIndices = new int[processors.length];
+        for(int i=0; i<processors.length; ++i) {
+            copies[i] = processors[i].copy();
+            if (copies[i] == null) {
+                return null;
+            }
+            final AbstractPipeProcessor next = processors[i].getNext();
+            nextIndices[i] = (next == null) ? -1 : indices.get(next);
+        }
+        return new PipeTemplate(copies,
+                                nextIndices,
+                                processors.length > 0 ? 0 : -1,
+                                compiled,
+                                adaptiveFilters);
+    }
+
+    /**
+     * Gets the plan that the pipeline executes.
+     * <p>
+     * The plan consists of the descriptions of the processors that remain
+     * after optimization, in order.
+     * </p>
+     *
+     * @return list of processor descriptions.
+     * @see PipeOptimizer#describe(enumj.AbstractPipeProcessor)
+     */
+    public List<String> plan() {
+        if (pipeline == null) {
+            return new ArrayList<>();
+        }
+        ensureChain();
+        return PipeOptimizer.describe(
+                Arrays.asList(chain).subList(chainHead, chain.length));
+    }
+
+    /**
+     * Gets the processors of {@code pipeline} with every sequence of
+     * compilable processors replaced by a {@code CompiledPipeProcessor}.
+     * <p>
+     * A sequence consists of at least two processors, each linked to the
+     * next, that process the same sources. Sequences never extend past a
+     * join, where other elements enter the pipeline.
+     * </p>
+     *
+     * @return list of processors and compiled processors.
+     * @see CompiledPipeProcessor#isCompilable(enumj.AbstractPipeProcessor)
+     */
+    private List<AbstractPipeProcessor> compiledPipeline() {
+        final List<AbstractPipeProcessor> nodes =
+                new ArrayList<>(pipeline.size());
+        final List<AbstractPipeProcessor> sequence = new ArrayList<>();
+        final Set<AbstractPipeProcessor> joins =
+                PipeOptimizer.joins(pipeline, sources);
+        for(AbstractPipeProcessor processor : pipeline) {
+            if (!sequence.isEmpty()) {
+                final AbstractPipeProcessor last =
+                        sequence.get(sequence.size()-1);
+                if (last.getNext() != processor
+                    || last.getSource() != processor.getSource()
+                    || joins.contains(processor)
+                    || !CompiledPipeProcessor.isCompilable(processor)) {
+                    addCompiledSequence(nodes, sequence);
+                }
+            }
+            if (CompiledPipeProcessor.isCompilable(processor)) {
+                sequence.add(processor);
+            } else {
+                nodes.add(processor);
+            }
+        }
+        addCompiledSequence(nodes, sequence);
+        return nodes;
+    }
+    private static void addCompiledSequence(
+            List<AbstractPipeProcessor> nodes,
+            List<AbstractPipeProcessor> sequence) {
+        if (sequence.size() > 1) {
+            nodes.add(CompiledPipeProcessor.of(sequence));
+        } else {
+            nodes.addAll(sequence);
+        }
+        sequence.clear();
+    }
+
     /**
      * Tries to obtain obtain an input value for the pipeline.
+     * <p>
+     * On success, the input value is stored in {@link #inValue} and the
+     * index in {@link #chain} of the {@link AbstractPipeProcessor} to start
+     * processing from is stored in {@link #inIndex}. Storing them in fields
+     * rather than in {@link Out} holders keeps the per-element path
+     * allocation-free.
+     * </p>
      *
-     * @param in {@link Out} value serving as input for the pipeline.
-     * @param processor head of {@link #pipeline} if {@code in} gets
-     * extracted successfully.
      * @return true if the input value for {@link #pipeline} has been
      * extracted successfully, false otherwise.
+     * @see #tryPipelineOut(java.lang.Object, int)
      */
-    protected boolean tryPipelineIn(
-            Out<Object>                in,
-            Out<AbstractPipeProcessor> processor) {
-        in.clear();
-        processor.clear();
-
-        if (!multiPipeline.isEmpty()) {
-            final Iterator<AbstractPipeMultiProcessor> multiProcessorIterator =
-                    multiPipeline.descendingIterator();
-            AbstractPipeMultiProcessor multiProcessor;
-            while(multiProcessorIterator.hasNext()) {
-                multiProcessor = multiProcessorIterator.next();
-                if (multiProcessor.isInactive()) {
-                    this.dequeueSourcesUpToProcessor(multiProcessor);
-                    break;
-                }
-                if (!multiProcessor.needsValue()) {
-                    in.set(multiProcessor.getOutputValue());
-                    processor.set(multiProcessor.getNext());
-                    return true;
-                }
+    protected boolean tryPipelineIn() {
+        inValue = null;
+        inIndex = -1;
+        ensureChain();
+
+        final AbstractPipeMultiProcessor[] multi = multiChain;
+        for(int i=multi.length-1; i>=multiChainHead; --i) {
+            final AbstractPipeMultiProcessor multiProcessor = multi[i];
+            if (multiProcessor.isInactive()) {
+                this.dequeueSourcesUpToProcessor(multiProcessor);
+                break;
+            }
+            if (!multiProcessor.needsValue()) {
+                inValue = multiProcessor.getOutputValue();
+                inIndex = chainNext[multiProcessor.getChainIndex()];
+                return true;
             }
         }
-        if (!straightHasNext()) {
-            return false;
+        while(!sources.isEmpty()) {
+            final PipeSource source = sources.peekFirst();
+            if (source.tryNext(inConsumer)) {
+                inIndex = entryIndex(source);
+                return true;
+            }
+            final AbstractPipeMultiProcessor ended = endInput();
+            if (ended != null) {
+                inValue = ended.getOutputValue();
+                inIndex = chainNext[ended.getChainIndex()];
+                return true;
+            }
+            dequeueSourceWithProcessors();
         }
+        return false;
+    }
 
-        in.set(sources.peekFirst().next());
-        processor.set(pipeline.peekFirst());
-        return true;
+    /**
+     * Signals the end of the input values to the multi-processors that
+     * process no source past the first of {@code sources}, upstream first,
+     * until one of them produces output values.
+     * <p>
+     * The first of {@link #sources} must not be dequeued before this method
+     * returns {@code null}, so that the output values of the processors
+     * get through the rest of the pipeline first.
+     * </p>
+     *
+     * @return the {@link AbstractPipeMultiProcessor} that has produced
+     * output values, {@code null} if none has.
+     * @see AbstractPipeMultiProcessor#processInputEnd()
+     */
+    private AbstractPipeMultiProcessor endInput() {
+        final PipeSource source = sources.peekFirst();
+        final AbstractPipeMultiProcessor[] multi = multiChain;
+        for(int i=multiChainHead; i<multi.length; ++i) {
+            if (multi[i].getSource() == source && multi[i].processInputEnd()) {
+                return multi[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the index in {@code chain} of the processor where the elements
+     * of the given {@code source} enter the pipeline.
+     *
+     * @param source {@link PipeSource} whose elements enter the pipeline.
+     * @return index in {@link #chain} or {@code -1} if the elements of
+     * {@code source} need no processing.
+     */
+    private static int entryIndex(PipeSource source) {
+        final AbstractPipeProcessor entry = source.getFirstProcessor();
+        return (entry == null) ? -1 : entry.getChainIndex();
     }
 
     /**
      * Tries to process the given {@code in} value through the {@code pipeline}
      * and produce an output in {@code value}.
+     * <p>
+     * On failure, this method stores in {@link #nextOnSameSourceOnNoValue}
+     * whether to keep the same source or not.
+     * </p>
      *
      * @param in input for the {@link #pipeline}.
-     * @param processor {@link AbstractPipeProcessor} instance in
-     * {@link #pipeline} to start processing from.
-     * @param nextOnSameSourceOnNoValue {@link Out} boolean telling whether
-     * to keep the same source on a failure to process the input or not.
+     * @param index index in {@link #chain} of the
+     * {@link AbstractPipeProcessor} to start processing from, or {@code -1}
+     * if there is no processing to do.
      * @return true if the {@code in} value has been processed to the
      * end, false otherwise.
+     * @see #tryPipelineIn()
      */
-    protected boolean tryPipelineOut(
-            Object                in,
-            AbstractPipeProcessor processor,
-            Out<Boolean>          nextOnSameSourceOnNoValue) {
+    protected boolean tryPipelineOut(Object in, int index) {
         value.clear();
-        nextOnSameSourceOnNoValue.clear();
+        nextOnSameSourceOnNoValue = false;
 
+        final AbstractPipeProcessor[] processors = chain;
+        final int[] nextIndices = chainNext;
         Object val = in;
-        while(processor != null) {
+        while(index >= 0) {
+            final AbstractPipeProcessor processor = processors[index];
             if (processor.isInactive()) {
                 this.dequeueSourcesUpToProcessor(processor);
-                nextOnSameSourceOnNoValue.set(false);
                 return false;
             }
             processor.processInputValue(val);
@@ -540,11 +1068,10 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
                 val = processor.getOutputValue();
             }
             else {
-                nextOnSameSourceOnNoValue.set(
-                        processor.nextOnSameSourceOnNoValue);
+                nextOnSameSourceOnNoValue = processor.nextOnSameSourceOnNoValue;
                 return false;
             }
-            processor = processor.getNext();
+            index = nextIndices[index];
         }
 
         value.set((E)val);
@@ -570,6 +1097,249 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
         }
         return retrieveValue();
     }    
+    @Override
+    protected boolean internalTryNext(Consumer<? super E> action) {
+        if (!value.isPresent() && !tryGetNext()) {
+            return false;
+        }
+        action.accept(retrieveValue());
+        return true;
+    }
+    @Override
+    protected boolean internalPushWhile(Predicate<? super E> sink) {
+        if (value.isPresent() && !sink.test(retrieveValue())) {
+            return false;
+        }
+        while(true) {
+            ensureChain();
+            if (multiChainHead < multiChain.length) {
+                // multi-processors buffer values: pull one element at a time
+                if (!tryGetNext()) {
+                    return true;
+                }
+                if (!sink.test(retrieveValue())) {
+                    return false;
+                }
+                continue;
+            }
+            if (!straightHasNext()) {
+                return true;
+            }
+            if (!pushSource(sink)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Pushes the elements of the first source in {@code sources} through
+     * the pipeline and into the given {@code sink}.
+     * <p>
+     * The first source gets drained in a tight loop until it runs out of
+     * elements, {@code sink} returns {@code false} or the pipeline asks for
+     * the next source. In the latter case, this method dequeues the
+     * source just like {@link #tryGetNext()} does.
+     * </p>
+     *
+     * @param sink {@link Predicate} receiving the processed elements and
+     * telling whether to continue or not.
+     * @return {@code false} if {@code sink} stopped the enumeration,
+     * {@code true} otherwise.
+     * @see #pushElement(java.lang.Object)
+     */
+    private boolean pushSource(Predicate<? super E> sink) {
+        if (pushElement == null) {
+            pushElement = this::pushElement;
+        }
+        pushSink = sink;
+        pushIndex = entryIndex(sources.peekFirst());
+        pushStopped = false;
+        pushNextSource = false;
+        pushInactive = null;
+        try {
+            sources.peekFirst().pushWhile(pushElement);
+        } finally {
+            pushSink = null;
+        }
+
+        if (pushStopped) {
+            return false;
+        }
+        if (pushInactive != null) {
+            dequeueSourcesUpToProcessor(pushInactive);
+            pushInactive = null;
+            pushNextSource = true;
+        }
+        if (pushNextSource) {
+            dequeueSourceWithProcessors();
+        }
+        return true;
+    }
+
+    /**
+     * Processes the given {@code in} value through the pipeline and pushes
+     * the outcome, if any, into the current sink.
+     * <p>
+     * This method is the push-based counterpart of
+     * {@link #tryPipelineOut(java.lang.Object, int)}.
+     * </p>
+     *
+     * @param in input for the {@link #pipeline}.
+     * @return {@code true} to continue with the same source, {@code false}
+     * otherwise.
+     * @see #pushSource(java.util.function.Predicate)
+     */
+    private boolean pushElement(Object in) {
+        final AbstractPipeProcessor[] processors = chain;
+        final int[] nextIndices = chainNext;
+        int index = pushIndex;
+        Object val = in;
+        while(index >= 0) {
+            final AbstractPipeProcessor processor = processors[index];
+            if (processor.isInactive()) {
+                pushInactive = processor;
+                return false;
+            }
+            processor.processInputValue(val);
+            if (processor.hasOutputValue()) {
+                val = processor.getOutputValue();
+            }
+            else {
+                pushNextSource = !processor.nextOnSameSourceOnNoValue;
+                return !pushNextSource;
+            }
+            index = nextIndices[index];
+        }
+
+        pushStopped = !pushSink.test((E)val);
+        return !pushStopped;
+    }
+
+    /**
+     * Splits off a {@code PipeEnumerator} over the first part of the
+     * elements, if possible.
+     * <p>
+     * Splitting succeeds only if this {@code PipeEnumerator} has not
+     * started enumerating, has one source that can split and only stateless
+     * processors that can be copied. The returned {@link PipeEnumerator}
+     * runs copies of the optimized processors upon the first part of the
+     * source, while this one keeps its processors and the rest of the
+     * source.
+     * </p>
+     *
+     * @return the new {@link PipeEnumerator} on success, {@code null}
+     * otherwise.
+     * @see AbstractPipeProcessor#isStateless()
+     */
+    @Override
+    protected AbstractEnumerator<E> internalTrySplit() {
+        if (enumerating()
+            || sources.size() != 1
+            || !multiPipeline.isEmpty()) {
+            return null;
+        }
+        for(AbstractPipeProcessor processor : pipeline) {
+            if (!processor.isStateless()) {
+                return null;
+            }
+        }
+        optimizePipeline();
+        final PipeSource source = sources.getFirst();
+        if (source.getFirstProcessor() != pipeline.peekFirst()) {
+            return null;
+        }
+        final PipeTemplate template = copyPipeline();
+        if (template == null) {
+            return null;
+        }
+        final Iterator<?> prefix = AbstractEnumerator.trySplitOf(source);
+        return (prefix == null)
+               ? null
+               : new PipeEnumerator<E>(template).setSource(prefix);
+    }
+    @Override
+    protected long internalExactSize() {
+        return enumerating() ? -1 : pipelineSize(true);
+    }
+    @Override
+    protected long internalEstimatedSize() {
+        return enumerating() ? Long.MAX_VALUE : pipelineSize(false);
+    }
+    @Override
+    protected boolean internalHasCallbacks() {
+        for(AbstractPipeProcessor processor : pipeline) {
+            if (!(processor instanceof LimitPipeProcessor
+                  || processor instanceof SkipPipeProcessor
+                  || processor instanceof SlicePipeProcessor)) {
+                return true;
+            }
+        }
+        for(PipeSource source : sources) {
+            if (source.hasCallbacks()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of elements that the pipeline yields, given the
+     * sizes of {@code sources} and
+     * {@link AbstractPipeProcessor#outputSize(long)}.
+     * <p>
+     * The result is valid only before enumeration starts, when no processor
+     * has processed anything yet. The elements of every source flow from
+     * its first processor along {@link AbstractPipeProcessor#getNext()},
+     * and {@code pipeline} lists every processor before the processors it
+     * continues into.
+     * </p>
+     *
+     * @param exact {@code true} for the exact size, {@code false} for an
+     * upper bound.
+     * @return the exact size or {@code -1} if unknown, when {@code exact}
+     * is {@code true}, the upper bound or {@code Long.MAX_VALUE} if
+     * unknown, otherwise.
+     */
+    private long pipelineSize(boolean exact) {
+        final Map<AbstractPipeProcessor,Long> inputs = new IdentityHashMap<>();
+        long result = 0;
+        for(PipeSource source : sources) {
+            final long size = exact
+                              ? source.exactSize()
+                              : source.estimatedSize();
+            final AbstractPipeProcessor first = source.getFirstProcessor();
+            if (first == null) {
+                result = addSizes(result, size, exact);
+            } else {
+                inputs.merge(first, size, (x,y) -> addSizes(x, y, exact));
+            }
+        }
+        for(AbstractPipeProcessor processor : pipeline) {
+            final Long input = inputs.remove(processor);
+            final long in = (input == null) ? 0 : input;
+            final long size = exact
+                              ? processor.exactOutputSize(in)
+                              : processor.outputSize(in);
+            final AbstractPipeProcessor next = processor.getNext();
+            if (next == null) {
+                result = addSizes(result, size, exact);
+            } else {
+                inputs.merge(next, size, (x,y) -> addSizes(x, y, exact));
+            }
+        }
+        if (!inputs.isEmpty()) {
+            return exact ? -1 : Long.MAX_VALUE;
+        }
+        return result;
+    }
+    private static long addSizes(long first, long second, boolean exact) {
+        if (exact && (first < 0 || second < 0)) {
+            return -1;
+        }
+        final long sum = first + second;
+        return (sum >= 0) ? sum : exact ? -1 : Long.MAX_VALUE;
+    }
+
     private E retrieveValue() {
         final E result = value.get();
         value.clear();
@@ -577,10 +1347,25 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
     }
     @Override
     protected void cleanup() {
+        if (sources != null) {
+            for(PipeSource source : sources) {
+                AbstractEnumerator.abandon(source);
+            }
+        }
         pipeline = null;
         multiPipeline = null;
         sources = null;
+        pendingSources = null;
+        headSources = null;
+        openTails = null;
+        frontEntry = null;
         value = null;
+        inValue = null;
+        chain = null;
+        chainNext = null;
+        multiChain = null;
+        inConsumer = null;
+        pushElement = null;
     }
 
     /**
@@ -603,22 +1388,19 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      * @return the next value.
      */
     protected final boolean tryGetNext() {
-        final Out<Object> in = Out.empty();
-        final Out<AbstractPipeProcessor> processor = Out.empty();
-        final Out<Boolean> nextOnSameSourceOnNoValue = Out.empty();
         while(true) {
-            if (!tryPipelineIn(in, processor)) {
+            if (!tryPipelineIn()) {
                 return false;
             }
-            if (tryPipelineOut(in.get(),
-                               processor.get(),
-                               nextOnSameSourceOnNoValue)) {
+            final Object in = inValue;
+            inValue = null;
+            if (tryPipelineOut(in, inIndex)) {
                 return true;
             }
 
-            if (nextOnSameSourceOnNoValue.get()) {
+            if (nextOnSameSourceOnNoValue) {
                 // continue to next element of same source
-            } else {
+            } else if (endInput() == null) {
                 // continue to next source
                 dequeueSourceWithProcessors();
             }
@@ -627,9 +1409,31 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
 
     // ---------------------------------------------------------------------- //
 
+    @Override
+    public Enumerator<E> adaptiveFilters() {
+        adaptiveFilters = true;
+        shapeChanged = true;
+        return this;
+    }
+    @Override
+    public Enumerator<E> compiled() {
+        compiled = true;
+        shapeChanged = true;
+        return this;
+    }
     @Override
     public Enumerator<E> concat(Iterator<? extends E> elements) {
-        sources.addLast(PipeSource.of(elements));
+        final PipeEnumerator<?> other = spliceable(elements);
+        if (other != null) {
+            spliceLast(other);
+            return this;
+        }
+        final PipeSource<?> source = PipeSource.of(elements);
+        sources.addLast(source);
+        pendingSources.addLast(source);
+        if (pipeline.isEmpty()) {
+            headSources.addLast(source);
+        }
         return this;
     }
     @Override
@@ -647,12 +1451,44 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
         return enqueueMapProcessor(mapper);
     }
     @Override
+    public <X> Enumerator<X> mapBatched(
+            Function<? super List<E>, ? extends List<? extends X>> loader,
+            int batchSize) {
+        Checks.ensureNotNull(loader, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensurePositive(batchSize, Messages.NON_POSITIVE_BATCH_SIZE);
+        return enqueueBatchedMapProcessor(loader, batchSize, -1);
+    }
+    @Override
+    public <X> Enumerator<X> mapBatched(
+            Function<? super List<E>, ? extends List<? extends X>> loader,
+            int batchSize,
+            Duration maxWait) {
+        Checks.ensureNotNull(loader, Messages.NULL_ENUMERATOR_MAPPER);
+        Checks.ensurePositive(batchSize, Messages.NON_POSITIVE_BATCH_SIZE);
+        Checks.ensureNotNull(maxWait, Messages.NULL_BATCH_WAIT);
+        Checks.ensureNonNegative(maxWait, Messages.NEGATIVE_BATCH_WAIT);
+        return enqueueBatchedMapProcessor(loader,
+                                          batchSize,
+                                          maxWait.toNanos());
+    }
+    @Override
     public Enumerator<E> limit(long maxSize) {
         return enqueueProcessor(new LimitPipeProcessor(maxSize));
     }
     @Override
     public Enumerator<E> prepend(Iterator<? extends E> elements) {
-        return reversedConcat(elements);
+        final PipeEnumerator<?> other = spliceable(elements);
+        if (other != null) {
+            spliceFirst(other);
+            return this;
+        }
+        final PipeSource<?> source = PipeSource.of(elements);
+        sources.addFirst(source);
+        pendingSources.addFirst(source);
+        if (pipeline.isEmpty()) {
+            headSources.addFirst(source);
+        }
+        return this;
     }
     @Override
     public Enumerator<E> skip(long n) {
@@ -688,10 +1524,203 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      */
     public Enumerator<Optional<E>[]> zipAll(Iterator<E> first,
                                             List<Iterator<E>> rest) {
+        return zip(first, rest, false, false);
+    }
+
+    /**
+     * Zips the elements of this {@code PipeEnumerator} with the elements
+     * of the given iterators for as long as the bounding participants have
+     * elements.
+     *
+     * @param first first {@link Iterator} to zip.
+     * @param rest rest of the {@code Iterator} instances to zip.
+     * @param leftBound {@code true} to stop when this enumerator ends,
+     * {@code false} otherwise.
+     * @param rightBound {@code true} to stop when any of the given
+     * iterators ends, {@code false} otherwise.
+     * @return {@link Enumerator} of zipped elements.
+     * @see ZipPipeProcessor
+     */
+    public Enumerator<Optional<E>[]> zip(Iterator<E>       first,
+                                         List<Iterator<E>> rest,
+                                         boolean           leftBound,
+                                         boolean           rightBound) {
+        final ZipPipeProcessor<E> zip =
+                new ZipPipeProcessor(first, rest, leftBound, rightBound);
+        zip.setMainSize(estimatedSize(), exactSize());
         PipeEnumerator<Optional<E>> optionalPipe =
                 (PipeEnumerator<Optional<E>>)map(e -> Optional.of(e))
                 .concat(Enumerator.of(() -> Optional.of(Optional.empty())));
-        return optionalPipe.enqueueProcessor(new ZipPipeProcessor(first, rest));
+        return optionalPipe.enqueueProcessor(zip);
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -//
+
+    /**
+     * Gets the given {@code elements} as a {@code PipeEnumerator} whose
+     * sources and processors may move into this {@code PipeEnumerator}.
+     * <p>
+     * Splicing is possible when neither {@code PipeEnumerator} has started
+     * enumerating. A spliced pipeline enumerates its elements directly
+     * rather than through a nested {@link PipeSource}, so the cost per
+     * element does not depend on how the pipeline has been assembled.
+     * </p>
+     *
+     * @param elements {@link Iterator} to concatenate or prepend.
+     * @return {@code elements} as a {@link PipeEnumerator}, or {@code null}
+     * if no splicing is possible.
+     */
+    private PipeEnumerator<?> spliceable(Iterator<?> elements) {
+        if (elements == this
+            || !(elements instanceof PipeEnumerator)
+            || enumerating()) {
+            return null;
+        }
+        final PipeEnumerator<?> other = (PipeEnumerator<?>)elements;
+        return other.enumerating() ? null : other;
+    }
+
+    /**
+     * Moves the sources and processors of {@code other} at the back of
+     * this {@code PipeEnumerator}.
+     * <p>
+     * The open tails and pending sources of {@code other} stay open and
+     * pending, so the processors enqueued from now on apply to both
+     * pipelines. {@code other} remains with no elements.
+     * </p>
+     *
+     * @param other not-yet-started {@link PipeEnumerator} to splice.
+     */
+    private void spliceLast(PipeEnumerator<?> other) {
+        if (pipeline.isEmpty()) {
+            if (other.pipeline.isEmpty()) {
+                headSources = join(headSources, other.headSources);
+            } else {
+                headSources = other.headSources;
+                frontEntry = other.frontEntry;
+                frontJoined = other.frontJoined;
+            }
+        }
+        sources = join(sources, other.sources);
+        pendingSources = join(pendingSources, other.pendingSources);
+        openTails = join(openTails, other.openTails);
+        pipeline = join(pipeline, other.pipeline);
+        multiPipeline = join(multiPipeline, other.multiPipeline);
+        needValueForHasNext += other.needValueForHasNext;
+        shapeChanged = true;
+        optimized = false;
+        other.resetPipeline();
+    }
+
+    /**
+     * Moves the sources and processors of {@code other} at the front of
+     * this {@code PipeEnumerator}.
+     * <p>
+     * The open tails and pending sources of {@code other} stay open and
+     * pending, so the processors enqueued from now on apply to both
+     * pipelines. {@code other} remains with no elements.
+     * </p>
+     *
+     * @param other not-yet-started {@link PipeEnumerator} to splice.
+     */
+    private void spliceFirst(PipeEnumerator<?> other) {
+        if (!other.pipeline.isEmpty()) {
+            headSources = other.headSources;
+            frontEntry = other.frontEntry;
+            frontJoined = other.frontJoined;
+        } else if (pipeline.isEmpty()) {
+            headSources = join(other.headSources, headSources);
+        }
+        sources = join(other.sources, sources);
+        pendingSources = join(other.pendingSources, pendingSources);
+        openTails = join(other.openTails, openTails);
+        pipeline = join(other.pipeline, pipeline);
+        multiPipeline = join(other.multiPipeline, multiPipeline);
+        needValueForHasNext += other.needValueForHasNext;
+        shapeChanged = true;
+        optimized = false;
+        other.resetPipeline();
+    }
+
+    /**
+     * Moves the sources and processors of {@code other} at the front of
+     * this {@code PipeEnumerator} that gets constructed in reverse order.
+     * <p>
+     * The open tails and pending sources of {@code other} continue into
+     * {@link #frontEntry}, just like a source set by
+     * {@link #setSource(java.util.Iterator)} does. {@code other} remains
+     * with no elements.
+     * </p>
+     *
+     * @param other not-yet-started {@link PipeEnumerator} to splice.
+     */
+    private void spliceReversed(PipeEnumerator<?> other) {
+        if (frontEntry != null) {
+            for(AbstractPipeProcessor tail : other.openTails) {
+                tail.setNext(frontEntry);
+            }
+            for(PipeSource source : other.pendingSources) {
+                source.setFirstProcessorIfNone(frontEntry);
+            }
+            frontJoined |= !other.openTails.isEmpty()
+                           || !other.pendingSources.isEmpty();
+        } else {
+            openTails = join(other.openTails, openTails);
+            pendingSources = join(other.pendingSources, pendingSources);
+        }
+        if (!other.pipeline.isEmpty()) {
+            headSources.clear();
+        }
+        if (!other.sources.isEmpty()) {
+            assignSource(other.sources.getLast());
+        }
+        sources = join(other.sources, sources);
+        pipeline = join(other.pipeline, pipeline);
+        multiPipeline = join(other.multiPipeline, multiPipeline);
+        needValueForHasNext += other.needValueForHasNext;
+        shapeChanged = true;
+        optimized = false;
+        other.resetPipeline();
+    }
+
+    /**
+     * Sets the given {@code source} as the source of the processors
+     * reachable from {@code frontEntry} that have none.
+     *
+     * @param source {@link PipeSource} whose elements are the last to
+     * reach these processors.
+     */
+    private void assignSource(PipeSource source) {
+        AbstractPipeProcessor processor = frontEntry;
+        while(processor != null && processor.getSource() == null) {
+            processor.setSource(source);
+            processor = processor.getNext();
+        }
+    }
+
+    /**
+     * Concatenates the elements of the {@code back} list to the elements of
+     * the {@code front} list.
+     * <p>
+     * The cost is proportional to the shorter of the two lists.
+     * </p>
+     *
+     * @param <T> type of list elements.
+     * @param front list of front elements.
+     * @param back list of back elements.
+     * @return either {@code front} or {@code back} holding all elements.
+     */
+    private static <T> LinkedList<T> join(LinkedList<T> front,
+                                          LinkedList<T> back) {
+        if (front.size() >= back.size()) {
+            front.addAll(back);
+            return front;
+        }
+        final Iterator<T> it = front.descendingIterator();
+        while(it.hasNext()) {
+            back.addFirst(it.next());
+        }
+        return back;
     }
 
     // ---------------------------------------------------------------------- //
@@ -701,25 +1730,29 @@ class PipeEnumerator<E> extends AbstractEnumerator<E> {
      * <p>
      * This method gets called when the {@link PipeEnumerator} gets constructed
      * in reverse order, during enumerator extraction from a
-     * {@link PipeEnumerable}.
+     * {@link PipeEnumerable}. The elements of the new source enter the
+     * pipeline at {@link #frontEntry}, the processor added last at the front,
+     * if any.
      * </p>
      *
      * @param elements {@link Iterator} to set as source.
      * @return the current {@code PipeEnumerator}.
      */
     public PipeEnumerator<E> setSource(Iterator<?> elements) {
+        final PipeEnumerator<?> other = spliceable(elements);
+        if (other != null) {
+            spliceReversed(other);
+            return this;
+        }
         final PipeSource<?> source = PipeSource.of(elements);
         sources.addFirst(source);
-        final Iterator<AbstractPipeProcessor> pipelineIterator =
-                pipeline.iterator();
-        while(pipelineIterator.hasNext()) {
-            final AbstractPipeProcessor processor = pipelineIterator.next();
-            if (processor.getSource() != null) {
-                break;
-            }
-            source.setFirstProcessorIfNone(processor);
-            processor.setSource(source);
+        if (frontEntry == null) {
+            pendingSources.addFirst(source);
+        } else {
+            source.setFirstProcessorIfNone(frontEntry);
+            frontJoined = true;
         }
+        assignSource(source);
         return this;
     }
     
@@ -43,6 +43,13 @@ final class PipeOperator<T,E> implements Function<Enumerator<T>,
      * only once or not.
      */
     public  final Lazy<Boolean>                          onceOnly;
+    /**
+     * Value indicating whether applying the operator creates no
+     * per-enumeration state other than pipe processors.
+     *
+     * @see PipeTemplate
+     */
+    public  final boolean                                reusable;
     private final Function<Enumerator<T>, Enumerator<E>> operator;
 
     /**
@@ -55,7 +62,22 @@ final class PipeOperator<T,E> implements Function<Enumerator<T>,
     public PipeOperator(Function<Enumerator<T>,
                                  Enumerator<E>> operator,
                         Supplier<Boolean> onceOnly) {
+        this(operator, onceOnly, false);
+    }
+    /**
+     * Creates a {@code PipeOperator} instance with the given
+     * {@code operator}, {@code onceOnly} flag and {@code reusable} flag.
+     *
+     * @param operator value for the internal {@code operator}.
+     * @param onceOnly value for {@link #onceOnly}.
+     * @param reusable value for {@link #reusable}.
+     */
+    public PipeOperator(Function<Enumerator<T>,
+                                 Enumerator<E>> operator,
+                        Supplier<Boolean> onceOnly,
+                        boolean reusable) {
         this.onceOnly = new Lazy(onceOnly);
+        this.reusable = reusable;
         this.operator = operator;
     }
 
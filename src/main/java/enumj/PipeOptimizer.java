@@ -0,0 +1,485 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Rule-based optimizer for the pipeline of a {@code PipeEnumerator}.
+ * <p>
+ * {@link PipeEnumerator} runs the optimizer before it first pulls elements
+ * through a pipeline of a new shape. The optimizer rewrites pairs of
+ * adjacent processors that process the same sources, as follows:
+ * </p>
+ * <ul>
+ * <li>{@code limit(a).limit(b)} becomes {@code limit(min(a,b))}</li>
+ * <li>{@code skip(a).skip(b)} becomes {@code skip(a+b)}</li>
+ * <li>{@code skip(n).limit(m)} becomes a {@link SlicePipeProcessor}, which
+ * in turn absorbs skips before it and limits after it</li>
+ * <li>{@code map(f).limit(m)} becomes {@code limit(m).map(f)}</li>
+ * <li>{@code map(f).map(g)} and {@code filter(p).filter(q)} get fused</li>
+ * </ul>
+ * <p>
+ * It also drops {@code limit(Long.MAX_VALUE)} and lets a skip at the
+ * front of the pipeline advance its source directly, if the source
+ * supports it.
+ * </p>
+ * <p>
+ * A processor that is a join, as given by
+ * {@link #joins(java.util.List, java.util.List)}, never gets merged into
+ * the processor before it because other elements enter the pipeline right
+ * there.
+ * </p>
+ *
+ * @see PipeEnumerator
+ */
+final class PipeOptimizer {
+
+    private PipeOptimizer() {
+        // do nothing
+    }
+
+    /**
+     * Rewrites the given {@code pipeline} until no rule applies.
+     *
+     * @param pipeline list of {@link AbstractPipeProcessor} instances
+     * to rewrite.
+     * @param sources list of {@link PipeSource} instances whose first
+     * processors are in {@code pipeline}.
+     * @return {@code true} if {@code pipeline} has changed,
+     * {@code false} otherwise.
+     */
+    static boolean optimize(List<AbstractPipeProcessor> pipeline,
+                            List<PipeSource>            sources) {
+        final List<AbstractPipeProcessor> nodes = new ArrayList<>(pipeline);
+        final Set<AbstractPipeProcessor> entries = firstProcessors(sources);
+        final Map<AbstractPipeProcessor,List<AbstractPipeProcessor>> preds =
+                predecessors(nodes);
+
+        boolean changed = false;
+        boolean changing = true;
+        while(changing) {
+            changing = dropNoOps(nodes, sources, entries, preds)
+                       | rewritePairs(nodes, sources, entries, preds);
+            changed |= changing;
+        }
+        if (changed) {
+            pipeline.clear();
+            pipeline.addAll(nodes);
+        }
+        return changed;
+    }
+
+    /**
+     * Gets the processors of {@code pipeline} where elements join the
+     * pipeline or where branches of the pipeline join each other.
+     * <p>
+     * A join is either the first processor of a source or a processor that
+     * is the next processor of more than one processor. A join may never
+     * get merged into the processor before it.
+     * </p>
+     *
+     * @param pipeline list of {@link AbstractPipeProcessor} instances.
+     * @param sources list of {@link PipeSource} instances.
+     * @return set of joins, compared by identity.
+     */
+    static Set<AbstractPipeProcessor> joins(
+            List<AbstractPipeProcessor> pipeline,
+            List<PipeSource>            sources) {
+        final Set<AbstractPipeProcessor> result = firstProcessors(sources);
+        for(Map.Entry<AbstractPipeProcessor,List<AbstractPipeProcessor>> entry
+            : predecessors(pipeline).entrySet()) {
+            if (entry.getValue().size() > 1) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lets the skip in front of {@code pipeline} advance the first of
+     * {@code sources} directly.
+     * <p>
+     * This works only when the elements of the first source enter the
+     * pipeline at its head, which must be a {@link SkipPipeProcessor} or a
+     * {@link SlicePipeProcessor}.
+     * </p>
+     *
+     * @param pipeline list of {@link AbstractPipeProcessor} instances.
+     * @param sources list of {@link PipeSource} instances.
+     * @return number of elements skipped directly.
+     */
+    static long skipAhead(List<AbstractPipeProcessor> pipeline,
+                          List<PipeSource>            sources) {
+        if (pipeline.isEmpty() || sources.isEmpty()) {
+            return 0;
+        }
+        final AbstractPipeProcessor head = pipeline.get(0);
+        final PipeSource source = sources.get(0);
+        if (source.getFirstProcessor() != head) {
+            return 0;
+        }
+        if (head instanceof SkipPipeProcessor) {
+            final SkipPipeProcessor skip = (SkipPipeProcessor)head;
+            final long skipped = source.skipAhead(skip.getSkipSize());
+            skip.skipped(skipped);
+            return skipped;
+        }
+        if (head instanceof SlicePipeProcessor) {
+            final SlicePipeProcessor slice = (SlicePipeProcessor)head;
+            final long skipped = source.skipAhead(slice.getSkipSize());
+            slice.skipped(skipped);
+            return skipped;
+        }
+        return 0;
+    }
+
+    /**
+     * Describes the given processors, in order.
+     *
+     * @param processors list of {@link AbstractPipeProcessor} instances
+     * to describe.
+     * @return list of descriptions, one per processor.
+     */
+    static List<String> describe(List<AbstractPipeProcessor> processors) {
+        final List<String> result = new ArrayList<>(processors.size());
+        for(AbstractPipeProcessor processor : processors) {
+            result.add(describe(processor));
+        }
+        return result;
+    }
+
+    /**
+     * Describes the given processor.
+     *
+     * @param processor {@link AbstractPipeProcessor} to describe.
+     * @return description of {@code processor}.
+     */
+    static String describe(AbstractPipeProcessor processor) {
+        if (processor instanceof MapPipeProcessor) {
+            return "map(" + ((MapPipeProcessor)processor).getMappers().length
+                   + ")";
+        }
+        if (processor instanceof FilterPipeProcessor) {
+            return "filter("
+                   + ((FilterPipeProcessor)processor).getFilters().length
+                   + ")";
+        }
+        if (processor instanceof LimitPipeProcessor) {
+            return "limit(" + ((LimitPipeProcessor)processor).getMaxSize()
+                   + ")";
+        }
+        if (processor instanceof SkipPipeProcessor) {
+            return "skip(" + ((SkipPipeProcessor)processor).getSkipSize()
+                   + ")";
+        }
+        if (processor instanceof SlicePipeProcessor) {
+            final SlicePipeProcessor slice = (SlicePipeProcessor)processor;
+            return "slice(" + slice.getSkipSize() + ","
+                   + slice.getMaxSize() + ")";
+        }
+        if (processor instanceof CompiledPipeProcessor) {
+            return "compiled("
+                   + ((CompiledPipeProcessor)processor).getShape()
+                   + ")";
+        }
+        if (processor instanceof FlatMapPipeProcessor) {
+            return "flatMap";
+        }
+        if (processor instanceof WhilePipeProcessor) {
+            return "takeWhile";
+        }
+        if (processor instanceof SkipWhilePipeProcessor) {
+            return "skipWhile";
+        }
+        if (processor instanceof ZipPipeProcessor) {
+            return "zip";
+        }
+        if (processor instanceof MapBatchedPipeProcessor) {
+            return "mapBatched("
+                   + ((MapBatchedPipeProcessor)processor).getBatchSize()
+                   + ")";
+        }
+        return processor.getClass().getSimpleName();
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    private static boolean dropNoOps(
+            List<AbstractPipeProcessor>                            pipeline,
+            List<PipeSource>                                       sources,
+            Set<AbstractPipeProcessor>                             entries,
+            Map<AbstractPipeProcessor,List<AbstractPipeProcessor>> preds) {
+        boolean changed = false;
+        final ListIterator<AbstractPipeProcessor> it = pipeline.listIterator();
+        while(it.hasNext()) {
+            final AbstractPipeProcessor processor = it.next();
+            final AbstractPipeProcessor next = processor.getNext();
+            if (processor instanceof LimitPipeProcessor
+                && ((LimitPipeProcessor)processor).getMaxSize()
+                   == Long.MAX_VALUE) {
+                it.remove();
+                final List<AbstractPipeProcessor> before =
+                        preds.remove(processor);
+                for(AbstractPipeProcessor pred : before) {
+                    pred.relinkNext(next);
+                }
+                if (next != null) {
+                    final List<AbstractPipeProcessor> after = preds.get(next);
+                    after.remove(processor);
+                    after.addAll(before);
+                }
+                replaceFirstProcessor(sources, entries, processor, next);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static boolean rewritePairs(
+            List<AbstractPipeProcessor>                            pipeline,
+            List<PipeSource>                                       sources,
+            Set<AbstractPipeProcessor>                             entries,
+            Map<AbstractPipeProcessor,List<AbstractPipeProcessor>> preds) {
+        boolean changed = false;
+        for(int i=0; i+1<pipeline.size(); ++i) {
+            final AbstractPipeProcessor first = pipeline.get(i);
+            final AbstractPipeProcessor second = pipeline.get(i+1);
+            if (first.getNext() != second
+                || first.getSource() != second.getSource()
+                || entries.contains(second)
+                || preds.get(second).size() != 1) {
+                continue;
+            }
+            final AbstractPipeProcessor merged = merge(first, second);
+            if (merged != null) {
+                replace(pipeline, sources, entries, preds, i, merged);
+                changed = true;
+                i = Math.max(i-2, -1);
+                continue;
+            }
+            if (first instanceof MapPipeProcessor
+                && (second instanceof LimitPipeProcessor
+                    || second instanceof SlicePipeProcessor
+                       && ((SlicePipeProcessor)second).getSkipSize() == 0)) {
+                swap(pipeline, sources, entries, preds, i);
+                changed = true;
+                i = Math.max(i-2, -1);
+            }
+        }
+        return changed;
+    }
+
+    private static AbstractPipeProcessor merge(AbstractPipeProcessor first,
+                                               AbstractPipeProcessor second) {
+        if (first instanceof LimitPipeProcessor
+            && second instanceof LimitPipeProcessor) {
+            return new LimitPipeProcessor(Math.min(
+                    ((LimitPipeProcessor)first).getMaxSize(),
+                    ((LimitPipeProcessor)second).getMaxSize()));
+        }
+        if (first instanceof SkipPipeProcessor
+            && second instanceof SkipPipeProcessor) {
+            return new SkipPipeProcessor(
+                    addSkips(((SkipPipeProcessor)first).getSkipSize(),
+                             ((SkipPipeProcessor)second).getSkipSize()));
+        }
+        if (first instanceof SkipPipeProcessor
+            && second instanceof LimitPipeProcessor) {
+            return new SlicePipeProcessor(
+                    ((SkipPipeProcessor)first).getSkipSize(),
+                    ((LimitPipeProcessor)second).getMaxSize());
+        }
+        if (first instanceof SlicePipeProcessor
+            && second instanceof LimitPipeProcessor) {
+            final SlicePipeProcessor slice = (SlicePipeProcessor)first;
+            return new SlicePipeProcessor(
+                    slice.getSkipSize(),
+                    Math.min(slice.getMaxSize(),
+                             ((LimitPipeProcessor)second).getMaxSize()));
+        }
+        if (first instanceof SkipPipeProcessor
+            && second instanceof SlicePipeProcessor) {
+            final SlicePipeProcessor slice = (SlicePipeProcessor)second;
+            return new SlicePipeProcessor(
+                    addSkips(((SkipPipeProcessor)first).getSkipSize(),
+                             slice.getSkipSize()),
+                    slice.getMaxSize());
+        }
+        if (first instanceof MapPipeProcessor
+            && second instanceof MapPipeProcessor) {
+            final MapPipeProcessor result = new MapPipeProcessor(
+                    ((MapPipeProcessor)first).getMappers()[0]);
+            enqueueMappers(result, (MapPipeProcessor)first, 1);
+            enqueueMappers(result, (MapPipeProcessor)second, 0);
+            return result;
+        }
+        if (first instanceof FilterPipeProcessor
+            && second instanceof FilterPipeProcessor) {
+            final FilterPipeProcessor result = new FilterPipeProcessor(
+                    ((FilterPipeProcessor)first).getFilters()[0]);
+            enqueueFilters(result, (FilterPipeProcessor)first, 1);
+            enqueueFilters(result, (FilterPipeProcessor)second, 0);
+            return result;
+        }
+        return null;
+    }
+    private static long addSkips(long n1, long n2) {
+        return (n1 > Long.MAX_VALUE - n2) ? Long.MAX_VALUE : n1 + n2;
+    }
+    private static void enqueueMappers(MapPipeProcessor result,
+                                       MapPipeProcessor processor,
+                                       int              from) {
+        final Function[] mappers = processor.getMappers();
+        for(int i=from; i<mappers.length; ++i) {
+            result.enqueueMap(mappers[i]);
+        }
+    }
+    private static void enqueueFilters(FilterPipeProcessor result,
+                                       FilterPipeProcessor processor,
+                                       int                 from) {
+        final Predicate[] filters = processor.getFilters();
+        for(int i=from; i<filters.length; ++i) {
+            result.enqueueFilter(filters[i]);
+        }
+    }
+
+    /**
+     * Replaces the processor at {@code index} in {@code pipeline} and the
+     * one after it with {@code merged}.
+     */
+    private static void replace(
+            List<AbstractPipeProcessor>                            pipeline,
+            List<PipeSource>                                       sources,
+            Set<AbstractPipeProcessor>                             entries,
+            Map<AbstractPipeProcessor,List<AbstractPipeProcessor>> preds,
+            int                                                    index,
+            AbstractPipeProcessor                                  merged) {
+        final AbstractPipeProcessor first = pipeline.get(index);
+        final AbstractPipeProcessor second = pipeline.remove(index+1);
+        final AbstractPipeProcessor next = second.getNext();
+        pipeline.set(index, merged);
+        if (next != null) {
+            merged.setNext(next);
+            replace(preds.get(next), second, merged);
+        }
+        if (first.getSource() != null) {
+            merged.setSource(first.getSource());
+        }
+        final List<AbstractPipeProcessor> before = preds.remove(first);
+        for(AbstractPipeProcessor pred : before) {
+            pred.relinkNext(merged);
+        }
+        preds.remove(second);
+        preds.put(merged, before);
+        replaceFirstProcessor(sources, entries, first, merged);
+    }
+
+    /**
+     * Swaps the processor at {@code index} in {@code pipeline} with the one
+     * after it.
+     */
+    private static void swap(
+            List<AbstractPipeProcessor>                            pipeline,
+            List<PipeSource>                                       sources,
+            Set<AbstractPipeProcessor>                             entries,
+            Map<AbstractPipeProcessor,List<AbstractPipeProcessor>> preds,
+            int                                                    index) {
+        final AbstractPipeProcessor first = pipeline.get(index);
+        final AbstractPipeProcessor second = pipeline.get(index+1);
+        final AbstractPipeProcessor next = second.getNext();
+        pipeline.set(index, second);
+        pipeline.set(index+1, first);
+        first.relinkNext(next);
+        second.relinkNext(first);
+        if (next != null) {
+            replace(preds.get(next), second, first);
+        }
+        final List<AbstractPipeProcessor> before = preds.get(first);
+        for(AbstractPipeProcessor pred : before) {
+            pred.relinkNext(second);
+        }
+        preds.put(second, before);
+        preds.put(first, new ArrayList<>(Arrays.asList(second)));
+        replaceFirstProcessor(sources, entries, first, second);
+    }
+
+    private static void replace(List<AbstractPipeProcessor> list,
+                                AbstractPipeProcessor       old,
+                                AbstractPipeProcessor       processor) {
+        list.set(list.indexOf(old), processor);
+    }
+
+    private static Set<AbstractPipeProcessor> firstProcessors(
+            List<PipeSource> sources) {
+        final Set<AbstractPipeProcessor> result =
+                Collections.newSetFromMap(new IdentityHashMap<>());
+        for(PipeSource source : sources) {
+            if (source.getFirstProcessor() != null) {
+                result.add(source.getFirstProcessor());
+            }
+        }
+        return result;
+    }
+
+    private static Map<AbstractPipeProcessor,List<AbstractPipeProcessor>>
+            predecessors(List<AbstractPipeProcessor> pipeline) {
+        final Map<AbstractPipeProcessor,List<AbstractPipeProcessor>> result =
+                new IdentityHashMap<>();
+        for(AbstractPipeProcessor processor : pipeline) {
+            result.computeIfAbsent(processor, p -> new ArrayList<>());
+            final AbstractPipeProcessor next = processor.getNext();
+            if (next != null) {
+                result.computeIfAbsent(next, p -> new ArrayList<>())
+                      .add(processor);
+            }
+        }
+        return result;
+    }
+
+    private static void replaceFirstProcessor(
+            List<PipeSource>           sources,
+            Set<AbstractPipeProcessor> entries,
+            AbstractPipeProcessor      old,
+            AbstractPipeProcessor      processor) {
+        if (!entries.remove(old)) {
+            return;
+        }
+        for(PipeSource source : sources) {
+            source.replaceFirstProcessor(old, processor);
+        }
+        if (processor != null) {
+            entries.add(processor);
+        }
+    }
+}
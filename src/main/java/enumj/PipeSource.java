@@ -39,6 +39,7 @@ import java.util.Iterator;
 final class PipeSource<E> extends IteratorEnumerator<E> {
 
     private AbstractPipeProcessor<?,?> firstProcessor;
+    private boolean                    dequeued;
 
     /**
      * Constructs a new {@code PipeSource} instances based on the given
@@ -72,6 +73,48 @@ final class PipeSource<E> extends IteratorEnumerator<E> {
         }
     }
 
+    /**
+     * Sets {@code firstProcessor} to the given {@code AbstractPipeProcessor}
+     * if it is currently {@code old}.
+     * <p>
+     * {@link PipeOptimizer} calls this method when it replaces or drops
+     * {@code old}. The value of {@code processor} may be {@code null}.
+     * </p>
+     *
+     * @param old {@link AbstractPipeProcessor} being replaced.
+     * @param processor new value for {@link #firstProcessor}.
+     */
+    public void replaceFirstProcessor(AbstractPipeProcessor<?,?> old,
+                                      AbstractPipeProcessor<?,?> processor) {
+        if (this.firstProcessor == old) {
+            this.firstProcessor = processor;
+        }
+    }
+
+    /**
+     * Gets whether this {@code PipeSource} has been removed from the
+     * sources of its pipeline.
+     * <p>
+     * The processors whose {@link AbstractPipeProcessor#getSource()} has
+     * been dequeued process no more elements.
+     * </p>
+     *
+     * @return {@code true} if this source has been dequeued, {@code false}
+     * otherwise.
+     */
+    public boolean isDequeued() {
+        return dequeued;
+    }
+    /**
+     * Marks this {@code PipeSource} as removed from the sources of its
+     * pipeline.
+     *
+     * @see #isDequeued()
+     */
+    public void setDequeued() {
+        this.dequeued = true;
+    }
+
     /**
      * Creates a new instance of {@code PipeSource} with the given
      * {@code source}.
@@ -0,0 +1,152 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+/**
+ * Immutable template of a pipeline that stamps out fresh pipelines.
+ * <p>
+ * A {@code PipeTemplate} holds not-yet-used processors, along with the way
+ * they link to each other. {@link PipeEnumerable} builds its template once,
+ * from the operators that create no per-enumeration state, and constructs
+ * its {@link PipeEnumerator} instances from copies of the template
+ * processors. This spares the re-application of the operators and the
+ * re-fusion of mappers and filters on every enumeration.
+ * </p>
+ * <p>
+ * The template processors never process elements, so the same template
+ * may serve concurrent enumerations.
+ * </p>
+ *
+ * @see PipeEnumerator#template()
+ * @see PipeEnumerator#PipeEnumerator(enumj.PipeTemplate)
+ * @see AbstractPipeProcessor#copy()
+ */
+final class PipeTemplate {
+
+    private final AbstractPipeProcessor[] processors;
+    private final int[]                   nextIndices;
+    private final int                     frontIndex;
+    private final boolean                 compiled;
+    private final boolean                 adaptiveFilters;
+
+    /**
+     * Constructs a {@code PipeTemplate} instance.
+     *
+     * @param processors template processors, in pipeline order.
+     * @param nextIndices index in {@code processors} of the next processor
+     * of each template processor, or {@code -1} if none.
+     * @param frontIndex index in {@code processors} of the processor where
+     * the sources set in reverse order enter the pipeline, or {@code -1}
+     * if none.
+     * @param compiled whether the pipeline is compiled.
+     * @param adaptiveFilters whether the pipeline has adaptive filters.
+     */
+    PipeTemplate(AbstractPipeProcessor[] processors,
+                 int[]                   nextIndices,
+                 int                     frontIndex,
+                 boolean                 compiled,
+                 boolean                 adaptiveFilters) {
+        this.processors = processors;
+        this.nextIndices = nextIndices;
+        this.frontIndex = frontIndex;
+        this.compiled = compiled;
+        this.adaptiveFilters = adaptiveFilters;
+    }
+
+    /**
+     * Creates a {@code PipeTemplate} that stamps out empty pipelines.
+     *
+     * @return empty {@link PipeTemplate}.
+     */
+    static PipeTemplate empty() {
+        return new PipeTemplate(new AbstractPipeProcessor[0],
+                                new int[0],
+                                -1,
+                                false,
+                                false);
+    }
+
+    /**
+     * Gets whether the pipelines stamped out by this template are empty.
+     *
+     * @return {@code true} if the template is empty, {@code false}
+     * otherwise.
+     */
+    boolean isEmpty() {
+        return processors.length == 0 && !compiled && !adaptiveFilters;
+    }
+
+    /**
+     * Creates fresh copies of the template processors, linked to each other
+     * like the template processors are.
+     *
+     * @return array of new {@link AbstractPipeProcessor} instances, in
+     * pipeline order.
+     */
+    AbstractPipeProcessor[] newProcessors() {
+        final AbstractPipeProcessor[] result =
+                new AbstractPipeProcessor[processors.length];
+        for(int i=0; i<result.length; ++i) {
+            result[i] = processors[i].copy();
+        }
+        for(int i=0; i<result.length; ++i) {
+            if (nextIndices[i] >= 0) {
+                result[i].setNext(result[nextIndices[i]]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the index of the processor where the sources set in reverse
+     * order enter the stamped pipelines.
+     *
+     * @return index in the array returned by {@link #newProcessors()}, or
+     * {@code -1} if none.
+     */
+    int getFrontIndex() {
+        return frontIndex;
+    }
+
+    /**
+     * Gets whether the stamped pipelines are compiled.
+     *
+     * @return {@code true} if compiled, {@code false} otherwise.
+     * @see PipeEnumerator#compiled()
+     */
+    boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Gets whether the stamped pipelines have adaptive filters.
+     *
+     * @return {@code true} if the filters are adaptive, {@code false}
+     * otherwise.
+     * @see PipeEnumerator#adaptiveFilters()
+     */
+    boolean isAdaptiveFilters() {
+        return adaptiveFilters;
+    }
+}
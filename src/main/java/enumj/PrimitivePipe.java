@@ -0,0 +1,279 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Pipeline engine shared by the primitive enumerators.
+ * <p>
+ * A {@code PrimitivePipe} pulls unboxed values out of a single primitive
+ * source and passes them through a sequence of {@link PrimitivePipeStage}
+ * instances, in order. Like {@link PipeEnumerator}, it iterates over an
+ * array snapshot of its stages and rebuilds the snapshot only when the
+ * shape of the pipeline changes.
+ * </p>
+ * <p>
+ * Values travel in two registers: {@link #longValue} carries {@code int}
+ * and {@code long} values, {@link #doubleValue} carries {@code double}
+ * values. The views upon a pipe - {@link IntPipeEnumerator},
+ * {@link LongPipeEnumerator} and {@link DoublePipeEnumerator} - know which
+ * register holds the output of the last stage, so no value ever gets boxed
+ * on its way through the pipeline.
+ * </p>
+ *
+ * @see PrimitivePipeStage
+ */
+final class PrimitivePipe {
+
+    /**
+     * Register carrying {@code int} and {@code long} values.
+     */
+    long   longValue;
+    /**
+     * Register carrying {@code double} values.
+     */
+    double doubleValue;
+
+    private final PrimitiveIterator.OfInt    intSource;
+    private final PrimitiveIterator.OfLong   longSource;
+    private final PrimitiveIterator.OfDouble doubleSource;
+    private final List<PrimitivePipeStage>   stages;
+    private PrimitivePipeStage[]             chain;
+    private boolean                          enumerating;
+    private boolean                          exhausted;
+    private boolean                          hasValue;
+
+    private PrimitivePipe(PrimitiveIterator.OfInt    intSource,
+                          PrimitiveIterator.OfLong   longSource,
+                          PrimitiveIterator.OfDouble doubleSource) {
+        this.intSource = intSource;
+        this.longSource = longSource;
+        this.doubleSource = doubleSource;
+        this.stages = new ArrayList<>();
+    }
+
+    /**
+     * Creates a {@code PrimitivePipe} pulling {@code int} values out of
+     * the given {@code source}.
+     *
+     * @param source {@link PrimitiveIterator.OfInt} providing the values.
+     * @return new {@link PrimitivePipe} instance.
+     */
+    static PrimitivePipe ofInt(PrimitiveIterator.OfInt source) {
+        Checks.ensureNotNull(source, Messages.NULL_ENUMERATOR_SOURCE);
+        return new PrimitivePipe(source, null, null);
+    }
+    /**
+     * Creates a {@code PrimitivePipe} pulling {@code long} values out of
+     * the given {@code source}.
+     *
+     * @param source {@link PrimitiveIterator.OfLong} providing the values.
+     * @return new {@link PrimitivePipe} instance.
+     */
+    static PrimitivePipe ofLong(PrimitiveIterator.OfLong source) {
+        Checks.ensureNotNull(source, Messages.NULL_ENUMERATOR_SOURCE);
+        return new PrimitivePipe(null, source, null);
+    }
+    /**
+     * Creates a {@code PrimitivePipe} pulling {@code double} values out of
+     * the given {@code source}.
+     *
+     * @param source {@link PrimitiveIterator.OfDouble} providing the
+     * values.
+     * @return new {@link PrimitivePipe} instance.
+     */
+    static PrimitivePipe ofDouble(PrimitiveIterator.OfDouble source) {
+        Checks.ensureNotNull(source, Messages.NULL_ENUMERATOR_SOURCE);
+        return new PrimitivePipe(null, null, source);
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    /**
+     * Returns whether enumeration has started.
+     *
+     * @return true if enumerating, false otherwise.
+     */
+    boolean enumerating() {
+        return enumerating;
+    }
+
+    /**
+     * Adds a stage at the end of the pipeline.
+     *
+     * @param stage {@link PrimitivePipeStage} to add.
+     */
+    void enqueue(PrimitivePipeStage stage) {
+        stages.add(stage);
+        chain = null;
+    }
+    /**
+     * Adds a stage that lets through at most {@code maxSize} values.
+     *
+     * @param maxSize maximum number of values to let through.
+     */
+    void enqueueLimit(long maxSize) {
+        Checks.ensureNonNegative(maxSize, Messages.NEGATIVE_ENUMERATOR_SIZE);
+        if (maxSize == 0) {
+            exhausted = true;
+        } else {
+            enqueue(new LimitStage(maxSize));
+        }
+    }
+    /**
+     * Adds a stage that drops the first {@code n} values.
+     *
+     * @param n number of values to drop.
+     */
+    void enqueueSkip(long n) {
+        Checks.ensureNonNegative(n, Messages.NEGATIVE_ENUMERATOR_SIZE);
+        if (n > 0) {
+            enqueue(new SkipStage(n));
+        }
+    }
+    /**
+     * Ends the enumeration after the current value.
+     * <p>
+     * Stages call this method when no more values may get out of the
+     * pipeline. The current value, if passed on, still gets out.
+     * </p>
+     */
+    void exhaust() {
+        exhausted = true;
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    /**
+     * Returns whether there is a value to get out of the pipeline.
+     *
+     * @return true if there is a next value, false otherwise.
+     */
+    boolean hasNext() {
+        enumerating = true;
+        if (!hasValue) {
+            hasValue = advance();
+        }
+        return hasValue;
+    }
+    /**
+     * Gets the next value out of the {@link #longValue} register.
+     *
+     * @return the next {@code int} or {@code long} value.
+     * @exception NoSuchElementException there is no next value.
+     */
+    long nextLong() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        hasValue = false;
+        return longValue;
+    }
+    /**
+     * Gets the next value out of the {@link #doubleValue} register.
+     *
+     * @return the next {@code double} value.
+     * @exception NoSuchElementException there is no next value.
+     */
+    double nextDouble() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        hasValue = false;
+        return doubleValue;
+    }
+
+    private boolean advance() {
+        if (chain == null) {
+            chain = stages.toArray(new PrimitivePipeStage[stages.size()]);
+        }
+        final PrimitivePipeStage[] stageChain = chain;
+        outer:
+        while(!exhausted && pull()) {
+            for(int i=0; i<stageChain.length; ++i) {
+                if (!stageChain[i].process(this)) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+    private boolean pull() {
+        if (intSource != null) {
+            if (intSource.hasNext()) {
+                longValue = intSource.nextInt();
+                return true;
+            }
+        } else if (longSource != null) {
+            if (longSource.hasNext()) {
+                longValue = longSource.nextLong();
+                return true;
+            }
+        } else if (doubleSource.hasNext()) {
+            doubleValue = doubleSource.nextDouble();
+            return true;
+        }
+        return false;
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    private static final class LimitStage implements PrimitivePipeStage {
+        private long remaining;
+
+        LimitStage(long maxSize) {
+            this.remaining = maxSize;
+        }
+
+        @Override
+        public boolean process(PrimitivePipe pipe) {
+            if (--remaining == 0) {
+                pipe.exhaust();
+            }
+            return true;
+        }
+    }
+
+    private static final class SkipStage implements PrimitivePipeStage {
+        private long n;
+
+        SkipStage(long n) {
+            this.n = n;
+        }
+
+        @Override
+        public boolean process(PrimitivePipe pipe) {
+            if (n > 0) {
+                --n;
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+/**
+ * Stage of a {@link PrimitivePipe}.
+ * <p>
+ * A stage works upon the unboxed value held by the registers of its pipe:
+ * {@link PrimitivePipe#longValue} for {@code int} and {@code long} values,
+ * {@link PrimitivePipe#doubleValue} for {@code double} values. Mapping
+ * stages overwrite the registers in place, filtering stages only read them.
+ * </p>
+ *
+ * @see PrimitivePipe
+ */
+@FunctionalInterface
+interface PrimitivePipeStage {
+
+    /**
+     * Processes the current value of the given {@code pipe}.
+     *
+     * @param pipe {@link PrimitivePipe} holding the value to process.
+     * @return true if the value passes on to the next stage, false if the
+     * value gets dropped.
+     */
+    boolean process(PrimitivePipe pipe);
+}
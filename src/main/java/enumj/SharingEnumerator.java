@@ -23,6 +23,8 @@
  */
 package enumj;
 
+import java.util.function.Consumer;
+
 /**
  * {@code Enumerator} sharing the elements of a common
  * {@code ShareableEnumerator}.
@@ -89,6 +91,15 @@ final class SharingEnumerator<E> extends AbstractEnumerator<E> {
         return result;
     }
     @Override
+    protected boolean internalTryNext(Consumer<? super E> action) {
+        sharedSource.startSharedEnumeration();
+        if (!value.isPresent()) {
+            return false;
+        }
+        action.accept(internalNext());
+        return true;
+    }
+    @Override
     protected void cleanup() {
         sharedSource = null;
         cachedSource = null;
@@ -50,6 +50,42 @@ final class SkipPipeProcessor<E> extends AbstractPipeProcessor<E,E> {
         this.n = n;
     }
 
+    @Override
+    public AbstractPipeProcessor<E,E> copy() {
+        return new SkipPipeProcessor(n);
+    }
+    @Override
+    public long outputSize(long inputSize) {
+        return (inputSize == Long.MAX_VALUE)
+               ? inputSize
+               : Math.max(inputSize - n, 0);
+    }
+    @Override
+    public long exactOutputSize(long inputSize) {
+        return (inputSize < 0) ? -1 : outputSize(inputSize);
+    }
+
+    /**
+     * Gets the number of elements that are still to be skipped.
+     *
+     * @return remaining number of elements to skip.
+     */
+    long getSkipSize() {
+        return n;
+    }
+    /**
+     * Records that {@code count} elements have been skipped without
+     * passing through this processor.
+     *
+     * @param count number of elements skipped directly at the source,
+     * not greater than {@link #getSkipSize()}.
+     */
+    void skipped(long count) {
+        n -= count;
+    }
+
+    // ---------------------------------------------------------------------- //
+
     @Override
     public void processInputValue(E value) {
         if (n == 0) {
@@ -53,6 +53,15 @@ class SkipWhilePipeProcessor<E> extends AbstractPipeProcessor<E,E> {
         this.filter = filter;
     }
 
+    @Override
+    public AbstractPipeProcessor<E,E> copy() {
+        return new SkipWhilePipeProcessor(filter);
+    }
+    @Override
+    public long outputSize(long inputSize) {
+        return inputSize;
+    }
+
     @Override
     public void processInputValue(E value) {
         if (this.filter == null) {
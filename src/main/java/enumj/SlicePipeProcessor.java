@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+/**
+ * Pipe processor that skips over a number of elements and then stops
+ * enumeration once a limit is reached.
+ * <p>
+ * {@link PipeOptimizer} folds a {@link SkipPipeProcessor} followed by
+ * a {@link LimitPipeProcessor} into a {@code SlicePipeProcessor}.
+ * </p>
+ *
+ * @param <E> type of enumerated elements.
+ * @see SkipPipeProcessor
+ * @see LimitPipeProcessor
+ */
+final class SlicePipeProcessor<E> extends AbstractPipeProcessor<E,E> {
+
+    private E    value;
+    private long n;
+    private long size;
+
+    /**
+     * Constructs a {@code SlicePipeProcessor} that skips over {@code n}
+     * elements and then lets at most {@code maxSize} elements pass.
+     *
+     * @param n number of elements to skip.
+     * @param maxSize enumeration limit after skipping.
+     */
+    public SlicePipeProcessor(long n, long maxSize) {
+        super(true, true);
+        Checks.ensureNonNegative(n, Messages.NEGATIVE_ENUMERATOR_SIZE);
+        Checks.ensureNonNegative(maxSize, Messages.NEGATIVE_ENUMERATOR_SIZE);
+        this.n = n;
+        this.size = maxSize;
+    }
+
+    @Override
+    public AbstractPipeProcessor<E,E> copy() {
+        return new SlicePipeProcessor(n, size);
+    }
+    @Override
+    public long outputSize(long inputSize) {
+        return (inputSize == Long.MAX_VALUE)
+               ? size
+               : Math.min(Math.max(inputSize - n, 0), size);
+    }
+    @Override
+    public long exactOutputSize(long inputSize) {
+        return (inputSize < 0) ? -1 : outputSize(inputSize);
+    }
+
+    /**
+     * Gets the number of elements that are still to be skipped.
+     *
+     * @return remaining number of elements to skip.
+     */
+    long getSkipSize() {
+        return n;
+    }
+    /**
+     * Records that {@code count} elements have been skipped without
+     * passing through this processor.
+     *
+     * @param count number of elements skipped directly at the source,
+     * not greater than {@link #getSkipSize()}.
+     */
+    void skipped(long count) {
+        n -= count;
+    }
+    /**
+     * Gets the number of elements that may still pass after skipping.
+     *
+     * @return remaining limit.
+     */
+    long getMaxSize() {
+        return size;
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    @Override
+    public void processInputValue(E value) {
+        if (n == 0 && size > 0) {
+            this.value = value;
+        }
+    }
+    @Override
+    public boolean hasOutputValue() {
+        if (n == 0) {
+            return size > 0;
+        }
+        --n;
+        return false;
+    }
+    @Override
+    protected E retrieveOutputValue() {
+        --size;
+        return value;
+    }
+    @Override
+    protected void clearOutputValue() {
+        value = null;
+    }
+    @Override
+    public boolean isInactive() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,449 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only segment files holding the chunks that a {@code ChunkedCache}
+ * spills to disk.
+ * <p>
+ * Each spilled chunk gets encoded as a whole and appended to the current
+ * segment file, which gets replaced by a new one once it would grow past
+ * the segment size. The segment files get deleted by {@link #delete()} or,
+ * once the owner of the {@code SpillSegments} gets garbage collected, by a
+ * daemon thread shared by all the instances.
+ * </p>
+ * <p>
+ * The open {@link Reader} instances get counted, so that
+ * {@link #release()} can leave the segment files to the readers that
+ * are still enumerating and delete them once the last reader closes.
+ * </p>
+ *
+ * @param <E> type of spilled elements.
+ * @see CacheSpill
+ * @see ChunkedCache
+ */
+final class SpillSegments<E> {
+
+    private final CacheSpill<E>         spill;
+    private final Tracker               tracker;
+    private final ByteArrayOutputStream bytes;
+    private final DataOutputStream      output;
+    private       Path                  directory;
+    private final List<Path>            segments;
+    private       FileChannel           writer;
+    private       long                  writerLength;
+    private       int[]                 chunkSegments;
+    private       long[]                chunkOffsets;
+    private       int[]                 chunkLengths;
+    private       boolean               deleted;
+    private       boolean               released;
+    private       int                   readers;
+
+    /**
+     * Constructs a {@code SpillSegments} instance whose files get deleted
+     * when {@code owner} gets garbage collected.
+     * <p>
+     * No file gets created before the first chunk gets spilled.
+     * </p>
+     *
+     * @param owner object owning the spilled chunks.
+     * @param spill {@link CacheSpill} configuring the segment files.
+     */
+    SpillSegments(Object owner, CacheSpill<E> spill) {
+        this.spill = spill;
+        this.bytes = new ByteArrayOutputStream();
+        this.output = new DataOutputStream(bytes);
+        this.segments = new ArrayList<>();
+        this.chunkSegments = new int[1];
+        this.chunkOffsets = new long[1];
+        this.chunkLengths = new int[1];
+        this.tracker = Cleaner.track(owner, this);
+    }
+
+    /**
+     * Appends a full chunk to the segment files.
+     *
+     * @param chunkIndex index of the chunk.
+     * @param chunk elements of the chunk.
+     * @return {@code true} if the chunk got spilled, {@code false} if the
+     * segment files have been deleted.
+     * @exception UncheckedIOException encoding or writing fails.
+     */
+    synchronized boolean write(int chunkIndex, Object[] chunk) {
+        if (deleted) {
+            return false;
+        }
+        try {
+            bytes.reset();
+            final CacheCodec<E> codec = spill.getCodec();
+            for(Object element : chunk) {
+                codec.encode((E)element, output);
+            }
+            output.flush();
+            final int length = bytes.size();
+            if (writer == null
+                || writerLength > 0
+                   && writerLength + length > spill.getSegmentBytes()) {
+                roll();
+            }
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            long position = writerLength;
+            while(buffer.hasRemaining()) {
+                position += writer.write(buffer, position);
+            }
+            if (chunkIndex >= chunkSegments.length) {
+                final int newLength = Math.max(chunkIndex+1,
+                                               2*chunkSegments.length);
+                chunkSegments = Arrays.copyOf(chunkSegments, newLength);
+                chunkOffsets = Arrays.copyOf(chunkOffsets, newLength);
+                chunkLengths = Arrays.copyOf(chunkLengths, newLength);
+            }
+            chunkSegments[chunkIndex] = segments.size();
+            chunkOffsets[chunkIndex] = writerLength;
+            chunkLengths[chunkIndex] = length;
+            writerLength = position;
+            return true;
+        } catch(IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Gets a new {@code Reader} of the spilled chunks.
+     * <p>
+     * Readers are not thread-safe, each enumerator having its own. Each
+     * reader must be closed by {@link Reader#close()} once done with.
+     * </p>
+     *
+     * @return new {@link Reader}.
+     */
+    synchronized Reader reader() {
+        ++readers;
+        return new Reader();
+    }
+
+    /**
+     * Deletes the segment files once no {@code Reader} is open anymore.
+     * <p>
+     * The readers that are open keep reading the spilled chunks and the
+     * last of them to close deletes the segment files. This method is
+     * idempotent.
+     * </p>
+     */
+    void release() {
+        synchronized(this) {
+            released = true;
+            if (readers > 0) {
+                return;
+            }
+        }
+        delete();
+    }
+
+    /**
+     * Deletes the segment files and stops spilling.
+     * <p>
+     * Failing to delete a file is ignored. This method is idempotent.
+     * </p>
+     */
+    void delete() {
+        final List<Path> files;
+        final Path dir;
+        synchronized(this) {
+            if (deleted) {
+                return;
+            }
+            deleted = true;
+            files = new ArrayList<>(segments);
+            dir = directory;
+            try {
+                if (writer != null) {
+                    writer.close();
+                }
+            } catch(IOException ex) {
+                // do nothing
+            }
+            writer = null;
+        }
+        Cleaner.untrack(tracker);
+        for(Path file : files) {
+            deleteQuietly(file);
+        }
+        if (dir != null) {
+            deleteQuietly(dir);
+        }
+    }
+
+    // ---------------------------------------------------------------------- //
+
+    /**
+     * Starts a new segment file, creating the temporary directory first if
+     * needed.
+     * <p>
+     * The caller must hold the lock of this {@code SpillSegments}.
+     * </p>
+     *
+     * @throws IOException creating the file fails.
+     */
+    private void roll() throws IOException {
+        if (directory == null) {
+            directory = Files.createTempDirectory(spill.getDirectory(),
+                                                  "enumj-cache");
+        }
+        if (writer != null) {
+            writer.close();
+        }
+        final Path segment = directory.resolve(
+                String.format("segment-%06d.bin", segments.size()+1));
+        writer = FileChannel.open(segment,
+                                  StandardOpenOption.CREATE_NEW,
+                                  StandardOpenOption.WRITE);
+        segments.add(segment);
+        writerLength = 0;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch(IOException ex) {
+            // do nothing
+        }
+    }
+
+    /**
+     * Reader of spilled chunks through memory-mapped windows of the segment
+     * files.
+     * <p>
+     * A window covers the chunk being read and up to
+     * {@link CacheSpill#getReadAhead()} following chunks of the same
+     * segment, and it gets loaded into memory as a whole.
+     * </p>
+     */
+    final class Reader {
+
+        private final BufferInput     input;
+        private final DataInputStream data;
+        private       int             segment;
+        private       long            windowStart;
+        private       long            windowEnd;
+        private       MappedByteBuffer window;
+
+        private       boolean         closed;
+
+        private Reader() {
+            this.input = new BufferInput();
+            this.data = new DataInputStream(input);
+        }
+
+        /**
+         * Closes this reader, deleting the segment files if they have been
+         * released and this reader is the last one open.
+         * <p>
+         * This method is idempotent.
+         * </p>
+         */
+        void close() {
+            synchronized(SpillSegments.this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                window = null;
+                if (--readers > 0 || !released) {
+                    return;
+                }
+            }
+            delete();
+        }
+
+        /**
+         * Reads a spilled chunk into the given array.
+         *
+         * @param chunkIndex index of the spilled chunk.
+         * @param into array to receive the elements of the chunk.
+         * @return {@code into}.
+         * @exception IllegalStateException the segment files have been
+         * deleted.
+         * @exception UncheckedIOException mapping or decoding fails.
+         */
+        Object[] read(int chunkIndex, Object[] into) {
+            final long offset;
+            final int length;
+            Path remap = null;
+            long remapEnd = 0;
+            synchronized(SpillSegments.this) {
+                if (deleted) {
+                    throw new IllegalStateException(
+                            Messages.ILLEGAL_SPILL_STATE);
+                }
+                offset = chunkOffsets[chunkIndex];
+                length = chunkLengths[chunkIndex];
+                final int seg = chunkSegments[chunkIndex];
+                if (window == null
+                    || seg != segment
+                    || offset < windowStart
+                    || offset + length > windowEnd) {
+                    remapEnd = offset + length;
+                    final int last = Math.min(
+                            chunkIndex + spill.getReadAhead(),
+                            chunkSegments.length - 1);
+                    for(int i = chunkIndex+1;
+                        i <= last && chunkSegments[i] == seg;
+                        ++i) {
+                        final long end = chunkOffsets[i] + chunkLengths[i];
+                        if (end - offset > Integer.MAX_VALUE) {
+                            break;
+                        }
+                        remapEnd = end;
+                    }
+                    remap = segments.get(seg-1);
+                    segment = seg;
+                }
+            }
+            try {
+                if (remap != null) {
+                    window = null;
+                    try(FileChannel channel = FileChannel.open(
+                            remap,
+                            StandardOpenOption.READ)) {
+                        window = channel.map(FileChannel.MapMode.READ_ONLY,
+                                             offset,
+                                             remapEnd - offset);
+                    }
+                    window.load();
+                    windowStart = offset;
+                    windowEnd = remapEnd;
+                }
+                final ByteBuffer view = window.duplicate();
+                view.position((int)(offset - windowStart));
+                view.limit(view.position() + length);
+                input.buffer = view;
+                final CacheCodec<E> codec = spill.getCodec();
+                for(int i=0; i<into.length; ++i) {
+                    into[i] = codec.decode(data);
+                }
+                input.buffer = null;
+                return into;
+            } catch(IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * {@code InputStream} over a {@code ByteBuffer}.
+     */
+    private static final class BufferInput extends InputStream {
+
+        ByteBuffer buffer;
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+
+    /**
+     * Phantom reference to the owner of a {@code SpillSegments}.
+     */
+    private static final class Tracker extends PhantomReference<Object> {
+
+        final SpillSegments<?> segments;
+
+        Tracker(Object owner, SpillSegments<?> segments) {
+            super(owner, Cleaner.QUEUE);
+            this.segments = segments;
+        }
+    }
+
+    /**
+     * Deleter of the segment files whose owners have been garbage collected.
+     * <p>
+     * The deleter thread is a daemon and gets started along with the first
+     * {@code SpillSegments}.
+     * </p>
+     */
+    private static final class Cleaner {
+
+        static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+        static final Set<Tracker>           TRACKED =
+                ConcurrentHashMap.newKeySet();
+
+        static {
+            final Thread thread = new Thread(() -> {
+                while(true) {
+                    try {
+                        ((Tracker)QUEUE.remove()).segments.delete();
+                    } catch(Throwable ex) {
+                        // do nothing
+                    }
+                }
+            }, "enumj-spill-cleaner");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        static Tracker track(Object owner, SpillSegments<?> segments) {
+            final Tracker tracker = new Tracker(owner, segments);
+            TRACKED.add(tracker);
+            return tracker;
+        }
+        static void untrack(Tracker tracker) {
+            TRACKED.remove(tracker);
+            tracker.clear();
+        }
+    }
+}
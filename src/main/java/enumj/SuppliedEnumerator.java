@@ -24,6 +24,7 @@
 package enumj;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
@@ -65,6 +66,17 @@ final class SuppliedEnumerator<E> extends AbstractEnumerator<E> {
         return val;
     }
     @Override
+    protected boolean internalTryNext(Consumer<? super E> action) {
+        final Optional<E> val = (value == null) ? source.get() : value;
+        if (!val.isPresent()) {
+            value = val;
+            return false;
+        }
+        value = null;
+        action.accept(val.get());
+        return true;
+    }
+    @Override
     protected void cleanup() {
         source = null;
         value = null;
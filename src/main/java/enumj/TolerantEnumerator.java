@@ -93,6 +93,31 @@ final class TolerantEnumerator<E> extends AbstractEnumerator<E> {
         return result;
     }
     @Override
+    protected boolean internalTryNext(Consumer<? super E> action) {
+        if (element.isPresent()) {
+            action.accept(internalNext());
+            return true;
+        }
+
+        while(safeHasNext()) {
+            final E result;
+            try {
+                result = source.next();
+            } catch(Exception ex) {
+                try {
+                    handler.accept(ex);
+                } catch(Exception ex1) {
+                    // do nothing
+                }
+                continue;
+            }
+            action.accept(result);
+            return true;
+        }
+
+        return false;
+    }
+    @Override
     protected void cleanup() {
         source = null;
         handler = null;
@@ -54,6 +54,15 @@ final class WhilePipeProcessor<E> extends AbstractPipeProcessor<E,E> {
         this.filter = filter;
     }
 
+    @Override
+    public AbstractPipeProcessor<E,E> copy() {
+        return new WhilePipeProcessor(filter);
+    }
+    @Override
+    public long outputSize(long inputSize) {
+        return inputSize;
+    }
+
     @Override
     public void processInputValue(E value) {
         if (this.filter != null && this.filter.test(value)) {
@@ -37,8 +37,13 @@ final class ZipPipeProcessor<E>
             extends AbstractPipeProcessor<Optional<E>,Optional<E>[]> {
 
     private final Iterator<E>[] iterators;
+    private final boolean       leftBound;
+    private final boolean       rightBound;
     private       Optional<E>[] value;
     private       boolean       hasAny;
+    private       boolean       stopped;
+    private       long          mainSize = Long.MAX_VALUE;
+    private       long          mainExactSize = -1;
 
     /**
      * Constructs a {@code ZipPipeProcessor} that zips together the processed
@@ -52,19 +57,103 @@ final class ZipPipeProcessor<E>
      * @param rest rest of {@link Iterator} instances to use in zipping.
      */
     public ZipPipeProcessor(Iterator<E> first, List<Iterator<E>> rest) {
+        this(first, rest, false, false);
+    }
+    /**
+     * Constructs a {@code ZipPipeProcessor} that zips together the processed
+     * element with elements from other {@link Iterator} instances and
+     * stops as soon as the bounding participants have no more elements.
+     *
+     * @param first first {@link Iterator} to use in zipping.
+     * @param rest rest of {@link Iterator} instances to use in zipping.
+     * @param leftBound {@code true} if zipping stops when the processed
+     * elements end, {@code false} otherwise.
+     * @param rightBound {@code true} if zipping stops when any of the
+     * {@link Iterator} instances ends, {@code false} otherwise.
+     */
+    public ZipPipeProcessor(Iterator<E>       first,
+                            List<Iterator<E>> rest,
+                            boolean           leftBound,
+                            boolean           rightBound) {
         super(false, true);
         iterators = new Iterator[1+rest.size()];
         iterators[0] = first;
         for(int i=1; i<iterators.length; ++i) {
             iterators[i] = rest.get(i-1);
         }
+        this.leftBound = leftBound;
+        this.rightBound = rightBound;
+    }
+
+    /**
+     * Sets the size of the processed elements, not counting the empty
+     * {@link Optional} instances padding them.
+     * <p>
+     * {@link PipeEnumerator} pads the processed elements with an endless
+     * sequence of empty {@link Optional} instances, so the size entering
+     * this processor says nothing about the number of zipped elements.
+     * </p>
+     *
+     * @param size upper bound of the number of processed elements,
+     * {@code Long.MAX_VALUE} if unknown.
+     * @param exactSize exact number of processed elements, {@code -1} if
+     * unknown.
+     * @see #outputSize(long)
+     * @see #exactOutputSize(long)
+     */
+    void setMainSize(long size, long exactSize) {
+        this.mainSize = size;
+        this.mainExactSize = exactSize;
+    }
+
+    @Override
+    public long outputSize(long inputSize) {
+        final long[] sizes = new long[iterators.length];
+        for(int i=0; i<sizes.length; ++i) {
+            sizes[i] = AbstractEnumerator.estimatedSizeOf(iterators[i]);
+        }
+        return zippedSize(mainSize, sizes);
+    }
+    @Override
+    public long exactOutputSize(long inputSize) {
+        if (mainExactSize < 0) {
+            return -1;
+        }
+        final long[] sizes = new long[iterators.length];
+        for(int i=0; i<sizes.length; ++i) {
+            sizes[i] = AbstractEnumerator.exactSizeOf(iterators[i]);
+            if (sizes[i] < 0) {
+                return -1;
+            }
+        }
+        return zippedSize(mainExactSize, sizes);
+    }
+    private long zippedSize(long size, long[] sizes) {
+        long any = size;
+        long every = Long.MAX_VALUE;
+        for(long iteratorSize : sizes) {
+            any = Math.max(any, iteratorSize);
+            every = Math.min(every, iteratorSize);
+        }
+        long result = any;
+        if (leftBound) {
+            result = Math.min(result, size);
+        }
+        if (rightBound) {
+            result = Math.min(result, every);
+        }
+        return result;
     }
 
     @Override
     public void processInputValue(Optional<E> value) {
+        if (stopped) {
+            return;
+        }
         final Optional[] tuple = new Optional[1+iterators.length];
         tuple[0] = value;
         hasAny = value.isPresent();
+        stopped = leftBound && !hasAny;
         for(int i=0; i<iterators.length; ++i) {
             if (iterators[i].hasNext()) {
                 hasAny = true;
@@ -72,9 +161,10 @@ final class ZipPipeProcessor<E>
             }
             else {
                 tuple[i+1] = Optional.empty();
+                stopped |= rightBound;
             }
         }
-        if (hasAny) {
+        if (hasAny && !stopped) {
             this.value = tuple;
         }
     }
@@ -92,6 +182,6 @@ final class ZipPipeProcessor<E>
     }
     @Override
     public boolean isInactive() {
-        return false;
+        return stopped;
     }
 }
@@ -23,7 +23,14 @@
  */
 package enumj;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -109,6 +116,283 @@ public class AbstractEnumeratorTest {
         assertFalse(enumerator.hasNext());
     }
 
+    @Test
+    public void testForEachRemaining() {
+        System.out.println("forEachRemaining");
+        final MutableInt x = new MutableInt(0);
+        final Enumerator<Integer> en = Enumerator.on(1, 2, 3, 4, 5);
+        assertEquals(1, en.next().intValue());
+        en.forEachRemaining(e -> x.add(e));
+        assertEquals(2+3+4+5, x.intValue());
+        assertFalse(en.hasNext());
+        en.forEachRemaining(e -> x.add(e));
+        assertEquals(2+3+4+5, x.intValue());
+    }
+
+    @Test
+    public void testTryNext() {
+        System.out.println("tryNext");
+        final List<Integer> values = new ArrayList<>();
+        assertFalse(enumerator.tryNext(e -> fail()));
+        assertFalse(enumerator.tryNext(e -> fail()));
+
+        final Enumerator<Integer> en = Enumerator.on(1, 2, 3)
+                .concat(Arrays.asList(4, 5).iterator())
+                .concat(Enumerator.of(() -> Optional.<Integer>empty()))
+                .concat(Enumerable.on(6, 7).cached().enumerator())
+                .filter(x -> x != 5);
+        assertTrue(en.tryNext(values::add));
+        assertTrue(en.hasNext());
+        assertTrue(en.hasNext());
+        while(en.tryNext(values::add)) {
+            // keep going
+        }
+        assertEquals(Arrays.asList(1, 2, 3, 4, 6, 7), values);
+        assertFalse(en.hasNext());
+        assertFalse(en.tryNext(values::add));
+
+        final MutableInt x = new MutableInt(0);
+        assertTrue(Enumerator.of(() -> Optional.of(1))
+                             .tryNext(e -> x.add(e)));
+        assertEquals(1, x.intValue());
+    }
+
+    @Test
+    public void testPushWhile() {
+        System.out.println("pushWhile");
+        assertTrue(enumerator.pushWhile(e -> false));
+        assertFalse(enumerator.hasNext());
+
+        final AbstractEnumerator<Integer> en =
+                (AbstractEnumerator<Integer>)Enumerator.on(1, 2, 3, 4, 5);
+        assertTrue(en.hasNext());
+        assertFalse(en.pushWhile(e -> e < 2));
+        assertTrue(en.enumerating());
+        assertEquals(3, en.next().intValue());
+        final MutableInt x = new MutableInt(0);
+        assertTrue(en.pushWhile(e -> {
+            x.add(e);
+            return true;
+        }));
+        assertEquals(4+5, x.intValue());
+        assertFalse(en.hasNext());
+    }
+
+    @Test
+    public void testForEachWhile() {
+        System.out.println("forEachWhile");
+        final MutableInt x = new MutableInt(0);
+        assertFalse(AbstractEnumerator.forEachWhile(
+                Arrays.asList(1, 2, 3).iterator(),
+                e -> {
+                    x.add(e);
+                    return x.intValue() < 3;
+                }));
+        assertEquals(1+2, x.intValue());
+        assertTrue(AbstractEnumerator.forEachWhile(
+                Enumerator.on(1, 2, 3),
+                e -> {
+                    x.add(e);
+                    return true;
+                }));
+        assertEquals(2*(1+2)+3, x.intValue());
+    }
+
+    @Test
+    public void testExactSize() {
+        System.out.println("exactSize");
+        assertEquals(-1, enumerator.exactSize());
+        assertEquals(Long.MAX_VALUE, enumerator.estimatedSize());
+
+        final AbstractEnumerator<Integer> array =
+                (AbstractEnumerator<Integer>)Enumerator.on(1, 2, 3, 4, 5);
+        assertEquals(5, array.exactSize());
+        array.next();
+        assertEquals(4, array.exactSize());
+
+        final AbstractEnumerator<Integer> list =
+                (AbstractEnumerator<Integer>)Enumerator.of(
+                        Arrays.asList(1, 2, 3));
+        assertEquals(3, list.exactSize());
+        assertEquals(-1, AbstractEnumerator.exactSizeOf(
+                Arrays.asList(1, 2, 3).iterator()));
+        assertEquals(100, AbstractEnumerator.exactSizeOf(
+                Enumerator.rangeInt(0, 100)));
+        assertEquals(101, AbstractEnumerator.exactSizeOf(
+                Enumerator.rangeLongClosed(0, 100)));
+        assertEquals(-1, AbstractEnumerator.exactSizeOf(
+                Enumerator.rangeLongClosed(Long.MIN_VALUE, Long.MAX_VALUE)));
+
+        final AbstractEnumerator<Integer> pipe =
+                (AbstractEnumerator<Integer>)Enumerator.rangeInt(0, 100)
+                                                       .map(x -> x+1)
+                                                       .skip(10)
+                                                       .limit(50)
+                                                       .concat(Enumerator.on(1))
+                                                       .peek(x -> {});
+        assertEquals(51, pipe.exactSize());
+        assertEquals(51, pipe.estimatedSize());
+
+        final AbstractEnumerator<Integer> filtered =
+                (AbstractEnumerator<Integer>)Enumerator.on(1, 2, 3, 4)
+                                                       .filter(x -> x > 2)
+                                                       .map(x -> x);
+        assertEquals(-1, filtered.exactSize());
+        assertEquals(4, filtered.estimatedSize());
+
+        final AbstractEnumerator<Integer> flat =
+                (AbstractEnumerator<Integer>)Enumerator.on(1, 2)
+                                                       .flatMap(x -> Enumerator.on(x));
+        assertEquals(-1, flat.exactSize());
+        assertEquals(Long.MAX_VALUE, flat.estimatedSize());
+
+        final AbstractEnumerator<?> zipped =
+                (AbstractEnumerator<?>)Enumerator.on(1, 2, 3)
+                                                 .zipBoth(Enumerator.on(1, 2));
+        assertEquals(2, zipped.exactSize());
+        final AbstractEnumerator<?> zippedAll =
+                (AbstractEnumerator<?>)Enumerator.on(1, 2, 3)
+                                                 .zipAll(Enumerator.on(1, 2),
+                                                         Enumerator.on(1, 2, 3, 4));
+        assertEquals(4, zippedAll.exactSize());
+        assertEquals(4, zippedAll.count());
+
+        assertFalse(array.hasCallbacks());
+        assertFalse(list.hasCallbacks());
+        assertTrue(pipe.hasCallbacks());
+        assertFalse(AbstractEnumerator.hasCallbacksOf(
+                Enumerator.rangeInt(0, 100)));
+        assertTrue(AbstractEnumerator.hasCallbacksOf(
+                Arrays.asList(1, 2, 3).iterator()));
+        assertFalse(((AbstractEnumerator<Integer>)Enumerator.rangeInt(0, 100)
+                                                            .skip(10)
+                                                            .limit(50))
+                    .hasCallbacks());
+        assertTrue(((AbstractEnumerator<Integer>)Enumerator.rangeInt(0, 100)
+                                                           .limit(50)
+                                                           .concat(pipe))
+                   .hasCallbacks());
+    }
+
+    @Test
+    public void testSizedTerminals() {
+        System.out.println("sizedTerminals");
+        final MutableInt mapped = new MutableInt(0);
+        assertEquals(40, Enumerator.rangeInt(0, 100)
+                                   .map(x -> { mapped.increment(); return x; })
+                                   .skip(60)
+                                   .count());
+        assertEquals(100, mapped.intValue());
+        mapped.setValue(0);
+        assertEquals(40, Enumerator.rangeInt(0, 100)
+                                   .skip(60)
+                                   .count());
+
+        final Enumerator<Integer> en = Enumerator.on(1, 2, 3).map(x -> x*2);
+        en.count();
+        assertFalse(en.hasNext());
+
+        assertFalse(Enumerator.on(1, 2, 3)
+                              .map(x -> { mapped.increment(); return x; })
+                              .elementAt(3)
+                              .isPresent());
+        assertEquals(3, mapped.intValue());
+        mapped.setValue(0);
+        assertEquals(3, Enumerator.on(1, 2, 3)
+                                  .map(x -> { mapped.increment(); return x; })
+                                  .elementAt(2)
+                                  .get()
+                                  .intValue());
+        assertEquals(3, mapped.intValue());
+
+        final Enumerator<Integer> array = Enumerator.on(1, 2, 3, 4, 5);
+        array.next();
+        assertEquals(5, array.last().get().intValue());
+        assertFalse(array.hasNext());
+        assertEquals(5, Enumerator.of(Arrays.asList(1, 2, 3, 4, 5))
+                                  .last()
+                                  .get()
+                                  .intValue());
+
+        final Spliterator<Integer> sized = Enumerator.on(1, 2, 3)
+                                                     .map(x -> x+1)
+                                                     .asSpliterator();
+        assertTrue(sized.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(3, sized.getExactSizeIfKnown());
+        assertEquals(-1, Enumerator.on(1, 2, 3)
+                                   .filter(x -> x > 1)
+                                   .asSpliterator()
+                                   .getExactSizeIfKnown());
+        assertEquals(1000, Enumerator.rangeInt(0, 1000)
+                                     .asSpliterator()
+                                     .getExactSizeIfKnown());
+        assertEquals(1000L*999/2, Enumerator.rangeInt(0, 1000)
+                                            .map(x -> (long)x)
+                                            .asStream()
+                                            .parallel()
+                                            .mapToLong(x -> x)
+                                            .sum());
+    }
+
+    @Test
+    public void testTrySplit() {
+        System.out.println("trySplit");
+        final Integer[] elements = new Integer[1000];
+        for(int i=0; i<elements.length; ++i) {
+            elements[i] = i;
+        }
+        final Spliterator<Integer> array = Enumerator.on(elements)
+                                                     .asSpliterator();
+        final Spliterator<Integer> firstHalf = array.trySplit();
+        assertEquals(500, firstHalf.getExactSizeIfKnown());
+        assertEquals(500, array.getExactSizeIfKnown());
+        firstHalf.tryAdvance(x -> assertEquals(0, x.intValue()));
+        array.tryAdvance(x -> assertEquals(500, x.intValue()));
+
+        final Spliterator<Integer> list =
+                Enumerator.of(Arrays.asList(elements))
+                          .map(x -> x*2)
+                          .asSpliterator();
+        final Spliterator<Integer> listHalf = list.trySplit();
+        assertTrue(listHalf.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(500, listHalf.getExactSizeIfKnown());
+        list.tryAdvance(x -> assertEquals(1000, x.intValue()));
+
+        final Spliterator<Integer> filtered = Enumerator.rangeInt(0, 1000)
+                                                        .filter(x -> x%2 == 0)
+                                                        .asSpliterator();
+        final Spliterator<Integer> filteredHalf = filtered.trySplit();
+        assertNotNull(filteredHalf);
+        filtered.tryAdvance(x -> assertEquals(500, x.intValue()));
+
+        final IntRangeEnumerator range = new IntRangeEnumerator(0, 4, true);
+        final IntRangeEnumerator rangeHalf = range.trySplit();
+        assertEquals(3, rangeHalf.exactSize());
+        assertEquals(2, range.exactSize());
+        assertEquals(3, range.nextInt());
+        final LongRangeEnumerator longRange =
+                new LongRangeEnumerator(Long.MIN_VALUE, Long.MAX_VALUE, true);
+        assertEquals(-1, longRange.exactSize());
+        assertEquals(Long.MIN_VALUE, longRange.trySplit().nextLong());
+        assertEquals(0, longRange.nextLong());
+
+        final AtomicInteger peeked = new AtomicInteger(0);
+        assertEquals(1000L*999, Enumerator.on(elements)
+                                          .peek(x -> peeked.incrementAndGet())
+                                          .map(x -> 2L*x)
+                                          .asStream()
+                                          .parallel()
+                                          .mapToLong(x -> x)
+                                          .sum());
+        assertEquals(1000, peeked.get());
+        assertEquals(Enumerator.on(elements).skip(10).toList(),
+                     Enumerator.on(elements)
+                               .skip(10)
+                               .asStream()
+                               .parallel()
+                               .collect(Collectors.toList()));
+    }
+
     public class AbstractEnumeratorImpl<E> extends AbstractEnumerator {
 
         public boolean hasNext;
@@ -23,6 +23,21 @@
  */
 package enumj;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -100,4 +115,272 @@ public class CachedEnumerableTest {
                                      self -> {});
         assertTrue(cen.elementsEqual(Enumerable.on(1, 2, 3, 4, 5)));
     }    
+
+    @Test
+    public void testChunks() {
+        System.out.println("chunks");
+        final int count = 3*ChunkedCache.CHUNK_SIZE + 7;
+        final AtomicInteger pulled = new AtomicInteger();
+        final CachedEnumerable<Integer> cen = new CachedEnumerable(
+                Enumerable.rangeInt(0, count)
+                          .peek(x -> pulled.incrementAndGet()));
+        final Enumerator<Integer> first = cen.enumerator();
+        final Enumerator<Integer> second = cen.enumerator();
+        for(int i=0; i<10; ++i) {
+            assertEquals(i, first.next().intValue());
+        }
+        assertEquals(10, pulled.get());
+        assertTrue(second.elementsEqual(Enumerator.rangeInt(0, count)));
+        assertTrue(cen.elementsEqual(Enumerable.rangeInt(0, count)));
+        assertEquals(count, pulled.get());
+    }
+
+    @Test
+    public void testLimitCallback() {
+        System.out.println("limitCallback");
+        final List<CachedEnumerable<Integer>> calls = new ArrayList<>();
+        final CachedEnumerable<Integer> cen = new CachedEnumerable(
+                Enumerable.rangeInt(0, 2000),
+                ChunkedCache.CHUNK_SIZE,
+                self -> calls.add((CachedEnumerable<Integer>)self));
+        final Enumerator<Integer> en = cen.enumerator();
+        for(int i=0; i<ChunkedCache.CHUNK_SIZE; ++i) {
+            assertEquals(i, en.next().intValue());
+        }
+        assertTrue(calls.isEmpty());
+        assertFalse(cen.state().isDisabled());
+        assertTrue(cen.elementsEqual(Enumerable.rangeInt(0, 2000)));
+        assertEquals(1, calls.size());
+        assertSame(cen, calls.get(0));
+        assertTrue(cen.state().isDisabled());
+    }
+
+    @Test
+    public void testBudget() {
+        System.out.println("budget");
+        final int count = 10*ChunkedCache.CHUNK_SIZE + 5;
+        final AtomicInteger pulled = new AtomicInteger();
+        final Enumerable<Integer> source =
+                Enumerable.rangeInt(0, count)
+                          .peek(x -> pulled.incrementAndGet());
+        for(CacheBudget.Eviction eviction : CacheBudget.Eviction.values()) {
+            pulled.set(0);
+            final CachedEnumerable<Integer> cen = source.cached(
+                    CacheBudget.<Integer>elements(3*ChunkedCache.CHUNK_SIZE)
+                               .evicting(eviction));
+            assertTrue(cen.elementsEqual(Enumerable.rangeInt(0, count)));
+            assertEquals(count, pulled.get());
+            assertTrue(cen.elementsEqual(Enumerable.rangeInt(0, count)));
+            assertTrue(cen.elementsEqual(Enumerable.rangeInt(0, count)));
+            assertTrue(pulled.get() > count);
+            assertFalse(cen.state().isDisabled());
+            assertEquals(Enumerator.rangeInt(2000, 2100).toList(),
+                         cen.enumerator().skip(2000).limit(100).toList());
+        }
+
+        pulled.set(0);
+        final CachedEnumerable<Integer> fits = source.cached(
+                CacheBudget.<Integer>bytes(16L*count, x -> 16));
+        assertTrue(fits.elementsEqual(Enumerable.rangeInt(0, count)));
+        assertTrue(fits.elementsEqual(Enumerable.rangeInt(0, count)));
+        assertEquals(count, pulled.get());
+        assertTrue(fits.reset().budget != null);
+
+        try {
+            CacheBudget.elements(0);
+            fail();
+        } catch(IllegalArgumentException ex) {}
+        try {
+            CacheBudget.elements(1).evicting(null);
+            fail();
+        } catch(IllegalArgumentException ex) {}
+    }
+
+    @Test
+    public void testSpill() throws IOException {
+        System.out.println("spill");
+        final CacheCodec<Integer> codec = new CacheCodec<Integer>() {
+            @Override
+            public void encode(Integer element, DataOutput out)
+                    throws IOException {
+                out.writeInt(element);
+            }
+            @Override
+            public Integer decode(DataInput in) throws IOException {
+                return in.readInt();
+            }
+        };
+        final Path dir = Files.createTempDirectory("enumj-test");
+        try {
+            final int count = 6*ChunkedCache.CHUNK_SIZE + 5;
+            final AtomicInteger pulled = new AtomicInteger();
+            final CacheSpill<Integer> spill =
+                    CacheSpill.to(dir, codec)
+                              .afterElements(ChunkedCache.CHUNK_SIZE)
+                              .segmentBytes(2*4*ChunkedCache.CHUNK_SIZE)
+                              .readAhead(1);
+            final CachedEnumerable<Integer> cen =
+                    Enumerable.rangeInt(0, count)
+                              .peek(x -> pulled.incrementAndGet())
+                              .cached(spill);
+            assertTrue(cen.elementsEqual(Enumerable.rangeInt(0, count)));
+            assertTrue(cen.elementsEqual(Enumerable.rangeInt(0, count)));
+            assertEquals(count, pulled.get());
+            assertEquals(Enumerator.rangeInt(3000, 5000).toList(),
+                         cen.enumerator().skip(3000).limit(2000).toList());
+            assertEquals(1, countFiles(dir));
+            final Path segments;
+            try(Stream<Path> files = Files.list(dir)) {
+                segments = files.findFirst().get();
+            }
+            assertEquals(3, countFiles(segments));
+
+            assertSame(spill, cen.reset().spill);
+            assertEquals(0, countFiles(dir));
+            assertTrue(cen.elementsEqual(Enumerable.rangeInt(0, count)));
+            assertEquals(2*count, pulled.get());
+            assertEquals(1, countFiles(dir));
+
+            final Enumerator<Integer> halfway = cen.enumerator();
+            final List<Integer> read = new ArrayList<>();
+            while(read.size() < count/2) {
+                read.add(halfway.next());
+            }
+            cen.reset();
+            assertEquals(1, countFiles(dir));
+            while(halfway.hasNext()) {
+                read.add(halfway.next());
+            }
+            assertEquals(Enumerator.rangeInt(0, count).toList(), read);
+            assertEquals(0, countFiles(dir));
+        } finally {
+            try(Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder())
+                     .map(Path::toFile)
+                     .forEach(File::delete);
+            }
+        }
+
+        try {
+            CacheSpill.to(dir, null);
+            fail();
+        } catch(IllegalArgumentException ex) {}
+        try {
+            CacheSpill.to(dir, codec).afterElements(-1);
+            fail();
+        } catch(IllegalArgumentException ex) {}
+    }
+
+    @Test
+    public void testConcurrentReplay() throws InterruptedException {
+        System.out.println("concurrentReplay");
+        final int count = 20*ChunkedCache.CHUNK_SIZE + 7;
+        final int threads = 32;
+        final List<Integer> expected = Enumerator.rangeInt(0, count).toList();
+        for(int round=0; round<5; ++round) {
+            final AtomicInteger pulled = new AtomicInteger();
+            final CachedEnumerable<Integer> cen =
+                    Enumerable.rangeInt(0, count)
+                              .peek(x -> pulled.incrementAndGet())
+                              .cached();
+            final CountDownLatch start = new CountDownLatch(1);
+            final AtomicReference<Throwable> error = new AtomicReference<>();
+            final List<Thread> readers = new ArrayList<>();
+            for(int i=0; i<threads; ++i) {
+                final int skip = (i % 4) * ChunkedCache.CHUNK_SIZE / 3;
+                final Thread reader = new Thread(() -> {
+                    try {
+                        start.await();
+                        assertEquals(expected.subList(skip, count),
+                                     cen.enumerator().skip(skip).toList());
+                    } catch(Throwable ex) {
+                        error.compareAndSet(null, ex);
+                    }
+                });
+                reader.start();
+                readers.add(reader);
+            }
+            start.countDown();
+            for(Thread reader : readers) {
+                reader.join();
+            }
+            assertNull(error.get());
+            assertEquals(count, pulled.get());
+        }
+    }
+
+    @Test
+    public void testPrefetch() throws InterruptedException {
+        System.out.println("prefetch");
+        final int count = 3*ChunkedCache.CHUNK_SIZE;
+        final AtomicInteger pulled = new AtomicInteger();
+        final AtomicInteger pulledHere = new AtomicInteger();
+        final Thread consumer = Thread.currentThread();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CachedEnumerable<Integer> cen =
+                    Enumerable.rangeInt(0, count)
+                              .peek(x -> {
+                                  pulled.incrementAndGet();
+                                  if (Thread.currentThread() == consumer) {
+                                      pulledHere.incrementAndGet();
+                                  }
+                                  if (x <= 100) {
+                                      sleep(1);
+                                  }
+                              })
+                              .cached()
+                              .prefetch(100, executor);
+            assertEquals(0, pulled.get());
+            final Enumerator<Integer> en = cen.enumerator();
+            assertEquals(0, en.next().intValue());
+            awaitPulled(pulled, 101);
+            Thread.sleep(10);
+            assertEquals(101, pulled.get());
+            assertTrue(pulledHere.get() <= 1);
+            assertTrue(cen.elementsEqual(Enumerable.rangeInt(0, count)));
+            assertEquals(count, pulled.get());
+
+            cen.reset();
+            pulled.set(0);
+            assertEquals(0, cen.enumerator().next().intValue());
+            awaitPulled(pulled, 101);
+            cen.prefetch(0, executor);
+            assertTrue(cen.elementsEqual(Enumerable.rangeInt(0, count)));
+            assertEquals(count, pulled.get());
+        } finally {
+            executor.shutdown();
+        }
+
+        try {
+            Enumerable.on(1).cached().prefetch(-1, executor);
+            fail();
+        } catch(IllegalArgumentException ex) {}
+        try {
+            Enumerable.on(1).cached().prefetch(1, null);
+            fail();
+        } catch(IllegalArgumentException ex) {}
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitPulled(AtomicInteger pulled, int expected)
+            throws InterruptedException {
+        for(int i=0; i<5000 && pulled.get() < expected; ++i) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, pulled.get());
+    }
+
+    private static long countFiles(Path dir) throws IOException {
+        try(Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.experimental.categories.Category;
+
+@Category(TimingTestCategory.class)
+public class CachedEnumerableTimingTest {
+
+    public static final int SIZE = 1_000_000;
+    public static final int REPLAYS = 10;
+    public static final int WARM_UP = 5;
+    public static final int[] THREADS = { 1, 2, 4, 8, 16, 32, 64 };
+
+    private static long replayNanos(CachedEnumerable<Integer> cen,
+                                    int threads) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicLong total = new AtomicLong();
+        final List<Thread> readers = new ArrayList<>();
+        for(int i=0; i<threads; ++i) {
+            final Thread reader = new Thread(() -> {
+                try {
+                    start.await();
+                    long sum = 0;
+                    for(int j=0; j<REPLAYS; ++j) {
+                        sum += cen.enumerator().mapToLong(x -> x).sum();
+                    }
+                    total.addAndGet(sum);
+                } catch(InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        final long t0 = System.nanoTime();
+        start.countDown();
+        for(Thread reader : readers) {
+            reader.join();
+        }
+        final long nanos = System.nanoTime() - t0;
+        assertEquals((long)threads * REPLAYS * SIZE * (SIZE-1) / 2,
+                     total.get());
+        return nanos;
+    }
+
+    @Test
+    public void replayTest() throws InterruptedException {
+        System.out.println("replayTest");
+        System.out.println("Threads,Fill+Replay(uS),Replay(uS)," +
+                           "Replay(M elements/s)");
+        for(int threads : THREADS) {
+            for(int i=0; i<WARM_UP; ++i) {
+                replayNanos(Enumerable.rangeInt(0, SIZE).cached(), threads);
+            }
+            final CachedEnumerable<Integer> cen =
+                    Enumerable.rangeInt(0, SIZE).cached();
+            final long filled = replayNanos(cen, threads);
+            final long replayed = replayNanos(cen, threads);
+            System.out.println(threads + "," +
+                               (filled/1000) + "," +
+                               (replayed/1000) + "," +
+                               ((long)threads * REPLAYS * SIZE * 1000
+                                / replayed));
+        }
+    }
+}
@@ -66,6 +66,12 @@ public class ChecksTest {
         Checks.ensureNonNegative(-1, "negative!");
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testEnsurePositive() {
+        System.out.println("ensurePositive");
+        Checks.ensurePositive(0, "not positive!");
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testEnsureLessThan() {
         System.out.println("ensureLessThan");
@@ -23,7 +23,10 @@
  */
 package enumj;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.stream.IntStream;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -114,5 +117,19 @@ public class ChoiceEnumeratorTest {
         }
         assertTrue(!zipped.hasNext());
         assertTrue(!zipped.hasNext());
-    }    
+    }
+
+    @Test
+    public void testTryNext() {
+        final List<Integer> values = new ArrayList<>();
+        assertTrue(zipped.hasNext());
+        while(zipped.tryNext(values::add)) {
+            // keep going
+        }
+        assertEquals(shortLen+longLen+veryLongLen, values.size());
+        assertEquals(Arrays.asList(0, 0, 0, 1, 1, 1, 2, 2, 2),
+                     values.subList(0, 9));
+        assertFalse(zipped.tryNext(values::add));
+        assertFalse(zipped.hasNext());
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.Arrays;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CompiledPipeProcessorTest {
+
+    public CompiledPipeProcessorTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+        final MapPipeProcessor<Integer,Integer> map =
+                new MapPipeProcessor<>(x -> x+1);
+        final FilterPipeProcessor<Integer> filter =
+                new FilterPipeProcessor<>(x -> x % 2 == 0);
+        final SkipPipeProcessor<Integer> skip = new SkipPipeProcessor<>(1);
+        final LimitPipeProcessor<Integer> limit = new LimitPipeProcessor<>(2);
+        map.enqueueMap(x -> x*3);
+        map.setNext(filter);
+        filter.setNext(skip);
+        skip.setNext(limit);
+        processor = CompiledPipeProcessor.of(
+                Arrays.asList(map, filter, skip, limit));
+    }
+
+    CompiledPipeProcessor processor;
+
+    @After
+    public void tearDown() {
+        processor = null;
+    }
+
+    @Test
+    public void testIsCompilable() {
+        System.out.println("isCompilable");
+        assertTrue(CompiledPipeProcessor.isCompilable(
+                new MapPipeProcessor<Integer,Integer>(x -> x)));
+        assertTrue(CompiledPipeProcessor.isCompilable(
+                new FilterPipeProcessor<Integer>(x -> true)));
+        assertTrue(CompiledPipeProcessor.isCompilable(
+                new SkipPipeProcessor<Integer>(1)));
+        assertTrue(CompiledPipeProcessor.isCompilable(
+                new LimitPipeProcessor<Integer>(1)));
+        assertFalse(CompiledPipeProcessor.isCompilable(
+                new WhilePipeProcessor<Integer>(x -> true)));
+    }
+
+    @Test
+    public void testShape() {
+        System.out.println("shape");
+        assertEquals("MMFSS", processor.getShape());
+        assertEquals(4, processor.getProcessors().size());
+        assertNull(processor.getNext());
+    }
+
+    @Test
+    public void testTemplate() {
+        System.out.println("template");
+        assertSame(CompiledPipeProcessor.template("MMFSS"),
+                   CompiledPipeProcessor.template("MMFSS"));
+        assertNotSame(CompiledPipeProcessor.template("MFS"),
+                      CompiledPipeProcessor.template("MFSS"));
+    }
+
+    @Test
+    public void testProcess() {
+        System.out.println("process");
+        processor.processInputValue(1);
+        assertFalse(processor.hasOutputValue());
+        assertFalse(processor.hasOutputValue());
+        processor.processInputValue(2);
+        assertFalse(processor.hasOutputValue());
+        processor.processInputValue(3);
+        assertTrue(processor.hasOutputValue());
+        assertEquals(12, processor.getOutputValue());
+        assertFalse(processor.hasOutputValue());
+        assertFalse(processor.isInactive());
+    }
+
+    @Test
+    public void testIsInactive() {
+        System.out.println("isInactive");
+        for(int i=0; i<10; ++i) {
+            processor.processInputValue(i);
+            if (processor.hasOutputValue()) {
+                processor.getOutputValue();
+            }
+        }
+        assertTrue(processor.isInactive());
+    }
+}
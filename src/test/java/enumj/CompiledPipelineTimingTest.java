@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.experimental.categories.Category;
+
+@Category(TimingTestCategory.class)
+public class CompiledPipelineTimingTest {
+
+    public static final int SIZE = 1_000_000;
+    public static final int ROUNDS = 10;
+    public static final int WARM_UP = 5;
+    public static final int[] DEPTHS = { 1, 4, 16, 64 };
+
+    private static Enumerator<Integer> pipeline(int depth, boolean compiled) {
+        Enumerator<Integer> result = Enumerator.rangeInt(0, SIZE);
+        if (compiled) {
+            result = result.compiled();
+        }
+        for(int i=0; i<depth; ++i) {
+            final int k = i;
+            result = (i % 2 == 0)
+                     ? result.map(x -> x ^ k)
+                     : result.filter(x -> x != -k-1);
+        }
+        return result;
+    }
+
+    private static long enumerationNanos(int depth, boolean compiled) {
+        long sum = 0;
+        for(int i=0; i<WARM_UP; ++i) {
+            sum += pipeline(depth, compiled).mapToLong(x -> x).sum();
+        }
+        final long t0 = System.nanoTime();
+        for(int i=0; i<ROUNDS; ++i) {
+            sum += pipeline(depth, compiled).mapToLong(x -> x).sum();
+        }
+        assertTrue(sum != 0);
+        return (System.nanoTime() - t0) / ROUNDS;
+    }
+
+    @Test
+    public void enumerationTest() {
+        System.out.println("enumerationTest");
+        System.out.println("Depth,Plain(ns/elem),Compiled(ns/elem)," +
+                           "Compiled/Plain(%)");
+        for(int depth : DEPTHS) {
+            assertEquals(pipeline(depth, false).toList(),
+                         pipeline(depth, true).toList());
+            final long plain = enumerationNanos(depth, false);
+            final long compiled = enumerationNanos(depth, true);
+            System.out.println(depth + "," +
+                               (plain/SIZE) + "," +
+                               (compiled/SIZE) + "," +
+                               EnumeratorTimingTestBase.percentage(compiled,
+                                                                   plain));
+        }
+    }
+}
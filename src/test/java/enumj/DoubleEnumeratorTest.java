@@ -0,0 +1,142 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.OptionalDouble;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class DoubleEnumeratorTest {
+
+    public DoubleEnumeratorTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testOn() {
+        System.out.println("on");
+        assertArrayEquals(new double[] { 1.5, 2.5 },
+                          DoubleEnumerator.on(1.5, 2.5).toArray(),
+                          0.0);
+        assertFalse(DoubleEnumerator.empty().hasNext());
+    }
+
+    @Test
+    public void testIterate() {
+        System.out.println("iterate");
+        assertArrayEquals(new double[] { 1, 0.5, 0.25 },
+                          DoubleEnumerator.iterate(1, x -> x/2)
+                                          .limit(3)
+                                          .toArray(),
+                          0.0);
+    }
+
+    @Test
+    public void testFilterMap() {
+        System.out.println("filterMap");
+        assertArrayEquals(new double[] { 2, 6 },
+                          DoubleEnumerator.on(1, 2, 3)
+                                          .filter(x -> x != 2)
+                                          .map(x -> 2*x)
+                                          .toArray(),
+                          0.0);
+    }
+
+    @Test
+    public void testMapToInt() {
+        System.out.println("mapToInt");
+        assertArrayEquals(new int[] { 1, 2 },
+                          DoubleEnumerator.on(1.2, 2.7)
+                                          .mapToInt(x -> (int)x)
+                                          .toArray());
+        assertArrayEquals(new long[] { 1, 3 },
+                          DoubleEnumerator.on(1.2, 2.7)
+                                          .mapToLong(Math::round)
+                                          .toArray());
+        assertEquals(0.75, Enumerator.on("1", "2")
+                                     .mapToDouble(Double::valueOf)
+                                     .map(x -> x/4)
+                                     .sum(),
+                     0.0);
+    }
+
+    @Test
+    public void testMapToObj() {
+        System.out.println("mapToObj");
+        assertEquals(Arrays.asList(0.5),
+                     DoubleEnumerator.on(0.5).boxed().toList());
+    }
+
+    @Test
+    public void testSkipTakeWhile() {
+        System.out.println("skipTakeWhile");
+        assertEquals(2, DoubleEnumerator.iterate(0, x -> x+1)
+                                        .skip(1)
+                                        .takeWhile(x -> x < 3)
+                                        .count());
+    }
+
+    @Test
+    public void testAggregates() {
+        System.out.println("aggregates");
+        assertEquals(OptionalDouble.of(-1), DoubleEnumerator.on(2, -1).min());
+        assertEquals(OptionalDouble.of(2), DoubleEnumerator.on(2, -1).max());
+        assertEquals(0.5, DoubleEnumerator.on(2, -1).average().getAsDouble(),
+                     0.0);
+        assertFalse(DoubleEnumerator.empty().average().isPresent());
+        assertEquals(-2, DoubleEnumerator.on(2, -1).reduce(1, (x,y) -> x*y),
+                     0.0);
+        assertEquals(OptionalDouble.of(1),
+                     DoubleEnumerator.on(2, -1).reduce(Double::sum));
+        final DoubleSummaryStatistics stats =
+                DoubleEnumerator.on(1, 2, 3).summaryStatistics();
+        assertEquals(3, stats.getCount());
+        assertEquals(6, stats.getSum(), 0.0);
+        assertEquals(1.0, DoubleEnumerator.iterate(0.1, x -> x)
+                                          .limit(10)
+                                          .sum(),
+                     1e-15);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.function.Supplier;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.experimental.categories.Category;
+
+@Category(TimingTestCategory.class)
+public class EnumerableTemplateTimingTest {
+
+    public static final int DEPTH = 100;
+    public static final int ENUMERATIONS = 100_000;
+    public static final int WARM_UP = 10_000;
+
+    private static Enumerable<Integer> definition() {
+        Enumerable<Integer> result = Enumerable.on(1, 2, 3);
+        for(int i=0; i<DEPTH; ++i) {
+            switch(i % 4) {
+                case 0:
+                    result = result.map(x -> x+1);
+                    break;
+                case 1:
+                    result = result.filter(x -> x > 0);
+                    break;
+                case 2:
+                    result = result.skip(0);
+                    break;
+                default:
+                    result = result.limit(Long.MAX_VALUE-1);
+                    break;
+            }
+        }
+        return result;
+    }
+
+    private static long constructionNanos(
+            Supplier<Enumerator<Integer>> construction) {
+        for(int i=0; i<WARM_UP; ++i) {
+            assertTrue(construction.get().hasNext());
+        }
+        final long t0 = System.nanoTime();
+        for(int i=0; i<ENUMERATIONS; ++i) {
+            construction.get().hasNext();
+        }
+        return (System.nanoTime() - t0) / ENUMERATIONS;
+    }
+
+    @Test
+    public void constructionTest() {
+        System.out.println("constructionTest");
+        final PipeEnumerable<?,Integer> pipe =
+                (PipeEnumerable<?,Integer>)definition();
+        assertTrue(pipe.enumerator().elementsEqual(pipe.rebuiltEnumerator()));
+
+        final long rebuilt = constructionNanos(pipe::rebuiltEnumerator);
+        final long stamped = constructionNanos(pipe::enumerator);
+        System.out.println("Depth,Rebuilt(ns/enum),Stamped(ns/enum)," +
+                           "Stamped/Rebuilt(%)");
+        System.out.println(DEPTH + "," +
+                           rebuilt + "," +
+                           stamped + "," +
+                           EnumeratorTimingTestBase.percentage(stamped,
+                                                               rebuilt));
+        assertTrue(stamped <= rebuilt);
+    }
+}
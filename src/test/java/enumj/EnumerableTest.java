@@ -30,6 +30,7 @@ import java.util.Random;
 import java.util.function.IntSupplier;
 import java.util.function.IntUnaryOperator;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -423,6 +424,44 @@ public class EnumerableTest {
                                              7, 8, 9, 10, 11, 12)));
     }
 
+    @Test
+    public void testCompiled() {
+        System.out.println("compiled");
+        EnumerableGenerator
+                .generatorPairs()
+                .limit(100)
+                .map(p -> Pair.of(p.getLeft().repeatable(),
+                                  p.getRight().repeatable()))
+                .map(p -> Pair.of(p.getLeft(),
+                                  p.getLeft().compiled()))
+                .map(p -> Pair.of(p.getLeft().map(x -> x*2)
+                                             .filter(x -> x > 0)
+                                             .skip(1)
+                                             .limit(5),
+                                  p.getRight().map(x -> x*2)
+                                              .filter(x -> x > 0)
+                                              .skip(1)
+                                              .limit(5)))
+                .forEach(p -> {
+                    assertTrue(p.getLeft().elementsEqual(p.getRight()));
+                    assertTrue(p.getLeft().elementsEqual(p.getRight()));
+                });
+    }
+
+    @Test
+    public void testOptimizedSlices() {
+        System.out.println("optimized slices");
+        final Enumerable<Integer> en = Enumerable.on(1, 2, 3, 4, 5, 6, 7, 8)
+                                                 .skip(1)
+                                                 .skip(1)
+                                                 .map(x -> x*10)
+                                                 .limit(4)
+                                                 .limit(3)
+                                                 .limit(Long.MAX_VALUE);
+        assertTrue(en.elementsEqual(Enumerable.on(30, 40, 50)));
+        assertTrue(en.elementsEqual(Enumerable.on(30, 40, 50)));
+    }
+
     @Test
     public void testConcat() {
         System.out.println("concat");
@@ -785,6 +824,20 @@ public class EnumerableTest {
                                                       .takeWhile(x -> x<50)));
     }
 
+    @Test
+    public void testCollections() {
+        System.out.println("collections");
+        final Enumerable<Integer> en = Enumerable.rangeInt(0, 10);
+        assertEquals(Arrays.asList(0, 1, 2), en.limit(3).toList());
+        assertEquals(10, en.toSet().size());
+        assertEquals("9", en.toMap(x -> x, String::valueOf).get(9));
+        assertArrayEquals(new Integer[] { 8, 9 },
+                          en.skip(8).toArray(Integer.class));
+        assertEquals(Integer.valueOf(45),
+                     en.collect(Collectors.summingInt(x -> x)));
+        assertEquals(10, en.toList().size());
+    }
+
     @Test
     public void testUnion() {
         System.out.println("union");
@@ -922,6 +975,15 @@ public class EnumerableTest {
                              .elementsEqual(Enumerable.on(2, 3, 4)));
     }
 
+    @Test
+    public void testParallelMap() {
+        System.out.println("parallelMap");
+        final Enumerable<Integer> squares = Enumerable.on(1, 2, 3, 4, 5)
+                                                      .parallelMap(x -> x*x, 2);
+        assertTrue(squares.elementsEqual(Enumerable.on(1, 4, 9, 16, 25)));
+        assertTrue(squares.elementsEqual(Enumerable.on(1, 4, 9, 16, 25)));
+    }
+
     @Test
     public void testMap_BiFunction() {
         System.out.println("map");
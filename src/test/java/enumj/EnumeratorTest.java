@@ -23,13 +23,27 @@
  */
 package enumj;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.InputMismatchException;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.mutable.MutableInt;
@@ -366,6 +380,38 @@ public class EnumeratorTest {
                                .elementsEqual(p.getRight()));
     }
 
+    @Test
+    public void testAsParallelStream() {
+        System.out.println("asParallelStream");
+        EnumeratorGenerator
+                .generatorPairs()
+                .limit(100)
+                .map(p -> Pair.of(p.getLeft().enumerator(),
+                                  p.getRight().enumerator()
+                                              .asParallelStream()))
+                .forEach(p -> assertTrue(p.getLeft().elementsEqual(
+                        p.getRight().collect(Collectors.toList())
+                                    .iterator())));
+        assertEquals(100000L*99999/2,
+                     Enumerator.iterate(0L, x -> x+1)
+                               .limit(100000)
+                               .asParallelStream()
+                               .mapToLong(x -> x)
+                               .sum());
+
+        final Spliterator<Integer> batches =
+                Enumerator.iterate(0, x -> x+1).asSpliterator();
+        assertEquals(BatchSpliterator.INITIAL_BATCH,
+                     batches.trySplit().getExactSizeIfKnown());
+        batches.tryAdvance(x -> assertEquals(BatchSpliterator.INITIAL_BATCH,
+                                             x.intValue()));
+        assertEquals(32, BatchSpliterator.nextBatch(16, 0));
+        assertEquals(1, BatchSpliterator.nextBatch(
+                16, 16*BatchSpliterator.TARGET_BATCH_NANOS));
+        assertTrue(BatchSpliterator.nextBatch(BatchSpliterator.MAX_BATCH, 0)
+                   <= BatchSpliterator.MAX_BATCH);
+    }
+
     @Test
     public void testAsSpliterator() {
         System.out.println("asSpliterator");
@@ -487,6 +533,25 @@ public class EnumeratorTest {
                 });
     }
 
+    @Test
+    public void testAdaptiveFilters() {
+        System.out.println("adaptiveFilters");
+        EnumeratorGenerator
+                .generators()
+                .limit(100)
+                .map(g -> g.enumerator().asShareable().share(2))
+                .forEach(es -> {
+                    assertTrue(
+                        es[0].filter(x -> x > 0)
+                             .filter(x -> x < 1000)
+                             .filter(x -> x != 5)
+                             .elementsEqual(es[1].adaptiveFilters()
+                                                 .filter(x -> x > 0)
+                                                 .filter(x -> x < 1000)
+                                                 .filter(x -> x != 5)));
+                });
+    }
+
     @Test
     public void testAllMatch() {
         System.out.println("allMatch");
@@ -559,6 +624,38 @@ public class EnumeratorTest {
                         es[0].elementsEqual(
                             Enumerator.of(es[1].collect(Collectors.toList()))));
                 });
+        assertEquals("1,2,3", Enumerator.on(1, 2, 3)
+                                        .map(String::valueOf)
+                                        .collect(Collectors.joining(",")));
+        assertEquals(Long.valueOf(6),
+                     Enumerator.on(1, 2, 3)
+                               .collect(Collectors.summingLong(x -> x)));
+        assertEquals(2, Enumerator.on(1, 2, 3, 4)
+                                  .collect(Collectors.partitioningBy(
+                                          x -> x % 2 == 0))
+                                  .get(true)
+                                  .size());
+    }
+
+    @Test
+    public void testCompiled() {
+        System.out.println("compiled");
+        EnumeratorGenerator
+                .generators()
+                .limit(100)
+                .map(g -> g.enumerator().asShareable().share(2))
+                .forEach(es -> {
+                    assertTrue(
+                        es[0].map(x -> x*2)
+                             .filter(x -> x > 0)
+                             .skip(1)
+                             .limit(5)
+                             .elementsEqual(es[1].compiled()
+                                                 .map(x -> x*2)
+                                                 .filter(x -> x > 0)
+                                                 .skip(1)
+                                                 .limit(5)));
+                });
     }
 
     @Test
@@ -569,6 +666,33 @@ public class EnumeratorTest {
                              .elementsEqual(Enumerator.rangeInt(1, 6)));
     }
 
+    @Test
+    public void testConcat_Abandoned() {
+        System.out.println("concat abandoned");
+        final Enumerator<Integer> held = Enumerator.on(10, 11, 12, 13);
+        assertEquals(Arrays.asList(1, 10),
+                     Enumerator.on(1).concat(held).limit(2).toList());
+        assertTrue(held.hasNext());
+        assertEquals(Integer.valueOf(13), held.last().get());
+
+        final Enumerator<Integer> lines = Enumerator.on(1, 2, 0, 5, 6);
+        assertEquals(Arrays.asList(1, 2),
+                     Enumerator.of((Iterator<Integer>)lines)
+                               .takeWhile(x -> x != 0)
+                               .toList());
+        assertEquals(Integer.valueOf(5), lines.next());
+        assertEquals(Integer.valueOf(6), lines.next());
+        assertFalse(lines.hasNext());
+
+        final ShareableEnumerator<Integer> shareable =
+                Enumerator.on(1, 2, 3, 4).asShareable();
+        final Enumerator<Integer> shared = shareable.share();
+        assertEquals(Arrays.asList(0, 1),
+                     Enumerator.on(0).concat(shared).limit(2).toList());
+        assertTrue(shared.hasNext());
+        assertEquals(Integer.valueOf(4), shared.last().get());
+    }
+
     @Test
     public void testConcat_Iterable() {
         System.out.println("concat iterable");
@@ -631,6 +755,16 @@ public class EnumeratorTest {
     public void testCount() {
         System.out.println("count");
         assertEquals(Enumerator.on(1, 2, 3).count(), 3);
+
+        final MutableInt peeked = new MutableInt(0);
+        assertEquals(10, Enumerator.rangeInt(0, 10)
+                                   .peek(x -> peeked.increment())
+                                   .count());
+        assertEquals(10, peeked.intValue());
+        assertEquals(5, Enumerator.rangeInt(0, 10)
+                                  .skip(2)
+                                  .limit(5)
+                                  .count());
     }
 
     @Test
@@ -720,6 +854,17 @@ public class EnumeratorTest {
                                .last()
                                .get()
                                .intValue(), 99);
+
+        final MutableInt mapped = new MutableInt(0);
+        assertEquals(Integer.valueOf(6),
+                     Enumerator.on(1, 2, 3)
+                               .map(x -> {
+                                   mapped.increment();
+                                   return 2*x;
+                               })
+                               .last()
+                               .get());
+        assertEquals(3, mapped.intValue());
     }
 
     @Test
@@ -747,6 +892,263 @@ public class EnumeratorTest {
                                                       .takeWhile(i -> i<200)));
     }
 
+    @Test
+    public void testMapAsync() {
+        System.out.println("mapAsync");
+        final ScheduledExecutorService service =
+                Executors.newScheduledThreadPool(4);
+        final AtomicInteger outstanding = new AtomicInteger(0);
+        final AtomicInteger maxOutstanding = new AtomicInteger(0);
+        final List<CompletableFuture<Integer>> calls =
+                Collections.synchronizedList(new ArrayList<>());
+        final Function<Integer,CompletableFuture<Integer>> stub = x -> {
+            maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(),
+                                            Math::max);
+            final CompletableFuture<Integer> result =
+                    new CompletableFuture<>();
+            calls.add(result);
+            if (x < 0) {
+                outstanding.decrementAndGet();
+                result.completeExceptionally(new IllegalStateException());
+            } else {
+                service.schedule(() -> {
+                                     outstanding.decrementAndGet();
+                                     result.complete(2*x);
+                                 },
+                                 x < 100 ? (x*7) % 5 : 10000,
+                                 TimeUnit.MILLISECONDS);
+            }
+            return result;
+        };
+        try {
+            assertEquals(Enumerator.rangeInt(0, 50).map(x -> 2*x).toList(),
+                         Enumerator.rangeInt(0, 50)
+                                   .mapAsync(stub, 8)
+                                   .toList());
+            assertTrue(maxOutstanding.get() <= 8);
+            assertEquals(Enumerator.rangeInt(0, 50).map(x -> 2*x).toSet(),
+                         Enumerator.rangeInt(0, 50)
+                                   .mapAsync(stub, 8, false)
+                                   .toSet());
+
+            final List<Integer> results = new ArrayList<>();
+            try {
+                Enumerator.on(1, 2, -3, 4)
+                          .mapAsync(stub, 4)
+                          .forEachRemaining(results::add);
+                fail();
+            } catch(IllegalStateException ex) {
+                assertEquals(Arrays.asList(2, 4), results);
+            }
+            for(boolean ordered : new boolean[] { true, false }) {
+                final Enumerator<Integer> failing =
+                        Enumerator.on(1, 2, -3, 4, 5, 6)
+                                  .mapAsync(stub, 4, ordered);
+                try {
+                    while(failing.hasNext()) {
+                        failing.next();
+                    }
+                    fail();
+                } catch(IllegalStateException ex) {
+                    assertFalse(failing.hasNext());
+                }
+            }
+
+            calls.clear();
+            assertEquals(Arrays.asList(0, 2, 4),
+                         Enumerator.on(0, 1, 2, 3)
+                                   .concat(Enumerator.rangeInt(100, 200))
+                                   .mapAsync(stub, 4)
+                                   .limit(3)
+                                   .toList());
+            assertTrue(calls.size() <= 8);
+            assertTrue(calls.stream().allMatch(CompletableFuture::isDone));
+            assertTrue(calls.stream()
+                            .anyMatch(CompletableFuture::isCancelled));
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMapAsyncHedged() {
+        System.out.println("mapAsyncHedged");
+        final ScheduledExecutorService service =
+                Executors.newScheduledThreadPool(4);
+        final Map<Integer,AtomicInteger> attempts = new ConcurrentHashMap<>();
+        final AtomicInteger slowMillis = new AtomicInteger(10000);
+        final List<CompletableFuture<Integer>> calls =
+                Collections.synchronizedList(new ArrayList<>());
+        final Function<Integer,CompletableFuture<Integer>> stub = x -> {
+            final int attempt = attempts.computeIfAbsent(
+                    x, k -> new AtomicInteger()).incrementAndGet();
+            final CompletableFuture<Integer> result =
+                    new CompletableFuture<>();
+            calls.add(result);
+            final int latency = attempt == 1 && x % 5 == 0
+                                ? slowMillis.get()
+                                : 1;
+            service.schedule(() -> result.complete(2*x),
+                             latency,
+                             TimeUnit.MILLISECONDS);
+            return result;
+        };
+        final HedgePolicy hedge = HedgePolicy.after(Duration.ofMillis(20))
+                                             .withMaxRatio(1);
+        try {
+            final long start = System.nanoTime();
+            assertEquals(Enumerator.rangeInt(0, 20).map(x -> 2*x).toList(),
+                         Enumerator.rangeInt(0, 20)
+                                   .mapAsync(stub, 4, true, hedge)
+                                   .toList());
+            assertEquals(Enumerator.rangeInt(0, 20).map(x -> 2*x).toSet(),
+                         Enumerator.rangeInt(20, 40)
+                                   .mapAsync(stub, 4, false, hedge)
+                                   .map(x -> x-40)
+                                   .toSet());
+            assertTrue(System.nanoTime() - start
+                       < TimeUnit.SECONDS.toNanos(5));
+            assertTrue(attempts.values()
+                               .stream()
+                               .filter(n -> n.get() == 2)
+                               .count() >= 8);
+            assertTrue(calls.stream()
+                            .filter(CompletableFuture::isCancelled)
+                            .count() >= 8);
+
+            attempts.clear();
+            slowMillis.set(200);
+            assertEquals(Enumerator.rangeInt(0, 20).map(x -> 2*x).toList(),
+                         Enumerator.rangeInt(1, 5)
+                                   .concat(Enumerator.rangeInt(6, 10))
+                                   .concat(Enumerator.rangeInt(11, 15))
+                                   .concat(Enumerator.rangeInt(16, 20))
+                                   .concat(Enumerator.on(0, 5, 10, 15))
+                                   .mapAsync(stub,
+                                             4,
+                                             false,
+                                             hedge.withMaxRatio(0.1))
+                                   .sorted()
+                                   .toList());
+            assertTrue(attempts.values()
+                               .stream()
+                               .filter(n -> n.get() == 2)
+                               .count() <= 2);
+
+            attempts.clear();
+            Enumerator.rangeInt(1, 5)
+                      .mapAsync(stub,
+                                4,
+                                true,
+                                HedgePolicy.atPercentile(
+                                        99,
+                                        Duration.ofMillis(20))
+                                           .withMaxRatio(0))
+                      .forEachRemaining(x -> {});
+            assertTrue(attempts.values().stream().allMatch(n -> n.get() == 1));
+        } finally {
+            service.shutdownNow();
+        }
+
+        try {
+            HedgePolicy.after(Duration.ofMillis(-1));
+            fail();
+        } catch(IllegalArgumentException ex) {}
+        try {
+            HedgePolicy.atPercentile(100, Duration.ZERO);
+            fail();
+        } catch(IllegalArgumentException ex) {}
+        try {
+            hedge.withMaxRatio(1.5);
+            fail();
+        } catch(IllegalArgumentException ex) {}
+    }
+
+    @Test
+    public void testMapBatched() {
+        System.out.println("mapBatched");
+        final List<List<Integer>> batches = new ArrayList<>();
+        final Function<List<Integer>,List<String>> loader = keys -> {
+            batches.add(new ArrayList<>(keys));
+            return keys.stream()
+                       .map(x -> "v" + x)
+                       .collect(Collectors.toList());
+        };
+        assertEquals(Arrays.asList("v1", "v2", "v1", "v3", "v1", "v4", "v5"),
+                     Enumerator.on(1, 2, 1, 3, 1, 4, 5)
+                               .mapBatched(loader, 3)
+                               .toList());
+        assertEquals(Arrays.asList(Arrays.asList(1, 2),
+                                   Arrays.asList(3, 1, 4),
+                                   Arrays.asList(5)),
+                     batches);
+
+        batches.clear();
+        assertEquals(Arrays.asList("v4", "v8"),
+                     Enumerator.rangeInt(0, 10)
+                               .filter(x -> x > 0)
+                               .mapBatched(loader, 4)
+                               .filter(s -> s.endsWith("4") || s.endsWith("8"))
+                               .toList());
+        assertEquals(3, batches.size());
+
+        batches.clear();
+        assertEquals(Arrays.asList("v0", "v1"),
+                     Enumerator.iterate(0, x -> x+1)
+                               .mapBatched(loader, 4)
+                               .limit(2)
+                               .toList());
+        assertEquals(1, batches.size());
+        assertEquals(Arrays.asList("v0", "v1", "v2"),
+                     Enumerator.rangeInt(0, 3)
+                               .mapBatched(loader, 2, Duration.ofDays(1))
+                               .toList());
+        assertEquals(3, AbstractEnumerator.exactSizeOf(
+                Enumerator.rangeInt(0, 3).mapBatched(loader, 2)));
+        assertFalse(Enumerator.<Integer>empty()
+                              .mapBatched(loader, 2)
+                              .hasNext());
+
+        batches.clear();
+        assertEquals(Arrays.asList("v1", "v2", "v3", "x"),
+                     Enumerator.on(1)
+                               .concat(Enumerator.on(2, 3))
+                               .mapBatched(loader, 2)
+                               .concat(Enumerator.on("x"))
+                               .toList());
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3)),
+                     batches);
+        batches.clear();
+        assertEquals(Arrays.asList("v0", "v1", "v2"),
+                     Enumerator.rangeInt(0, 10)
+                               .takeWhile(x -> x < 3)
+                               .mapBatched(loader, 5)
+                               .toList());
+        assertEquals(1, batches.size());
+        assertEquals(Arrays.asList("w1", "w2", "w3", "w4", "w5"),
+                     Enumerator.rangeInt(1, 6)
+                               .mapBatched(keys -> keys, 3)
+                               .mapBatched(keys -> keys.stream()
+                                                       .map(x -> "w" + x)
+                                                       .collect(Collectors.toList()),
+                                           2)
+                               .toList());
+        final Enumerable<String> batched = Enumerable.on(1, 2, 3)
+                                                     .mapBatched(loader, 2);
+        for(int i=0; i<3; ++i) {
+            assertEquals(Arrays.asList("v1", "v2", "v3"), batched.toList());
+        }
+
+        try {
+            Enumerator.on(1).mapBatched(loader, 0);
+            fail();
+        } catch(IllegalArgumentException ex) {}
+        try {
+            Enumerator.on(1).mapBatched(loader, 1, Duration.ofMillis(-1));
+            fail();
+        } catch(IllegalArgumentException ex) {}
+    }
+
     @Test
     public void testMax() {
         System.out.println("max");
@@ -774,6 +1176,64 @@ public class EnumeratorTest {
                               .noneMatch(i -> i<1));
     }
 
+    @Test
+    public void testParallelMap() {
+        System.out.println("parallelMap");
+        assertEquals(Enumerator.rangeInt(0, 5000).map(x -> x*x).toList(),
+                     Enumerator.rangeInt(0, 5000)
+                               .parallelMap(x -> x*x, 4)
+                               .toList());
+        assertFalse(Enumerator.empty().parallelMap(x -> x, 2).hasNext());
+
+        final AtomicInteger running = new AtomicInteger(0);
+        final AtomicInteger maxRunning = new AtomicInteger(0);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            assertEquals(Enumerator.rangeInt(0, 200).toList(),
+                         Enumerator.rangeInt(0, 200)
+                                   .parallelMap(x -> {
+                                       maxRunning.accumulateAndGet(
+                                               running.incrementAndGet(),
+                                               Math::max);
+                                       try {
+                                           Thread.sleep((x*7) % 3);
+                                       } catch(InterruptedException ex) {
+                                           Thread.currentThread().interrupt();
+                                       } finally {
+                                           running.decrementAndGet();
+                                       }
+                                       return x;
+                                   }, 3, executor)
+                                   .toList());
+            assertTrue(maxRunning.get() <= 3);
+
+            final List<Integer> mapped = new ArrayList<>();
+            final Enumerator<Integer> failing =
+                    Enumerator.rangeInt(0, 1000)
+                              .parallelMap(x -> {
+                                  if (x == 100 || x == 500) {
+                                      throw new IllegalStateException("" + x);
+                                  }
+                                  return x;
+                              }, 4, executor);
+            try {
+                failing.forEachRemaining(mapped::add);
+                fail();
+            } catch(IllegalStateException ex) {
+                assertEquals("100", ex.getMessage());
+            }
+            assertEquals(Enumerator.rangeInt(0, 100).toList(), mapped);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelMapNonPositive() {
+        System.out.println("parallelMap non-positive");
+        Enumerator.on(1, 2, 3).parallelMap(x -> x, 0);
+    }
+
     @Test
     public void testPeek() {
         System.out.println("peek");
@@ -952,6 +1412,11 @@ public class EnumeratorTest {
                              .reverse()
                              .sorted()
                              .elementsEqual(Enumerator.rangeInt(0, 100)));
+        final Enumerator<Integer> en = Enumerator.on(3, 1, 2);
+        final Enumerator<Integer> sorted = en.sorted();
+        assertFalse(en.enumerating());
+        assertTrue(sorted.elementsEqual(Enumerator.on(1, 2, 3)));
+        assertFalse(Enumerator.<Integer>empty().sorted().hasNext());
     }
 
     @Test
@@ -989,12 +1454,46 @@ public class EnumeratorTest {
         for(Long x : map.keySet()) {
             assertEquals(map.get(x), x.toString());
         }
+        assertEquals(100, map.size());
+
+        final List<String> calls = new ArrayList<>();
+        Enumerator.on(1).toMap(i -> { calls.add("key"); return i; },
+                               i -> { calls.add("value"); return i; });
+        assertEquals(Arrays.asList("key", "value"), calls);
+    }
+
+    @Test
+    public void testTerminalsWhileEnumerating() {
+        System.out.println("terminals while enumerating");
+        final List<Function<Enumerator<Integer>,?>> terminals =
+                Arrays.asList(en -> en.collect(Collectors.toList()),
+                              Enumerator::toList,
+                              Enumerator::toSet,
+                              en -> en.toMap(i -> i, i -> i));
+        for(Function<Enumerator<Integer>,?> terminal : terminals) {
+            final Enumerator<Integer> en = Enumerator.on(1, 2, 3);
+            en.next();
+            try {
+                terminal.apply(en);
+                fail();
+            } catch(IllegalStateException ex) {}
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testToMapDuplicateKey() {
+        System.out.println("toMap duplicate key");
+        Enumerator.on(1, 2, 3).toMap(i -> i % 2, i -> i);
     }
 
     @Test
     public void testToSet() {
         System.out.println("toSet");
         assertEquals(Enumerator.repeat(100, 5).toSet().size(), 1);
+        assertEquals(100, Enumerator.rangeInt(0, 1000)
+                                    .filter(x -> x % 10 == 0)
+                                    .toSet()
+                                    .size());
     }
 
     @Test
@@ -1066,6 +1565,21 @@ public class EnumeratorTest {
         assertEquals(Enumerator.rangeInt(0, 100)
                                .zipBoth(Enumerator.rangeInt(100, 200))
                                .count(), 100);
+        assertTrue(Enumerator.on(1, 2, 3)
+                             .zipBoth(Enumerator.on("a", "b"))
+                             .map(p -> p.getLeft() + p.getRight())
+                             .elementsEqual(Enumerator.on("1a", "2b")));
+        assertTrue(Enumerator.on(1, 2, 3)
+                             .zipLeft(Enumerator.on("a", "b"))
+                             .map(p -> p.getLeft()
+                                       + p.getRight().orElse("-"))
+                             .elementsEqual(Enumerator.on("1a", "2b", "3-")));
+        assertTrue(Enumerator.on(1)
+                             .zipRight(Enumerator.on("a", "b"))
+                             .map(p -> p.getLeft().map(String::valueOf)
+                                                  .orElse("-")
+                                       + p.getRight())
+                             .elementsEqual(Enumerator.on("1a", "-b")));
     }
 
     @Test
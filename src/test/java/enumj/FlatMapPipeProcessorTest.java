@@ -95,6 +95,44 @@ public class FlatMapPipeProcessorTest {
         assertEquals(3, processor.getOutputValue().intValue());
     }
 
+    @Test
+    public void testGetValueGrafted() {
+        System.out.println("getValue grafted");
+        final Enumerator<Integer> inner = Enumerator.on(1, 2, 3, 4, 5, 6)
+                                                    .map(x -> x*10)
+                                                    .skip(1)
+                                                    .filter(x -> x != 30)
+                                                    .limit(2);
+        processor = new FlatMapPipeProcessor<>(x -> inner);
+        processor.processInputValue(0);
+        assertFalse(inner.hasNext());
+        assertEquals(20, processor.getOutputValue().intValue());
+        assertEquals(40, processor.getOutputValue().intValue());
+        assertFalse(processor.hasOutputValue());
+        processor.processInputValue(0);
+        assertFalse(processor.hasOutputValue());
+    }
+
+    @Test
+    public void testGetValueStarted() {
+        System.out.println("getValue started");
+        final Enumerator<Integer> inner = Enumerator.on(1, 2, 3);
+        assertTrue(inner.hasNext());
+        processor = new FlatMapPipeProcessor<>(x -> inner);
+        processor.processInputValue(0);
+        assertEquals(1, processor.getOutputValue().intValue());
+        assertEquals(2, processor.getOutputValue().intValue());
+        assertEquals(3, processor.getOutputValue().intValue());
+        assertFalse(processor.hasOutputValue());
+
+        processor = new FlatMapPipeProcessor<>(x ->
+                Enumerator.on(x).concat(Enumerator.on(-x)).map(y -> y+1));
+        processor.processInputValue(1);
+        assertEquals(2, processor.getOutputValue().intValue());
+        assertEquals(0, processor.getOutputValue().intValue());
+        assertFalse(processor.hasOutputValue());
+    }
+
     @Test
     public void testNextOnNoValue() {
         System.out.println("nextOnNoValue");
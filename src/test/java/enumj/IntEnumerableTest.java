@@ -0,0 +1,142 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.OptionalInt;
+import java.util.Spliterator;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class IntEnumerableTest {
+
+    public IntEnumerableTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testEnumerator() {
+        System.out.println("enumerator");
+        final IntEnumerable en = IntEnumerable.on(1, 2, 3);
+        assertArrayEquals(new int[] { 1, 2, 3 }, en.toArray());
+        assertArrayEquals(new int[] { 1, 2, 3 }, en.toArray());
+        assertEquals(0, IntEnumerable.empty().count());
+        int sum = 0;
+        for(int x : en) {
+            sum += x;
+        }
+        assertEquals(6, sum);
+    }
+
+    @Test
+    public void testComposition() {
+        System.out.println("composition");
+        final IntEnumerable en = IntEnumerable.on(5, 1, 4, 2, 3)
+                                              .filter(x -> x != 4)
+                                              .map(x -> x * 2)
+                                              .peek(x -> {});
+        assertArrayEquals(new int[] { 10, 2, 4, 6 }, en.toArray());
+        assertArrayEquals(new int[] { 6, 4, 2, 10 }, en.reverse().toArray());
+        assertEquals(OptionalInt.of(10), en.max());
+        assertEquals(OptionalInt.of(2), en.min());
+        assertEquals(OptionalInt.of(6), en.last());
+        assertEquals(OptionalInt.of(4), en.elementAt(2));
+        assertTrue(en.contains(10));
+        assertFalse(en.contains(5));
+        assertArrayEquals(new int[] { 10, 2 },
+                          en.takeWhile(x -> x != 4).toArray());
+        assertArrayEquals(new long[] { 20, 4, 8, 12 },
+                          en.mapToLong(x -> 2L*x).toArray());
+        assertEquals(22, en.asLongEnumerable().sum());
+        assertEquals(22, en.asStream().sum());
+        assertEquals(4, en.summaryStatistics().getCount());
+    }
+
+    @Test
+    public void testRange() {
+        System.out.println("range");
+        final IntEnumerable en = IntEnumerable.rangeClosed(Integer.MAX_VALUE,
+                                                           Integer.MIN_VALUE,
+                                                           -65536);
+        assertEquals(65536, en.count());
+        assertEquals(OptionalInt.of(Integer.MAX_VALUE), en.max());
+        assertEquals(OptionalInt.of(Integer.MAX_VALUE - 65535*65536),
+                     en.last());
+        assertEquals(en.last(), en.min());
+        assertEquals(OptionalInt.of(Integer.MAX_VALUE - 65536),
+                     en.elementAt(1));
+        assertTrue(en.contains(Integer.MAX_VALUE - 3*65536));
+        assertFalse(en.contains(Integer.MAX_VALUE - 3*65536 + 1));
+        assertEquals(en.last(), en.skip(65535).elementAt(0));
+        assertArrayEquals(en.enumerator().limit(3).toArray(),
+                          en.limit(3).toArray());
+        assertEquals(en.max(), en.reverse().last());
+        assertEquals(en.asLongEnumerable().sum(),
+                     en.reverse().asLongEnumerable().sum());
+        assertEquals(100, IntEnumerable.range(0, 100).count());
+        assertArrayEquals(new int[] { 0, 1, 2 },
+                          IntEnumerable.rangeClosed(0, 2).toArray());
+        assertArrayEquals(new int[] { 9, 6, 3 },
+                          IntEnumerable.range(9, 0, -3).toArray());
+    }
+
+    @Test
+    public void testSpliterator() {
+        System.out.println("spliterator");
+        final Spliterator.OfInt right = IntEnumerable.range(0, 1001)
+                                                     .spliterator();
+        final Spliterator.OfInt left = right.trySplit();
+        assertEquals(500, left.estimateSize());
+        assertEquals(501, right.estimateSize());
+        assertEquals(1000*1001/2,
+                     IntEnumerable.rangeClosed(0, 1000)
+                                  .asStream()
+                                  .parallel()
+                                  .sum());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroStep() {
+        System.out.println("zeroStep");
+        IntEnumerable.rangeClosed(0, 10, 0);
+    }
+}
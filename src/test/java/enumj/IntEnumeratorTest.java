@@ -0,0 +1,254 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+import java.util.OptionalInt;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class IntEnumeratorTest {
+
+    public IntEnumeratorTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testOn() {
+        System.out.println("on");
+        assertArrayEquals(new int[] { 1, 2, 3 },
+                          IntEnumerator.on(1, 2, 3).toArray());
+        assertFalse(IntEnumerator.empty().hasNext());
+    }
+
+    @Test
+    public void testOf() {
+        System.out.println("of");
+        final IntEnumerator en = IntEnumerator.on(1, 2);
+        assertSame(en, IntEnumerator.of(en));
+        assertEquals(3, IntEnumerator.of(Arrays.stream(new int[] { 1, 2 })
+                                               .iterator())
+                                     .sum());
+    }
+
+    @Test
+    public void testEnumerating() {
+        System.out.println("enumerating");
+        final IntEnumerator en = IntEnumerator.range(0, 10);
+        assertFalse(en.enumerating());
+        en.hasNext();
+        assertTrue(en.enumerating());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testComposeWhileEnumerating() {
+        System.out.println("composeWhileEnumerating");
+        final IntEnumerator en = IntEnumerator.range(0, 10);
+        en.nextInt();
+        en.filter(x -> true);
+    }
+
+    @Test
+    public void testRange() {
+        System.out.println("range");
+        assertArrayEquals(new int[] { 3, 4 },
+                          IntEnumerator.range(3, 5).toArray());
+        assertArrayEquals(new int[] { 3, 4, 5 },
+                          IntEnumerator.rangeClosed(3, 5).toArray());
+        assertEquals(1, IntEnumerator.rangeClosed(Integer.MAX_VALUE,
+                                                  Integer.MAX_VALUE)
+                                     .count());
+    }
+
+    @Test
+    public void testIterate() {
+        System.out.println("iterate");
+        assertArrayEquals(new int[] { 1, 2, 4, 8 },
+                          IntEnumerator.iterate(1, x -> 2*x)
+                                       .limit(4)
+                                       .toArray());
+    }
+
+    @Test
+    public void testFilter() {
+        System.out.println("filter");
+        assertArrayEquals(new int[] { 0, 2, 4 },
+                          IntEnumerator.range(0, 6)
+                                       .filter(x -> x % 2 == 0)
+                                       .toArray());
+    }
+
+    @Test
+    public void testMap() {
+        System.out.println("map");
+        assertArrayEquals(new int[] { 1, 4, 9 },
+                          IntEnumerator.rangeClosed(1, 3)
+                                       .map(x -> x*x)
+                                       .toArray());
+        IntEnumerator en = IntEnumerator.on(1);
+        for(int i=0; i<10000; ++i) {
+            en = en.map(x -> x+1);
+        }
+        assertEquals(10001, en.sum());
+    }
+
+    @Test
+    public void testMapToLong() {
+        System.out.println("mapToLong");
+        assertEquals(3L*Integer.MAX_VALUE,
+                     IntEnumerator.on(Integer.MAX_VALUE,
+                                      Integer.MAX_VALUE,
+                                      Integer.MAX_VALUE)
+                                  .mapToLong(x -> x)
+                                  .sum());
+        assertEquals(3L*Integer.MAX_VALUE,
+                     IntEnumerator.on(Integer.MAX_VALUE,
+                                      Integer.MAX_VALUE,
+                                      Integer.MAX_VALUE)
+                                  .asLongEnumerator()
+                                  .sum());
+    }
+
+    @Test
+    public void testMapToDouble() {
+        System.out.println("mapToDouble");
+        assertEquals(1.5, IntEnumerator.on(1, 2)
+                                       .mapToDouble(x -> x/2.0)
+                                       .sum(),
+                     0.0);
+        assertEquals(3.0, IntEnumerator.on(1, 2)
+                                       .asDoubleEnumerator()
+                                       .sum(),
+                     0.0);
+    }
+
+    @Test
+    public void testMapToObj() {
+        System.out.println("mapToObj");
+        assertEquals(Arrays.asList("1", "2"),
+                     IntEnumerator.on(1, 2)
+                                  .mapToObj(Integer::toString)
+                                  .toList());
+        assertEquals(Arrays.asList(1, 2),
+                     IntEnumerator.on(1, 2).boxed().toList());
+    }
+
+    @Test
+    public void testLimit() {
+        System.out.println("limit");
+        final MutableInt peeked = new MutableInt(0);
+        assertArrayEquals(new int[] { 0, 1, 2 },
+                          IntEnumerator.iterate(0, x -> x+1)
+                                       .peek(x -> peeked.increment())
+                                       .limit(3)
+                                       .toArray());
+        assertEquals(3, peeked.intValue());
+        assertEquals(0, IntEnumerator.range(0, 10).limit(0).count());
+    }
+
+    @Test
+    public void testSkip() {
+        System.out.println("skip");
+        assertArrayEquals(new int[] { 8, 9 },
+                          IntEnumerator.range(0, 10).skip(8).toArray());
+        assertEquals(0, IntEnumerator.range(0, 10).skip(20).count());
+    }
+
+    @Test
+    public void testTakeWhile() {
+        System.out.println("takeWhile");
+        assertArrayEquals(new int[] { 0, 1, 2 },
+                          IntEnumerator.iterate(0, x -> x+1)
+                                       .takeWhile(x -> x < 3)
+                                       .toArray());
+    }
+
+    @Test
+    public void testMinMax() {
+        System.out.println("minMax");
+        assertEquals(OptionalInt.of(-3), IntEnumerator.on(2, -3, 5).min());
+        assertEquals(OptionalInt.of(5), IntEnumerator.on(2, -3, 5).max());
+        assertFalse(IntEnumerator.empty().min().isPresent());
+        assertFalse(IntEnumerator.empty().max().isPresent());
+    }
+
+    @Test
+    public void testAverage() {
+        System.out.println("average");
+        assertEquals(2.5, IntEnumerator.range(1, 5).average().getAsDouble(),
+                     0.0);
+        assertFalse(IntEnumerator.empty().average().isPresent());
+    }
+
+    @Test
+    public void testReduce() {
+        System.out.println("reduce");
+        assertEquals(24, IntEnumerator.rangeClosed(1, 4)
+                                      .reduce(1, (x,y) -> x*y));
+        assertEquals(OptionalInt.of(10),
+                     IntEnumerator.rangeClosed(1, 4).reduce(Integer::sum));
+        assertFalse(IntEnumerator.empty().reduce(Integer::sum).isPresent());
+    }
+
+    @Test
+    public void testSummaryStatistics() {
+        System.out.println("summaryStatistics");
+        final IntSummaryStatistics stats = IntEnumerator.rangeClosed(1, 100)
+                                                        .filter(x -> x > 50)
+                                                        .summaryStatistics();
+        assertEquals(50, stats.getCount());
+        assertEquals(51, stats.getMin());
+        assertEquals(100, stats.getMax());
+        assertEquals(3775, stats.getSum());
+    }
+
+    @Test
+    public void testMapToInt() {
+        System.out.println("mapToInt");
+        assertEquals(6, Enumerator.on("a", "bb", "ccc")
+                                  .mapToInt(String::length)
+                                  .sum());
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LongEnumerableTest {
+
+    public LongEnumerableTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testEnumerator() {
+        System.out.println("enumerator");
+        final LongEnumerable en = LongEnumerable.on(1, 2, 3);
+        assertArrayEquals(new long[] { 1, 2, 3 }, en.toArray());
+        assertArrayEquals(new long[] { 1, 2, 3 }, en.toArray());
+        assertEquals(0, LongEnumerable.empty().count());
+        long sum = 0;
+        for(long x : en) {
+            sum += x;
+        }
+        assertEquals(6, sum);
+    }
+
+    @Test
+    public void testComposition() {
+        System.out.println("composition");
+        final LongEnumerable en = LongEnumerable.range(0, 10)
+                                                .filter(x -> x % 2 == 0)
+                                                .map(x -> x * 10)
+                                                .skip(1)
+                                                .limit(3);
+        assertArrayEquals(new long[] { 20, 40, 60 }, en.toArray());
+        assertArrayEquals(new long[] { 20, 40, 60 }, en.toArray());
+        assertArrayEquals(new int[] { 2, 4, 6 },
+                          en.mapToInt(x -> (int)x / 10).toArray());
+        assertTrue(en.boxed().elementsEqual(Enumerable.on(20L, 40L, 60L)));
+        assertArrayEquals(new long[] { 60, 40, 20 }, en.reverse().toArray());
+        assertEquals(OptionalLong.of(60), en.last());
+        assertEquals(OptionalLong.of(40), en.elementAt(1));
+        assertFalse(en.elementAt(3).isPresent());
+        assertTrue(en.contains(40));
+        assertFalse(en.contains(30));
+        assertEquals(120, en.sum());
+        assertEquals(120, en.asStream().sum());
+    }
+
+    @Test
+    public void testRange() {
+        System.out.println("range");
+        assertArrayEquals(new long[] { 1, 4, 7 },
+                          LongEnumerable.range(1, 10, 3).toArray());
+        assertArrayEquals(new long[] { 1, 4, 7, 10 },
+                          LongEnumerable.rangeClosed(1, 10, 3).toArray());
+        assertArrayEquals(new long[] { 10, 8, 6 },
+                          LongEnumerable.range(10, 4, -2).toArray());
+        assertArrayEquals(new long[] { 10, 8, 6, 4 },
+                          LongEnumerable.rangeClosed(10, 4, -2).toArray());
+        assertEquals(0, LongEnumerable.range(5, 5).count());
+        assertEquals(0, LongEnumerable.range(5, 10, -1).count());
+        assertEquals(1, LongEnumerable.rangeClosed(5, 5).count());
+    }
+
+    @Test
+    public void testHugeRange() {
+        System.out.println("hugeRange");
+        final LongEnumerable en = LongEnumerable.rangeClosed(0,
+                                                             Long.MAX_VALUE-1);
+        assertEquals(Long.MAX_VALUE, en.count());
+        assertEquals(OptionalLong.of(Long.MAX_VALUE-1), en.last());
+        assertEquals(OptionalLong.of(1L << 40), en.elementAt(1L << 40));
+        assertTrue(en.contains(Long.MAX_VALUE-1));
+        assertFalse(en.contains(-1));
+        assertArrayEquals(new long[] { Long.MAX_VALUE-2, Long.MAX_VALUE-1 },
+                          en.skip(Long.MAX_VALUE-2).toArray());
+        assertArrayEquals(new long[] { Long.MAX_VALUE-1, Long.MAX_VALUE-2 },
+                          en.reverse().limit(2).toArray());
+
+        final LongEnumerable wide = LongEnumerable.rangeClosed(Long.MIN_VALUE,
+                                                               Long.MAX_VALUE,
+                                                               Long.MAX_VALUE);
+        assertArrayEquals(new long[] { Long.MIN_VALUE, -1, Long.MAX_VALUE-1 },
+                          wide.toArray());
+        assertTrue(wide.contains(-1));
+        assertFalse(wide.contains(0));
+    }
+
+    @Test
+    public void testSteppedQueries() {
+        System.out.println("steppedQueries");
+        final LongEnumerable en = LongEnumerable.range(100, 0, -7);
+        final long[] values = en.enumerator().toArray();
+        assertEquals(values.length, en.count());
+        assertEquals(OptionalLong.of(values[values.length-1]), en.last());
+        assertEquals(OptionalLong.of(values[values.length-1]), en.min());
+        assertEquals(OptionalLong.of(100), en.max());
+        for(int i=0; i<values.length; ++i) {
+            assertEquals(OptionalLong.of(values[i]), en.elementAt(i));
+            assertTrue(en.contains(values[i]));
+            assertFalse(en.contains(values[i]+1));
+            assertArrayEquals(LongEnumerator.on(values).skip(i).toArray(),
+                              en.skip(i).toArray());
+        }
+        assertFalse(en.contains(100+7));
+        assertFalse(en.contains(values[values.length-1]-7));
+        assertEquals(LongEnumerator.on(values).sum(),
+                     en.reverse().sum());
+        assertEquals(OptionalLong.of(100), en.reverse().last());
+        assertEquals(OptionalLong.of(values[1]),
+                     en.reverse().reverse().elementAt(1));
+    }
+
+    @Test
+    public void testSpliterator() {
+        System.out.println("spliterator");
+        final Spliterator.OfLong right = LongEnumerable.range(0, 1000)
+                                                       .spliterator();
+        assertTrue(right.hasCharacteristics(Spliterator.SUBSIZED));
+        final Spliterator.OfLong left = right.trySplit();
+        assertEquals(500, left.estimateSize());
+        assertEquals(500, right.estimateSize());
+        final long[] first = new long[1];
+        assertTrue(right.tryAdvance((long x) -> first[0] = x));
+        assertEquals(500, first[0]);
+        assertEquals(1000L*999/2,
+                     LongEnumerable.range(0, 1000).asStream().parallel().sum());
+        assertEquals(999L*1000*1999/6,
+                     LongEnumerable.range(0, 1000)
+                                   .asStream()
+                                   .parallel()
+                                   .map(x -> x*x)
+                                   .sum());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroStep() {
+        System.out.println("zeroStep");
+        LongEnumerable.range(0, 10, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRangeTooLarge() {
+        System.out.println("rangeTooLarge");
+        LongEnumerable.rangeClosed(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.Arrays;
+import java.util.LongSummaryStatistics;
+import java.util.OptionalLong;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LongEnumeratorTest {
+
+    public LongEnumeratorTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testOn() {
+        System.out.println("on");
+        assertArrayEquals(new long[] { 1, 2, 3 },
+                          LongEnumerator.on(1, 2, 3).toArray());
+        assertFalse(LongEnumerator.empty().hasNext());
+    }
+
+    @Test
+    public void testRange() {
+        System.out.println("range");
+        final long start = Integer.MAX_VALUE;
+        assertArrayEquals(new long[] { start, start+1 },
+                          LongEnumerator.range(start, start+2).toArray());
+        assertEquals(3, LongEnumerator.rangeClosed(1, 3).count());
+    }
+
+    @Test
+    public void testIterate() {
+        System.out.println("iterate");
+        assertEquals(1L << 40, LongEnumerator.iterate(1, x -> 2*x)
+                                             .skip(40)
+                                             .limit(1)
+                                             .sum());
+    }
+
+    @Test
+    public void testFilterMap() {
+        System.out.println("filterMap");
+        assertArrayEquals(new long[] { 0, 20, 40 },
+                          LongEnumerator.range(0, 5)
+                                        .filter(x -> x % 2 == 0)
+                                        .map(x -> x*10)
+                                        .toArray());
+    }
+
+    @Test
+    public void testMapToInt() {
+        System.out.println("mapToInt");
+        assertArrayEquals(new int[] { 0, 1, 0, 1 },
+                          LongEnumerator.range(0, 4)
+                                        .mapToInt(x -> (int)(x % 2))
+                                        .toArray());
+        assertEquals(10L, Enumerator.on(1L, 2L, 3L, 4L)
+                                    .mapToLong(x -> x)
+                                    .sum());
+    }
+
+    @Test
+    public void testMapToDouble() {
+        System.out.println("mapToDouble");
+        assertEquals(0.5, LongEnumerator.on(1)
+                                        .mapToDouble(x -> x/2.0)
+                                        .sum(),
+                     0.0);
+        assertEquals(1.0, LongEnumerator.on(1)
+                                        .asDoubleEnumerator()
+                                        .sum(),
+                     0.0);
+    }
+
+    @Test
+    public void testMapToObj() {
+        System.out.println("mapToObj");
+        assertEquals(Arrays.asList(1L, 2L),
+                     LongEnumerator.on(1, 2).boxed().toList());
+    }
+
+    @Test
+    public void testTakeWhile() {
+        System.out.println("takeWhile");
+        assertEquals(3, LongEnumerator.iterate(0, x -> x+1)
+                                      .takeWhile(x -> x < 3)
+                                      .count());
+    }
+
+    @Test
+    public void testAggregates() {
+        System.out.println("aggregates");
+        assertEquals(OptionalLong.of(1), LongEnumerator.on(3, 1, 2).min());
+        assertEquals(OptionalLong.of(3), LongEnumerator.on(3, 1, 2).max());
+        assertEquals(2.0, LongEnumerator.on(3, 1, 2).average().getAsDouble(),
+                     0.0);
+        assertEquals(6, LongEnumerator.on(3, 1, 2).reduce(1, (x,y) -> x*y));
+        assertEquals(OptionalLong.of(6),
+                     LongEnumerator.on(3, 1, 2).reduce(Long::sum));
+        final LongSummaryStatistics stats =
+                LongEnumerator.rangeClosed(1, 1000).summaryStatistics();
+        assertEquals(1000, stats.getCount());
+        assertEquals(500500, stats.getSum());
+        assertEquals(1000L*1001*2001/6,
+                     LongEnumerator.rangeClosed(1, 1000)
+                                   .map(x -> x*x)
+                                   .sum());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MapBatchedPipeProcessorTest {
+
+    public MapBatchedPipeProcessorTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+        batches = new ArrayList<>();
+        processor = new MapBatchedPipeProcessor<>(keys -> {
+            batches.add(new ArrayList<>(keys));
+            return keys.stream()
+                       .map(x -> (Integer)x*10)
+                       .collect(Collectors.toList());
+        }, 3, -1);
+    }
+
+    List<List<Object>>                     batches;
+    MapBatchedPipeProcessor<Object,Object> processor;
+
+    @After
+    public void tearDown() {
+        batches = null;
+        processor = null;
+    }
+
+    @Test
+    public void testNeedsValue() {
+        System.out.println("needsValue");
+        assertTrue(processor.needsValue());
+        processor.processInputValue(1);
+        assertTrue(processor.needsValue());
+        processor.processInputValue(2);
+        processor.processInputValue(3);
+        assertFalse(processor.needsValue());
+    }
+
+    @Test
+    public void testProcessInputValue() {
+        System.out.println("processInputValue");
+        processor.processInputValue(1);
+        processor.processInputValue(1);
+        assertFalse(processor.hasOutputValue());
+        processor.processInputValue(2);
+        assertTrue(processor.hasOutputValue());
+        assertEquals(Arrays.asList(Arrays.asList(1, 2)), batches);
+    }
+
+    @Test
+    public void testGetValue() {
+        System.out.println("getValue");
+        processor.processInputValue(2);
+        processor.processInputValue(1);
+        processor.processInputValue(2);
+        assertEquals(20, processor.getOutputValue());
+        assertEquals(10, processor.getOutputValue());
+        assertEquals(20, processor.getOutputValue());
+        assertFalse(processor.hasOutputValue());
+    }
+
+    @Test
+    public void testProcessInputEnd() {
+        System.out.println("processInputEnd");
+        assertFalse(processor.processInputEnd());
+        assertFalse(processor.hasOutputValue());
+        assertTrue(batches.isEmpty());
+        processor.processInputValue(4);
+        assertTrue(processor.processInputEnd());
+        assertEquals(40, processor.getOutputValue());
+        assertFalse(processor.processInputEnd());
+        assertEquals(Arrays.asList(Arrays.asList(4)), batches);
+    }
+
+    @Test
+    public void testMaxWait() {
+        System.out.println("maxWait");
+        final MapBatchedPipeProcessor<Object,Object> waiting =
+                new MapBatchedPipeProcessor<>(keys -> keys, 100, 0);
+        waiting.processInputValue(5);
+        assertEquals(5, waiting.getOutputValue());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIllegalResults() {
+        System.out.println("illegalResults");
+        new MapBatchedPipeProcessor<>(keys -> new ArrayList<>(), 1, -1)
+                .processInputValue(1);
+    }
+
+    @Test
+    public void testSizes() {
+        System.out.println("sizes");
+        assertEquals(5, processor.exactOutputSize(5));
+        assertEquals(0, processor.exactOutputSize(0));
+        assertEquals(-1, processor.exactOutputSize(-1));
+        assertEquals(Long.MAX_VALUE, processor.outputSize(Long.MAX_VALUE));
+    }
+}
@@ -76,6 +76,28 @@ public class MapPipeProcessorTest {
         assertEquals(2, processor.getOutputValue().intValue());
     }
 
+    @Test
+    public void testEnqueueMap() {
+        System.out.println("enqueueMap");
+        assertTrue(processor.enqueueMap(x -> x*2));
+        processor.processInputValue(1);
+        assertEquals(4, processor.getOutputValue().intValue());
+        assertTrue(processor.enqueueMap(x -> x-1));
+        processor.processInputValue(1);
+        assertEquals(3, processor.getOutputValue().intValue());
+    }
+
+    @Test
+    public void testPushFrontMap() {
+        System.out.println("pushFrontMap");
+        assertTrue(processor.pushFrontMap(x -> x));
+        processor.processInputValue(1);
+        assertEquals(2, processor.getOutputValue().intValue());
+        assertTrue(processor.pushFrontMap(x -> (Integer)x*3));
+        processor.processInputValue(1);
+        assertEquals(4, processor.getOutputValue().intValue());
+    }
+
     @Test
     public void testNextOnNoValue() {
         System.out.println("nextOnNoValue");
@@ -71,6 +71,50 @@ public class PipeEnumerableTest {
         assertTrue(Enumerable.on(1, 2, 3)
                              .enumerator()
                              .elementsEqual(Enumerator.on(1, 2, 3)));
+
+        final Enumerable<Integer> stamped = Enumerable.on(1, 2, 3, 4, 5, 6)
+                .map(x -> x*10)
+                .filter(x -> x > 10)
+                .skip(1)
+                .limit(3)
+                .flatMap(x -> Enumerable.on(x, -x));
+        for(int i=0; i<3; ++i) {
+            assertTrue(stamped.elementsEqual(
+                    Enumerable.on(30, -30, 40, -40, 50, -50)));
+        }
+        final PipeEnumerable<?,Integer> pipe =
+                (PipeEnumerable<?,Integer>)stamped;
+        assertTrue(pipe.rebuiltEnumerator()
+                       .elementsEqual(stamped.enumerator()));
+
+        final Enumerable<Integer> mixed = Enumerable.on(1, 2, 2, 3)
+                .map(x -> x+1)
+                .distinct()
+                .limit(2)
+                .concat(Enumerable.on(7, 8))
+                .map((x,i) -> x*10+i.intValue())
+                .skipWhile(x -> x < 30);
+        for(int i=0; i<3; ++i) {
+            assertTrue(mixed.elementsEqual(Enumerable.on(31, 72, 83)));
+        }
+
+        final Enumerable<Integer> swapped = Enumerable.on(1, 1, 2, 3)
+                .distinct()
+                .map(x -> x*10)
+                .limit(2);
+        for(int i=0; i<3; ++i) {
+            assertTrue(swapped.elementsEqual(Enumerable.on(10, 20)));
+        }
+
+        final Enumerable<Integer> tuned = Enumerable.on(1, 2, 3, 4, 5, 6)
+                .compiled()
+                .adaptiveFilters()
+                .filter(x -> x % 2 == 0)
+                .map(x -> x+1)
+                .takeWhile(x -> x < 7);
+        for(int i=0; i<3; ++i) {
+            assertTrue(tuned.elementsEqual(Enumerable.on(3, 5)));
+        }
     }
 
     @Test
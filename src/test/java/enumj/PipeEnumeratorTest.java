@@ -23,12 +23,20 @@
  */
 package enumj;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.mutable.MutableLong;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 
 public class PipeEnumeratorTest {
 
@@ -139,6 +147,177 @@ public class PipeEnumeratorTest {
                        .elementsEqual(Enumerator.rangeInt(-100, 100)));
     }
 
+    @Test
+    public void testEnsureChain() {
+        System.out.println("ensureChain");
+        source = Enumerator.on(1, 2, 3, 4, 5, 6);
+        pipe = (PipeEnumerator<Integer>)PipeEnumerator.of(source)
+                .filter(x -> x > 1)
+                .filter(x -> x < 6)
+                .flatMap(x -> Enumerator.on(x, -x))
+                .map(x -> x*10)
+                .map(x -> x+1)
+                .limit(5)
+                .concat(Enumerator.on(7, 8))
+                .filter(x -> x != 8);
+        assertTrue(pipe.elementsEqual(
+                Enumerator.on(21, -19, 31, -29, 41, 7)));
+    }
+
+    @Test
+    public void testAdaptiveFilters() {
+        System.out.println("adaptiveFilters");
+        final List<Long> evaluations = new ArrayList<>();
+        final List<List<Integer>> results = new ArrayList<>();
+        for(boolean adaptive : new boolean[] { false, true }) {
+            final MutableLong count = new MutableLong(0);
+            Enumerator<Integer> en = Enumerator.rangeInt(0, 100000);
+            if (adaptive) {
+                en = en.adaptiveFilters();
+            }
+            for(int i=0; i<20; ++i) {
+                en = en.filter(x -> {
+                    count.increment();
+                    return x >= 0;
+                });
+            }
+            results.add(en.filter(x -> {
+                              count.increment();
+                              return x % 100 == 0;
+                          })
+                          .map(x -> x/100)
+                          .toList());
+            evaluations.add(count.longValue());
+        }
+        assertEquals(1000, results.get(0).size());
+        assertEquals(results.get(0), results.get(1));
+        assertTrue(evaluations.get(1) * 3 < evaluations.get(0));
+
+        assertEquals(10000, Enumerator.rangeInt(0, 100000)
+                                      .map(x -> x % 10 == 0
+                                                ? null
+                                                : x % 10 < 9 ? "ab" : "abcd")
+                                      .adaptiveFilters()
+                                      .filter(s -> s != null)
+                                      .filter(s -> s.length() > 3)
+                                      .count());
+    }
+
+    @Test
+    public void testCompiled() {
+        System.out.println("compiled");
+        final List<List<Integer>> results = new ArrayList<>();
+        for(boolean compiled : new boolean[] { false, true }) {
+            Enumerator<Integer> en = Enumerator.rangeInt(0, 1000);
+            if (compiled) {
+                en = en.compiled();
+            }
+            results.add(en.map(x -> x+1)
+                          .filter(x -> x % 3 != 0)
+                          .skip(5)
+                          .map(x -> x*2)
+                          .limit(100)
+                          .concat(Enumerator.on(1, 2, 3))
+                          .filter(x -> x != 2)
+                          .flatMap(x -> Enumerator.on(x, -x))
+                          .map(x -> x-1)
+                          .skip(3)
+                          .limit(150)
+                          .toList());
+        }
+        assertEquals(150, results.get(0).size());
+        assertEquals(results.get(0), results.get(1));
+
+        pipe = (PipeEnumerator<Integer>)Enumerator.on(1, 2, 3, 4, 5)
+                                                  .compiled();
+        pipe = (PipeEnumerator<Integer>)pipe.map(x -> x*10)
+                                            .filter(x -> x > 10)
+                                            .limit(2);
+        assertTrue(pipe.hasNext());
+        assertTrue(pipe.elementsEqual(Enumerator.on(20, 30)));
+
+        Enumerator<Integer> chained = Enumerator.on(-1);
+        for(int i=0; i<100; ++i) {
+            final int k = i;
+            chained = Enumerator.on(k, -k)
+                                .map(x -> x+k)
+                                .filter(x -> x != 0)
+                                .concat(chained);
+        }
+        pipe = (PipeEnumerator<Integer>)chained.compiled();
+        assertEquals(100, pipe.plan().size());
+        assertEquals(Integer.valueOf(198), pipe.next());
+        assertEquals(Integer.valueOf(196), pipe.next());
+        assertTrue(pipe.hasNext());
+        assertEquals(Collections.nCopies(98, "compiled(MF)"), pipe.plan());
+        assertTrue(pipe.elementsEqual(Enumerator.rangeInt(1, 98)
+                                                .map(x -> 2*(98-x))
+                                                .append(-1)));
+    }
+
+    @Test
+    public void testPlan() {
+        System.out.println("plan");
+        source = Enumerator.rangeInt(0, 100);
+        pipe = (PipeEnumerator<Integer>)PipeEnumerator.of(source)
+                .skip(3)
+                .skip(4)
+                .map(x -> x*2)
+                .limit(10)
+                .limit(5)
+                .limit(Long.MAX_VALUE);
+        assertEquals(Arrays.asList("slice(7,5)", "map(1)"), pipe.plan());
+        assertTrue(pipe.elementsEqual(Enumerator.on(14, 16, 18, 20, 22)));
+        assertTrue(pipe.plan().isEmpty());
+
+        pipe = (PipeEnumerator<Integer>)PipeEnumerator.of(
+                Enumerator.on(0, 1, 2, 3, 4, 5, 6, 7, 8, 9))
+                .skip(8)
+                .concat(Enumerator.on(10, 11))
+                .skip(1)
+                .limit(2);
+        assertEquals(Arrays.asList("skip(0)", "slice(1,2)"), pipe.plan());
+        assertTrue(pipe.elementsEqual(Enumerator.on(9, 10)));
+
+        pipe = (PipeEnumerator<Integer>)PipeEnumerator.of(
+                Enumerator.on(1, 2, 3, 4))
+                .compiled()
+                .map(x -> x+1)
+                .limit(3)
+                .filter(x -> x > 2);
+        assertEquals(Arrays.asList("compiled(SMF)"), pipe.plan());
+        assertTrue(pipe.elementsEqual(Enumerator.on(3, 4)));
+    }
+
+    @Test
+    public void testGraft() {
+        System.out.println("graft");
+        final List<AbstractPipeProcessor> processors = new ArrayList<>();
+        source = Enumerator.on(1, 2, 3);
+        pipe = (PipeEnumerator<Integer>)PipeEnumerator.of(source)
+                .map(x -> x+1)
+                .filter(x -> x > 2)
+                .limit(Long.MAX_VALUE);
+        assertSame(source, pipe.graft(processors));
+        assertEquals(Arrays.asList("map(1)", "filter(1)"),
+                     PipeOptimizer.describe(processors));
+        assertFalse(pipe.hasNext());
+
+        processors.clear();
+        pipe = (PipeEnumerator<Integer>)PipeEnumerator.of(source)
+                .concat(Enumerator.on(4));
+        assertNull(pipe.graft(processors));
+        pipe = (PipeEnumerator<Integer>)PipeEnumerator.of(Enumerator.on(1))
+                .flatMap(x -> Enumerator.on(x));
+        assertNull(pipe.graft(processors));
+        pipe = (PipeEnumerator<Integer>)PipeEnumerator.of(Enumerator.on(1))
+                .map(x -> x);
+        assertTrue(pipe.hasNext());
+        assertNull(pipe.graft(processors));
+        assertTrue(processors.isEmpty());
+        assertEquals(1, pipe.next().intValue());
+    }
+
     @Test
     public void testTryPipelineIn() {
         System.out.println("tryPipelineIn");
@@ -228,6 +407,32 @@ public class PipeEnumeratorTest {
         System.out.println("internalHasNext");
     }
 
+    @Test
+    public void testInternalPushWhile() {
+        System.out.println("internalPushWhile");
+        assertEquals(199, pipe.filter(x -> x != 0).count());
+
+        pipe = (PipeEnumerator<Integer>)PipeEnumerator.of(Enumerator.rangeInt(-100, 100))
+                .skipWhile(x -> x < 0)
+                .filter(x -> x % 2 == 0)
+                .concat(Enumerator.on(-1, -2))
+                .map(x -> x+1)
+                .limit(52);
+        assertTrue(pipe.hasNext());
+        assertTrue(pipe.anyMatch(x -> x == 3));
+        assertEquals(5, pipe.next().intValue());
+        assertEquals((7+99)*47/2-1, pipe.reduce(0, (x,y) -> x+y).intValue());
+        assertFalse(pipe.hasNext());
+
+        pipe = (PipeEnumerator<Integer>)PipeEnumerator.of(Enumerator.rangeInt(-100, 100))
+                .takeWhile(x -> x < -97)
+                .concat(Enumerator.on(1, 2))
+                .flatMap(x -> Enumerator.on(x, x))
+                .concat(Enumerator.on(3));
+        assertTrue(pipe.elementsEqual(
+                Enumerator.on(-100, -100, -99, -99, -98, -98, 1, 1, 2, 2, 3)));
+    }
+
     @Test
     public void testInternalNext() {
         System.out.println("internalNext");
@@ -246,11 +451,78 @@ public class PipeEnumeratorTest {
     @Test
     public void testTryGetNext() {
         System.out.println("tryGetNext");
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        final Integer[] elements = new Integer[100_000];
+        for(int i=0; i<elements.length; ++i) {
+            elements[i] = i;
+        }
+        final long threadId = Thread.currentThread().getId();
+        long allocated = 0;
+        for(int i=0; i<3; ++i) {
+            final Enumerator<Integer> en = Enumerator.on(elements)
+                    .skipWhile(x -> x < 10)
+                    .filter(x -> (x & 1) == 0)
+                    .map(x -> x);
+            final long before = threads.getThreadAllocatedBytes(threadId);
+            long count = 0;
+            while(en.hasNext()) {
+                en.next();
+                ++count;
+            }
+            final long after = threads.getThreadAllocatedBytes(threadId);
+            assertEquals((elements.length - 10) / 2, count);
+            allocated = Math.max(allocated, after - before);
+        }
+        // a single object per element would amount to megabytes,
+        // even before the JIT compiler gets the chance to elide it
+        assertTrue("allocated " + allocated + " bytes", allocated < 16384);
     }
 
     @Test
     public void testConcat() {
         System.out.println("concat");
+        assertTrue(Enumerator.on(1)
+                             .map(x -> x+1)
+                             .concat(Enumerator.on(10))
+                             .concat(Enumerator.on(20))
+                             .map(x -> x*100)
+                             .elementsEqual(Enumerator.on(200, 1000, 2000)));
+
+        Enumerator<Integer> en = Enumerator.on(0);
+        for(int i=1; i<5000; ++i) {
+            final int k = i;
+            en = en.concat(Enumerator.on(i).map(x -> x+k));
+        }
+        pipe = (PipeEnumerator<Integer>)en.map(x -> x/2);
+        assertEquals(5000, pipe.plan().size());
+        assertTrue(pipe.elementsEqual(Enumerator.rangeInt(0, 5000)));
+
+        en = Enumerator.on(0);
+        for(int i=1; i<5000; ++i) {
+            final int k = i;
+            en = Enumerator.on(i).map(x -> x+k).concat(en);
+        }
+        pipe = (PipeEnumerator<Integer>)en.map(x -> x/2);
+        assertEquals(5000, pipe.plan().size());
+        assertTrue(pipe.elementsEqual(Enumerator.rangeInt(0, 5000)
+                                                .map(x -> 4999-x)));
+
+        final PipeEnumerator<Integer> other =
+                (PipeEnumerator<Integer>)Enumerator.on(3, 4).map(x -> -x);
+        pipe = (PipeEnumerator<Integer>)Enumerator.on(1, 2)
+                                                  .limit(1)
+                                                  .concat(other)
+                                                  .compiled()
+                                                  .map(x -> x*10)
+                                                  .filter(x -> x != -40);
+        assertTrue(pipe.elementsEqual(Enumerator.on(10, -30)));
+        assertFalse(other.hasNext());
     }
 
     @Test
@@ -315,6 +587,25 @@ public class PipeEnumeratorTest {
     @Test
     public void testReversedConcat() {
         System.out.println("reversedConcat");
+        assertTrue(Enumerable.on(1)
+                             .map(x -> x+1)
+                             .concat(Enumerable.on(10))
+                             .concat(Enumerable.on(20))
+                             .map(x -> x*100)
+                             .elementsEqual(Enumerable.on(200, 1000, 2000)));
+        assertTrue(Enumerable.on(1, 2)
+                             .map(x -> x+1)
+                             .concat(Enumerable.on(10, 11).map(x -> -x))
+                             .prepend(Enumerable.on(7).map(x -> x*3))
+                             .map(x -> x*100)
+                             .elementsEqual(Enumerable.on(2100, 200, 300,
+                                                          -1000, -1100)));
+
+        Enumerable<Integer> en = Enumerable.on(0);
+        for(int i=1; i<5; ++i) {
+            en = en.concat(Enumerable.on(i).map(x -> x*10)).map(x -> x+1);
+        }
+        assertTrue(en.elementsEqual(Enumerable.on(4, 14, 23, 32, 41)));
     }
 
     @Test
@@ -410,6 +701,16 @@ public class PipeEnumeratorTest {
                              .map(x -> x)
                              .prepend(Enumerator.on(1, 2, 3, 4))
                              .elementsEqual(Enumerator.on(1, 2, 3, 4, 5, 6)));
+        assertTrue(Enumerator.on(5, 6)
+                             .map(x -> x*10)
+                             .prepend(Enumerator.on(1, 2))
+                             .elementsEqual(Enumerator.on(1, 2, 50, 60)));
+
+        Enumerator<Integer> en = Enumerator.on(0);
+        for(int i=1; i<5; ++i) {
+            en = en.prepend(Enumerator.on(i).map(x -> x*10)).map(x -> x+1);
+        }
+        assertTrue(en.elementsEqual(Enumerator.on(41, 32, 23, 14, 4)));
     }
 
     @Test
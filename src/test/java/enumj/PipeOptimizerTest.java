@@ -0,0 +1,160 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Marius Filip.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package enumj;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class PipeOptimizerTest {
+
+    public PipeOptimizerTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+        pipeline = new LinkedList<>();
+        source = PipeSource.of(Enumerator.on(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        sources = new LinkedList<>(Arrays.asList(source));
+    }
+
+    LinkedList<AbstractPipeProcessor> pipeline;
+    LinkedList<PipeSource> sources;
+    PipeSource<Integer> source;
+
+    @After
+    public void tearDown() {
+        pipeline = null;
+        sources = null;
+        source = null;
+    }
+
+    private void enqueue(AbstractPipeProcessor processor) {
+        if (!pipeline.isEmpty()) {
+            pipeline.getLast().setNext(processor);
+        }
+        pipeline.add(processor);
+        source.setFirstProcessorIfNone(processor);
+        processor.setSource(source);
+    }
+
+    @Test
+    public void testOptimize() {
+        System.out.println("optimize");
+        assertFalse(PipeOptimizer.optimize(pipeline, sources));
+
+        enqueue(new SkipPipeProcessor(1));
+        enqueue(new SkipPipeProcessor(2));
+        enqueue(new MapPipeProcessor<Integer,Integer>(x -> x*10));
+        enqueue(new LimitPipeProcessor(Long.MAX_VALUE));
+        enqueue(new LimitPipeProcessor(5));
+        enqueue(new LimitPipeProcessor(4));
+        enqueue(new MapPipeProcessor<Integer,Integer>(x -> x+1));
+        enqueue(new FilterPipeProcessor<Integer>(x -> x > 0));
+        enqueue(new FilterPipeProcessor<Integer>(x -> x < 100));
+        assertTrue(PipeOptimizer.optimize(pipeline, sources));
+        assertEquals(Arrays.asList("slice(3,4)", "map(2)", "filter(2)"),
+                     PipeOptimizer.describe(pipeline));
+        assertSame(pipeline.getFirst(), source.getFirstProcessor());
+        assertSame(pipeline.get(1), pipeline.get(0).getNext());
+        assertSame(pipeline.get(2), pipeline.get(1).getNext());
+        assertNull(pipeline.get(2).getNext());
+        assertFalse(PipeOptimizer.optimize(pipeline, sources));
+    }
+
+    @Test
+    public void testOptimizeFirstProcessors() {
+        System.out.println("optimize first processors");
+        enqueue(new LimitPipeProcessor(5));
+        final PipeSource<Integer> other = PipeSource.of(Enumerator.on(1));
+        sources.add(other);
+        final LimitPipeProcessor limit = new LimitPipeProcessor(3);
+        pipeline.getLast().setNext(limit);
+        pipeline.add(limit);
+        other.setFirstProcessorIfNone(limit);
+        limit.setSource(other);
+        assertFalse(PipeOptimizer.optimize(pipeline, sources));
+        assertEquals(Arrays.asList("limit(5)", "limit(3)"),
+                     PipeOptimizer.describe(pipeline));
+    }
+
+    @Test
+    public void testOptimizeDropsFirstProcessor() {
+        System.out.println("optimize drops first processor");
+        enqueue(new LimitPipeProcessor(Long.MAX_VALUE));
+        assertTrue(PipeOptimizer.optimize(pipeline, sources));
+        assertTrue(pipeline.isEmpty());
+        assertNull(source.getFirstProcessor());
+    }
+
+    @Test
+    public void testSkipAhead() {
+        System.out.println("skipAhead");
+        assertEquals(0, PipeOptimizer.skipAhead(pipeline, sources));
+        enqueue(new SkipPipeProcessor(3));
+        assertEquals(3, PipeOptimizer.skipAhead(pipeline, sources));
+        assertEquals(Arrays.asList("skip(0)"),
+                     PipeOptimizer.describe(pipeline));
+        assertEquals(3, source.next().intValue());
+
+        setUp();
+        enqueue(new SlicePipeProcessor(20, 1));
+        assertEquals(10, PipeOptimizer.skipAhead(pipeline, sources));
+        assertEquals(Arrays.asList("slice(10,1)"),
+                     PipeOptimizer.describe(pipeline));
+        assertFalse(source.hasNext());
+
+        setUp();
+        source = PipeSource.of(Arrays.asList(1, 2, 3).iterator());
+        sources = new LinkedList<>(Arrays.asList(source));
+        enqueue(new SkipPipeProcessor(2));
+        assertEquals(0, PipeOptimizer.skipAhead(pipeline, sources));
+    }
+
+    @Test
+    public void testDescribe() {
+        System.out.println("describe");
+        final List<AbstractPipeProcessor> processors = Arrays.asList(
+                new FlatMapPipeProcessor<Integer,Integer>(
+                        x -> Enumerator.on(x)),
+                new WhilePipeProcessor<Integer>(x -> true),
+                new SkipWhilePipeProcessor<Integer>(x -> false));
+        assertEquals(Arrays.asList("flatMap", "takeWhile", "skipWhile"),
+                     PipeOptimizer.describe(processors));
+    }
+}
@@ -23,6 +23,9 @@
  */
 package enumj;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -201,6 +204,18 @@ public class TolerantEnumeratorTest {
                                 .elementsEqual(Enumerator.on(1, 2, 3)));
     }
 
+    @Test
+    public void testInternalTryNext() {
+        System.out.println("internalTryNext");
+        final List<Integer> values = new ArrayList<>();
+        while(it123_throw_next.tryNext(values::add)) {
+            // keep going
+        }
+        assertEquals(Arrays.asList(1, 3), values);
+        assertFalse(it123_throw_hasNext.tryNext(values::add));
+        assertEquals(2, values.size());
+    }
+
     @Test
     public void testCleanup() {
         System.out.println("cleanup");